@@ -32,7 +32,6 @@ import java.io.UnsupportedEncodingException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
@@ -43,15 +42,12 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
-import java.util.UUID;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import org.eclipse.jetty.util.security.Password;
 import org.onap.aai.aaf.auth.exceptions.AAIUnrecognizedFunctionException;
 import org.onap.aai.logging.ErrorLogHelper;
-import org.onap.aai.util.AAIConfig;
 import org.onap.aai.util.AAIConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -68,8 +64,8 @@ public final class AAIAuthCore {
     private String globalAuthFileName = AAIConstants.AAI_AUTH_CONFIG_FILENAME;
 
     private final Pattern authPolicyPattern;
-    private final Set<String> validFunctions = new HashSet<>();
-    private Map<String, AAIUser> users;
+    private final boolean versionedPolicyPattern;
+    private volatile AuthPolicy policy = AuthPolicy.empty();
     private boolean timerSet = false;
     private Timer timer = null;
 
@@ -86,6 +82,7 @@ public final class AAIAuthCore {
         this.basePath = basePath;
         this.globalAuthFileName = filename;
         authPolicyPattern = Pattern.compile("^" + this.basePath + "/v\\d+/([\\w\\-]*)");
+        versionedPolicyPattern = true;
         init();
     }
 
@@ -93,6 +90,7 @@ public final class AAIAuthCore {
         this.basePath = basePath;
         this.globalAuthFileName = filename;
         authPolicyPattern = Pattern.compile(pattern);
+        versionedPolicyPattern = false;
         init();
     }
 
@@ -146,11 +144,12 @@ public final class AAIAuthCore {
      * this essentially takes the data file, which is organized role-first with
      * users under each role and converts it to data organized user-first with
      * each user containing their role with its associated allowed functions
-     * this data stored in the class field users
+     * this data is compiled into the auth policy used by authorize
      */
     private synchronized void reloadUsers() {
 
         Map<String, AAIUser> tempUsers = new HashMap<>();
+        Set<String> tempFunctions = new HashSet<>();
 
         try {
             LOGGER.debug("Reading from " + globalAuthFileName);
@@ -172,7 +171,7 @@ public final class AAIAuthCore {
                             aaiFunctions.forEach(f -> {
                                 List<String> httpMethods = this.getRoleHttpMethods(f, roleObject);
                                 httpMethods.forEach(hm -> au.setUserAccess(f, hm));
-                                this.validFunctions.add(f);
+                                tempFunctions.add(f);
                             });
 
                             tempUsers.put(key, au);
@@ -181,7 +180,7 @@ public final class AAIAuthCore {
                     }
                 }
                 if (!tempUsers.isEmpty()) {
-                    users = tempUsers;
+                    policy = new AuthPolicy(tempUsers, tempFunctions);
                 }
             }
         } catch (FileNotFoundException e) {
@@ -264,6 +263,8 @@ public final class AAIAuthCore {
             authPolicyFunctionName = "util";
         } else if (uri.startsWith(basePath + "/tools")) {
             authPolicyFunctionName = "tools";
+        } else if (versionedPolicyPattern) {
+            authPolicyFunctionName = getVersionedFunctName(uri);
         } else {
             Matcher match = authPolicyPattern.matcher(uri);
             if (match.find()) {
@@ -273,6 +274,33 @@ public final class AAIAuthCore {
         return authPolicyFunctionName;
     }
 
+    /**
+     * Same as matching the default auth policy pattern, basePath/v\d+/([\w\-]*), without the regex.
+     */
+    private String getVersionedFunctName(String uri) {
+        String prefix = basePath + "/v";
+        if (!uri.startsWith(prefix)) {
+            return "";
+        }
+        int i = prefix.length();
+        int digits = i;
+        while (i < uri.length() && uri.charAt(i) >= '0' && uri.charAt(i) <= '9') {
+            i++;
+        }
+        if (i == digits || i == uri.length() || uri.charAt(i) != '/') {
+            return "";
+        }
+        int start = ++i;
+        while (i < uri.length() && isFunctionNameChar(uri.charAt(i))) {
+            i++;
+        }
+        return uri.substring(start, i);
+    }
+
+    private static boolean isFunctionNameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-';
+    }
+
     /**
      * for backwards compatibility
      *
@@ -301,15 +329,23 @@ public final class AAIAuthCore {
     public boolean authorize(String username, String uri, String httpMethod, String haProxyUser, String issuer)
             throws AAIUnrecognizedFunctionException {
         String aaiMethod = this.getAuthPolicyFunctName(uri);
-        if (!this.validFunctions.contains(aaiMethod) && !("info".equalsIgnoreCase(aaiMethod))) {
+        AuthPolicy current = this.policy;
+        if (!current.isValidFunction(aaiMethod) && !("info".equalsIgnoreCase(aaiMethod))) {
             throw new AAIUnrecognizedFunctionException(aaiMethod);
         }
-        boolean wildcardCheck = isWildcardIssuer(issuer);
+        // the decision only depends on these, not on the rest of the uri
+        String decisionKey =
+                String.join("\u0000", username, haProxyUser, String.valueOf(issuer), httpMethod, aaiMethod);
+        Boolean decision = current.getDecision(decisionKey);
+        if (decision != null) {
+            return decision;
+        }
+        boolean wildcardCheck = current.isWildcardIssuer(issuer);
         boolean authorized;
         LOGGER.debug(
                 "Authorizing the user for the request cert {}, haproxy header {}, aai method {}, httpMethod {}, cert issuer {}",
                 username, haProxyUser, aaiMethod, httpMethod, issuer);
-        Optional<AAIUser> oau = this.getUser(username, wildcardCheck);
+        Optional<AAIUser> oau = current.getUser(username, wildcardCheck);
         if (oau.isPresent()) {
             AAIUser au = oau.get();
             if (au.hasRole("HAProxy")) {
@@ -329,22 +365,10 @@ public final class AAIAuthCore {
             authorized = false;
         }
 
+        current.putDecision(decisionKey, authorized);
         return authorized;
     }
 
-    private boolean isWildcardIssuer(String issuer) {
-        if (issuer != null && !issuer.isEmpty()) {
-            List<String> validIssuers = Arrays
-                    .asList(AAIConfig.get("aaf.valid.issuer.wildcard", UUID.randomUUID().toString()).split("\\|"));
-            for (String validIssuer : validIssuers) {
-                if (issuer.contains(validIssuer)) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
     /**
      * returns aai user either matching the username or containing the wildcard.
      *
@@ -352,17 +376,7 @@ public final class AAIAuthCore {
      * @return
      */
     public Optional<AAIUser> getUser(String username, boolean wildcardCheck) {
-        if (users.containsKey(username)) {
-            return Optional.of(users.get(username));
-        } else if (wildcardCheck) {
-            List<AAIUser> laus =
-                    users.entrySet().stream().filter(e -> e.getValue().isWildcard() && username.contains(e.getKey()))
-                            .map(Map.Entry::getValue).collect(Collectors.toList());
-            if (!laus.isEmpty()) {
-                return Optional.of(laus.get(0));
-            }
-        }
-        return Optional.empty();
+        return policy.getUser(username, wildcardCheck);
     }
 
     /**
@@ -0,0 +1,119 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.aaf.auth;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.onap.aai.util.AAIConfig;
+
+/**
+ * The users and functions of one load of the auth policy file, and the decisions made with them.
+ * A new policy is built on each reload, so the decisions of the previous one are dropped with it.
+ */
+final class AuthPolicy {
+
+    static final int MAX_DECISIONS = 10000;
+
+    private final Map<String, AAIUser> users;
+    private final List<AAIUser> wildcardUsers;
+    private final Set<String> validFunctions;
+    private final Map<String, Boolean> decisions = new ConcurrentHashMap<>();
+    private volatile List<String> wildcardIssuers;
+
+    AuthPolicy(Map<String, AAIUser> users, Set<String> validFunctions) {
+        this.users = Collections.unmodifiableMap(new HashMap<>(users));
+        List<AAIUser> wildcards = new ArrayList<>();
+        for (AAIUser user : this.users.values()) {
+            if (user.isWildcard()) {
+                wildcards.add(user);
+            }
+        }
+        this.wildcardUsers = Collections.unmodifiableList(wildcards);
+        this.validFunctions = Collections.unmodifiableSet(new HashSet<>(validFunctions));
+    }
+
+    static AuthPolicy empty() {
+        return new AuthPolicy(Collections.emptyMap(), Collections.emptySet());
+    }
+
+    boolean isValidFunction(String aaiMethod) {
+        return validFunctions.contains(aaiMethod);
+    }
+
+    Optional<AAIUser> getUser(String username, boolean wildcardCheck) {
+        AAIUser user = users.get(username);
+        if (user != null) {
+            return Optional.of(user);
+        } else if (wildcardCheck) {
+            for (AAIUser wildcard : wildcardUsers) {
+                if (username.contains(wildcard.getUsername())) {
+                    return Optional.of(wildcard);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    boolean isWildcardIssuer(String issuer) {
+        if (issuer != null && !issuer.isEmpty()) {
+            for (String validIssuer : getWildcardIssuers()) {
+                if (issuer.contains(validIssuer)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    Boolean getDecision(String key) {
+        return decisions.get(key);
+    }
+
+    void putDecision(String key, boolean authorized) {
+        if (decisions.size() >= MAX_DECISIONS) {
+            decisions.clear();
+        }
+        decisions.put(key, authorized);
+    }
+
+    /**
+     * Read on first use rather than on load, as the policy is loaded before the aai config may be.
+     */
+    private List<String> getWildcardIssuers() {
+        List<String> issuers = wildcardIssuers;
+        if (issuers == null) {
+            issuers = Arrays
+                    .asList(AAIConfig.get("aaf.valid.issuer.wildcard", UUID.randomUUID().toString()).split("\\|"));
+            wildcardIssuers = issuers;
+        }
+        return issuers;
+    }
+}
@@ -23,6 +23,7 @@ package org.onap.aai.aaf.filters;
 import java.io.IOException;
 import java.security.cert.X509Certificate;
 import java.util.*;
+import java.util.regex.Pattern;
 
 import javax.security.auth.x500.X500Principal;
 import javax.servlet.FilterChain;
@@ -52,6 +53,8 @@ public class TwoWaySslAuthorization extends OrderedRequestContextFilter {
 
     public static final String MERGE_PATCH = "MERGE_PATCH";
 
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
     @Autowired
     private Environment environment;
 
@@ -61,6 +64,8 @@ public class TwoWaySslAuthorization extends OrderedRequestContextFilter {
     @Autowired
     private CadiProps cadiProps;
 
+    private volatile Set<String> cadiConfiguredIssuers;
+
     public TwoWaySslAuthorization() {
         this.setOrder(FilterPriority.TWO_WAY_SSL_AUTH.getPriority());
     }
@@ -75,19 +80,16 @@ public class TwoWaySslAuthorization extends OrderedRequestContextFilter {
         Optional<String> authUser = getUser(request);
 
         if (authUser.isPresent()) {
-            Properties cadiProperties = cadiProps.getCadiProperties();
-
             String issuer = CertUtil.getCertIssuer(request);
             if (issuer == null || issuer.isEmpty()) {
                 AAIException aaie = new AAIException("AAI_9107");
                 ResponseFormatter.errorResponse(aaie, request, response);
                 return;
             }
-            issuer = issuer.replaceAll("\\s+", "").toUpperCase();
+            issuer = WHITESPACE.matcher(issuer).replaceAll("").toUpperCase();
 
-            List<String> cadiConfiguredIssuers = CertUtil.getCadiCertIssuers(cadiProperties);
             boolean isAafAuthProfileActive = this.isAafAuthProfileActive();
-            if ((!isAafAuthProfileActive) || (!cadiConfiguredIssuers.contains(issuer))) {
+            if ((!isAafAuthProfileActive) || (!getCadiConfiguredIssuers().contains(issuer))) {
                 try {
                     this.authorize(uri, httpMethod, authUser.get(), this.getHaProxyUser(request), issuer);
                 } catch (AAIException e) {
@@ -103,6 +105,18 @@ public class TwoWaySslAuthorization extends OrderedRequestContextFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * The issuers are read from the cadi properties once, instead of on every request.
+     */
+    private Set<String> getCadiConfiguredIssuers() {
+        Set<String> issuers = cadiConfiguredIssuers;
+        if (issuers == null) {
+            issuers = new HashSet<>(CertUtil.getCadiCertIssuers(cadiProps.getCadiProperties()));
+            cadiConfiguredIssuers = issuers;
+        }
+        return issuers;
+    }
+
     private String getHttpMethod(HttpServletRequest request) {
         String httpMethod = request.getMethod();
         if ("POST".equalsIgnoreCase(httpMethod) && "PATCH".equals(request.getHeader(HTTP_METHOD_OVERRIDE))) {
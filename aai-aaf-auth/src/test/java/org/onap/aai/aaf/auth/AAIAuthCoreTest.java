@@ -27,6 +27,7 @@ import static org.junit.Assert.assertTrue;
 import org.junit.Before;
 import org.junit.Test;
 import org.onap.aai.aaf.auth.exceptions.AAIUnrecognizedFunctionException;
+import org.onap.aai.util.AAIConstants;
 
 public class AAIAuthCoreTest extends AAISetup {
 
@@ -66,6 +67,31 @@ public class AAIAuthCoreTest extends AAISetup {
 
     }
 
+    @Test
+    public void versionedFunctionNameMatchesThePolicyPatternTest() {
+        AAIAuthCore patternAuthCore =
+                new AAIAuthCore("/aai", AAIConstants.AAI_AUTH_CONFIG_FILENAME, "^/aai/v\\d+/([\\w\\-]*)");
+        try {
+            String[] uris = {"/aai/v19/network/pnfs", "/aai/v19/network", "/aai/v19/", "/aai/v19", "/aai/v/network",
+                    "/aai/vx/network", "/aai/v1a/network", "/aai/v7/l3-networks_1?depth=0", "/aai/v7/bad.function",
+                    "/aai/other/v19/network", "/aaiv19/network"};
+            for (String uri : uris) {
+                assertEquals("Get aai function name from " + uri, patternAuthCore.getAuthPolicyFunctName(uri),
+                        authCore.getAuthPolicyFunctName(uri));
+            }
+        } finally {
+            patternAuthCore.cleanup();
+        }
+    }
+
+    @Test
+    public void decisionIsReusedForOtherUrisOfTheFunctionTest() throws AAIUnrecognizedFunctionException {
+        assertTrue(authCore.authorize("testUser".toLowerCase(), "/aai/v0/testFunction/someUri", "PUT", ""));
+        assertTrue(authCore.authorize("testUser".toLowerCase(), "/aai/v1/testFunction/otherUri", "PUT", ""));
+        assertFalse(authCore.authorize("testUser".toLowerCase(), "/aai/v1/testFunction/otherUri", "POST", ""));
+        assertFalse(authCore.authorize("testUser".toLowerCase(), "/aai/v1/testFunction/someUri", "POST", ""));
+    }
+
     @Test
     public void validUsernameAuthTest() throws AAIUnrecognizedFunctionException {
         assertTrue(authCore.authorize("testUser".toLowerCase(), "/aai/v0/testFunction/someUri", "PUT", ""));
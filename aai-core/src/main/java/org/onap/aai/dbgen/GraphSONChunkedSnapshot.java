@@ -0,0 +1,452 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.dbgen;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONReader;
+import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONWriter;
+import org.apache.tinkerpop.gremlin.structure.util.Attachable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads and writes line delimited GraphSON snapshots in chunks, in parallel.
+ *
+ * Loading is done in two passes over the snapshot files. The first pass splits the
+ * lines into chunks and adds each chunk's vertices in its own transaction, remembering
+ * which new vertex each snapshot id became. The second pass adds the edges between the
+ * new vertices through that table. Graphs without threaded transactions, which can't be
+ * written to from several threads, are loaded on the calling thread. Chunks loaded in
+ * parallel must not create schema, so the property keys and labels in the snapshot
+ * should already be defined, as they are once the A&AI schema has been loaded.
+ * A load that fails removes the vertices it had committed, along with their edges, so
+ * the graph is left as it was rather than holding part of the snapshot.
+ *
+ * Writing splits the vertices into chunks of the same size, each written to its own
+ * file, so a snapshot can be loaded back in as many pieces as it was written in.
+ */
+public final class GraphSONChunkedSnapshot {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GraphSONChunkedSnapshot.class);
+
+    /*
+     * prefix.P0, prefix.P1 and so on, as written by write
+     */
+    private static final Pattern CHUNK_FILE = Pattern.compile("(.+)\\.P(\\d{1,18})");
+
+    private final int threads;
+    private final int chunkSize;
+    private final GraphSONReader reader = GraphSONReader.build().create();
+    private final GraphSONWriter writer = GraphSONWriter.build().create();
+
+    private GraphSONChunkedSnapshot(final Builder builder) {
+        this.threads = builder.threads;
+        this.chunkSize = builder.chunkSize;
+    }
+
+    /**
+     * Loads the snapshot files into the graph.
+     *
+     * @param files the snapshot files, each holding one vertex per line
+     * @param graph the graph to load into
+     * @return the number of vertices loaded
+     * @throws IOException if a file can't be read or a chunk fails to load
+     */
+    public long load(final List<File> files, final Graph graph) throws IOException {
+        final Map<Object, Object> ids = new ConcurrentHashMap<>();
+        final AtomicLong edges = new AtomicLong(0);
+        final Graph.Features features = graph.features();
+        final boolean threaded = features.graph().supportsThreadedTransactions();
+        final boolean transactional = features.graph().supportsTransactions();
+
+        try {
+            forEachChunk(files, threaded ? threads : 1, lines -> {
+                // only vertices that are in the graph once the chunk is done are recorded
+                final Map<Object, Object> added = new HashMap<>();
+                boolean committed = false;
+                try {
+                    inTransaction(graph, threaded, g -> {
+                        for (String line : lines) {
+                            // the reader returns the vertex of a star graph, which can be attached
+                            @SuppressWarnings("unchecked")
+                            Attachable<Vertex> star = (Attachable<Vertex>) readVertex(line, null);
+                            added.put(star.get().id(), star.attach(Attachable.Method.create(g)).id());
+                        }
+                    });
+                    committed = true;
+                } finally {
+                    if (committed || !transactional) {
+                        ids.putAll(added);
+                    }
+                }
+            });
+            LOGGER.info(String.format("Loaded %d vertices from snapshot", ids.size()));
+
+            forEachChunk(files, threaded ? threads : 1, lines -> inTransaction(graph, threaded, g -> {
+                for (String line : lines) {
+                    Iterator<Edge> starEdges = readVertex(line, Direction.OUT).edges(Direction.OUT);
+                    while (starEdges.hasNext()) {
+                        addEdge(g, starEdges.next(), ids);
+                        edges.incrementAndGet();
+                    }
+                }
+            }));
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error(String.format("Could not load snapshot, removing the %d vertices loaded from it", ids.size()));
+            try {
+                remove(graph, new ArrayList<>(ids.values()));
+            } catch (RuntimeException removeFailure) {
+                e.addSuppressed(removeFailure);
+            }
+            throw e;
+        }
+        LOGGER.info(String.format("Loaded %d edges from snapshot", edges.get()));
+        return ids.size();
+    }
+
+    private void remove(final Graph graph, final List<Object> vertexIds) {
+        for (int start = 0; start < vertexIds.size(); start += chunkSize) {
+            final Object[] chunk = vertexIds.subList(start, Math.min(start + chunkSize, vertexIds.size())).toArray();
+            inTransaction(graph, false, g -> g.vertices(chunk).forEachRemaining(Vertex::remove));
+        }
+    }
+
+    /**
+     * Writes the graph as snapshot files named prefix.P0, prefix.P1 and so on.
+     *
+     * @param graph the graph to write
+     * @param directory the directory to write the files to
+     * @param prefix the name the files start with
+     * @return the files written
+     * @throws IOException if a file can't be written
+     */
+    public List<File> write(final Graph graph, final File directory, final String prefix) throws IOException {
+        final List<Object[]> chunks = new ArrayList<>();
+        List<Object> chunk = new ArrayList<>(chunkSize);
+        Iterator<Vertex> vertices = graph.vertices();
+        while (vertices.hasNext()) {
+            chunk.add(vertices.next().id());
+            if (chunk.size() == chunkSize) {
+                chunks.add(chunk.toArray());
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk.toArray());
+        }
+        if (graph.features().graph().supportsTransactions()) {
+            graph.tx().rollback();
+        }
+
+        final List<File> files = new ArrayList<>(chunks.size());
+        final List<Runnable> tasks = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            final File file = new File(directory, prefix + ".P" + i);
+            final Object[] chunkIds = chunks.get(i);
+            files.add(file);
+            tasks.add(() -> writeChunk(graph, chunkIds, file));
+        }
+        runAll(tasks, threads);
+        return files;
+    }
+
+    private void writeChunk(final Graph graph, final Object[] chunkIds, final File file) {
+        try (OutputStream out = new FileOutputStream(file)) {
+            writer.writeVertices(out, graph.vertices(chunkIds), Direction.BOTH);
+        } catch (IOException e) {
+            throw new SnapshotException("Could not write snapshot file " + file, e);
+        } finally {
+            // reads on other threads open a transaction per thread
+            if (graph.features().graph().supportsTransactions()) {
+                graph.tx().rollback();
+            }
+        }
+    }
+
+    private Vertex readVertex(final String line, final Direction edges) {
+        try {
+            return reader.readVertex(new ByteArrayInputStream(line.getBytes(StandardCharsets.UTF_8)), null, null,
+                    edges);
+        } catch (IOException e) {
+            throw new SnapshotException("Could not read vertex from snapshot line " + line, e);
+        }
+    }
+
+    private void addEdge(final Graph g, final Edge e, final Map<Object, Object> ids) {
+        final Object outId = ids.get(e.outVertex().id());
+        final Object inId = ids.get(e.inVertex().id());
+        final Iterator<Vertex> outV = outId == null ? Collections.emptyIterator() : g.vertices(outId);
+        final Iterator<Vertex> inV = inId == null ? Collections.emptyIterator() : g.vertices(inId);
+        if (!outV.hasNext() || !inV.hasNext()) {
+            LOGGER.debug(String.format("Ghost edge from %s to %s", e.outVertex().id(), e.inVertex().id()));
+            return;
+        }
+        final Vertex out = outV.next();
+        final Vertex in = inV.next();
+        final Edge newEdge = g.features().edge().willAllowId(e.id()) ? out.addEdge(e.label(), in, T.id, e.id())
+                : out.addEdge(e.label(), in);
+        e.properties().forEachRemaining(p -> newEdge.property(p.key(), p.value()));
+    }
+
+    private void inTransaction(final Graph graph, final boolean threaded, final ChunkLoader loader) {
+        if (!threaded) {
+            if (!graph.features().graph().supportsTransactions()) {
+                loader.load(graph);
+                return;
+            }
+            boolean success = false;
+            try {
+                loader.load(graph);
+                graph.tx().commit();
+                success = true;
+            } finally {
+                if (!success && graph.tx().isOpen()) {
+                    graph.tx().rollback();
+                }
+            }
+            return;
+        }
+        final Graph tx = graph.tx().createThreadedTx();
+        boolean success = false;
+        try {
+            loader.load(tx);
+            tx.tx().commit();
+            success = true;
+        } finally {
+            if (!success && tx.tx().isOpen()) {
+                tx.tx().rollback();
+            }
+        }
+    }
+
+    private void forEachChunk(final List<File> files, final int parallelism, final ChunkTask task)
+            throws IOException {
+        final ThreadPoolExecutor executor = newExecutor(parallelism);
+        final List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (File file : files) {
+                try (BufferedReader br = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                    List<String> lines = new ArrayList<>(chunkSize);
+                    String line;
+                    while ((line = br.readLine()) != null) {
+                        if (line.isEmpty()) {
+                            continue;
+                        }
+                        lines.add(line);
+                        if (lines.size() == chunkSize) {
+                            futures.add(submit(executor, task, lines));
+                            lines = new ArrayList<>(chunkSize);
+                        }
+                    }
+                    if (!lines.isEmpty()) {
+                        futures.add(submit(executor, task, lines));
+                    }
+                }
+            }
+            await(futures);
+        } finally {
+            shutdown(executor);
+        }
+    }
+
+    private Future<?> submit(final ThreadPoolExecutor executor, final ChunkTask task, final List<String> lines) {
+        return executor.submit(() -> task.run(lines));
+    }
+
+    private void runAll(final List<Runnable> tasks, final int parallelism) throws IOException {
+        final ThreadPoolExecutor executor = newExecutor(parallelism);
+        final List<Future<?>> futures = new ArrayList<>(tasks.size());
+        try {
+            for (Runnable task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            await(futures);
+        } finally {
+            shutdown(executor);
+        }
+    }
+
+    /*
+     * Only a few chunks are queued ahead of the workers, once the queue is full the reading
+     * thread loads the next chunk itself, which keeps the lines held in memory bounded.
+     */
+    private static ThreadPoolExecutor newExecutor(final int parallelism) {
+        return new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(parallelism * 2), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /*
+     * Waits for the chunks still running after a failure, so none of them commits after the
+     * failed load has been cleared.
+     */
+    private static void shutdown(final ThreadPoolExecutor executor) throws IOException {
+        executor.shutdownNow();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                LOGGER.info("Waiting for the snapshot chunks still running to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while processing snapshot", e);
+        }
+    }
+
+    private static void await(final List<Future<?>> futures) throws IOException {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while processing snapshot", e);
+            } catch (ExecutionException e) {
+                throw new IOException("Could not process snapshot chunk", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Finds the snapshot files at the location, which is either a single file or a
+     * directory of chunk files named prefix.P0, prefix.P1 and so on. Other files in the
+     * directory are ignored, and when it holds chunks of several snapshots only the one
+     * whose prefix sorts last, the latest for timestamped names, is taken.
+     *
+     * @param location the snapshot file or directory
+     * @return the files, in chunk order
+     * @throws IOException if no snapshot exists at the location
+     */
+    public static List<File> snapshotFiles(final String location) throws IOException {
+        final File file = new File(location);
+        if (file.isFile()) {
+            return Collections.singletonList(file);
+        }
+        final File[] candidates = file.listFiles(File::isFile);
+        if (candidates == null) {
+            throw new IOException("No snapshot found at " + location);
+        }
+        String prefix = null;
+        for (File candidate : candidates) {
+            Matcher m = CHUNK_FILE.matcher(candidate.getName());
+            if (m.matches() && (prefix == null || m.group(1).compareTo(prefix) > 0)) {
+                prefix = m.group(1);
+            }
+        }
+        if (prefix == null) {
+            throw new IOException("No snapshot chunk files found at " + location);
+        }
+        final String snapshot = prefix;
+        final List<File> chunks = new ArrayList<>();
+        for (File candidate : candidates) {
+            Matcher m = CHUNK_FILE.matcher(candidate.getName());
+            if (m.matches() && m.group(1).equals(snapshot)) {
+                chunks.add(candidate);
+            } else {
+                LOGGER.info(String.format("Ignoring %s, which is not a chunk of snapshot %s", candidate, snapshot));
+            }
+        }
+        chunks.sort(Comparator.comparingLong(GraphSONChunkedSnapshot::chunkNumber));
+        return chunks;
+    }
+
+    private static long chunkNumber(final File chunk) {
+        Matcher m = CHUNK_FILE.matcher(chunk.getName());
+        return m.matches() ? Long.parseLong(m.group(2)) : -1;
+    }
+
+    public static Builder build() {
+        return new Builder();
+    }
+
+    @FunctionalInterface
+    private interface ChunkLoader {
+        void load(Graph g);
+    }
+
+    @FunctionalInterface
+    private interface ChunkTask {
+        void run(List<String> lines);
+    }
+
+    private static final class SnapshotException extends RuntimeException {
+        private static final long serialVersionUID = 2753917346184061525L;
+
+        private SnapshotException(final String message, final Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    public static final class Builder {
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private int chunkSize = 10000;
+
+        private Builder() {
+        }
+
+        /**
+         * Number of threads that load or write chunks.
+         */
+        public Builder threads(final int threads) {
+            this.threads = Math.max(1, threads);
+            return this;
+        }
+
+        /**
+         * Number of vertices in a chunk, which is also the number of mutations per
+         * transaction when loading vertices.
+         */
+        public Builder chunkSize(final int chunkSize) {
+            this.chunkSize = Math.max(1, chunkSize);
+            return this;
+        }
+
+        public GraphSONChunkedSnapshot create() {
+            return new GraphSONChunkedSnapshot(this);
+        }
+    }
+}
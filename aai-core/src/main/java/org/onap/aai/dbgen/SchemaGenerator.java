@@ -178,6 +178,8 @@ public class SchemaGenerator {
             }
         }
 
+        SchemaIndexDescriptor.load().makeIndexes(graphMgmt, true);
+
         LOGGER.info("-- About to call graphMgmt commit");
         if (backend != null) {
             LOGGER.info("Successfully loaded the schema to {}", backend);
@@ -178,6 +178,9 @@ public class SchemaGenerator4Hist {
         makeNewProperty(graphMgmt, seenProps, String.class, START_TX_ID);
         makeNewProperty(graphMgmt, seenProps, String.class, END_TX_ID);
 
+        // NOTE - for History unique indexes from the descriptor are made as regular ones
+        SchemaIndexDescriptor.load().makeIndexes(graphMgmt, false);
+
         String imsg = "-- About to call graphMgmt commit";
         LOGGER.info(imsg);
         graphMgmt.commit();
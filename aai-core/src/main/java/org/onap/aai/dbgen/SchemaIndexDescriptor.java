@@ -0,0 +1,280 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.dbgen;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.janusgraph.core.Cardinality;
+import org.janusgraph.core.EdgeLabel;
+import org.janusgraph.core.PropertyKey;
+import org.janusgraph.core.schema.JanusGraphManagement;
+import org.onap.aai.util.AAIConfig;
+import org.onap.aai.util.AAIConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Indexes beyond the single key ones the OXM declares, read from a json descriptor
+ * next to the other app properties.
+ *
+ * <pre>
+ * {
+ *   "composite": [{"name": "node-type-prov-status", "keys": ["aai-node-type", "prov-status"]}],
+ *   "vertexCentric": [{"name": "belongs-to-by-contains", "label": "org.onap.relationships.inventory.BelongsTo",
+ *                      "direction": "IN", "keys": ["contains-other-v"]}],
+ *   "propertyCentric": [{"name": "prov-status-by-start-ts", "property": "prov-status", "keys": ["start-ts"]}],
+ *   "mixed": [{"name": "hostname-search", "keys": ["hostname"]}]
+ * }
+ * </pre>
+ *
+ * Property centric indexes sort the versions of a list or set property, such as the
+ * properties of the history schema, which lets history queries find the versions in a
+ * time window without reading all of them.
+ * Composite indexes may also be "unique". Mixed indexes are only made when
+ * aai.schema.mixed.index.backend names the index backend configured for the graph.
+ * Keys that aren't in the schema yet, such as the edge properties, are made as
+ * single valued strings.
+ */
+public class SchemaIndexDescriptor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SchemaIndexDescriptor.class);
+
+    private List<IndexDefinition> composite = new ArrayList<>();
+    private List<IndexDefinition> vertexCentric = new ArrayList<>();
+    private List<IndexDefinition> propertyCentric = new ArrayList<>();
+    private List<IndexDefinition> mixed = new ArrayList<>();
+
+    static final class IndexDefinition {
+        private String name;
+        private String label;
+        private String property;
+        private String direction;
+        private boolean unique;
+        private List<String> keys = new ArrayList<>();
+
+        String getName() {
+            return name;
+        }
+
+        String getLabel() {
+            return label;
+        }
+
+        String getProperty() {
+            return property;
+        }
+
+        /**
+         * @return the direction of a vertex centric index, BOTH when none is given, null when
+         *         it isn't one of OUT, IN or BOTH
+         */
+        Direction getDirection() {
+            if (direction == null) {
+                return Direction.BOTH;
+            }
+            for (Direction value : Direction.values()) {
+                if (value.name().equals(direction)) {
+                    return value;
+                }
+            }
+            return null;
+        }
+
+        List<String> getKeys() {
+            return keys == null ? Collections.emptyList() : keys;
+        }
+    }
+
+    /**
+     * Reads the descriptor configured by aai.schema.index.descriptor, which defaults to
+     * schema-indexes.json in the app properties.
+     *
+     * @return the descriptor, empty if there is no descriptor file
+     */
+    public static SchemaIndexDescriptor load() {
+        String path = AAIConfig.get(AAIConstants.AAI_SCHEMA_INDEX_DESCRIPTOR,
+                AAIConstants.AAI_HOME_ETC_APP_PROPERTIES + "schema-indexes.json");
+        return load(Paths.get(path));
+    }
+
+    /**
+     * Reads the descriptor.
+     *
+     * @param path the descriptor file
+     * @return the descriptor, empty if the file doesn't exist or can't be read
+     */
+    public static SchemaIndexDescriptor load(Path path) {
+        if (!Files.isRegularFile(path)) {
+            LOGGER.debug("No schema index descriptor at {}", path);
+            return new SchemaIndexDescriptor();
+        }
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            SchemaIndexDescriptor descriptor = new Gson().fromJson(reader, SchemaIndexDescriptor.class);
+            return descriptor == null ? new SchemaIndexDescriptor() : descriptor;
+        } catch (IOException | JsonParseException e) {
+            LOGGER.error("Could not read schema index descriptor {}, no extra indexes are made", path, e);
+            return new SchemaIndexDescriptor();
+        }
+    }
+
+    List<IndexDefinition> getComposite() {
+        return composite == null ? Collections.emptyList() : composite;
+    }
+
+    List<IndexDefinition> getVertexCentric() {
+        return vertexCentric == null ? Collections.emptyList() : vertexCentric;
+    }
+
+    List<IndexDefinition> getPropertyCentric() {
+        return propertyCentric == null ? Collections.emptyList() : propertyCentric;
+    }
+
+    List<IndexDefinition> getMixed() {
+        return mixed == null ? Collections.emptyList() : mixed;
+    }
+
+    /**
+     * Makes the described indexes that don't exist yet. Nothing is committed.
+     *
+     * @param graphMgmt the graph mgmt the schema is being loaded with
+     * @param allowUnique false to make unique composite indexes as regular ones
+     */
+    public void makeIndexes(JanusGraphManagement graphMgmt, boolean allowUnique) {
+        for (IndexDefinition index : getComposite()) {
+            if (!isValid(index) || graphMgmt.containsGraphIndex(index.name)) {
+                continue;
+            }
+            JanusGraphManagement.IndexBuilder builder = graphMgmt.buildIndex(index.name, Vertex.class);
+            index.getKeys().forEach(key -> builder.addKey(getOrMakeKey(graphMgmt, key)));
+            if (index.unique && allowUnique) {
+                builder.unique();
+            }
+            LOGGER.info("Add composite index [{}] for PropertyKeys: {}", index.name, index.getKeys());
+            builder.buildCompositeIndex();
+        }
+
+        for (IndexDefinition index : getVertexCentric()) {
+            if (!isValidVertexCentric(index)) {
+                continue;
+            }
+            EdgeLabel label = graphMgmt.getEdgeLabel(index.label);
+            if (label == null) {
+                LOGGER.warn("No EdgeLabel [{}] for vertex centric index [{}]", index.label, index.name);
+                continue;
+            }
+            if (graphMgmt.containsRelationIndex(label, index.name)) {
+                continue;
+            }
+            Direction direction = index.getDirection();
+            PropertyKey[] sortKeys =
+                    index.getKeys().stream().map(key -> getOrMakeKey(graphMgmt, key)).toArray(PropertyKey[]::new);
+            LOGGER.info("Add vertex centric index [{}] on [{}] [{}] for PropertyKeys: {}", index.name, index.label,
+                    direction, index.getKeys());
+            graphMgmt.buildEdgeIndex(label, index.name, direction, sortKeys);
+        }
+
+        for (IndexDefinition index : getPropertyCentric()) {
+            if (!isValid(index)) {
+                continue;
+            }
+            PropertyKey property = index.property == null ? null : graphMgmt.getPropertyKey(index.property);
+            if (property == null) {
+                LOGGER.warn("No PropertyKey [{}] for property centric index [{}]", index.property, index.name);
+                continue;
+            }
+            if (property.cardinality() == Cardinality.SINGLE) {
+                LOGGER.warn("PropertyKey [{}] has a single version, property centric index [{}] not added",
+                        index.property, index.name);
+                continue;
+            }
+            if (graphMgmt.containsRelationIndex(property, index.name)) {
+                continue;
+            }
+            PropertyKey[] sortKeys =
+                    index.getKeys().stream().map(key -> getOrMakeKey(graphMgmt, key)).toArray(PropertyKey[]::new);
+            LOGGER.info("Add property centric index [{}] on [{}] for PropertyKeys: {}", index.name, index.property,
+                    index.getKeys());
+            graphMgmt.buildPropertyIndex(property, index.name, sortKeys);
+        }
+
+        String mixedBackend = AAIConfig.get(AAIConstants.AAI_SCHEMA_MIXED_INDEX_BACKEND, "");
+        for (IndexDefinition index : getMixed()) {
+            if (!isValid(index) || graphMgmt.containsGraphIndex(index.name)) {
+                continue;
+            }
+            if (mixedBackend.isEmpty()) {
+                LOGGER.info("No index backend configured, mixed index [{}] not added", index.name);
+                continue;
+            }
+            JanusGraphManagement.IndexBuilder builder = graphMgmt.buildIndex(index.name, Vertex.class);
+            index.getKeys().forEach(key -> builder.addKey(getOrMakeKey(graphMgmt, key)));
+            LOGGER.info("Add mixed index [{}] on [{}] for PropertyKeys: {}", index.name, mixedBackend,
+                    index.getKeys());
+            builder.buildMixedIndex(mixedBackend);
+        }
+    }
+
+    private static boolean isValid(IndexDefinition index) {
+        if (index.name == null || index.getKeys().isEmpty()) {
+            LOGGER.warn("Skipping index without a name or keys: [{}] {}", index.name, index.getKeys());
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean isValidVertexCentric(IndexDefinition index) {
+        if (!isValid(index)) {
+            return false;
+        }
+        if (index.label == null) {
+            LOGGER.warn("Skipping vertex centric index [{}] without a label", index.name);
+            return false;
+        }
+        if (index.getDirection() == null) {
+            LOGGER.warn("Skipping vertex centric index [{}] with direction [{}], expected one of {}", index.name,
+                    index.direction, Arrays.toString(Direction.values()));
+            return false;
+        }
+        return true;
+    }
+
+    private static PropertyKey getOrMakeKey(JanusGraphManagement graphMgmt, String key) {
+        if (graphMgmt.containsPropertyKey(key)) {
+            return graphMgmt.getPropertyKey(key);
+        }
+        LOGGER.info("Creating PropertyKey: [{}], [{}], [{}]", key, String.class.getSimpleName(), Cardinality.SINGLE);
+        return graphMgmt.makePropertyKey(key).dataType(String.class).cardinality(Cardinality.SINGLE).make();
+    }
+}
@@ -0,0 +1,218 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.dbgen;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.janusgraph.core.JanusGraph;
+import org.janusgraph.core.PropertyKey;
+import org.janusgraph.core.RelationType;
+import org.janusgraph.core.schema.Index;
+import org.janusgraph.core.schema.JanusGraphIndex;
+import org.janusgraph.core.schema.JanusGraphManagement;
+import org.janusgraph.core.schema.RelationTypeIndex;
+import org.janusgraph.core.schema.SchemaAction;
+import org.janusgraph.core.schema.SchemaStatus;
+import org.janusgraph.diskstorage.keycolumnvalue.scan.ScanMetrics;
+import org.janusgraph.graphdb.database.management.ManagementSystem;
+import org.onap.aai.dbgen.SchemaIndexDescriptor.IndexDefinition;
+import org.onap.aai.logging.LogFormatTools;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Backfills the indexes of a {@link SchemaIndexDescriptor} that were added to a graph
+ * which already had data.
+ *
+ * An index made on existing keys starts out installed and isn't used until it has been
+ * registered with every open instance and reindexed. This waits for the registration,
+ * reindexes one index at a time, logs the number of records done while each reindex
+ * runs and leaves the index enabled. Indexes that are already enabled are skipped.
+ */
+public class SchemaReindexJob implements Callable<Map<String, Long>> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SchemaReindexJob.class);
+
+    private final JanusGraph graph;
+    private final SchemaIndexDescriptor descriptor;
+    private final long progressIntervalMillis;
+    private final Map<String, Long> progress = new ConcurrentHashMap<>();
+
+    public SchemaReindexJob(JanusGraph graph, SchemaIndexDescriptor descriptor) {
+        this(graph, descriptor, TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public SchemaReindexJob(JanusGraph graph, SchemaIndexDescriptor descriptor, long progressIntervalMillis) {
+        this.graph = graph;
+        this.descriptor = descriptor;
+        this.progressIntervalMillis = progressIntervalMillis;
+    }
+
+    /**
+     * Runs the job on a background thread.
+     *
+     * @return the result of {@link #call()}
+     */
+    public Future<Map<String, Long>> start() {
+        ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "aai-schema-reindex");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            return executor.submit(this);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @return the records reindexed so far, by index name
+     */
+    public Map<String, Long> getProgress() {
+        return Collections.unmodifiableMap(progress);
+    }
+
+    /**
+     * Reindexes the described indexes that aren't enabled yet.
+     *
+     * @return the records reindexed, by index name
+     * @throws InterruptedException if interrupted while waiting on an index
+     * @throws ExecutionException if a reindex fails
+     */
+    @Override
+    public Map<String, Long> call() throws InterruptedException, ExecutionException {
+        Map<String, Long> reindexed = new LinkedHashMap<>();
+        List<IndexDefinition> graphIndexes = new ArrayList<>(descriptor.getComposite());
+        graphIndexes.addAll(descriptor.getMixed());
+        for (IndexDefinition index : graphIndexes) {
+            if (awaitRegistered(index, null)) {
+                reindexed.put(index.getName(), reindex(index, null));
+            }
+        }
+        for (IndexDefinition index : descriptor.getVertexCentric()) {
+            if (index.getLabel() != null && awaitRegistered(index, index.getLabel())) {
+                reindexed.put(index.getName(), reindex(index, index.getLabel()));
+            }
+        }
+        for (IndexDefinition index : descriptor.getPropertyCentric()) {
+            if (awaitRegistered(index, index.getProperty())) {
+                reindexed.put(index.getName(), reindex(index, index.getProperty()));
+            }
+        }
+        return reindexed;
+    }
+
+    private boolean awaitRegistered(IndexDefinition index, String relationType) throws InterruptedException {
+        JanusGraphManagement graphMgmt = graph.openManagement();
+        SchemaStatus status;
+        try {
+            status = getStatus(graphMgmt, index.getName(), relationType);
+        } finally {
+            graphMgmt.rollback();
+        }
+        if (status == null || status == SchemaStatus.ENABLED || status == SchemaStatus.DISABLED) {
+            LOGGER.debug("Index [{}] is {}, nothing to reindex", index.getName(), status);
+            return false;
+        }
+        if (status == SchemaStatus.INSTALLED) {
+            LOGGER.info("Waiting for index [{}] to be registered", index.getName());
+            if (relationType == null) {
+                ManagementSystem.awaitGraphIndexStatus(graph, index.getName()).status(SchemaStatus.REGISTERED).call();
+            } else {
+                ManagementSystem.awaitRelationIndexStatus(graph, index.getName(), relationType)
+                        .status(SchemaStatus.REGISTERED).call();
+            }
+        }
+        return true;
+    }
+
+    private long reindex(IndexDefinition index, String relationType) throws InterruptedException, ExecutionException {
+        JanusGraphManagement graphMgmt = graph.openManagement();
+        JanusGraphManagement.IndexJobFuture future;
+        try {
+            future = graphMgmt.updateIndex(getIndex(graphMgmt, index.getName(), relationType), SchemaAction.REINDEX);
+            graphMgmt.commit();
+        } catch (RuntimeException e) {
+            graphMgmt.rollback();
+            LOGGER.error("Could not start reindex of [{}] {}", index.getName(), LogFormatTools.getStackTop(e));
+            throw new ExecutionException(e);
+        }
+        LOGGER.info("Reindexing [{}]", index.getName());
+        ScanMetrics metrics = null;
+        while (metrics == null) {
+            try {
+                metrics = future.get(progressIntervalMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                ScanMetrics intermediate = future.getIntermediateResult();
+                if (intermediate != null) {
+                    long done = intermediate.get(ScanMetrics.Metric.SUCCESS);
+                    progress.put(index.getName(), done);
+                    LOGGER.info("Reindexing [{}], {} records done", index.getName(), done);
+                }
+            }
+        }
+        long done = metrics.get(ScanMetrics.Metric.SUCCESS);
+        progress.put(index.getName(), done);
+        LOGGER.info("Reindexed [{}], {} records done, {} failed", index.getName(), done,
+                metrics.get(ScanMetrics.Metric.FAILURE));
+        return done;
+    }
+
+    private static Index getIndex(JanusGraphManagement graphMgmt, String name, String relationType) {
+        if (relationType == null) {
+            return graphMgmt.getGraphIndex(name);
+        }
+        RelationType type = graphMgmt.getRelationType(relationType);
+        return type == null ? null : graphMgmt.getRelationIndex(type, name);
+    }
+
+    private static SchemaStatus getStatus(JanusGraphManagement graphMgmt, String name, String relationType) {
+        Index index = getIndex(graphMgmt, name, relationType);
+        if (index instanceof RelationTypeIndex) {
+            return ((RelationTypeIndex) index).getIndexStatus();
+        } else if (index instanceof JanusGraphIndex) {
+            // an index is only usable once all of its keys are, so report the least advanced one
+            SchemaStatus status = SchemaStatus.ENABLED;
+            JanusGraphIndex graphIndex = (JanusGraphIndex) index;
+            for (PropertyKey key : graphIndex.getFieldKeys()) {
+                SchemaStatus keyStatus = graphIndex.getIndexStatus(key);
+                if (keyStatus.ordinal() < status.ordinal()) {
+                    status = keyStatus;
+                }
+            }
+            return status;
+        }
+        return null;
+    }
+}
@@ -27,12 +27,11 @@ import java.util.Properties;
 
 import org.apache.commons.configuration.PropertiesConfiguration;
 import org.apache.commons.lang3.exception.ExceptionUtils;
-import org.apache.tinkerpop.gremlin.structure.Graph;
-import org.apache.tinkerpop.gremlin.structure.io.IoCore;
 import org.janusgraph.core.JanusGraph;
 import org.janusgraph.core.JanusGraphFactory;
 import org.janusgraph.core.schema.JanusGraphManagement;
 import org.onap.aai.config.SpringContextAware;
+import org.onap.aai.dbgen.GraphSONChunkedSnapshot;
 import org.onap.aai.dbgen.SchemaGenerator;
 import org.onap.aai.dbgen.SchemaGenerator4Hist;
 import org.onap.aai.exceptions.AAIException;
@@ -130,11 +129,14 @@ public class AAIGraph {
         if (graphProps.containsKey("load.snapshot.file")) {
             String value = graphProps.getProperty("load.snapshot.file");
             if ("true".equals(value)) {
-                try (Graph transaction = graph.newTransaction()) {
+                try {
                     String location = System.getProperty("snapshot.location");
                     logger.info("Loading snapshot to inmemory graph.");
-                    transaction.io(IoCore.graphson()).readGraph(location);
-                    transaction.tx().commit();
+                    GraphSONChunkedSnapshot.build()
+                            .threads(Integer.parseInt(graphProps.getProperty("load.snapshot.threads",
+                                    String.valueOf(Runtime.getRuntime().availableProcessors()))))
+                            .chunkSize(Integer.parseInt(graphProps.getProperty("load.snapshot.chunk.size", "10000")))
+                            .create().load(GraphSONChunkedSnapshot.snapshotFiles(location), graph);
                     logger.info("Snapshot loaded to inmemory graph.");
                 } catch (Exception e) {
                     logger.info(String.format("ERROR: Could not load datasnapshot to in memory graph. %n%s",
@@ -22,44 +22,29 @@
 
 package org.onap.aai.dmaap;
 
-import org.apache.activemq.ActiveMQConnectionFactory;
-import org.apache.activemq.command.ActiveMQQueue;
 import org.json.JSONObject;
 import org.onap.aai.util.AAIConfig;
-import org.springframework.jms.connection.CachingConnectionFactory;
-import org.springframework.jms.core.JmsTemplate;
 
+/**
+ * Hands events to the shared {@link AAIDmaapEventPublisher}, which sends them in the background.
+ */
 public class AAIDmaapEventJMSProducer implements MessageProducer {
 
-    private JmsTemplate jmsTemplate;
+    private AAIDmaapEventPublisher publisher;
 
     public AAIDmaapEventJMSProducer() {
         if ("true".equals(AAIConfig.get("aai.jms.enable", "true"))) {
-            this.jmsTemplate = new JmsTemplate();
-            String activeMqTcpUrl = System.getProperty("activemq.tcp.url", "tcp://localhost:61547");
-            this.jmsTemplate
-                    .setConnectionFactory(new CachingConnectionFactory(new ActiveMQConnectionFactory(activeMqTcpUrl)));
-            this.jmsTemplate.setDefaultDestination(new ActiveMQQueue("IN_QUEUE"));
+            this.publisher = AAIDmaapEventPublisher.getInstance();
         }
     }
 
     public void sendMessageToDefaultDestination(JSONObject finalJson) {
-        if (jmsTemplate != null) {
-            jmsTemplate.convertAndSend(finalJson.toString());
-            CachingConnectionFactory ccf = (CachingConnectionFactory) this.jmsTemplate.getConnectionFactory();
-            if (ccf != null) {
-                ccf.destroy();
-            }
-        }
+        sendMessageToDefaultDestination(finalJson.toString());
     }
 
     public void sendMessageToDefaultDestination(String msg) {
-        if (jmsTemplate != null) {
-            jmsTemplate.convertAndSend(msg);
-            CachingConnectionFactory ccf = (CachingConnectionFactory) this.jmsTemplate.getConnectionFactory();
-            if (ccf != null) {
-                ccf.destroy();
-            }
+        if (publisher != null) {
+            publisher.publish(msg);
         }
     }
 }
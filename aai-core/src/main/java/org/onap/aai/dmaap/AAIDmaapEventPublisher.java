@@ -0,0 +1,267 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.dmaap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.jms.Session;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.command.ActiveMQQueue;
+import org.onap.aai.util.AAIConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.jms.connection.CachingConnectionFactory;
+import org.springframework.jms.core.JmsTemplate;
+
+/**
+ * Publishes events to the jms queue from a single background sender.
+ *
+ * Events are put on a bounded queue and sent in batches over one session, so requests
+ * don't wait on the broker. There is one sender, so events go out in the order they were
+ * published. When the queue is full publishing waits a short time and then drops the event.
+ * A batch that fails to send is retried with a growing backoff, the events still unsent after
+ * the last attempt are logged at error level and dropped.
+ */
+public class AAIDmaapEventPublisher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AAIDmaapEventPublisher.class);
+
+    private static AAIDmaapEventPublisher singleInstance = null;
+
+    private final JmsTemplate jmsTemplate;
+    private final BlockingQueue<PendingEvent> queue;
+    private final int batchSize;
+    private final long batchMaxAgeMs;
+    private final long enqueueTimeoutMs;
+    private final int sendAttempts;
+    private final long retryBackoffMs;
+    private final Thread sender;
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private volatile boolean running = true;
+
+    AAIDmaapEventPublisher(JmsTemplate jmsTemplate, int queueSize, int batchSize, long batchMaxAgeMs,
+            long enqueueTimeoutMs) {
+        this(jmsTemplate, queueSize, batchSize, batchMaxAgeMs, enqueueTimeoutMs, 3, 100);
+    }
+
+    AAIDmaapEventPublisher(JmsTemplate jmsTemplate, int queueSize, int batchSize, long batchMaxAgeMs,
+            long enqueueTimeoutMs, int sendAttempts, long retryBackoffMs) {
+        this.jmsTemplate = jmsTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.batchSize = batchSize;
+        this.batchMaxAgeMs = batchMaxAgeMs;
+        this.enqueueTimeoutMs = enqueueTimeoutMs;
+        this.sendAttempts = Math.max(1, sendAttempts);
+        this.retryBackoffMs = retryBackoffMs;
+        this.sender = new Thread(this::sendLoop, "aai-jms-publisher");
+        this.sender.setDaemon(true);
+        this.sender.start();
+    }
+
+    /**
+     * Gets the single instance of AAIDmaapEventPublisher, connected to the broker on first use.
+     *
+     * @return single instance of AAIDmaapEventPublisher
+     */
+    public static synchronized AAIDmaapEventPublisher getInstance() {
+        if (singleInstance == null) {
+            JmsTemplate jmsTemplate = new JmsTemplate();
+            String activeMqTcpUrl = System.getProperty("activemq.tcp.url", "tcp://localhost:61547");
+            jmsTemplate.setConnectionFactory(new CachingConnectionFactory(new ActiveMQConnectionFactory(activeMqTcpUrl)));
+            jmsTemplate.setDefaultDestination(new ActiveMQQueue("IN_QUEUE"));
+            singleInstance = new AAIDmaapEventPublisher(jmsTemplate, AAIConfig.getInt("aai.jms.queue.size", "10000"),
+                    AAIConfig.getInt("aai.jms.batch.size", "100"), AAIConfig.getInt("aai.jms.batch.max.age.ms", "50"),
+                    AAIConfig.getInt("aai.jms.enqueue.timeout.ms", "100"),
+                    AAIConfig.getInt("aai.jms.send.attempts", "3"), AAIConfig.getInt("aai.jms.retry.backoff.ms", "100"));
+            Runtime.getRuntime().addShutdownHook(new Thread(singleInstance::close, "aai-jms-publisher-shutdown"));
+        }
+        return singleInstance;
+    }
+
+    /**
+     * Queues the event for sending.
+     *
+     * @param msg the event
+     * @return false if the queue stayed full and the event was dropped
+     */
+    public boolean publish(String msg) {
+        PendingEvent event = new PendingEvent(msg, MDC.getCopyOfContextMap());
+        try {
+            if (running && queue.offer(event, enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        droppedCount.incrementAndGet();
+        LOGGER.warn("Dropped event as the jms publish queue is full, {} events dropped so far", droppedCount.get());
+        return false;
+    }
+
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Stops accepting events and waits for the queued ones to be sent.
+     */
+    public void close() {
+        running = false;
+        try {
+            sender.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void sendLoop() {
+        List<PendingEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.currentTimeMillis() + batchMaxAgeMs;
+                while (batch.size() < batchSize) {
+                    long wait = deadline - System.currentTimeMillis();
+                    PendingEvent next = wait > 0 ? queue.poll(wait, TimeUnit.MILLISECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            send(batch);
+            batch.clear();
+        }
+    }
+
+    private void send(List<PendingEvent> batch) {
+        // events confirmed sent are not sent again when the batch is retried
+        AtomicInteger progress = new AtomicInteger();
+        long backoff = retryBackoffMs;
+        try {
+            for (int attempt = 1;; attempt++) {
+                try {
+                    jmsTemplate.execute((Session session) -> {
+                        javax.jms.MessageProducer producer =
+                                session.createProducer(jmsTemplate.getDefaultDestination());
+                        try {
+                            for (int i = progress.get(); i < batch.size(); i++) {
+                                PendingEvent event = batch.get(i);
+                                event.restoreMdc();
+                                producer.send(session.createTextMessage(event.msg));
+                                progress.incrementAndGet();
+                            }
+                        } finally {
+                            producer.close();
+                        }
+                        return null;
+                    }, true);
+                    sentCount.addAndGet(batch.size());
+                    return;
+                } catch (Exception e) {
+                    int remaining = batch.size() - progress.get();
+                    if (attempt >= sendAttempts || !sleep(backoff)) {
+                        MDC.clear();
+                        LOGGER.error("Failed to send {} events to the jms queue after {} attempts", remaining,
+                                attempt, e);
+                        drop(batch, progress.get());
+                        return;
+                    }
+                    LOGGER.warn("Failed to send {} events to the jms queue, attempt {} of {}: {}", remaining, attempt,
+                            sendAttempts, e.getMessage());
+                    backoff *= 2;
+                }
+            }
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    private void drop(List<PendingEvent> batch, int sent) {
+        sentCount.addAndGet(sent);
+        failedCount.addAndGet(batch.size() - sent);
+        for (PendingEvent event : batch.subList(sent, batch.size())) {
+            event.restoreMdc();
+            LOGGER.error("Dropped event that could not be sent to the jms queue: {}", event.msg);
+        }
+    }
+
+    /**
+     * @return false if interrupted while waiting
+     */
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static final class PendingEvent {
+        private final String msg;
+        private final Map<String, String> mdc;
+
+        private PendingEvent(String msg, Map<String, String> mdc) {
+            this.msg = msg;
+            this.mdc = mdc;
+        }
+
+        private void restoreMdc() {
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            } else {
+                MDC.clear();
+            }
+        }
+    }
+}
@@ -266,85 +266,55 @@ public abstract class Introspector implements Cloneable {
      * @return a list of the all key properties for this object
      */
     public Set<String> getAllKeys() {
-        Set<String> result = null;
         if (this.allKeys == null) {
-            Set<String> keys = this.getKeys();
-            result = new LinkedHashSet<>();
-            result.addAll(keys);
-            String altKeys = this.getMetadata(ObjectMetadata.ALTERNATE_KEYS_1);
-            if (altKeys != null) {
-                String[] altKeysArray = altKeys.split(",");
-                for (String altKey : altKeysArray) {
-                    result.add(altKey);
-                }
-            }
-            result = Collections.unmodifiableSet(result);
-            this.allKeys = result;
+            this.allKeys = addCommaSeparated(this.getKeys(), this.getMetadata(ObjectMetadata.ALTERNATE_KEYS_1));
         }
-        result = this.allKeys;
-        return result;
+        return this.allKeys;
     }
 
     public Set<String> getIndexedProperties() {
-        Set<String> result = null;
-
         if (this.indexedProperties == null) {
-            result = new LinkedHashSet<>();
-            Set<String> keys = this.getKeys();
-            result.addAll(keys);
-            String altKeys = this.getMetadata(ObjectMetadata.INDEXED_PROPS);
-            if (altKeys != null) {
-                String[] altKeysArray = altKeys.split(",");
-                for (String altKey : altKeysArray) {
-                    result.add(altKey);
-                }
-            }
-            this.indexedProperties = Collections.unmodifiableSet(result);
+            this.indexedProperties =
+                    addCommaSeparated(this.getKeys(), this.getMetadata(ObjectMetadata.INDEXED_PROPS));
         }
-        result = this.indexedProperties;
-        return result;
+        return this.indexedProperties;
     }
 
     public Set<String> getDslStartNodeProperties() {
-        Set<String> result = null;
-
         if (this.dslStartNodeProperties == null) {
             /*
              * The dslStartNodeProperties will have keys by default
              * If dslStartNodeProps exist in the oxm use it
              * if not use the indexedProps
              */
-            result = new LinkedHashSet<>(this.getKeys());
-
             String dslKeys = this.getMetadata(ObjectMetadata.DSL_START_NODE_PROPS);
-            String indexedKeys = this.getMetadata(ObjectMetadata.INDEXED_PROPS);
-            if (dslKeys != null) {
-                Arrays.stream(dslKeys.split(",")).forEach(result::add);
-            } else if (indexedKeys != null) {
-                Arrays.stream(indexedKeys.split(",")).forEach(result::add);
+            if (dslKeys == null) {
+                dslKeys = this.getMetadata(ObjectMetadata.INDEXED_PROPS);
             }
-            this.dslStartNodeProperties = Collections.unmodifiableSet(result);
+            this.dslStartNodeProperties = addCommaSeparated(this.getKeys(), dslKeys);
         }
-        result = this.dslStartNodeProperties;
-        return result;
+        return this.dslStartNodeProperties;
     }
 
     public Set<String> getUniqueProperties() {
-        Set<String> result = null;
         if (this.uniqueProperties == null) {
-            String altKeys = this.getMetadata(ObjectMetadata.UNIQUE_PROPS);
-            result = new LinkedHashSet<>();
-            if (altKeys != null) {
-                String[] altKeysArray = altKeys.split(",");
-                for (String altKey : altKeysArray) {
-                    result.add(altKey);
-                }
-            }
-            this.uniqueProperties = Collections.unmodifiableSet(result);
+            this.uniqueProperties =
+                    addCommaSeparated(Collections.emptySet(), this.getMetadata(ObjectMetadata.UNIQUE_PROPS));
+        }
+        return this.uniqueProperties;
+    }
 
+    /**
+     * @param properties - the properties to start with
+     * @param commaSeparated - comma separated property names from the schema metadata, may be null
+     * @return an unmodifiable set of both, in order
+     */
+    static Set<String> addCommaSeparated(Set<String> properties, String commaSeparated) {
+        Set<String> result = new LinkedHashSet<>(properties);
+        if (commaSeparated != null) {
+            Collections.addAll(result, commaSeparated.split(","));
         }
-        result = this.uniqueProperties;
-        return result;
+        return Collections.unmodifiableSet(result);
     }
 
     public Set<String> getDependentOn() {
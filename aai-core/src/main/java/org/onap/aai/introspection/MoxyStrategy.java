@@ -20,34 +20,22 @@
 
 package org.onap.aai.introspection;
 
-import com.google.common.base.CaseFormat;
 import com.google.common.base.Joiner;
 
 import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 
-import org.eclipse.persistence.descriptors.ClassDescriptor;
 import org.eclipse.persistence.dynamic.DynamicEntity;
 import org.eclipse.persistence.dynamic.DynamicType;
-import org.eclipse.persistence.exceptions.DynamicException;
 import org.eclipse.persistence.jaxb.dynamic.DynamicJAXBContext;
-import org.eclipse.persistence.mappings.DatabaseMapping;
-import org.eclipse.persistence.oxm.XMLField;
-import org.eclipse.persistence.oxm.mappings.XMLCompositeCollectionMapping;
-import org.eclipse.persistence.oxm.mappings.XMLCompositeDirectCollectionMapping;
-import org.onap.aai.config.SpringContextAware;
 import org.onap.aai.logging.LogFormatTools;
 import org.onap.aai.restcore.MediaType;
 import org.onap.aai.schema.enums.ObjectMetadata;
@@ -63,63 +51,19 @@ public class MoxyStrategy extends Introspector {
     private DynamicEntity internalObject = null;
     private DynamicType internalType = null;
     private DynamicJAXBContext jaxbContext = null;
-    private ClassDescriptor cd = null;
     private SchemaVersion version = null;
-    private Set<String> properties = null;
-    private Set<String> keys = null;
-    private Set<String> requiredProperties = null;
-
-    private boolean isInitialized = false;
+    private TypeDescriptor descriptor = null;
 
     protected MoxyStrategy(Object obj) {
         super(obj);
-        /* must look up the correct jaxbcontext for this object */
+        /* the schema metadata of the type is looked up once and shared */
         className = MoxyStrategy.class.getSimpleName();
         internalObject = (DynamicEntity) obj;
-        version = nodeIngestor.getVersionFromClassName(internalObject.getClass().getName());
-        super.loader = SpringContextAware.getBean(LoaderFactory.class).createLoaderForVersion(getModelType(), version);
-        jaxbContext = nodeIngestor.getContextForVersion(version);
-        String simpleName = internalObject.getClass().getName();
-        internalType = jaxbContext.getDynamicType(simpleName);
-
-        cd = internalType.getDescriptor();
-    }
-
-    private void init() {
-        isInitialized = true;
-
-        Set<String> props = new LinkedHashSet<>();
-        for (String s : internalType.getPropertiesNames()) {
-            String value = caseFormatStore.fromLowerCamelToLowerHyphen(s).orElseGet(() -> {
-                LOGGER.debug("Unable to find {} in the store from lower camel to lower hyphen", s);
-                return CaseFormat.LOWER_CAMEL.to(CaseFormat.LOWER_HYPHEN, s);
-            });
-            props.add(value);
-
-        }
-        props = Collections.unmodifiableSet(props);
-        this.properties = props;
-
-        Set<String> requiredProps = new LinkedHashSet<>();
-        for (DatabaseMapping dm : cd.getMappings()) {
-            if (dm.getField() instanceof XMLField) {
-                XMLField x = (XMLField) dm.getField();
-                if (x != null && x.isRequired()) {
-                    requiredProps.add(this.removeXPathDescriptor(x.getName()));
-                }
-            }
-        }
-        requiredProps = Collections.unmodifiableSet(requiredProps);
-        this.requiredProperties = requiredProps;
-
-        Set<String> keys = new LinkedHashSet<>();
-
-        for (String name : internalType.getDescriptor().getPrimaryKeyFieldNames()) {
-            keys.add(this.removeXPathDescriptor(name));
-        }
-        keys = Collections.unmodifiableSet(keys);
-        this.keys = keys;
-
+        descriptor = TypeDescriptor.forClass(internalObject.getClass());
+        version = descriptor.getVersion();
+        super.loader = descriptor.getLoader();
+        jaxbContext = descriptor.getJaxbContext();
+        internalType = descriptor.getDynamicType();
     }
 
     @Override
@@ -142,51 +86,42 @@ public class MoxyStrategy extends Introspector {
 
     @Override
     public Set<String> getProperties() {
-
-        if (!isInitialized) {
-            init();
-        }
-
-        return this.properties;
-
+        return descriptor.getProperties();
     }
 
     @Override
     public Set<String> getRequiredProperties() {
+        return descriptor.getRequiredProperties();
+    }
 
-        if (!isInitialized) {
-            init();
-        }
+    @Override
+    public Set<String> getKeys() {
+        return descriptor.getKeys();
+    }
 
-        return this.requiredProperties;
+    @Override
+    public Set<String> getAllKeys() {
+        return descriptor.getAllKeys();
     }
 
     @Override
-    public Set<String> getKeys() {
+    public Set<String> getIndexedProperties() {
+        return descriptor.getIndexedProperties();
+    }
 
-        if (!isInitialized) {
-            init();
-        }
+    @Override
+    public Set<String> getDslStartNodeProperties() {
+        return descriptor.getDslStartNodeProperties();
+    }
 
-        return this.keys;
+    @Override
+    public Set<String> getUniqueProperties() {
+        return descriptor.getUniqueProperties();
     }
 
     @Override
     public Map<PropertyMetadata, String> getPropertyMetadata(String prop) {
-        String propName = this.convertPropertyName(prop);
-        DatabaseMapping mapping = cd.getMappingForAttributeName(propName);
-        Map<PropertyMetadata, String> result = new HashMap<>();
-        if (mapping != null) {
-            Set<Map.Entry<String, String>> entrySet = mapping.getProperties().entrySet();
-            for (Entry<String, String> entry : entrySet) {
-                result.put(
-                        PropertyMetadata
-                                .valueOf(CaseFormat.LOWER_CAMEL.to(CaseFormat.UPPER_UNDERSCORE, entry.getKey())),
-                        entry.getValue());
-            }
-        }
-
-        return result;
+        return descriptor.getPropertyMetadata(this.convertPropertyName(prop));
     }
 
     @Override
@@ -196,46 +131,12 @@ public class MoxyStrategy extends Introspector {
 
     @Override
     public Class<?> getClass(String name) {
-        name = convertPropertyName(name);
-        Class<?> resultClass = null;
-        try {
-            if (internalType.getPropertyType(name) == null) {
-                if (cd.getMappingForAttributeName(name) instanceof XMLCompositeDirectCollectionMapping) {
-                    resultClass = cd.getMappingForAttributeName(name).getContainerPolicy().getContainerClass();
-
-                } else if (cd.getMappingForAttributeName(name) instanceof XMLCompositeCollectionMapping) {
-                    resultClass = cd.getMappingForAttributeName(name).getContainerPolicy().getContainerClass();
-                } else {
-                    ClassDescriptor referenceDiscriptor = cd.getMappingForAttributeName(name).getReferenceDescriptor();
-                    if (referenceDiscriptor != null) {
-                        resultClass = referenceDiscriptor.getJavaClass();
-                    } else {
-                        resultClass = Object.class;
-                    }
-                }
-            } else {
-                resultClass = internalType.getPropertyType(name);
-            }
-        } catch (DynamicException e) {
-            // property doesn't exist
-        }
-        return resultClass;
+        return descriptor.getPropertyClass(convertPropertyName(name));
     }
 
     @Override
     public Class<?> getGenericTypeClass(String name) {
-        name = convertPropertyName(name);
-        Class<?> resultClass = null;
-        if (internalType.getPropertyType(name) == null) {
-            if (cd.getMappingForAttributeName(name) instanceof XMLCompositeDirectCollectionMapping) {
-                resultClass = cd.getMappingForAttributeName(name).getFields().get(0).getType();
-
-            } else if (cd.getMappingForAttributeName(name) instanceof XMLCompositeCollectionMapping) {
-                resultClass = cd.getMappingForAttributeName(name).getReferenceDescriptor().getJavaClass();
-            }
-        }
-
-        return resultClass;
+        return descriptor.getGenericTypeClass(convertPropertyName(name));
     }
 
     @Override
@@ -245,32 +146,12 @@ public class MoxyStrategy extends Introspector {
 
     @Override
     public String getChildName() {
-
-        String className = internalObject.getClass().getSimpleName();
-        String lowerHyphen = caseFormatStore.fromUpperCamelToLowerHyphen(className).orElseGet(() -> {
-            LOGGER.debug("Unable to find {} in the store for upper camel to lower hyphen", className);
-            return CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_HYPHEN, className);
-        });
-
-        if (this.isContainer()) {
-            String upperCamel = this.getGenericTypeClass(this.getProperties().iterator().next()).getSimpleName();
-
-            lowerHyphen = caseFormatStore.fromUpperCamelToLowerHyphen(upperCamel).orElseGet(() -> {
-                LOGGER.debug("Unable to find {} in the store for upper camel to lower hyphen", upperCamel);
-                return CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_HYPHEN, upperCamel);
-            });
-        }
-
-        return lowerHyphen;
+        return descriptor.getChildName();
     }
 
     @Override
     public String getName() {
-        String className = internalObject.getClass().getSimpleName();
-        return caseFormatStore.fromUpperCamelToLowerHyphen(className).orElseGet(() -> {
-            LOGGER.debug("Unable to find {} in the store for upper camel to lower hyphen", className);
-            return CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_HYPHEN, className);
-        });
+        return descriptor.getName();
     }
 
     @Override
@@ -353,15 +234,10 @@ public class MoxyStrategy extends Introspector {
         return ModelType.MOXY;
     }
 
-    private String removeXPathDescriptor(String name) {
-
-        return name.replaceAll("/text\\(\\)", "");
-    }
-
     @Override
     public String getMetadata(ObjectMetadata name) {
 
-        return (String) cd.getProperty(name.toString());
+        return descriptor.getMetadata(name);
     }
 
     @Override
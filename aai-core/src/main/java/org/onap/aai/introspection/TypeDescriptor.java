@@ -0,0 +1,326 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.introspection;
+
+import com.google.common.base.CaseFormat;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.dynamic.DynamicType;
+import org.eclipse.persistence.exceptions.DynamicException;
+import org.eclipse.persistence.jaxb.dynamic.DynamicJAXBContext;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.oxm.XMLField;
+import org.eclipse.persistence.oxm.mappings.XMLCompositeCollectionMapping;
+import org.eclipse.persistence.oxm.mappings.XMLCompositeDirectCollectionMapping;
+import org.onap.aai.config.SpringContextAware;
+import org.onap.aai.nodes.CaseFormatStore;
+import org.onap.aai.nodes.NodeIngestor;
+import org.onap.aai.schema.enums.ObjectMetadata;
+import org.onap.aai.schema.enums.PropertyMetadata;
+import org.onap.aai.setup.SchemaVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The schema metadata of one moxy type, built once and shared by every {@link MoxyStrategy}
+ * wrapping an object of that type.
+ *
+ * Each schema version has its own dynamic classes, so the descriptors are kept per class which
+ * makes them per version and type. They are stored with the class itself and go away with it.
+ */
+final class TypeDescriptor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TypeDescriptor.class);
+
+    private static final ClassValue<TypeDescriptor> DESCRIPTORS = new ClassValue<TypeDescriptor>() {
+        @Override
+        protected TypeDescriptor computeValue(Class<?> type) {
+            return new TypeDescriptor(type, SpringContextAware.getBean(NodeIngestor.class));
+        }
+    };
+
+    private final SchemaVersion version;
+    private final Loader loader;
+    private final DynamicJAXBContext jaxbContext;
+    private final DynamicType dynamicType;
+    private final ClassDescriptor classDescriptor;
+    private final Set<String> properties;
+    private final Map<String, String> attributeNames;
+    private final Set<String> requiredProperties;
+    private final Set<String> keys;
+    private final Set<String> allKeys;
+    private final Set<String> indexedProperties;
+    private final Set<String> dslStartNodeProperties;
+    private final Set<String> uniqueProperties;
+    private final String name;
+    private final ConcurrentMap<String, Map<PropertyMetadata, String>> propertyMetadata = new ConcurrentHashMap<>();
+    private final Map<String, Class<?>> propertyClasses = new HashMap<>();
+    private final Map<String, Class<?>> genericTypeClasses = new HashMap<>();
+    private final String childName;
+
+    private TypeDescriptor(Class<?> type, NodeIngestor nodeIngestor) {
+        CaseFormatStore caseFormatStore = nodeIngestor.getCaseFormatStore();
+        this.version = nodeIngestor.getVersionFromClassName(type.getName());
+        this.loader =
+                SpringContextAware.getBean(LoaderFactory.class).createLoaderForVersion(ModelType.MOXY, version);
+        this.jaxbContext = nodeIngestor.getContextForVersion(version);
+        this.dynamicType = jaxbContext.getDynamicType(type.getName());
+        this.classDescriptor = dynamicType.getDescriptor();
+
+        Map<String, String> attributes = new LinkedHashMap<>();
+        for (String s : dynamicType.getPropertiesNames()) {
+            attributes.put(caseFormatStore.fromLowerCamelToLowerHyphen(s).orElseGet(() -> {
+                LOGGER.debug("Unable to find {} in the store from lower camel to lower hyphen", s);
+                return CaseFormat.LOWER_CAMEL.to(CaseFormat.LOWER_HYPHEN, s);
+            }), s);
+            propertyClasses.put(s, resolveClass(s));
+            genericTypeClasses.put(s, resolveGenericTypeClass(s));
+        }
+        this.attributeNames = Collections.unmodifiableMap(attributes);
+        this.properties = Collections.unmodifiableSet(new LinkedHashSet<>(attributes.keySet()));
+
+        Set<String> requiredProps = new LinkedHashSet<>();
+        for (DatabaseMapping dm : classDescriptor.getMappings()) {
+            if (dm.getField() instanceof XMLField) {
+                XMLField x = (XMLField) dm.getField();
+                if (x != null && x.isRequired()) {
+                    requiredProps.add(removeXPathDescriptor(x.getName()));
+                }
+            }
+        }
+        this.requiredProperties = Collections.unmodifiableSet(requiredProps);
+
+        Set<String> keySet = new LinkedHashSet<>();
+        for (String keyName : classDescriptor.getPrimaryKeyFieldNames()) {
+            keySet.add(removeXPathDescriptor(keyName));
+        }
+        this.keys = Collections.unmodifiableSet(keySet);
+
+        String indexedProps = getMetadata(ObjectMetadata.INDEXED_PROPS);
+        String dslStartNodeProps = getMetadata(ObjectMetadata.DSL_START_NODE_PROPS);
+        this.allKeys = Introspector.addCommaSeparated(keys, getMetadata(ObjectMetadata.ALTERNATE_KEYS_1));
+        this.indexedProperties = Introspector.addCommaSeparated(keys, indexedProps);
+        this.dslStartNodeProperties =
+                Introspector.addCommaSeparated(keys, dslStartNodeProps != null ? dslStartNodeProps : indexedProps);
+        this.uniqueProperties =
+                Introspector.addCommaSeparated(Collections.emptySet(), getMetadata(ObjectMetadata.UNIQUE_PROPS));
+
+        this.name = toLowerHyphen(caseFormatStore, type.getSimpleName());
+        this.childName = toLowerHyphen(caseFormatStore, findChildClassName(type));
+    }
+
+    /**
+     * @param type - the dynamic class of a moxy object
+     * @return the shared descriptor of the type
+     */
+    static TypeDescriptor forClass(Class<?> type) {
+        return DESCRIPTORS.get(type);
+    }
+
+    private static String toLowerHyphen(CaseFormatStore caseFormatStore, String className) {
+        return caseFormatStore.fromUpperCamelToLowerHyphen(className).orElseGet(() -> {
+            LOGGER.debug("Unable to find {} in the store for upper camel to lower hyphen", className);
+            return CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_HYPHEN, className);
+        });
+    }
+
+    private static String removeXPathDescriptor(String name) {
+        return name.replaceAll("/text\\(\\)", "");
+    }
+
+    /**
+     * A container has a single list property, its children are named after the generic type of that list.
+     */
+    private String findChildClassName(Class<?> type) {
+        if (dynamicType.getPropertiesNames().size() == 1) {
+            String property = dynamicType.getPropertiesNames().get(0);
+            Class<?> propertyClass = propertyClasses.get(property);
+            if (propertyClass != null && (propertyClass.getName().equals("java.util.ArrayList")
+                    || propertyClass.getName().contains("java.util.List"))) {
+                return genericTypeClasses.get(property).getSimpleName();
+            }
+        }
+        return type.getSimpleName();
+    }
+
+    private Class<?> resolveClass(String name) {
+        Class<?> resultClass = null;
+        try {
+            if (dynamicType.getPropertyType(name) == null) {
+                DatabaseMapping mapping = classDescriptor.getMappingForAttributeName(name);
+                if (mapping instanceof XMLCompositeDirectCollectionMapping) {
+                    resultClass = mapping.getContainerPolicy().getContainerClass();
+                } else if (mapping instanceof XMLCompositeCollectionMapping) {
+                    resultClass = mapping.getContainerPolicy().getContainerClass();
+                } else {
+                    ClassDescriptor referenceDiscriptor = mapping.getReferenceDescriptor();
+                    if (referenceDiscriptor != null) {
+                        resultClass = referenceDiscriptor.getJavaClass();
+                    } else {
+                        resultClass = Object.class;
+                    }
+                }
+            } else {
+                resultClass = dynamicType.getPropertyType(name);
+            }
+        } catch (DynamicException e) {
+            // property doesn't exist
+        }
+        return resultClass;
+    }
+
+    private Class<?> resolveGenericTypeClass(String name) {
+        Class<?> resultClass = null;
+        if (dynamicType.getPropertyType(name) == null) {
+            DatabaseMapping mapping = classDescriptor.getMappingForAttributeName(name);
+            if (mapping instanceof XMLCompositeDirectCollectionMapping) {
+                resultClass = mapping.getFields().get(0).getType();
+            } else if (mapping instanceof XMLCompositeCollectionMapping) {
+                resultClass = mapping.getReferenceDescriptor().getJavaClass();
+            }
+        }
+        return resultClass;
+    }
+
+    private Map<PropertyMetadata, String> resolvePropertyMetadata(DatabaseMapping mapping) {
+        Map<PropertyMetadata, String> result = new EnumMap<>(PropertyMetadata.class);
+        Set<Map.Entry<String, String>> entrySet = mapping.getProperties().entrySet();
+        for (Map.Entry<String, String> entry : entrySet) {
+            result.put(PropertyMetadata.valueOf(CaseFormat.LOWER_CAMEL.to(CaseFormat.UPPER_UNDERSCORE, entry.getKey())),
+                    entry.getValue());
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    SchemaVersion getVersion() {
+        return version;
+    }
+
+    Loader getLoader() {
+        return loader;
+    }
+
+    DynamicJAXBContext getJaxbContext() {
+        return jaxbContext;
+    }
+
+    DynamicType getDynamicType() {
+        return dynamicType;
+    }
+
+    Set<String> getProperties() {
+        return properties;
+    }
+
+    /**
+     * @return the lower camel attribute names keyed by their lower hyphen property names
+     */
+    Map<String, String> getAttributeNames() {
+        return attributeNames;
+    }
+
+    Set<String> getRequiredProperties() {
+        return requiredProperties;
+    }
+
+    Set<String> getKeys() {
+        return keys;
+    }
+
+    Set<String> getAllKeys() {
+        return allKeys;
+    }
+
+    Set<String> getIndexedProperties() {
+        return indexedProperties;
+    }
+
+    Set<String> getDslStartNodeProperties() {
+        return dslStartNodeProperties;
+    }
+
+    Set<String> getUniqueProperties() {
+        return uniqueProperties;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getChildName() {
+        return childName;
+    }
+
+    String getMetadata(ObjectMetadata metadataName) {
+        return (String) classDescriptor.getProperty(metadataName.toString());
+    }
+
+    /**
+     * @param propName - the property name in lower camel case
+     * @return the unmodifiable metadata of the property, empty if it does not exist
+     */
+    Map<PropertyMetadata, String> getPropertyMetadata(String propName) {
+        Map<PropertyMetadata, String> result = propertyMetadata.get(propName);
+        if (result == null) {
+            DatabaseMapping mapping = classDescriptor.getMappingForAttributeName(propName);
+            if (mapping == null) {
+                return Collections.emptyMap();
+            }
+            result = resolvePropertyMetadata(mapping);
+            propertyMetadata.putIfAbsent(propName, result);
+        }
+        return result;
+    }
+
+    /**
+     * @param propName - the property name in lower camel case
+     * @return the class of the property, null if it does not exist
+     */
+    Class<?> getPropertyClass(String propName) {
+        Class<?> result = propertyClasses.get(propName);
+        if (result == null && !propertyClasses.containsKey(propName)) {
+            result = resolveClass(propName);
+        }
+        return result;
+    }
+
+    /**
+     * @param propName - the property name in lower camel case
+     * @return the generic type of the property, null if it is not a list
+     */
+    Class<?> getGenericTypeClass(String propName) {
+        Class<?> result = genericTypeClasses.get(propName);
+        if (result == null && !genericTypeClasses.containsKey(propName)) {
+            result = resolveGenericTypeClass(propName);
+        }
+        return result;
+    }
+}
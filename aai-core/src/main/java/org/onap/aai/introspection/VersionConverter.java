@@ -0,0 +1,225 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.introspection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.persistence.dynamic.DynamicEntity;
+import org.onap.aai.introspection.exceptions.AAIUnknownObjectException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Converts moxy objects to another schema version by copying their values
+ * property by property, the same way a marshal to json and unmarshal in the
+ * other version would.
+ *
+ * Properties are matched on their json names, so attributes renamed between versions
+ * still line up and properties the other version doesn't have are dropped.
+ * The property mappings between two types are worked out once and kept.
+ */
+public final class VersionConverter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VersionConverter.class);
+
+    private static final ClassValue<ConcurrentMap<Class<?>, PropertyMapping[]>> PLANS =
+            new ClassValue<ConcurrentMap<Class<?>, PropertyMapping[]>>() {
+                @Override
+                protected ConcurrentMap<Class<?>, PropertyMapping[]> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    private enum Kind {
+        SIMPLE, COMPLEX, SIMPLE_LIST, COMPLEX_LIST
+    }
+
+    private static final class PropertyMapping {
+        private final String source;
+        private final String target;
+        private final Kind kind;
+        private final Class<?> targetType;
+
+        private PropertyMapping(String source, String target, Kind kind, Class<?> targetType) {
+            this.source = source;
+            this.target = target;
+            this.kind = kind;
+            this.targetType = targetType;
+        }
+    }
+
+    private VersionConverter() {
+
+    }
+
+    /**
+     * Converts the object to the version of the given loader.
+     *
+     * @param obj the object to convert
+     * @param targetLoader the loader of the version to convert to
+     * @return the object in the other version
+     * @throws AAIUnknownObjectException if the other version doesn't have the object
+     */
+    public static Introspector convert(Introspector obj, Loader targetLoader) throws AAIUnknownObjectException {
+        if (!ModelType.MOXY.equals(obj.getModelType()) || !ModelType.MOXY.equals(targetLoader.getModelType())) {
+            throw new IllegalArgumentException("only moxy objects can be converted");
+        }
+        DynamicEntity target = (DynamicEntity) targetLoader.objectFromName(obj.getName());
+        copy((DynamicEntity) obj.getUnderlyingObject(), target, targetLoader);
+        return IntrospectorFactory.newInstance(ModelType.MOXY, target);
+    }
+
+    private static void copy(DynamicEntity source, DynamicEntity target, Loader targetLoader)
+            throws AAIUnknownObjectException {
+        for (PropertyMapping mapping : plan(source.getClass(), target.getClass())) {
+            Object value = source.get(mapping.source);
+            boolean isListMapping = mapping.kind == Kind.SIMPLE_LIST || mapping.kind == Kind.COMPLEX_LIST;
+            if (value == null || isListMapping != (value instanceof List)) {
+                continue;
+            }
+            Object converted = null;
+            switch (mapping.kind) {
+                case SIMPLE:
+                    converted = convertSimple(value, mapping.targetType);
+                    break;
+                case COMPLEX:
+                    converted = convertComplex(value, mapping.targetType, targetLoader);
+                    break;
+                case SIMPLE_LIST:
+                case COMPLEX_LIST:
+                    converted = convertList((List<?>) value, mapping, targetLoader);
+                    break;
+                default:
+                    break;
+            }
+            if (converted != null) {
+                target.set(mapping.target, converted);
+            }
+        }
+    }
+
+    private static List<Object> convertList(List<?> values, PropertyMapping mapping, Loader targetLoader)
+            throws AAIUnknownObjectException {
+        if (values.isEmpty()) {
+            return null;
+        }
+        List<Object> result = new ArrayList<>(values.size());
+        for (Object value : values) {
+            Object converted;
+            if (mapping.kind == Kind.COMPLEX_LIST) {
+                converted = convertComplex(value, mapping.targetType, targetLoader);
+            } else {
+                converted = convertSimple(value, mapping.targetType);
+            }
+            if (converted != null) {
+                result.add(converted);
+            }
+        }
+        return result;
+    }
+
+    private static Object convertComplex(Object value, Class<?> targetType, Loader targetLoader)
+            throws AAIUnknownObjectException {
+        if (!(value instanceof DynamicEntity)) {
+            return value;
+        }
+        DynamicEntity target;
+        if (targetType != null && DynamicEntity.class.isAssignableFrom(targetType)) {
+            target = TypeDescriptor.forClass(targetType).getDynamicType().newDynamicEntity();
+        } else {
+            // untyped properties hold any object, look it up by name in the other version
+            String name = TypeDescriptor.forClass(value.getClass()).getName();
+            try {
+                target = (DynamicEntity) targetLoader.objectFromName(name);
+            } catch (AAIUnknownObjectException e) {
+                LOGGER.debug("Dropping {} as it is not in version {}", name, targetLoader.getVersion());
+                return null;
+            }
+        }
+        copy((DynamicEntity) value, target, targetLoader);
+        return target;
+    }
+
+    private static Object convertSimple(Object value, Class<?> targetType) {
+        if (targetType == null || targetType.isInstance(value)) {
+            return value;
+        }
+        String str = value.toString();
+        try {
+            if (String.class.equals(targetType)) {
+                return str;
+            } else if (Integer.class.equals(targetType)) {
+                return Integer.valueOf(str);
+            } else if (Long.class.equals(targetType)) {
+                return Long.valueOf(str);
+            } else if (Boolean.class.equals(targetType)) {
+                return Boolean.valueOf(str);
+            }
+        } catch (NumberFormatException e) {
+            LOGGER.debug("Dropping value {} as it is not a valid {}", str, targetType.getSimpleName());
+            return null;
+        }
+        return value;
+    }
+
+    private static PropertyMapping[] plan(Class<?> sourceClass, Class<?> targetClass) {
+        ConcurrentMap<Class<?>, PropertyMapping[]> plans = PLANS.get(sourceClass);
+        PropertyMapping[] plan = plans.get(targetClass);
+        if (plan == null) {
+            plan = buildPlan(TypeDescriptor.forClass(sourceClass), TypeDescriptor.forClass(targetClass));
+            plans.putIfAbsent(targetClass, plan);
+        }
+        return plan;
+    }
+
+    private static PropertyMapping[] buildPlan(TypeDescriptor source, TypeDescriptor target) {
+        List<PropertyMapping> mappings = new ArrayList<>();
+        Map<String, String> targetAttributes = target.getAttributeNames();
+        for (Map.Entry<String, String> entry : source.getAttributeNames().entrySet()) {
+            String targetAttribute = targetAttributes.get(entry.getKey());
+            if (targetAttribute == null) {
+                continue;
+            }
+            Class<?> targetClass = target.getPropertyClass(targetAttribute);
+            Class<?> targetGenericClass = target.getGenericTypeClass(targetAttribute);
+            boolean isList = targetClass != null && List.class.isAssignableFrom(targetClass);
+            Class<?> elementClass = isList ? targetGenericClass : targetClass;
+            boolean isComplex = isComplex(source.getPropertyClass(entry.getValue()))
+                    || isComplex(source.getGenericTypeClass(entry.getValue())) || isComplex(elementClass);
+            Kind kind;
+            if (isList) {
+                kind = isComplex ? Kind.COMPLEX_LIST : Kind.SIMPLE_LIST;
+            } else {
+                kind = isComplex ? Kind.COMPLEX : Kind.SIMPLE;
+            }
+            mappings.add(new PropertyMapping(entry.getValue(), targetAttribute, kind, elementClass));
+        }
+        return mappings.toArray(new PropertyMapping[0]);
+    }
+
+    private static boolean isComplex(Class<?> type) {
+        return type != null && (DynamicEntity.class.isAssignableFrom(type) || Object.class.equals(type));
+    }
+}
@@ -29,7 +29,6 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.tinkerpop.gremlin.structure.Vertex;
@@ -49,6 +48,7 @@ import org.slf4j.LoggerFactory;
 public abstract class SideEffect {
 
     protected static final Pattern template = Pattern.compile("\\{(.*?)\\}");
+    private static final Pattern wildcards = Pattern.compile("/[^/]+?(?:/\\*)+");
     private static final Logger logger = LoggerFactory.getLogger(SideEffect.class);
 
     protected final Introspector obj;
@@ -81,14 +81,7 @@ public abstract class SideEffect {
     }
 
     protected Map<String, String> findPopertiesWithMetadata(Introspector obj, PropertyMetadata metadata) {
-        final Map<String, String> result = new HashMap<>();
-        for (String prop : obj.getProperties()) {
-            final Map<PropertyMetadata, String> map = obj.getPropertyMetadata(prop);
-            if (map.containsKey(metadata)) {
-                result.put(prop, map.get(metadata));
-            }
-        }
-        return result;
+        return SideEffectPlan.forObject(obj).getProperties(metadata);
     }
 
     protected Map<String, String> findProperties(Introspector obj, String uriString)
@@ -96,10 +89,8 @@ public abstract class SideEffect {
 
         final Map<String, String> result = new HashMap<>();
         final Set<String> missing = new LinkedHashSet<>();
-        Matcher m = template.matcher(uriString);
         int properties = 0;
-        while (m.find()) {
-            String propName = m.group(1);
+        for (String propName : SideEffectPlan.template(uriString).getKeys()) {
             String value = obj.getValue(propName);
             properties++;
             if (value != null) {
@@ -121,17 +112,16 @@ public abstract class SideEffect {
 
     protected Optional<String> replaceTemplates(Introspector obj, String uriString)
             throws AAIMissingRequiredPropertyException {
-        String result = uriString;
         final Map<String, String> propMap = this.findProperties(obj, uriString);
         if (propMap.isEmpty()) {
             return Optional.empty();
         }
-        for (Entry<String, String> entry : propMap.entrySet()) {
-            templateKeys.add(entry.getKey());
-            result = result.replaceAll("\\{" + entry.getKey() + "\\}", entry.getValue());
-        }
+        templateKeys.addAll(propMap.keySet());
+        String result = SideEffectPlan.template(uriString).fill(propMap);
         // drop out wildcards if they exist
-        result = result.replaceFirst("/[^/]+?(?:/\\*)+", "");
+        if (result.contains("/*")) {
+            result = wildcards.matcher(result).replaceFirst("");
+        }
         return Optional.of(result);
     }
 
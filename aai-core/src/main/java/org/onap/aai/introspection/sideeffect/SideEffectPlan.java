@@ -0,0 +1,178 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.introspection.sideeffect;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+
+import org.onap.aai.introspection.Introspector;
+import org.onap.aai.introspection.ModelType;
+import org.onap.aai.schema.enums.PropertyMetadata;
+import org.onap.aai.setup.SchemaVersion;
+
+/**
+ * The properties of a type that side effects act on, by the metadata that marks them.
+ * Metadata no side effect reads, such as descriptions, is left out of the plan.
+ *
+ * The plan of a type is built from its property metadata the first time an object of
+ * that type goes through the side effects and is reused after that. Most types have no
+ * such properties, their plan is empty and no side effect has to run for them.
+ */
+final class SideEffectPlan {
+
+    private static final ConcurrentMap<SchemaVersion, ConcurrentMap<String, SideEffectPlan>> PLANS =
+            new ConcurrentHashMap<>();
+
+    private static final Set<PropertyMetadata> SIDE_EFFECT_METADATA = EnumSet.of(PropertyMetadata.DATA_COPY,
+            PropertyMetadata.DATA_LINK, PropertyMetadata.PRIVATE_EDGE, PropertyMetadata.OWNER_CHECK);
+
+    private static final ConcurrentMap<String, UriTemplate> TEMPLATES = new ConcurrentHashMap<>();
+
+    private final Map<PropertyMetadata, Map<String, String>> properties;
+
+    private SideEffectPlan(Map<PropertyMetadata, Map<String, String>> properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * @param obj the object
+     * @return the plan of the object's type
+     */
+    static SideEffectPlan forObject(Introspector obj) {
+        if (!ModelType.MOXY.equals(obj.getModelType())) {
+            return build(obj);
+        }
+        ConcurrentMap<String, SideEffectPlan> plans =
+                PLANS.computeIfAbsent(obj.getVersion(), version -> new ConcurrentHashMap<>());
+        SideEffectPlan plan = plans.get(obj.getName());
+        if (plan == null) {
+            plan = build(obj);
+            plans.putIfAbsent(obj.getName(), plan);
+        }
+        return plan;
+    }
+
+    /**
+     * @param uri a uri with {property} placeholders
+     * @return the uri split around its placeholders
+     */
+    static UriTemplate template(String uri) {
+        UriTemplate template = TEMPLATES.get(uri);
+        if (template == null) {
+            template = new UriTemplate(uri);
+            TEMPLATES.putIfAbsent(uri, template);
+        }
+        return template;
+    }
+
+    boolean isEmpty() {
+        return properties.isEmpty();
+    }
+
+    /**
+     * @param metadata the metadata
+     * @return whether the metadata is one side effects act on
+     */
+    static boolean isSideEffectMetadata(PropertyMetadata metadata) {
+        return SIDE_EFFECT_METADATA.contains(metadata);
+    }
+
+    boolean hasProperties(PropertyMetadata metadata) {
+        return properties.containsKey(metadata);
+    }
+
+    /**
+     * @param metadata the metadata
+     * @return the values of the metadata by property name
+     */
+    Map<String, String> getProperties(PropertyMetadata metadata) {
+        return properties.getOrDefault(metadata, Collections.emptyMap());
+    }
+
+    private static SideEffectPlan build(Introspector obj) {
+        Map<PropertyMetadata, Map<String, String>> properties = new EnumMap<>(PropertyMetadata.class);
+        for (String prop : obj.getProperties()) {
+            for (Map.Entry<PropertyMetadata, String> entry : obj.getPropertyMetadata(prop).entrySet()) {
+                if (!SIDE_EFFECT_METADATA.contains(entry.getKey())) {
+                    continue;
+                }
+                properties.computeIfAbsent(entry.getKey(), metadata -> new LinkedHashMap<>()).put(prop,
+                        entry.getValue());
+            }
+        }
+        properties.replaceAll((metadata, values) -> Collections.unmodifiableMap(values));
+        return new SideEffectPlan(properties);
+    }
+
+    /**
+     * A uri split into its literal parts and the properties between them.
+     */
+    static final class UriTemplate {
+
+        private final List<String> literals = new ArrayList<>();
+        private final List<String> keys = new ArrayList<>();
+
+        private UriTemplate(String uri) {
+            Matcher m = SideEffect.template.matcher(uri);
+            int start = 0;
+            while (m.find()) {
+                literals.add(uri.substring(start, m.start()));
+                keys.add(m.group(1));
+                start = m.end();
+            }
+            literals.add(uri.substring(start));
+        }
+
+        /**
+         * @return the properties of the placeholders, in order
+         */
+        List<String> getKeys() {
+            return Collections.unmodifiableList(keys);
+        }
+
+        /**
+         * @param values the value of each placeholder
+         * @return the uri with the placeholders that have a value replaced
+         */
+        String fill(Map<String, String> values) {
+            StringBuilder uri = new StringBuilder(literals.get(0));
+            for (int i = 0; i < keys.size(); i++) {
+                String value = values.get(keys.get(i));
+                if (value == null) {
+                    uri.append('{').append(keys.get(i)).append('}');
+                } else {
+                    uri.append(value);
+                }
+                uri.append(literals.get(i + 1));
+            }
+            return uri.toString();
+        }
+    }
+}
@@ -21,19 +21,30 @@
 package org.onap.aai.introspection.sideeffect;
 
 import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URISyntaxException;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.onap.aai.exceptions.AAIException;
 import org.onap.aai.introspection.Introspector;
+import org.onap.aai.schema.enums.PropertyMetadata;
 import org.onap.aai.serialization.db.DBSerializer;
 import org.onap.aai.serialization.engines.TransactionalGraphEngine;
 
 public class SideEffectRunner {
 
+    private static final ConcurrentMap<Class<? extends SideEffect>, Constructor<? extends SideEffect>> CONSTRUCTORS =
+            new ConcurrentHashMap<>();
+
+    /* the metadata each side effect acts on, learned the first time it runs */
+    private static final ConcurrentMap<Class<? extends SideEffect>, PropertyMetadata> METADATA =
+            new ConcurrentHashMap<>();
+
     protected final TransactionalGraphEngine dbEngine;
     protected final DBSerializer serializer;
     protected final Set<Class<? extends SideEffect>> sideEffects;
@@ -44,12 +55,30 @@ public class SideEffectRunner {
         this.sideEffects = builder.getSideEffects();
     }
 
+    /**
+     * Runs the side effects that act on properties of the object's type.
+     * A side effect only acts on the properties marked with its metadata,
+     * so the ones whose metadata the type doesn't have are not created.
+     *
+     * @param obj the object
+     * @param self the vertex of the object
+     * @throws AAIException if a side effect fails
+     */
     public void execute(Introspector obj, Vertex self) throws AAIException {
 
+        SideEffectPlan plan = SideEffectPlan.forObject(obj);
+        if (plan.isEmpty()) {
+            return;
+        }
         for (Class<? extends SideEffect> se : sideEffects) {
+            PropertyMetadata metadata = METADATA.get(se);
+            if (metadata != null && !plan.hasProperties(metadata)) {
+                continue;
+            }
             try {
-                se.getConstructor(Introspector.class, Vertex.class, TransactionalGraphEngine.class, DBSerializer.class)
-                        .newInstance(obj, self, dbEngine, serializer).execute();
+                SideEffect sideEffect = getConstructor(se).newInstance(obj, self, dbEngine, serializer);
+                METADATA.putIfAbsent(se, sideEffect.getPropertyMetadata());
+                sideEffect.execute();
             } catch (UnsupportedEncodingException | InstantiationException | IllegalAccessException
                     | IllegalArgumentException | InvocationTargetException | NoSuchMethodException | SecurityException
                     | URISyntaxException e) {
@@ -58,6 +87,17 @@ public class SideEffectRunner {
         }
     }
 
+    private static Constructor<? extends SideEffect> getConstructor(Class<? extends SideEffect> se)
+            throws NoSuchMethodException {
+        Constructor<? extends SideEffect> constructor = CONSTRUCTORS.get(se);
+        if (constructor == null) {
+            constructor = se.getConstructor(Introspector.class, Vertex.class, TransactionalGraphEngine.class,
+                    DBSerializer.class);
+            CONSTRUCTORS.putIfAbsent(se, constructor);
+        }
+        return constructor;
+    }
+
     public static class Builder {
 
         private final TransactionalGraphEngine dbEngine;
@@ -0,0 +1,69 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times a phase for code that starts timing in one method and stops in another, on
+ * the same thread. A start while already started on the thread is ignored, so nested
+ * calls, even through different objects, are only counted once.
+ *
+ * There is one timer per phase, see {@link RequestMetrics#timer(RequestPhase)}.
+ */
+public final class PhaseTimer {
+
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+
+    private final RequestPhase phase;
+    private final ThreadLocal<long[]> start = ThreadLocal.withInitial(() -> new long[] {NOT_STARTED});
+
+    PhaseTimer(RequestPhase phase) {
+        this.phase = phase;
+    }
+
+    public void conditionalStart() {
+        long[] started = start.get();
+        if (started[0] == NOT_STARTED) {
+            started[0] = RequestMetrics.start();
+        }
+    }
+
+    /**
+     * @return the milliseconds since the start on this thread, 0 if not started
+     */
+    public double stopIfStarted() {
+        long[] started = start.get();
+        if (started[0] == NOT_STARTED) {
+            return 0;
+        }
+        long elapsed = RequestMetrics.stop(phase, started[0]);
+        started[0] = NOT_STARTED;
+        return (double) elapsed / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Forgets a start on this thread without recording it.
+     */
+    public void reset() {
+        start.remove();
+    }
+}
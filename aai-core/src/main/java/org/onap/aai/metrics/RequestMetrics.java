@@ -0,0 +1,125 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.metrics;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timings of the request phases, kept in memory for the life of the process.
+ *
+ * Recording a timing is a couple of counter updates on the calling thread and
+ * nothing is put in the logging context. {@link #scrape(Appendable)} writes the
+ * timings in the prometheus text format.
+ */
+public final class RequestMetrics {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+    private static final Map<RequestPhase, Histogram> HISTOGRAMS = new EnumMap<>(RequestPhase.class);
+    private static final Map<RequestPhase, PhaseTimer> TIMERS = new EnumMap<>(RequestPhase.class);
+
+    static {
+        for (RequestPhase phase : RequestPhase.values()) {
+            HISTOGRAMS.put(phase, new Histogram());
+            TIMERS.put(phase, new PhaseTimer(phase));
+        }
+    }
+
+    private RequestMetrics() {
+
+    }
+
+    /**
+     * @return the start time to pass to {@link #stop(RequestPhase, long)}
+     */
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the time since the start in the phase.
+     *
+     * @param phase the phase
+     * @param start the time returned by {@link #start()}
+     * @return the elapsed time in nanoseconds
+     */
+    public static long stop(RequestPhase phase, long start) {
+        long elapsed = System.nanoTime() - start;
+        HISTOGRAMS.get(phase).record(elapsed);
+        return elapsed;
+    }
+
+    /**
+     * @param phase the phase
+     * @return the timings of the phase, in nanoseconds
+     */
+    public static Histogram get(RequestPhase phase) {
+        return HISTOGRAMS.get(phase);
+    }
+
+    /**
+     * @param phase the phase
+     * @return the timer of the phase
+     */
+    public static PhaseTimer timer(RequestPhase phase) {
+        return TIMERS.get(phase);
+    }
+
+    /**
+     * Forgets the starts of every timer on this thread, so a timer left running by
+     * an earlier request on a pooled thread isn't counted in the next one.
+     */
+    public static void resetTimers() {
+        for (PhaseTimer timer : TIMERS.values()) {
+            timer.reset();
+        }
+    }
+
+    /**
+     * Writes a summary of every phase, in seconds.
+     *
+     * @param out where to write
+     * @throws IOException if the output can't be written
+     */
+    public static void scrape(Appendable out) throws IOException {
+        for (RequestPhase phase : RequestPhase.values()) {
+            Histogram histogram = HISTOGRAMS.get(phase);
+            String name = phase.getMetricName() + "_seconds";
+            out.append("# HELP ").append(name).append(' ').append(phase.getDescription()).append('\n');
+            out.append("# TYPE ").append(name).append(" summary\n");
+            for (double quantile : QUANTILES) {
+                out.append(name).append("{quantile=\"").append(String.valueOf(quantile)).append("\"} ")
+                        .append(seconds(histogram.getValueAtQuantile(quantile))).append('\n');
+            }
+            out.append(name).append("_sum ").append(seconds(histogram.getSum())).append('\n');
+            out.append(name).append("_count ").append(String.valueOf(histogram.getCount())).append('\n');
+            out.append("# TYPE ").append(name).append("_max gauge\n");
+            out.append(name).append("_max ").append(seconds(histogram.getMax())).append('\n');
+        }
+    }
+
+    private static String seconds(long nanos) {
+        return String.valueOf((double) nanos / TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.metrics;
+
+/**
+ * The parts of a request that are timed.
+ */
+public enum RequestPhase {
+
+    REQUEST("aai_request", "Time spent processing a batch of requests in HttpEntry"),
+    SERIALIZATION("aai_serialization", "Time spent writing objects to and reading them from the graph"),
+    DB("aai_db", "Time spent in graph calls"),
+    QUERY_FORMAT("aai_query_format", "Time spent formatting query results"),
+    NOTIFICATION("aai_notification", "Time spent publishing notification events");
+
+    private final String metricName;
+    private final String description;
+
+    RequestPhase(String metricName, String description) {
+        this.metricName = metricName;
+        this.description = description;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
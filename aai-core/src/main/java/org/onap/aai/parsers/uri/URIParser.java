@@ -24,7 +24,7 @@ package org.onap.aai.parsers.uri;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.Set;
+import java.util.List;
 
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
@@ -36,8 +36,8 @@ import org.onap.aai.introspection.Introspector;
 import org.onap.aai.introspection.Loader;
 import org.onap.aai.introspection.exceptions.AAIUnknownObjectException;
 import org.onap.aai.parsers.exceptions.DoesNotStartWithValidNamespaceException;
+import org.onap.aai.parsers.uri.URIRoutes.Route;
 import org.onap.aai.rest.RestTokens;
-import org.onap.aai.schema.enums.ObjectMetadata;
 import org.springframework.web.util.UriUtils;
 
 /**
@@ -98,14 +98,23 @@ public class URIParser {
      * @throws AAIException the AAI exception
      */
     public void parse(Parsable p) throws UnsupportedEncodingException, AAIException {
+        this.walk(p);
+    }
+
+    /**
+     * Walks the uri, handing each segment to the parsable if there is one.
+     * The path is checked against the routes of the version, an introspector
+     * is only made for a segment when it is handed to the parsable.
+     */
+    private void walk(Parsable p) throws UnsupportedEncodingException, AAIException {
         try {
             boolean isRelative = uri.getRawPath().startsWith("./");
             uri = formatUri();
-            if (p.useOriginalLoader()) {
+            if (p == null || p.useOriginalLoader()) {
                 this.loader = this.originalLoader;
             }
             String[] parts = uri.getRawPath().split("/");
-            Introspector previousObj = null;
+            Route previous = null;
             EdgeType type = EdgeType.TREE;
             for (int i = 0; i < parts.length;) {
                 String part = parts[i];
@@ -116,14 +125,15 @@ public class URIParser {
                                 uri + " not a valid path. Cannot end in " + RestTokens.COUSIN);
                     }
                     boolean isFinalContainer = i == parts.length - 2;
-                    previousObj = parseCousin(p, parts[i + 1], previousObj, isFinalContainer);
+                    previous = parseCousin(p, parts[i + 1], previous, isFinalContainer);
                     type = EdgeType.ALL;
                     i += 2;
                     continue;
                 }
-                Introspector introspector = loader.introspectorFromName(part);
-                validatePath(isRelative, previousObj, part, introspector);
-                Set<String> keys = introspector.getKeys();
+                Route route = URIRoutes.get(loader, part);
+                validatePath(isRelative, previous, part, route);
+                Introspector introspector = p == null ? null : loader.introspectorFromName(part);
+                List<String> keys = route.getKeys();
                 if (keys.size() > 0) {
                     MultivaluedMap<String, String> uriKeys = new MultivaluedHashMap<>();
                     boolean isLastPart = i+1 == parts.length;
@@ -132,25 +142,31 @@ public class URIParser {
                     } else {
                         for (String key : keys) {
                             part = UriUtils.decode(parts[i+1], "UTF-8");
-                            introspector.setValue(key, part);
+                            if (introspector != null) {
+                                introspector.setValue(key, part);
+                            }
                             // skip this for further processing
                             i++;
                         }
                     }
 
-                    p.processObject(introspector, type, uriKeys);
+                    if (p != null) {
+                        p.processObject(introspector, type, uriKeys);
+                    }
                     type = EdgeType.TREE;
-                } else if (introspector.isContainer()) {
+                } else if (route.isContainer()) {
                     boolean isFinalContainer = i == parts.length - 1;
                     MultivaluedMap<String, String> uriKeys = isFinalContainer && queryParams != null
                             ? queryParams
                             : new MultivaluedHashMap<>();
-                    p.processContainer(introspector, type, uriKeys, isFinalContainer);
-                } else {
+                    if (p != null) {
+                        p.processContainer(introspector, type, uriKeys, isFinalContainer);
+                    }
+                } else if (p != null) {
                     p.processNamespace(introspector);
                 }
                 i++;
-                previousObj = introspector;
+                previous = route;
             }
         } catch (AAIException e) {
             throw e;
@@ -159,41 +175,35 @@ public class URIParser {
         }
     }
 
-    private void validatePath(boolean isRelative, Introspector previousObj,
-            String part, Introspector introspector) throws AAIException, DoesNotStartWithValidNamespaceException {
-        if (introspector == null) {
-            throw new AAIException(aaiExceptionCode, "invalid item found in path: " + part);
-        }
+    private void validatePath(boolean isRelative, Route previous, String part, Route route)
+            throws AAIException, AAIUnknownObjectException, DoesNotStartWithValidNamespaceException {
         // previous has current as property
-        boolean isPathInvalid = previousObj != null && !previousObj.hasChild(introspector)
-                && !previousObj.getDbName().equals("nodes");
+        boolean isPathInvalid = previous != null && !previous.hasChild(route)
+                && !previous.getDbName().equals("nodes");
         if (isPathInvalid) {
             throw new AAIException(aaiExceptionCode, uri + " not a valid path. " + part + " not valid");
         }
-        if (previousObj == null) {
+        if (previous == null) {
             // first time through, make sure it starts from a valid namespace
             // ignore abstract types
-            String abstractType = introspector.getMetadata(ObjectMetadata.ABSTRACT);
-            Introspector validNamespaces = loader.introspectorFromName("inventory");
-            if (!isRelative && !"true".equals(abstractType) && !validNamespaces.hasChild(introspector)) {
+            if (!isRelative && !route.isAbstract() && !URIRoutes.isNamespace(loader, route)) {
                 throw new DoesNotStartWithValidNamespaceException(
                         uri + " not a valid path. It does not start from a valid namespace");
             }
         }
     }
 
-    private Introspector parseCousin(Parsable p, String name, Introspector previousObj, boolean isFinalContainer)
+    private Route parseCousin(Parsable p, String name, Route previous, boolean isFinalContainer)
             throws AAIException, AAIUnknownObjectException {
-        Introspector introspector;
-        if (null == previousObj) {
+        if (null == previous) {
             throw new AAIException(aaiExceptionCode);
         }
-        introspector = loader.introspectorFromName(name);
-        if (previousObj.isContainer() && introspector.isContainer()) {
+        Route route = URIRoutes.get(loader, name);
+        if (previous.isContainer() && route.isContainer()) {
             throw new AAIException("AAI_3000", uri + " not a valid path. Cannot chain plurals together");
         }
 
-        if (introspector.isContainer()) {
+        if (route.isContainer() && p != null) {
             MultivaluedMap<String, String> uriKeys = isFinalContainer && queryParams != null
                     ? queryParams
                     : new MultivaluedHashMap<>();
@@ -202,13 +212,13 @@ public class URIParser {
              * EdgeRuleBuilder use all the
              * edgeTypes
              */
-            p.processContainer(introspector, EdgeType.ALL, uriKeys, isFinalContainer);
+            p.processContainer(loader.introspectorFromName(name), EdgeType.ALL, uriKeys, isFinalContainer);
         }
-        return introspector;
+        return route;
     }
 
     public boolean validate() throws UnsupportedEncodingException, AAIException {
-        this.parse(new URIValidate());
+        this.walk(null);
         return true;
     }
 
@@ -0,0 +1,151 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.parsers.uri;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.onap.aai.introspection.Introspector;
+import org.onap.aai.introspection.Loader;
+import org.onap.aai.introspection.exceptions.AAIUnknownObjectException;
+import org.onap.aai.logging.LogFormatTools;
+import org.onap.aai.schema.enums.ObjectMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * What the uri parser needs to know about each path segment of a schema version: the type
+ * it names, its keys, whether it is a container and which types can follow it.
+ *
+ * The route of a segment is compiled from its type the first time the segment is seen and
+ * reused for every uri of that loader after that, so walking a uri doesn't need an introspector for each
+ * segment, its parent types or the inventory.
+ */
+final class URIRoutes {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(URIRoutes.class);
+
+    private static final Map<Loader, ConcurrentMap<String, Route>> ROUTES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final String INVENTORY = "inventory";
+
+    private URIRoutes() {
+
+    }
+
+    /**
+     * @param loader the loader of the version
+     * @param segment a path segment
+     * @return the route of the segment
+     * @throws AAIUnknownObjectException if the segment isn't a type of the version
+     */
+    static Route get(Loader loader, String segment) throws AAIUnknownObjectException {
+        ConcurrentMap<String, Route> routes = ROUTES.computeIfAbsent(loader, key -> new ConcurrentHashMap<>());
+        Route route = routes.get(segment);
+        if (route == null) {
+            route = new Route(loader, loader.introspectorFromName(segment));
+            routes.putIfAbsent(segment, route);
+        }
+        return route;
+    }
+
+    /**
+     * @param loader the loader of the version
+     * @param route the route of the first segment of a uri
+     * @return true, if the inventory has the route's type
+     * @throws AAIUnknownObjectException if the version has no inventory
+     */
+    static boolean isNamespace(Loader loader, Route route) throws AAIUnknownObjectException {
+        return get(loader, INVENTORY).hasChild(route);
+    }
+
+    /**
+     * A type a path segment can name.
+     */
+    static final class Route {
+
+        private final String name;
+        private final String dbName;
+        private final List<String> keys;
+        private final boolean container;
+        private final boolean isAbstract;
+        private final Set<String> children;
+
+        private Route(Loader loader, Introspector obj) {
+            this.name = obj.getName();
+            this.dbName = obj.getDbName();
+            this.keys = Collections.unmodifiableList(new ArrayList<>(obj.getKeys()));
+            this.container = obj.isContainer();
+            this.isAbstract = "true".equals(obj.getMetadata(ObjectMetadata.ABSTRACT));
+            Set<String> properties = new HashSet<>();
+            if (isAbstract) {
+                // an abstract type has the children of all the types inheriting it
+                for (String inheritor : obj.getMetadata(ObjectMetadata.INHERITORS).split(",")) {
+                    try {
+                        properties.addAll(loader.introspectorFromName(inheritor).getProperties());
+                    } catch (AAIUnknownObjectException e) {
+                        LOGGER.warn("Skipping inheritor " + inheritor + " (Unknown Object) "
+                                + LogFormatTools.getStackTop(e));
+                    }
+                }
+            } else {
+                properties.addAll(obj.getProperties());
+            }
+            this.children = Collections.unmodifiableSet(properties);
+        }
+
+        String getName() {
+            return name;
+        }
+
+        String getDbName() {
+            return dbName;
+        }
+
+        List<String> getKeys() {
+            return keys;
+        }
+
+        boolean isContainer() {
+            return container;
+        }
+
+        boolean isAbstract() {
+            return isAbstract;
+        }
+
+        /**
+         * @param child the route of the next segment
+         * @return true, if the next segment can follow this one
+         */
+        boolean hasChild(Route child) {
+            return children.contains(child.name);
+        }
+    }
+}
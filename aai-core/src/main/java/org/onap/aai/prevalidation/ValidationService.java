@@ -22,22 +22,40 @@
 
 package org.onap.aai.prevalidation;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
 import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
 
 import java.net.ConnectException;
 import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.apache.http.conn.ConnectTimeoutException;
 import org.onap.aai.exceptions.AAIException;
@@ -58,6 +76,13 @@ import org.springframework.stereotype.Service;
  * <b>ValidationService</b> routes all the writes to the database
  * excluding deletes for now to the validation service to verify
  * that the request is an valid one before committing to the database
+ *
+ * The entities of a request are sent with up to validation.service.max-concurrent-requests
+ * requests at a time, validation.service.batch-size entities per request. A batch size
+ * above one posts a json array of events to the batch endpoint, which answers with a json
+ * array holding the validation of each event in the same order.
+ * The verdicts the service gives are kept for validation.service.cache.ttl-in-seconds by
+ * a hash of the event, so writing the same entity again doesn't go back to the service.
  */
 @Service
 @Profile("pre-validation")
@@ -86,7 +111,13 @@ public class ValidationService {
     static final String REQUEST_TIMEOUT_STRING =
             "Request to validation service took longer than the currently set timeout";
 
+    /**
+     * Violation reported for the events of a batch whose validation failed
+     */
+    static final String BATCH_FAILURE_STRING = "Validation of a batch of %d events failed: %s";
+
     static final String VALIDATION_ENDPOINT = "/v1/validate";
+    static final String VALIDATION_BATCH_ENDPOINT = "/v1/validate/batch";
     static final String VALIDATION_HEALTH_ENDPOINT = "/v1/info";
 
     private static final String ENTITY_TYPE = "entity-type";
@@ -95,6 +126,10 @@ public class ValidationService {
 
     private static final String DELETE = "DELETE";
 
+    /* change on every write without changing the verdict, so they are left out of the hash */
+    private static final List<String> VOLATILE_HEADER_FIELDS = Arrays.asList("id", "timestamp", "sequence-number");
+    private static final String RESOURCE_VERSION = "resource-version";
+
     private static final Logger LOGGER = LoggerFactory.getLogger(ValidationService.class);
 
     private final RestClient validationRestClient;
@@ -103,26 +138,61 @@ public class ValidationService {
 
     private final Set<String> validationNodeTypes;
 
-    private List<Pattern> exclusionList;
+    private final Pattern exclusionPattern;
+
+    private final int batchSize;
+
+    private final int maxConcurrentRequests;
+
+    private final ExecutorService executor;
+
+    private final Cache<String, List<String>> verdicts;
 
     private final Gson gson;
 
+    public ValidationService(RestClient validationRestClient, String appName, String validationNodes,
+            String exclusionRegexes) {
+        this(validationRestClient, appName, validationNodes, exclusionRegexes, 1, 1, 0, 0);
+    }
+
     @Autowired
     public ValidationService(@Qualifier("validationRestClient") RestClient validationRestClient,
             @Value("${spring.application.name}") String appName,
             @Value("${validation.service.node-types}") String validationNodes,
-            @Value("${validation.service.exclusion-regexes}") String exclusionRegexes) {
+            @Value("${validation.service.exclusion-regexes}") String exclusionRegexes,
+            @Value("${validation.service.batch-size:1}") int batchSize,
+            @Value("${validation.service.max-concurrent-requests:4}") int maxConcurrentRequests,
+            @Value("${validation.service.cache.max-entries:1000}") long cacheMaxEntries,
+            @Value("${validation.service.cache.ttl-in-seconds:300}") long cacheTtlInSeconds) {
         this.validationRestClient = validationRestClient;
         this.appName = appName;
 
         this.validationNodeTypes = Arrays.stream(validationNodes.split(",")).collect(Collectors.toSet());
 
         if (exclusionRegexes == null || exclusionRegexes.isEmpty()) {
-            this.exclusionList = new ArrayList<>();
+            this.exclusionPattern = null;
         } else {
-            this.exclusionList =
-                    Arrays.stream(exclusionRegexes.split(",")).map(Pattern::compile).collect(Collectors.toList());
+            // one pattern matching any of the regexes, so a source is matched once
+            this.exclusionPattern = Pattern.compile(Arrays.stream(exclusionRegexes.split(","))
+                    .map(regex -> "(?:" + regex + ")").collect(Collectors.joining("|")));
         }
+
+        this.batchSize = Math.max(1, batchSize);
+
+        // the queue is bounded, once it is full the calling thread validates the batch itself
+        AtomicInteger threadCount = new AtomicInteger();
+        int threads = Math.max(1, maxConcurrentRequests);
+        this.maxConcurrentRequests = threads;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads), r -> {
+                    Thread thread = new Thread(r, "aai-pre-validation-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+
+        this.verdicts = CacheBuilder.newBuilder().maximumSize(Math.max(0, cacheMaxEntries))
+                .expireAfterWrite(Math.max(0, cacheTtlInSeconds), TimeUnit.SECONDS).build();
+
         this.gson = new Gson();
         LOGGER.info("Successfully initialized the pre validation service");
     }
@@ -155,6 +225,11 @@ public class ValidationService {
         LOGGER.info("Successfully connected to the validation service endpoint");
     }
 
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
     public boolean shouldValidate(String nodeType) {
         return this.validationNodeTypes.contains(nodeType);
     }
@@ -170,17 +245,16 @@ public class ValidationService {
             // is in one of the regexes then we skip sending it to validation
             NotificationEvent notification = notificationEvents.get(0);
             Introspector eventHeader = notification.getEventHeader();
-            if (eventHeader != null) {
+            if (eventHeader != null && exclusionPattern != null) {
                 String source = eventHeader.getValue(SOURCE_NAME);
-                for (Pattern pattern : exclusionList) {
-                    if (pattern.matcher(source).matches()) {
-                        return;
-                    }
+                if (source != null && exclusionPattern.matcher(source).matches()) {
+                    return;
                 }
             }
 
         }
 
+        List<String> bodies = new ArrayList<>();
         for (NotificationEvent event : notificationEvents) {
 
             Introspector eventHeader = event.getEventHeader();
@@ -203,17 +277,205 @@ public class ValidationService {
             }
 
             if (this.shouldValidate(entityType)) {
-                List<String> violations = this.preValidate(event.getNotificationEvent());
-                if (!violations.isEmpty()) {
-                    AAIException aaiException = new AAIException("AAI_4019");
-                    aaiException.getTemplateVars().addAll(violations);
-                    throw aaiException;
+                bodies.add(event.getNotificationEvent());
+            }
+        }
+
+        List<String> violations = this.preValidateAll(bodies);
+        if (!violations.isEmpty()) {
+            AAIException aaiException = new AAIException("AAI_4019");
+            aaiException.getTemplateVars().addAll(violations);
+            throw aaiException;
+        }
+    }
+
+    /**
+     * Validates the events, asking the validation service only for the ones
+     * without a cached verdict.
+     *
+     * @param bodies the event payloads
+     * @return the violations of all the events
+     * @throws AAIException if interrupted while waiting on the validation service
+     */
+    List<String> preValidateAll(List<String> bodies) throws AAIException {
+
+        // events with the same content only have to be validated once
+        Map<String, String> pending = new LinkedHashMap<>();
+        List<String> keys = new ArrayList<>(bodies.size());
+        for (String body : bodies) {
+            String key = contentHash(body);
+            keys.add(key);
+            if (verdicts.getIfPresent(key) == null) {
+                pending.putIfAbsent(key, body);
+            }
+        }
+
+        Map<String, List<String>> answered = new HashMap<>();
+        List<String> failures = new ArrayList<>();
+        if (!pending.isEmpty()) {
+            List<String> pendingKeys = new ArrayList<>(pending.keySet());
+            List<List<String>> batches = new ArrayList<>();
+            for (int i = 0; i < pendingKeys.size(); i += batchSize) {
+                batches.add(pendingKeys.subList(i, Math.min(i + batchSize, pendingKeys.size())));
+            }
+
+            if (batches.size() == 1) {
+                answered.putAll(preValidateBatch(batches.get(0), pending));
+            } else {
+                // a request keeps at most as many batches in the pool as it has threads, so one
+                // request doesn't fill the bounded queue
+                List<Future<Map<String, List<String>>>> futures = new ArrayList<>(batches.size());
+                for (int i = 0; i < batches.size(); i++) {
+                    if (i >= maxConcurrentRequests) {
+                        collectBatch(futures, i - maxConcurrentRequests, batches, answered, failures);
+                    }
+                    List<String> batch = batches.get(i);
+                    futures.add(executor.submit(() -> preValidateBatch(batch, pending)));
                 }
+                for (int i = Math.max(0, batches.size() - maxConcurrentRequests); i < batches.size(); i++) {
+                    collectBatch(futures, i, batches, answered, failures);
+                }
+            }
+        }
+
+        List<String> violations = new ArrayList<>(failures);
+        for (String key : keys) {
+            List<String> verdict = answered.containsKey(key) ? answered.get(key) : verdicts.getIfPresent(key);
+            if (verdict != null) {
+                violations.addAll(verdict);
             }
         }
+        return violations;
+    }
+
+    /**
+     * Waits for the verdicts of a batch, a batch that failed can't be let through
+     * so it is reported as a violation.
+     *
+     * @throws AAIException if interrupted while waiting, the remaining batches are cancelled
+     */
+    private void collectBatch(List<Future<Map<String, List<String>>>> futures, int index,
+            List<List<String>> batches, Map<String, List<String>> answered, List<String> failures)
+            throws AAIException {
+        try {
+            answered.putAll(futures.get(index).get());
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new AAIException("AAI_4021", e);
+        } catch (ExecutionException e) {
+            LOGGER.error("Unknown exception thrown please investigate", e.getCause());
+            failures.add(String.format(BATCH_FAILURE_STRING, batches.get(index).size(), e.getCause()));
+        }
+    }
+
+    /**
+     * Validates one batch of events and caches the verdicts the service gave.
+     *
+     * @return the violations by content hash, events without a verdict are left out
+     */
+    private Map<String, List<String>> preValidateBatch(List<String> keys, Map<String, String> bodies) {
+
+        List<List<String>> batchVerdicts;
+        if (keys.size() == 1) {
+            List<String> verdict = requestVerdict(bodies.get(keys.get(0)));
+            batchVerdicts = verdict == null ? null : Collections.singletonList(verdict);
+        } else {
+            batchVerdicts = requestVerdicts(keys.stream().map(bodies::get).collect(Collectors.toList()));
+        }
+
+        Map<String, List<String>> answered = new HashMap<>();
+        if (batchVerdicts != null) {
+            for (int i = 0; i < keys.size(); i++) {
+                List<String> verdict = Collections.unmodifiableList(batchVerdicts.get(i));
+                verdicts.put(keys.get(i), verdict);
+                answered.put(keys.get(i), verdict);
+            }
+        }
+        return answered;
     }
 
     List<String> preValidate(String body) throws AAIException {
+        List<String> violations = requestVerdict(body);
+        return violations == null ? new ArrayList<>() : violations;
+    }
+
+    /**
+     * @return the violations of the event, or null if the service gave no verdict
+     */
+    private List<String> requestVerdict(String body) {
+
+        ResponseEntity<String> responseEntity = post(VALIDATION_ENDPOINT, body);
+        if (responseEntity == null) {
+            return null;
+        }
+
+        Object responseBody = responseEntity.getBody();
+        if (isSuccess(responseEntity)) {
+            LOGGER.debug("Validation Service returned following response status code {} and body {}",
+                    responseEntity.getStatusCodeValue(), responseEntity.getBody());
+            return new ArrayList<>();
+        } else if (responseBody != null) {
+            Validation validation = null;
+            try {
+                validation = gson.fromJson(responseBody.toString(), Validation.class);
+            } catch (JsonSyntaxException jsonException) {
+                LOGGER.warn("Unable to convert the response body {}", jsonException.getMessage());
+            }
+
+            if (validation == null) {
+                LOGGER.debug("Validation Service following status code {} with body {}",
+                        responseEntity.getStatusCodeValue(), responseEntity.getBody());
+                return null;
+            }
+            return extractViolations(validation);
+        }
+        LOGGER.warn("Unable to convert the response body null");
+        return null;
+    }
+
+    /**
+     * @return the violations of each event in order, or null if the service gave no verdict
+     */
+    private List<List<String>> requestVerdicts(List<String> bodies) {
+
+        ResponseEntity<String> responseEntity = post(VALIDATION_BATCH_ENDPOINT, "[" + String.join(",", bodies) + "]");
+        if (responseEntity == null) {
+            return null;
+        }
+
+        Object responseBody = responseEntity.getBody();
+        Validation[] validations = null;
+        if (responseBody != null) {
+            try {
+                validations = gson.fromJson(responseBody.toString(), Validation[].class);
+            } catch (JsonSyntaxException jsonException) {
+                LOGGER.warn("Unable to convert the response body {}", jsonException.getMessage());
+            }
+        }
+
+        if (validations != null && validations.length == bodies.size()) {
+            List<List<String>> violations = new ArrayList<>(bodies.size());
+            for (Validation validation : validations) {
+                violations.add(extractViolations(validation));
+            }
+            return violations;
+        } else if (isSuccess(responseEntity)) {
+            LOGGER.debug("Validation Service returned following response status code {} and body {}",
+                    responseEntity.getStatusCodeValue(), responseEntity.getBody());
+            List<List<String>> violations = new ArrayList<>(bodies.size());
+            bodies.forEach(body -> violations.add(new ArrayList<>()));
+            return violations;
+        }
+        LOGGER.warn("Validation Service returned status code {} without a validation for each of the {} events",
+                responseEntity.getStatusCodeValue(), bodies.size());
+        return null;
+    }
+
+    /**
+     * @return the response, or null if the validation service couldn't be reached
+     */
+    private ResponseEntity<String> post(String endpoint, String body) {
 
         Map<String, String> httpHeaders = new HashMap<>();
 
@@ -221,33 +483,8 @@ public class ValidationService {
         httpHeaders.put("X-TransactionID", UUID.randomUUID().toString());
         httpHeaders.put("Content-Type", "application/json");
 
-        List<String> violations = new ArrayList<>();
-        ResponseEntity<String> responseEntity;
         try {
-
-            responseEntity = validationRestClient.execute(VALIDATION_ENDPOINT, HttpMethod.POST, httpHeaders, body);
-
-            Object responseBody = responseEntity.getBody();
-            if (isSuccess(responseEntity)) {
-                LOGGER.debug("Validation Service returned following response status code {} and body {}",
-                        responseEntity.getStatusCodeValue(), responseEntity.getBody());
-            } else if (responseBody != null) {
-                Validation validation = null;
-                try {
-                    validation = gson.fromJson(responseBody.toString(), Validation.class);
-                } catch (JsonSyntaxException jsonException) {
-                    LOGGER.warn("Unable to convert the response body {}", jsonException.getMessage());
-                }
-
-                if (validation == null) {
-                    LOGGER.debug("Validation Service following status code {} with body {}",
-                            responseEntity.getStatusCodeValue(), responseEntity.getBody());
-                } else {
-                    violations.addAll(extractViolations(validation));
-                }
-            } else {
-                LOGGER.warn("Unable to convert the response body null");
-            }
+            return validationRestClient.execute(endpoint, HttpMethod.POST, httpHeaders, body);
         } catch (Exception e) {
             // If the exception cause is client side timeout
             // then proceed as if it passed validation
@@ -264,7 +501,43 @@ public class ValidationService {
                 LOGGER.error("Unknown exception thrown please investigate", e.getCause());
             }
         }
-        return violations;
+        return null;
+    }
+
+    /**
+     * Hashes the event without the fields that change on every write,
+     * so an unchanged entity gets the same hash.
+     */
+    String contentHash(String body) {
+        String content = body;
+        try {
+            JsonElement event = JsonParser.parseString(body);
+            if (event.isJsonObject()) {
+                JsonObject eventObject = event.getAsJsonObject();
+                JsonElement header = eventObject.get("event-header");
+                if (header != null && header.isJsonObject()) {
+                    VOLATILE_HEADER_FIELDS.forEach(header.getAsJsonObject()::remove);
+                }
+                removeResourceVersions(eventObject.get("entity"));
+                content = eventObject.toString();
+            }
+        } catch (JsonParseException e) {
+            LOGGER.debug("Hashing the event as is, it isn't json {}", e.getMessage());
+        }
+        return Hashing.sha256().hashString(content, StandardCharsets.UTF_8).toString();
+    }
+
+    private static void removeResourceVersions(JsonElement element) {
+        if (element == null) {
+            return;
+        }
+        if (element.isJsonObject()) {
+            JsonObject object = element.getAsJsonObject();
+            object.remove(RESOURCE_VERSION);
+            object.entrySet().forEach(entry -> removeResourceVersions(entry.getValue()));
+        } else if (element.isJsonArray()) {
+            element.getAsJsonArray().forEach(ValidationService::removeResourceVersions);
+        }
     }
 
     boolean isSuccess(ResponseEntity<String> responseEntity) {
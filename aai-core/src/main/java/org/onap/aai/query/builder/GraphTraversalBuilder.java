@@ -25,11 +25,13 @@ import com.google.common.collect.Multimap;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.Path;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
@@ -41,6 +43,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.step.util.Tree;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.onap.aai.db.props.AAIProperties;
 import org.onap.aai.edges.EdgeRule;
@@ -838,6 +841,26 @@ public abstract class GraphTraversalBuilder<E> extends QueryBuilder<E> {
         return this;
     }
 
+    @Override
+    public QueryBuilder<E> range(long low, long high) {
+        traversal.range(low, high);
+        return this;
+    }
+
+    @Override
+    public QueryBuilder<E> afterId(Object id) {
+        traversal.has(T.id, P.gt(id));
+        stepIndex++;
+        return this;
+    }
+
+    @Override
+    public QueryBuilder<E> orderById() {
+        traversal.order().by(T.id, Order.incr);
+        stepIndex++;
+        return this;
+    }
+
     /**
      * @{inheritDoc}
      */
@@ -948,6 +971,39 @@ public abstract class GraphTraversalBuilder<E> extends QueryBuilder<E> {
         return this.completeTraversal.toList();
     }
 
+    @Override
+    public Map<String, Long> countByNodeType() {
+        // like count, run on a copy so the steps of this query are left untouched for later execution
+        GraphTraversal<Vertex, E> original = this.traversal;
+        Admin<Vertex, E> originalComplete = this.completeTraversal;
+        try {
+            this.traversal = (GraphTraversal<Vertex, E>) original.asAdmin().clone();
+            executeQuery();
+            Map<String, Long> counts = new HashMap<>();
+            ((GraphTraversal<Vertex, E>) this.completeTraversal).groupCount().by(AAIProperties.NODE_TYPE).tryNext()
+                    .ifPresent(result -> result.forEach((nodeType, count) -> counts.put(nodeType.toString(), count)));
+            return counts;
+        } finally {
+            this.traversal = original;
+            this.completeTraversal = originalComplete;
+        }
+    }
+
+    @Override
+    public long count() {
+        // run the count on a copy so the steps of this query are left untouched for later execution
+        GraphTraversal<Vertex, E> original = this.traversal;
+        Admin<Vertex, E> originalComplete = this.completeTraversal;
+        try {
+            this.traversal = (GraphTraversal<Vertex, E>) original.asAdmin().clone();
+            executeQuery();
+            return ((GraphTraversal<Vertex, E>) this.completeTraversal).count().next();
+        } finally {
+            this.traversal = original;
+            this.completeTraversal = originalComplete;
+        }
+    }
+
     protected QueryBuilder<Edge> has(String key, String value) {
         traversal.has(key, value);
 
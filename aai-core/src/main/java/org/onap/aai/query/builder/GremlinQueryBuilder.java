@@ -58,9 +58,21 @@ public abstract class GremlinQueryBuilder<E> extends QueryBuilder<E> {
     private static final String HAS = ".has('";
     private static final String SINGLE_QUOTE = "'";
     private static final String ESCAPE_SINGLE_QUOTE = "\\\'";
-    private GremlinGroovyShell gremlinGroovy = new GremlinGroovyShell();
+    static final String ARGUMENT_PREFIX = "aaiArg";
+    private static final char ARGUMENT_MARK = '\u0000';
+    /*
+     * the shell keeps no compiled classes, they are in its bounded script cache,
+     * and each run gets its own binding
+     */
+    private static final GremlinGroovyShell GREMLIN_GROOVY = new GremlinGroovyShell();
     private GraphTraversal<?, ?> completeTraversal = null;
     protected List<String> list = null;
+    /*
+     * the literal values written into the steps of list, a step holds the index of
+     * its value between two argument marks instead of the literal
+     */
+    private List<Object> argumentValues = new ArrayList<>();
+    private List<String> argumentTexts = new ArrayList<>();
 
     private static final Logger LOGGER = LoggerFactory.getLogger(QueryBuilder.class);
 
@@ -115,6 +127,7 @@ public abstract class GremlinQueryBuilder<E> extends QueryBuilder<E> {
     @Override
     public QueryBuilder<Vertex> getVerticesByProperty(String key, Object value) {
 
+        final Object original = value;
         String term = "";
         if (value != null && !(value instanceof String)) {
             String valueString = value.toString();
@@ -123,7 +136,7 @@ public abstract class GremlinQueryBuilder<E> extends QueryBuilder<E> {
                 value = valueString.replace(SINGLE_QUOTE, ESCAPE_SINGLE_QUOTE);
             }
             LOGGER.trace("Inside getVerticesByProperty(): key = {}, value = {}", key, value);
-            term = value.toString();
+            term = argument(original, value.toString());
         } else if (value != null && value instanceof String) {
             String valueString = value.toString();
 
@@ -131,9 +144,9 @@ public abstract class GremlinQueryBuilder<E> extends QueryBuilder<E> {
                 value = valueString.replace(SINGLE_QUOTE, ESCAPE_SINGLE_QUOTE);
             }
             LOGGER.trace("Inside getVerticesByProperty(): key = {}, value = {}", key, value);
-            term = "'" + value + "'";
+            term = argument(original, "'" + value + "'");
         } else {
-            term = "'" + value + "'";
+            term = literal(value);
         }
         this.vertexHas(key, term);
         stepIndex++;
@@ -145,7 +158,8 @@ public abstract class GremlinQueryBuilder<E> extends QueryBuilder<E> {
      */
     @Override
     public QueryBuilder<Vertex> getVerticesByNumberProperty(String key, Object value) {
-        this.vertexHas(key, value);
+        // a string is written as it is, groovy reads it as a number literal
+        this.vertexHas(key, value instanceof String ? value : argument(value, String.valueOf(value)));
         stepIndex++;
         return (QueryBuilder<Vertex>) this;
     }
@@ -161,7 +175,7 @@ public abstract class GremlinQueryBuilder<E> extends QueryBuilder<E> {
                 bValue = (Boolean) value;
             }
 
-            this.vertexHas(key, bValue);
+            this.vertexHas(key, argument(bValue, String.valueOf(bValue)));
             stepIndex++;
         }
         return (QueryBuilder<Vertex>) this;
@@ -176,11 +190,7 @@ public abstract class GremlinQueryBuilder<E> extends QueryBuilder<E> {
         String predicate = "P.within(#!#argument#!#)";
         List<String> arguments = new ArrayList<>();
         for (Object item : values) {
-            if (item != null && !(item instanceof String)) {
-                arguments.add(item.toString());
-            } else {
-                arguments.add("'" + item + "'");
-            }
+            arguments.add(literal(item));
         }
         String argument = Joiner.on(",").join(arguments);
         predicate = predicate.replace(ARGUMENT2, argument);
@@ -198,7 +208,7 @@ public abstract class GremlinQueryBuilder<E> extends QueryBuilder<E> {
         // add the single quotes
         for (int i = 0; i < arguments.size(); i++) {
             if (arguments.get(i) != null && !arguments.get(i).startsWith("'") && !arguments.get(i).endsWith("'")) {
-                arguments.set(i, "'" + arguments.get(i).trim() + "'");
+                arguments.set(i, literal(arguments.get(i).trim()));
             } else {
                 arguments.set(i, arguments.get(i).trim());
             }
@@ -238,11 +248,7 @@ public abstract class GremlinQueryBuilder<E> extends QueryBuilder<E> {
     public QueryBuilder<Vertex> getVerticesStartsWithProperty(String key, Object value) {
         String term = "";
         String predicate = "org.janusgraph.core.attribute.Text.textPrefix(#!#argument#!#)";
-        if (value != null && !(value instanceof String)) {
-            term = value.toString();
-        } else {
-            term = "'" + value + "'";
-        }
+        term = literal(value);
         predicate = predicate.replace(ARGUMENT2, term);
         this.vertexHas(key, predicate);
         stepIndex++;
@@ -257,11 +263,7 @@ public abstract class GremlinQueryBuilder<E> extends QueryBuilder<E> {
 
         String term = "";
         String predicate = "P.neq(#!#argument#!#)";
-        if (value != null && !(value instanceof String)) {
-            term = value.toString();
-        } else {
-            term = "'" + value + "'";
-        }
+        term = literal(value);
         predicate = predicate.replace(ARGUMENT2, term);
         this.vertexHas(key, predicate);
         stepIndex++;
@@ -277,11 +279,7 @@ public abstract class GremlinQueryBuilder<E> extends QueryBuilder<E> {
         String predicate = "P.without(#!#argument#!#)";
         List<String> arguments = new ArrayList<>();
         for (Object item : values) {
-            if (item != null && !(item instanceof String)) {
-                arguments.add(item.toString());
-            } else {
-                arguments.add("'" + item + "'");
-            }
+            arguments.add(literal(item));
         }
         String argument = Joiner.on(",").join(arguments);
         predicate = predicate.replace(ARGUMENT2, argument);
@@ -294,11 +292,7 @@ public abstract class GremlinQueryBuilder<E> extends QueryBuilder<E> {
     public QueryBuilder<Vertex> getVerticesGreaterThanProperty(String key, Object value) {
         String predicate = "P.gte(#!#argument1#!#)";
         String term;
-        if (value != null && !(value instanceof String)) {
-            term = value.toString();
-        } else {
-            term = "'" + value + "'";
-        }
+        term = literal(value);
         predicate = predicate.replace("#!#argument1#!#", term);
         this.vertexHas(key, predicate);
         stepIndex++;
@@ -309,11 +303,7 @@ public abstract class GremlinQueryBuilder<E> extends QueryBuilder<E> {
     public QueryBuilder<Vertex> getVerticesLessThanProperty(String key, Object value) {
         String predicate = "P.lte(#!#argument1#!#)";
         String term;
-        if (value != null && !(value instanceof String)) {
-            term = value.toString();
-        } else {
-            term = "'" + value + "'";
-        }
+        term = literal(value);
         predicate = predicate.replace("#!#argument1#!#", term);
         this.vertexHas(key, predicate);
         stepIndex++;
@@ -337,7 +327,7 @@ public abstract class GremlinQueryBuilder<E> extends QueryBuilder<E> {
 
         for (Map.Entry<String, String> es : map.entrySet()) {
             // TODO what is this and where is it used - need to check
-            list.add(HAS + es.getKey() + "', '" + es.getValue() + "')");
+            list.add(HAS + es.getKey() + "', " + literal(es.getValue()) + ")");
             stepIndex++;
         }
         list.add(".has('aai-node-type', '" + type + "')");
@@ -547,7 +537,27 @@ public abstract class GremlinQueryBuilder<E> extends QueryBuilder<E> {
 
     @Override
     public QueryBuilder<E> limit(long amount) {
-        list.add(".limit(" + amount + ")");
+        list.add(".limit(" + argument(amount, Long.toString(amount)) + ")");
+        return this;
+    }
+
+    @Override
+    public QueryBuilder<E> range(long low, long high) {
+        list.add(".range(" + argument(low, Long.toString(low)) + "," + argument(high, Long.toString(high)) + ")");
+        return this;
+    }
+
+    @Override
+    public QueryBuilder<E> afterId(Object id) {
+        list.add(".has(T.id, gt(" + literal(id) + "))");
+        stepIndex++;
+        return this;
+    }
+
+    @Override
+    public QueryBuilder<E> orderById() {
+        list.add(".order().by(T.id, incr)");
+        stepIndex++;
         return this;
     }
 
@@ -584,7 +594,7 @@ public abstract class GremlinQueryBuilder<E> extends QueryBuilder<E> {
         String[] traversals = new String[builder.length];
         StringBuilder command = new StringBuilder();
         for (int i = 0; i < builder.length; i++) {
-            traversals[i] = "__" + builder[i].getQuery();
+            traversals[i] = "__" + nested(builder[i]);
         }
         command.append(".union(");
         command.append(Joiner.on(",").join(traversals));
@@ -600,7 +610,7 @@ public abstract class GremlinQueryBuilder<E> extends QueryBuilder<E> {
         markParentBoundary();
         List<String> traversals = new ArrayList<>();
         for (int i = 0; i < builder.length; i++) {
-            traversals.add(".where(__" + builder[i].getQuery() + ")");
+            traversals.add(".where(__" + nested(builder[i]) + ")");
             stepIndex++;
         }
         list.addAll(traversals);
@@ -614,7 +624,7 @@ public abstract class GremlinQueryBuilder<E> extends QueryBuilder<E> {
         String[] traversals = new String[builder.length];
         StringBuilder command = new StringBuilder();
         for (int i = 0; i < builder.length; i++) {
-            traversals[i] = "__" + builder[i].getQuery();
+            traversals[i] = "__" + nested(builder[i]);
         }
         command.append(".or(");
         command.append(Joiner.on(",").join(traversals));
@@ -681,7 +691,7 @@ public abstract class GremlinQueryBuilder<E> extends QueryBuilder<E> {
 
     @Override
     public QueryBuilder<E> repeat(QueryBuilder<E> builder) {
-        this.list.add(".repeat(__" + builder.getQuery() + ")");
+        this.list.add(".repeat(__" + nested(builder) + ")");
         stepIndex++;
 
         return this;
@@ -689,7 +699,7 @@ public abstract class GremlinQueryBuilder<E> extends QueryBuilder<E> {
 
     @Override
     public QueryBuilder<E> until(QueryBuilder<E> builder) {
-        this.list.add(".until(__" + builder.getQuery() + ")");
+        this.list.add(".until(__" + nested(builder) + ")");
         stepIndex++;
 
         return this;
@@ -805,7 +815,7 @@ public abstract class GremlinQueryBuilder<E> extends QueryBuilder<E> {
 
     @Override
     public QueryBuilder<E> not(QueryBuilder<E> builder) {
-        this.list.add(".not(" + "__" + builder.getQuery() + ")");
+        this.list.add(".not(" + "__" + nested(builder) + ")");
         stepIndex++;
 
         return this;
@@ -861,13 +871,7 @@ public abstract class GremlinQueryBuilder<E> extends QueryBuilder<E> {
      */
     @Override
     public <T2> T2 getQuery() {
-        StringBuilder sb = new StringBuilder();
-
-        for (String piece : this.list) {
-            sb.append(piece);
-        }
-
-        return (T2) sb.toString();
+        return (T2) render(Joiner.on("").join(list), null);
     }
 
     /**
@@ -904,14 +908,115 @@ public abstract class GremlinQueryBuilder<E> extends QueryBuilder<E> {
     }
 
     private void executeQuery() {
-        String queryString = "g" + Joiner.on("").join(list);
-        Map<String, Object> params = new HashMap<>();
+        this.completeTraversal = executeScript("");
+    }
+
+    private GraphTraversal<?, ?> executeScript(String lastStep) {
+        Map<String, Object> bindings = new HashMap<>();
+        String script = getScript(lastStep, bindings);
+        return GREMLIN_GROOVY.executeTraversal(script, getTraversalParams(bindings));
+    }
+
+    /**
+     * The script run for this query, with its literal values as binding variables, so queries
+     * that only differ in their values run the same compiled script.
+     *
+     * @param lastStep a step to add after the query
+     * @param bindings filled with the values of the variables
+     * @return the script
+     */
+    String getScript(String lastStep, Map<String, Object> bindings) {
+        return render("g" + Joiner.on("").join(list) + lastStep, bindings);
+    }
+
+    /**
+     * Records a literal value of a step.
+     *
+     * @param value the value
+     * @param text the literal of the value, as getQuery shows it
+     * @return what to write in the step in place of the literal
+     */
+    private String argument(Object value, String text) {
+        argumentValues.add(value);
+        argumentTexts.add(text);
+        return ARGUMENT_MARK + Integer.toString(argumentValues.size() - 1) + ARGUMENT_MARK;
+    }
+
+    /**
+     * A value written as it is when it isn't a string, quoted otherwise.
+     */
+    private String literal(Object value) {
+        if (value != null && !(value instanceof String)) {
+            return argument(value, value.toString());
+        }
+        return argument(String.valueOf(value), "'" + value + "'");
+    }
+
+    /**
+     * The query of a nested builder, keeping its values as values of this query.
+     */
+    private String nested(QueryBuilder<?> builder) {
+        if (!(builder instanceof GremlinQueryBuilder)) {
+            return builder.getQuery();
+        }
+        GremlinQueryBuilder<?> gremlin = (GremlinQueryBuilder<?>) builder;
+        String query = Joiner.on("").join(gremlin.list);
+        StringBuilder sb = new StringBuilder(query.length());
+        int i = 0;
+        int mark;
+        while ((mark = query.indexOf(ARGUMENT_MARK, i)) != -1) {
+            int end = query.indexOf(ARGUMENT_MARK, mark + 1);
+            int index = Integer.parseInt(query.substring(mark + 1, end));
+            sb.append(query, i, mark);
+            sb.append(argument(gremlin.argumentValues.get(index), gremlin.argumentTexts.get(index)));
+            i = end + 1;
+        }
+        sb.append(query, i, query.length());
+        return sb.toString();
+    }
+
+    /**
+     * Replaces the argument marks of the query by their literals, or by variables when bindings are given.
+     */
+    private String render(String query, Map<String, Object> bindings) {
+        StringBuilder sb = new StringBuilder(query.length());
+        Map<Integer, String> names = new HashMap<>();
+        int i = 0;
+        int mark;
+        while ((mark = query.indexOf(ARGUMENT_MARK, i)) != -1) {
+            int end = query.indexOf(ARGUMENT_MARK, mark + 1);
+            int index = Integer.parseInt(query.substring(mark + 1, end));
+            sb.append(query, i, mark);
+            if (bindings == null) {
+                sb.append(argumentTexts.get(index));
+            } else {
+                sb.append(names.computeIfAbsent(index, k -> {
+                    String name = ARGUMENT_PREFIX + bindings.size();
+                    bindings.put(name, argumentValues.get(k));
+                    return name;
+                }));
+            }
+            i = end + 1;
+        }
+        sb.append(query, i, query.length());
+        return sb.toString();
+    }
+
+    /**
+     * Lets a copy of a builder refer to the values of the steps it copied.
+     */
+    protected void shareArguments(GremlinQueryBuilder<?> builder) {
+        this.argumentValues = builder.argumentValues;
+        this.argumentTexts = builder.argumentTexts;
+    }
+
+    private Map<String, Object> getTraversalParams(Map<String, Object> params) {
         if (this.start == null) {
             params.put("g", source.V());
         } else {
             params.put("g", source.V(this.start));
         }
-        this.completeTraversal = this.gremlinGroovy.executeTraversal(queryString, params);
+        return params;
     }
 
     @Override
@@ -941,8 +1046,23 @@ public abstract class GremlinQueryBuilder<E> extends QueryBuilder<E> {
         return (List<E>) this.completeTraversal.toList();
     }
 
+    @Override
+    public Map<String, Long> countByNodeType() {
+        // like count, run as a script of its own so the query is left untouched for later execution
+        Map<String, Long> counts = new HashMap<>();
+        ((GraphTraversal<?, Map<Object, Long>>) executeScript(".groupCount().by('" + AAIProperties.NODE_TYPE + "')"))
+                .tryNext()
+                .ifPresent(result -> result.forEach((nodeType, count) -> counts.put(nodeType.toString(), count)));
+        return counts;
+    }
+
+    @Override
+    public long count() {
+        return (Long) executeScript(".count()").next();
+    }
+
     protected QueryBuilder<Edge> has(String key, String value) {
-        this.list.add(HAS + key + "','" + value + "')");
+        this.list.add(HAS + key + "'," + literal(value) + ")");
 
         return (QueryBuilder<Edge>) this;
     }
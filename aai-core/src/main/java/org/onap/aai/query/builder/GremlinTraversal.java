@@ -65,6 +65,7 @@ public class GremlinTraversal<E> extends GremlinQueryBuilder<E> {
             GremlinQueryBuilder<E> gtb) {
         super(loader, source);
         this.list = traversal;
+        this.shareArguments(gtb);
         this.stepIndex = gtb.getStepIndex();
         this.parentStepIndex = gtb.getParentStepIndex();
         this.containerStepIndex = gtb.getContainerStepIndex();
@@ -609,6 +609,32 @@ public abstract class QueryBuilder<E> implements Iterator<E> {
 
     public abstract QueryBuilder<E> limit(long amount);
 
+    /**
+     * Restricts the results of this query to the window between low (inclusive) and high (exclusive).
+     * The range is evaluated as part of the traversal, so only the requested window is returned to the caller.
+     *
+     * @param low the index of the first result to return
+     * @param high the index after the last result to return
+     * @return the query
+     */
+    public abstract QueryBuilder<E> range(long low, long high);
+
+    /**
+     * Keeps the results whose id is greater than the given one. Together with {@link #orderById()}
+     * it resumes a query after the last result of the previous page.
+     *
+     * @param id the id of the last result already returned
+     * @return the query
+     */
+    public abstract QueryBuilder<E> afterId(Object id);
+
+    /**
+     * Orders the results by their id, so the results of a page are stable between requests.
+     *
+     * @return the query
+     */
+    public abstract QueryBuilder<E> orderById();
+
     /**
      * New instance.
      *
@@ -727,6 +753,22 @@ public abstract class QueryBuilder<E> implements Iterator<E> {
 
     public abstract List<E> toList();
 
+    /**
+     * Counts the results of this query grouped by their node type.
+     * The counting runs as part of the traversal, so the vertices are never returned to the caller.
+     *
+     * @return the number of results for each node type
+     */
+    public abstract Map<String, Long> countByNodeType();
+
+    /**
+     * Counts the results of this query without consuming it.
+     * The query can still be narrowed (e.g. with {@link #range(long, long)}) and executed afterwards.
+     *
+     * @return the number of results
+     */
+    public abstract long count();
+
     /**
      * Used to skip step if there is an optional property missing.
      *
@@ -41,6 +41,8 @@ public class TraversalURIOptimizedQuery<E> extends TraversalQuery {
 
     protected Map<Integer, String> stepToAaiUri = new HashMap<>();
 
+    protected UriVertexCache uriCache = null;
+
     public TraversalURIOptimizedQuery(Loader loader, GraphTraversalSource source) {
         super(loader, source);
         optimize = true;
@@ -64,11 +66,36 @@ public class TraversalURIOptimizedQuery<E> extends TraversalQuery {
         this.stepToAaiUri = stepToAaiUri;
     }
 
+    /**
+     * Resolves the aai-uri the query pivots on through the given cache.
+     *
+     * @param uriCache the cache of the transaction this query runs in
+     * @return this query
+     */
+    public TraversalURIOptimizedQuery<E> setUriCache(UriVertexCache uriCache) {
+        this.uriCache = uriCache;
+        return this;
+    }
+
     @Override
     protected void executeQuery() {
 
         this.completeTraversal = this.traversal.asAdmin().clone();
 
+        if (this.optimize && start == null && uriCache != null && !stepToAaiUri.isEmpty()) {
+            int lastURIStepKey = getLastURIStepKey();
+            List<Vertex> pivots = uriCache.resolve(source, stepToAaiUri.get(lastURIStepKey));
+            // a uri no vertex has was already looked up in the index, so nothing is left to start from
+            Traversal.Admin admin = pivots.isEmpty() ? source.<Vertex>inject().asAdmin()
+                    : source.V(pivots.toArray()).asAdmin();
+            List<Step> steps = this.completeTraversal.getSteps();
+            for (int i = lastURIStepKey; i < steps.size(); i++) {
+                admin.addStep(steps.get(i));
+            }
+            this.completeTraversal = (Traversal.Admin<Vertex, E>) admin;
+            return;
+        }
+
         if (this.optimize) {
             this.completeTraversal = this.pivotTraversal(this.completeTraversal);
         }
@@ -178,7 +205,7 @@ public class TraversalURIOptimizedQuery<E> extends TraversalQuery {
     protected QueryBuilder<E> cloneQueryAtStep(int index) {
         GraphTraversal.Admin<Vertex, E> cloneAdmin = getCloneAdmin(index);
         return new TraversalURIOptimizedQuery<>(cloneAdmin, loader, source, this,
-                getStepToAaiUriWithoutStepGreaterThan(index));
+                getStepToAaiUriWithoutStepGreaterThan(index)).setUriCache(uriCache);
     }
 
 }
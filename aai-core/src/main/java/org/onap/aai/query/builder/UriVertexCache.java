@@ -0,0 +1,165 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.query.builder;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.onap.aai.db.props.AAIProperties;
+
+/**
+ * Remembers which vertex ids an aai-uri resolved to, so looking the same uri up again
+ * is a lookup by id instead of an index query. All the vertices with the uri are kept,
+ * so data with duplicate uris is still seen as such by the callers.
+ *
+ * Each engine keeps one of these for its transaction. Ids can also be shared across
+ * transactions in a bounded process wide cache, which is off unless the
+ * aai.uri.cache.size system property is set. Cached ids are only used after checking the
+ * vertices still have the uri, so entries made stale by other transactions or instances
+ * are dropped instead of returned.
+ */
+public class UriVertexCache {
+
+    private static final int GLOBAL_CACHE_SIZE = Integer.getInteger("aai.uri.cache.size", 0);
+
+    private static final Cache<String, List<Object>> GLOBAL_CACHE = GLOBAL_CACHE_SIZE > 0
+            ? CacheBuilder.newBuilder().maximumSize(GLOBAL_CACHE_SIZE).recordStats().build()
+            : null;
+
+    private final Map<String, List<Object>> transactionCache = new HashMap<>();
+    private long hitCount = 0;
+    private long missCount = 0;
+
+    /**
+     * Finds the vertices with the given aai-uri.
+     *
+     * @param g the traversal source of the current transaction
+     * @param uri the aai-uri
+     * @return the vertices, more than one if the uri is duplicated, empty if no vertex has the uri
+     */
+    public List<Vertex> resolve(GraphTraversalSource g, String uri) {
+        List<Object> ids = transactionCache.get(uri);
+        if (ids == null && GLOBAL_CACHE != null) {
+            ids = GLOBAL_CACHE.getIfPresent(uri);
+        }
+        if (ids != null) {
+            List<Vertex> cached = g.V(ids.toArray()).has(AAIProperties.AAI_URI, uri).toList();
+            if (cached.size() == ids.size()) {
+                hitCount++;
+                transactionCache.put(uri, ids);
+                return cached;
+            }
+            invalidate(uri);
+        }
+        missCount++;
+        List<Vertex> result = g.V().has(AAIProperties.AAI_URI, uri).toList();
+        if (!result.isEmpty()) {
+            ids = Collections.unmodifiableList(result.stream().map(Vertex::id).collect(Collectors.toList()));
+            transactionCache.put(uri, ids);
+            if (GLOBAL_CACHE != null) {
+                GLOBAL_CACHE.put(uri, ids);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Records that the vertex now has the given aai-uri. It is added to the vertices already
+     * cached for the uri; when none are, nothing is cached, as other vertices may have the
+     * uri and only the index query finds them all.
+     *
+     * @param uri the aai-uri
+     * @param v the vertex
+     */
+    public void put(String uri, Vertex v) {
+        transactionCache.computeIfPresent(uri, (key, ids) -> withId(ids, v.id()));
+        if (GLOBAL_CACHE != null) {
+            GLOBAL_CACHE.asMap().computeIfPresent(uri, (key, ids) -> withId(ids, v.id()));
+        }
+    }
+
+    private static List<Object> withId(List<Object> ids, Object id) {
+        if (ids.contains(id)) {
+            return ids;
+        }
+        List<Object> added = new ArrayList<>(ids);
+        added.add(id);
+        return Collections.unmodifiableList(added);
+    }
+
+    /**
+     * Forgets the aai-uri, used when its vertex is deleted or the uri moves.
+     *
+     * @param uri the aai-uri
+     */
+    public void invalidate(String uri) {
+        transactionCache.remove(uri);
+        if (GLOBAL_CACHE != null) {
+            GLOBAL_CACHE.invalidate(uri);
+        }
+    }
+
+    /**
+     * @param uri the aai-uri
+     * @return whether a vertex id is cached for the uri, in this transaction or process wide
+     */
+    public boolean contains(String uri) {
+        return transactionCache.containsKey(uri) || (GLOBAL_CACHE != null && GLOBAL_CACHE.getIfPresent(uri) != null);
+    }
+
+    /**
+     * Forgets what this transaction resolved, the process wide entries are kept.
+     */
+    public void clear() {
+        transactionCache.clear();
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public double getHitRatio() {
+        long total = hitCount + missCount;
+        return total == 0 ? 1.0 : (double) hitCount / total;
+    }
+
+    /**
+     * @return the stats of the process wide cache, or empty if it is off
+     */
+    public static Optional<CacheStats> getGlobalCacheStats() {
+        return GLOBAL_CACHE == null ? Optional.empty() : Optional.of(GLOBAL_CACHE.stats());
+    }
+}
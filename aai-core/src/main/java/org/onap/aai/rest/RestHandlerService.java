@@ -20,15 +20,25 @@
 
 package org.onap.aai.rest;
 
-import java.util.concurrent.Executors;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.onap.aai.util.AAIConfig;
 
 public class RestHandlerService {
     private static RestHandlerService singleInstance = null;
     public ThreadPoolExecutor executor;
 
+    /*
+     * the queue is bounded so a backlog is rejected instead of waiting for a worker,
+     * a full pool aborts the submit with a RejectedExecutionException
+     */
     private RestHandlerService() {
-        executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(50);
+        int threads = AAIConfig.getInt("aai.rest.handler.threads", "50");
+        int queueSize = AAIConfig.getInt("aai.rest.handler.queue.size", Integer.toString(threads));
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), new ThreadPoolExecutor.AbortPolicy());
     }
 
     /**
@@ -36,7 +46,7 @@ public class RestHandlerService {
      *
      * @return single instance of RestHandlerService
      */
-    public static RestHandlerService getInstance() {
+    public static synchronized RestHandlerService getInstance() {
         if (singleInstance == null) {
             singleInstance = new RestHandlerService();
         }
@@ -24,19 +24,36 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.fge.jsonpatch.JsonPatchException;
 import com.github.fge.jsonpatch.mergepatch.JsonMergePatch;
+import com.google.gson.stream.JsonReader;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.lang.reflect.InvocationTargetException;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import javax.ws.rs.core.*;
 import javax.ws.rs.core.Response.Status;
 
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.janusgraph.core.JanusGraphException;
 import org.javatuples.Pair;
@@ -47,9 +64,12 @@ import org.onap.aai.introspection.*;
 import org.onap.aai.introspection.exceptions.AAIUnknownObjectException;
 import org.onap.aai.introspection.sideeffect.OwnerCheck;
 import org.onap.aai.logging.ErrorLogHelper;
+import org.onap.aai.metrics.RequestMetrics;
+import org.onap.aai.metrics.RequestPhase;
 import org.onap.aai.nodes.NodeIngestor;
 import org.onap.aai.parsers.query.QueryParser;
 import org.onap.aai.prevalidation.ValidationService;
+import org.onap.aai.query.builder.QueryBuilder;
 import org.onap.aai.rest.ueb.UEBNotification;
 import org.onap.aai.restcore.HttpMethod;
 import org.onap.aai.schema.enums.ObjectMetadata;
@@ -69,6 +89,7 @@ import org.onap.aai.util.AAIConstants;
 import org.onap.aai.util.delta.DeltaEvents;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 
@@ -79,6 +100,21 @@ public class HttpEntry {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpEntry.class);
 
+    private static final int XML_PIPE_SIZE = 64 * 1024;
+
+    private static final int XML_FORMATTER_THREADS = 16;
+
+    /*
+     * writes the json of streamed xml responses into their pipe, once every thread is busy
+     * the submit is rejected and the response is formatted in memory instead
+     */
+    private static final ExecutorService XML_FORMATTERS = new ThreadPoolExecutor(0, XML_FORMATTER_THREADS, 60L,
+            TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "aai-xml-formatter");
+                thread.setDaemon(true);
+                return thread;
+            });
+
     private ModelType introspectorFactoryType;
 
     private QueryStyle queryStyle;
@@ -95,6 +131,10 @@ public class HttpEntry {
     private int paginationIndex = -1;
     private int totalVertices = 0;
     private int totalPaginationBuckets = 0;
+    private boolean paginationTotalsAvailable = false;
+    private String nextPaginationCursor = null;
+    private boolean paginationByKey = false;
+    private Long paginationLastId = null;
 
     @Autowired
     private NodeIngestor nodeIngestor;
@@ -111,6 +151,21 @@ public class HttpEntry {
     @Value("${delta.events.enabled:false}")
     private boolean isDeltaEventsEnabled;
 
+    /**
+     * When enabled, formatted GET responses are returned as a {@link StreamingOutput} that writes
+     * each result to the response as it is formatted. The graph transaction stays open until the
+     * response entity has been written, a commit or rollback by the caller waits for it.
+     */
+    @Value("${aai.response.streaming.enabled:false}")
+    private boolean isResponseStreamingEnabled;
+
+    /**
+     * When enabled, a page requested by its index counts the full result set for the total-results and
+     * total-pages headers. Pages requested with a cursor are never counted, the headers are left out.
+     */
+    @Value("${aai.pagination.total.count.enabled:true}")
+    private boolean isPaginationTotalCountEnabled = true;
+
     private String serverBase;
 
     @Autowired
@@ -304,6 +359,8 @@ public class HttpEntry {
             pi = 1;
         }
         this.paginationIndex = pi;
+        this.paginationByKey = false;
+        this.paginationLastId = null;
     }
 
     /**
@@ -313,6 +370,7 @@ public class HttpEntry {
      * @param paginationBucketSize
      */
     public void setTotalsForPaging(int totalVertices, int paginationBucketSize) {
+        this.paginationTotalsAvailable = true;
         this.totalVertices = totalVertices;
         // set total number of buckets equal to full pages
         this.totalPaginationBuckets = totalVertices / paginationBucketSize;
@@ -337,6 +395,14 @@ public class HttpEntry {
         return this.totalVertices;
     }
 
+    /**
+     *
+     * @return the cursor of the page following the returned one, or null when it was the last page
+     */
+    public String getNextPaginationCursor() {
+        return this.nextPaginationCursor;
+    }
+
     /**
      * Process.
      *
@@ -353,6 +419,17 @@ public class HttpEntry {
 
     private Pair<Boolean, List<Pair<URI, Response>>> process(List<DBRequest> requests, String sourceOfTruth,
             Set<String> groups, boolean enableResourceVersion) throws AAIException {
+        RequestMetrics.resetTimers();
+        long start = RequestMetrics.start();
+        try {
+            return processRequests(requests, sourceOfTruth, groups, enableResourceVersion);
+        } finally {
+            RequestMetrics.stop(RequestPhase.REQUEST, start);
+        }
+    }
+
+    private Pair<Boolean, List<Pair<URI, Response>>> processRequests(List<DBRequest> requests, String sourceOfTruth,
+            Set<String> groups, boolean enableResourceVersion) throws AAIException {
 
         DBSerializer serializer = null;
 
@@ -387,6 +464,9 @@ public class HttpEntry {
             HttpHeaders headers = requests.get(0).getHeaders();
             outputMediaType = getMediaType(headers.getAcceptableMediaTypes());
         }
+        // a transaction held open for streamed responses must not have writes waiting on its commit
+        boolean readOnly = requests.stream().allMatch(
+                r -> HttpMethod.GET.equals(r.getMethod()) || HttpMethod.GET_RELATIONSHIP.equals(r.getMethod()));
 
         for (DBRequest request : requests) {
             response = null;
@@ -395,6 +475,10 @@ public class HttpEntry {
             metricLog.pre(request);
             try {
                 try {
+                    if (Thread.currentThread().isInterrupted()) {
+                        // the request timed out, fail the rest so the caller rolls back its transaction
+                        throw new AAIException("AAI_7406", "Request was interrupted");
+                    }
 
                     obj = request.getIntrospector();
                     query = request.getParser();
@@ -403,15 +487,26 @@ public class HttpEntry {
                     uri = UriBuilder.fromPath(uriTemp).build();
 
                     boolean groupsAvailable = serializer.getGroups() != null && !serializer.getGroups().isEmpty();
-                    List<Vertex> queryResult = query.getQueryBuilder().toList();
+                    Map<String, Long> counts = null;
+                    List<Vertex> queryResult;
+                    if (this.isCountPushedDown(request, groupsAvailable)) {
+                        // the graph does the counting so none of the vertices have to be loaded
+                        counts = query.getQueryBuilder().countByNodeType();
+                        queryResult = Collections.emptyList();
+                    } else if (this.isPaginated() && !groupsAvailable) {
+                        // only the requested page is read from the graph
+                        queryResult = this.getPaginatedResults(query.getQueryBuilder());
+                    } else {
+                        queryResult = query.getQueryBuilder().toList();
+                    }
                     List<Vertex> vertices;
-                    if (this.isPaginated()) {
-                        List<Vertex> vertTemp = groupsAvailable ? queryResult.stream().filter((vx) -> {
+                    if (this.isPaginated() && !groupsAvailable) {
+                        vertices = queryResult;
+                    } else if (this.isPaginated()) {
+                        List<Vertex> vertTemp = queryResult.stream().filter((vx) -> {
                             return OwnerCheck.isAuthorized(groups, vx);
-                        }).collect(Collectors.toList()) : queryResult;
-                        this.setTotalsForPaging(vertTemp.size(), this.paginationBucket);
-                        vertices = vertTemp.subList(((this.paginationIndex - 1) * this.paginationBucket),
-                                Math.min((this.paginationBucket * this.paginationIndex), vertTemp.size()));
+                        }).collect(Collectors.toList());
+                        vertices = this.getPaginatedVertexList(vertTemp);
                     } else {
                         vertices = groupsAvailable && queryResult.size() > 1 ? queryResult.stream().filter((vx) -> {
                             return OwnerCheck.isAuthorized(groups, vx);
@@ -422,7 +517,7 @@ public class HttpEntry {
                     boolean isNewVertex;
                     HttpHeaders headers = request.getHeaders();
                     outputMediaType = getMediaType(headers.getAcceptableMediaTypes());
-                    String result = null;
+                    Object result = null;
                     params = request.getInfo().getQueryParameters(false);
                     depth = setDepth(obj, params.getFirst("depth"));
                     if (params.containsKey("format")) {
@@ -464,7 +559,7 @@ public class HttpEntry {
                             isNewVertex = false;
                         }
                     } else {
-                        if (vertices.isEmpty()) {
+                        if (vertices.isEmpty() && (counts == null || counts.isEmpty())) {
                             String msg = createNotFoundMessage(query.getResultType(), request.getUri());
                             throw new AAIException("AAI_6114", msg);
                         } else {
@@ -472,7 +567,7 @@ public class HttpEntry {
                         }
                     }
                     Vertex v = null;
-                    if (!isNewVertex) {
+                    if (!isNewVertex && !vertices.isEmpty()) {
                         v = vertices.get(0);
                     }
 
@@ -521,18 +616,18 @@ public class HttpEntry {
                                 FormatFactory ff = new FormatFactory(loader, serializer, schemaVersions, basePath + "/",
                                         serverBase);
                                 Formatter formatter = ff.get(format, params);
-                                result = formatter.output(
-                                        vertices.stream().map(vertex -> (Object) vertex).collect(Collectors.toList()))
-                                        .toString();
 
                                 if (outputMediaType == null) {
                                     outputMediaType = MediaType.APPLICATION_JSON;
                                 }
 
-                                if (MediaType.APPLICATION_XML_TYPE.isCompatible(MediaType.valueOf(outputMediaType))) {
-                                    result = xmlFormatTransformer.transform(result);
-                                }
                                 status = Status.OK;
+                                if (counts != null) {
+                                    result = this.formatCounts(formatter, counts, outputMediaType);
+                                    response = Response.status(status).entity(result).type(outputMediaType).build();
+                                } else {
+                                    result = this.formatResults(formatter, vertices, outputMediaType, readOnly);
+                                }
                             }
 
                             break;
@@ -560,17 +655,12 @@ public class HttpEntry {
                                 FormatFactory ff = new FormatFactory(loader, serializer, schemaVersions, basePath + "/",
                                         serverBase);
                                 Formatter formatter = ff.get(format, params);
-                                result = formatter.output(
-                                        vertices.stream().map(vertex -> (Object) vertex).collect(Collectors.toList()))
-                                        .toString();
 
                                 if (outputMediaType == null) {
                                     outputMediaType = MediaType.APPLICATION_JSON;
                                 }
 
-                                if (MediaType.APPLICATION_XML_TYPE.isCompatible(MediaType.valueOf(outputMediaType))) {
-                                    result = xmlFormatTransformer.transform(result);
-                                }
+                                result = this.formatResults(formatter, vertices, outputMediaType, readOnly);
                                 status = Status.OK;
                             }
                             break;
@@ -714,10 +804,16 @@ public class HttpEntry {
                     ) {
                         String myvertid = v.id().toString();
                         if (this.isPaginated()) {
-                            response = Response.status(status).header("vertex-id", myvertid)
-                                    .header("total-results", this.getTotalVertices())
-                                    .header("total-pages", this.getTotalPaginationBuckets()).entity(result)
-                                    .type(outputMediaType).build();
+                            Response.ResponseBuilder responseBuilder =
+                                    Response.status(status).header("vertex-id", myvertid);
+                            if (this.paginationTotalsAvailable) {
+                                responseBuilder.header("total-results", this.getTotalVertices())
+                                        .header("total-pages", this.getTotalPaginationBuckets());
+                            }
+                            if (this.nextPaginationCursor != null) {
+                                responseBuilder.header("next-cursor", this.nextPaginationCursor);
+                            }
+                            response = responseBuilder.entity(result).type(outputMediaType).build();
                         } else {
                             response = Response.status(status).header("vertex-id", myvertid).entity(result)
                                     .type(outputMediaType).build();
@@ -776,6 +872,125 @@ public class HttpEntry {
         return Pair.with(success, responses);
     }
 
+    /**
+     * Formats the vertices into the response entity, either as a string or, with streaming enabled
+     * and nothing written by the requests, as a {@link StreamingOutput} that keeps the transaction
+     * open until it is written.
+     */
+    private Object formatResults(Formatter formatter, List<Vertex> vertices, String outputMediaType,
+            boolean readOnly) {
+        List<Object> results = vertices.stream().map(vertex -> (Object) vertex).collect(Collectors.toList());
+        boolean isXml = MediaType.APPLICATION_XML_TYPE.isCompatible(MediaType.valueOf(outputMediaType));
+
+        if (isResponseStreamingEnabled && readOnly) {
+            Map<String, String> mdc = MDC.getCopyOfContextMap();
+            dbEngine.openStream();
+            return (StreamingOutput) outputStream -> {
+                try {
+                    if (isXml) {
+                        Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+                        this.formatXml(formatter, results, writer, mdc);
+                        writer.flush();
+                    } else {
+                        formatter.output(results, null, outputStream);
+                    }
+                } finally {
+                    dbEngine.closeStream();
+                }
+            };
+        } else if (isXml) {
+            return xmlFormatTransformer.transform(formatter.output(results).toString());
+        }
+        return formatter.output(results).toString();
+    }
+
+    /**
+     * Formats the results as xml without building their json first. The formatter writes the json
+     * into a pipe on another thread, under the logging context of the request, while the xml is
+     * transformed from the other end as it arrives.
+     */
+    private void formatXml(Formatter formatter, List<Object> results, Writer writer, Map<String, String> mdc)
+            throws IOException {
+        PipedInputStream json = new PipedInputStream(XML_PIPE_SIZE);
+        PipedOutputStream jsonOutput = new PipedOutputStream(json);
+        Future<?> formatting;
+        try {
+            formatting = XML_FORMATTERS.submit(() -> {
+                if (mdc != null) {
+                    MDC.setContextMap(mdc);
+                }
+                try (OutputStream output = jsonOutput) {
+                    formatter.output(results, null, output);
+                } finally {
+                    MDC.clear();
+                }
+                return null;
+            });
+        } catch (RejectedExecutionException e) {
+            writer.write(xmlFormatTransformer.transform(formatter.output(results).toString()));
+            return;
+        }
+        try {
+            // closing the reader stops the formatter if the transform fails
+            xmlFormatTransformer.transform(new JsonReader(new InputStreamReader(json, StandardCharsets.UTF_8)),
+                    writer);
+        } catch (IllegalArgumentException e) {
+            // a failing formatter ends the json early, its own failure is the one to report
+            // unless it only failed writing after the transform closed the pipe
+            Throwable failure = formattingFailure(formatting);
+            if (failure != null && !(failure instanceof IOException)) {
+                throw new IOException("Unable to format the results", failure);
+            }
+            throw e;
+        }
+        Throwable failure = formattingFailure(formatting);
+        if (failure != null) {
+            throw new IOException("Unable to format the results", failure);
+        }
+    }
+
+    /**
+     * Waits for the formatter writing into the pipe.
+     *
+     * @return what the formatter failed with, null if it succeeded
+     */
+    private Throwable formattingFailure(Future<?> formatting) throws InterruptedIOException {
+        try {
+            formatting.get();
+            return null;
+        } catch (InterruptedException e) {
+            formatting.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while formatting the results");
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+    }
+
+    /**
+     * Formats counts that were computed in the graph into the response entity.
+     */
+    private String formatCounts(Formatter formatter, Map<String, Long> counts, String outputMediaType) {
+        String result = formatter.outputCounts(counts).toString();
+
+        if (MediaType.APPLICATION_XML_TYPE.isCompatible(MediaType.valueOf(outputMediaType))) {
+            result = xmlFormatTransformer.transform(result);
+        }
+        return result;
+    }
+
+    /**
+     * A count GET that is neither paginated nor filtered by owner can be answered
+     * by counting in the graph instead of loading every vertex.
+     */
+    private boolean isCountPushedDown(DBRequest request, boolean groupsAvailable) {
+        if (!HttpMethod.GET.equals(request.getMethod()) || this.isPaginated() || groupsAvailable) {
+            return false;
+        }
+        String formatParam = request.getInfo().getQueryParameters(false).getFirst("format");
+        return Format.count.name().equals(formatParam);
+    }
+
     /**
      * Generate notification events for the resulting db requests.
      */
@@ -1153,6 +1368,86 @@ public class HttpEntry {
         }
     }
 
+    /**
+     * Sets the pagination parameters from a cursor returned in the next-cursor header of a previous response.
+     *
+     * @param cursor the opaque cursor
+     * @throws AAIException if the cursor is not valid
+     */
+    public void setPaginationCursor(String cursor) throws AAIException {
+        if (cursor != null && !cursor.isEmpty()) {
+            PaginationCursor paginationCursor = PaginationCursor.decode(cursor);
+            this.setPaginationIndex(paginationCursor.getIndex());
+            this.setPaginationBucket(paginationCursor.getSize());
+            this.paginationByKey = paginationCursor.isKeyset();
+            this.paginationLastId = paginationCursor.getLastId();
+        }
+    }
+
+    /**
+     * Returns the requested page of the query results. The page boundaries are pushed into the traversal, so
+     * only the vertices of the page are loaded. Only a page requested with a keyset cursor orders the results
+     * by id, it resumes after the id of the last result of the previous page instead of skipping the pages
+     * before it.
+     *
+     * @param queryBuilder the query to page through
+     * @return the results of the requested page, or all results when the request is not paginated
+     * @throws AAIException if the requested page is past the end of the results
+     */
+    public <E> List<E> getPaginatedResults(QueryBuilder<E> queryBuilder) throws AAIException {
+        if (!this.isPaginated()) {
+            return queryBuilder.toList();
+        }
+        this.paginationTotalsAvailable = false;
+        long startIndex;
+        if (this.paginationLastId == null) {
+            if (this.isPaginationTotalCountEnabled) {
+                this.setTotalsForPaging((int) queryBuilder.count(), this.getPaginationBucket());
+            }
+            startIndex = (long) (this.getPaginationIndex() - 1) * this.getPaginationBucket();
+        } else {
+            queryBuilder.afterId(this.paginationLastId);
+            startIndex = 0;
+        }
+        if (this.paginationByKey) {
+            queryBuilder.orderById();
+        }
+        // one result past the page tells whether there is a next page without counting the rest
+        List<E> results = queryBuilder.range(startIndex, startIndex + this.getPaginationBucket() + 1).toList();
+        if (results.isEmpty() && startIndex > 0) {
+            throw new AAIException("AAI_6150", " ResultIndex is not appropriate for the result set");
+        }
+        boolean hasNextPage = results.size() > this.getPaginationBucket();
+        List<E> page = hasNextPage ? results.subList(0, this.getPaginationBucket()) : results;
+        if (!this.paginationByKey) {
+            this.setNextPaginationCursor(hasNextPage);
+            return page;
+        }
+        Long lastId = null;
+        if (hasNextPage) {
+            Object last = page.get(page.size() - 1);
+            if (last instanceof Element && ((Element) last).id() instanceof Long) {
+                lastId = (Long) ((Element) last).id();
+            }
+        }
+        this.setNextPaginationCursor(hasNextPage,
+                new PaginationCursor(this.getPaginationIndex() + 1, this.getPaginationBucket(), lastId));
+        return page;
+    }
+
+    private void setNextPaginationCursor(boolean hasNextPage) {
+        this.setNextPaginationCursor(hasNextPage,
+                new PaginationCursor(this.getPaginationIndex() + 1, this.getPaginationBucket()));
+    }
+
+    private void setNextPaginationCursor(boolean hasNextPage, PaginationCursor next) {
+        if (hasNextPage) {
+            this.nextPaginationCursor = next.encode();
+        } else {
+            this.nextPaginationCursor = null;
+        }
+    }
+
     public List<Object> getPaginatedVertexListForAggregateFormat(List<Object> aggregateVertexList) throws AAIException {
         List<Object> finalList = new Vector<>();
         if (this.isPaginated()) {
@@ -1168,6 +1463,7 @@ public class HttpEntry {
                         throw new AAIException("AAI_6150",
                                 " ResultIndex is not appropriate for the result set, Needs to be <= " + endIndex);
                     }
+                    this.setNextPaginationCursor(endIndex < vertexList.size());
                     finalList.add(new ArrayList<Object>());
                     for (int i = startIndex; i < endIndex; i++) {
                         ((ArrayList<Object>) finalList.get(0))
@@ -1181,8 +1477,8 @@ public class HttpEntry {
         return aggregateVertexList;
     }
 
-    public List<Object> getPaginatedVertexList(List<Object> vertexList) throws AAIException {
-        List<Object> vertices;
+    public <E> List<E> getPaginatedVertexList(List<E> vertexList) throws AAIException {
+        List<E> vertices;
         if (this.isPaginated()) {
             this.setTotalsForPaging(vertexList.size(), this.getPaginationBucket());
             int startIndex = (this.getPaginationIndex() - 1) * this.getPaginationBucket();
@@ -1192,6 +1488,7 @@ public class HttpEntry {
                         " ResultIndex is not appropriate for the result set, Needs to be <= " + endIndex);
             }
             vertices = vertexList.subList(startIndex, endIndex);
+            this.setNextPaginationCursor(endIndex < vertexList.size());
         } else {
             vertices = vertexList;
         }
@@ -0,0 +1,136 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.rest.db;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.onap.aai.exceptions.AAIException;
+
+/**
+ * Opaque continuation token handed to clients so they can request the page following the one they received
+ * without having to keep track of result indexes themselves.
+ * A keyset cursor, started with {@link #first(int)}, pages through the results ordered by id and carries the
+ * id of the last result returned, so the next page resumes after it instead of skipping over all the previous
+ * pages. Any other cursor addresses its page by index and keeps the order of the query.
+ */
+public final class PaginationCursor {
+
+    private static final String INDEX_VERSION = "1";
+    private static final String KEYSET_VERSION = "2";
+    private static final String SEPARATOR = ":";
+
+    private final int index;
+    private final int size;
+    private final boolean keyset;
+    private final Long lastId;
+
+    public PaginationCursor(int index, int size) {
+        this(index, size, false, null);
+    }
+
+    public PaginationCursor(int index, int size, Long lastId) {
+        this(index, size, true, lastId);
+    }
+
+    private PaginationCursor(int index, int size, boolean keyset, Long lastId) {
+        this.index = index;
+        this.size = size;
+        this.keyset = keyset;
+        this.lastId = lastId;
+    }
+
+    /**
+     * @param size the number of results in a page
+     * @return a keyset cursor for the first page
+     */
+    public static PaginationCursor first(int size) {
+        return new PaginationCursor(1, size, true, null);
+    }
+
+    /**
+     * @return the page this cursor points to, starting at 1
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return the number of results in a page
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return true if the results are paged through in the order of their ids
+     */
+    public boolean isKeyset() {
+        return keyset;
+    }
+
+    /**
+     * @return the id of the last result of the previous page, or null if the page is addressed by its index
+     */
+    public Long getLastId() {
+        return lastId;
+    }
+
+    /**
+     * Encodes the cursor as a url safe token.
+     *
+     * @return the token
+     */
+    public String encode() {
+        String raw = (keyset ? KEYSET_VERSION : INDEX_VERSION) + SEPARATOR + index + SEPARATOR + size;
+        if (lastId != null) {
+            raw += SEPARATOR + lastId;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token previously created by {@link #encode()}.
+     *
+     * @param token the token sent by the client
+     * @return the cursor
+     * @throws AAIException if the token was not created by this class
+     */
+    public static PaginationCursor decode(String token) throws AAIException {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR);
+            boolean byIndex = parts.length == 3 && INDEX_VERSION.equals(parts[0]);
+            boolean byKey = (parts.length == 3 || parts.length == 4) && KEYSET_VERSION.equals(parts[0]);
+            if (byIndex || byKey) {
+                int index = Integer.parseInt(parts[1]);
+                int size = Integer.parseInt(parts[2]);
+                Long lastId = parts.length == 4 ? Long.valueOf(parts[3]) : null;
+                if (index > 0 && size > 0) {
+                    return new PaginationCursor(index, size, byKey, lastId);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // falls through to the invalid cursor error below
+        }
+        throw new AAIException("AAI_6150", " Pagination cursor is not valid: " + token);
+    }
+}
@@ -39,6 +39,8 @@ public class NotificationEvent {
     private final String transactionId;
     private final String sourceOfTruth;
 
+    private String payload;
+
     /**
      * Instantiates a new notification event.
      *
@@ -63,12 +65,21 @@ public class NotificationEvent {
 
         StoreNotificationEvent sne = new StoreNotificationEvent(transactionId, sourceOfTruth);
 
-        sne.storeEventAndSendToJms(loader, eventHeader, obj);
+        sne.sendEventPayload(eventHeader, getNotificationEvent());
 
     }
 
+    /**
+     * Gets the event payload, it is built once and reused by every caller.
+     *
+     * @return the payload
+     * @throws AAIException the AAI exception
+     */
     public String getNotificationEvent() throws AAIException {
-        return new StoreNotificationEvent(transactionId, sourceOfTruth).storeEventOnly(loader, eventHeader, obj);
+        if (payload == null) {
+            payload = new StoreNotificationEvent(transactionId, sourceOfTruth).storeEventOnly(loader, eventHeader, obj);
+        }
+        return payload;
     }
 
     /**
@@ -35,9 +35,12 @@ import org.onap.aai.introspection.Introspector;
 import org.onap.aai.introspection.Loader;
 import org.onap.aai.introspection.LoaderFactory;
 import org.onap.aai.introspection.ModelType;
+import org.onap.aai.introspection.VersionConverter;
 import org.onap.aai.introspection.exceptions.AAIUnknownObjectException;
 import org.onap.aai.introspection.exceptions.AAIUnmarshallingException;
 import org.onap.aai.logging.LogFormatTools;
+import org.onap.aai.metrics.RequestMetrics;
+import org.onap.aai.metrics.RequestPhase;
 import org.onap.aai.parsers.uri.URIToObject;
 import org.onap.aai.setup.SchemaVersion;
 import org.onap.aai.setup.SchemaVersions;
@@ -149,8 +152,7 @@ public class UEBNotification {
             if (!parser.getTopEntity().equals(parser.getEntity())) {
                 Introspector child = obj;
                 if (!parser.getLoader().getVersion().equals(obj.getVersion())) {
-                    String json = obj.marshal(false);
-                    child = parser.getLoader().unmarshal(parser.getEntity().getName(), json);
+                    child = convertVersion(obj, parser.getLoader());
                 }
 
                 // wrap the child object in its parents
@@ -161,15 +163,12 @@ public class UEBNotification {
 
             // convert to most resent version
             if (!parser.getLoader().getVersion().equals(currentVersionLoader.getVersion())) {
-                String json = "";
                 if (parser.getTopEntity().equals(parser.getEntity())) {
                     // convert the parent object passed in
-                    json = obj.marshal(false);
-                    eventObject = currentVersionLoader.unmarshal(obj.getName(), json);
+                    eventObject = convertVersion(obj, currentVersionLoader);
                 } else {
                     // convert the object created in the parser
-                    json = parser.getTopEntity().marshal(false);
-                    eventObject = currentVersionLoader.unmarshal(parser.getTopEntity().getName(), json);
+                    eventObject = convertVersion(parser.getTopEntity(), currentVersionLoader);
                 }
             } else {
                 if (parser.getTopEntity().equals(parser.getEntity())) {
@@ -191,16 +190,29 @@ public class UEBNotification {
         }
     }
 
+    private Introspector convertVersion(Introspector obj, Loader loader) throws AAIUnmarshallingException {
+        try {
+            return VersionConverter.convert(obj, loader);
+        } catch (AAIUnknownObjectException e) {
+            throw new AAIUnmarshallingException("Could not convert: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Trigger events.
      *
      * @throws AAIException the AAI exception
      */
     public void triggerEvents() throws AAIException {
-        for (NotificationEvent event : events.values()) {
-            event.trigger();
+        long start = RequestMetrics.start();
+        try {
+            for (NotificationEvent event : events.values()) {
+                event.trigger();
+            }
+            clearEvents();
+        } finally {
+            RequestMetrics.stop(RequestPhase.NOTIFICATION, start);
         }
-        clearEvents();
     }
 
     public List<NotificationEvent> getEvents() {
@@ -27,9 +27,11 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -49,6 +51,8 @@ import org.onap.aai.introspection.tools.IntrospectorValidator;
 import org.onap.aai.introspection.tools.Issue;
 import org.onap.aai.introspection.tools.RemoveNonVisibleProperty;
 import org.onap.aai.logging.ErrorLogHelper;
+import org.onap.aai.rest.RestHandlerService;
+import org.onap.aai.serialization.engines.RequestTransactions;
 import org.onap.aai.util.AAIConfig;
 import org.onap.aai.util.FormatDate;
 import org.slf4j.Logger;
@@ -66,6 +70,9 @@ public class RESTAPI {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RESTAPI.class);
 
+    /* parsed app timeout tables keyed by their configured value */
+    private static final Map<String, Map<String, Integer>> APP_TIMEOUTS = new ConcurrentHashMap<>();
+
     /**
      * The Enum Action.
      */
@@ -260,17 +267,21 @@ public class RESTAPI {
      */
 
     public int getTimeoutLimit(String sot, String appTimeouts, String defaultTimeout) {
+        Integer appLimit = APP_TIMEOUTS.computeIfAbsent(appTimeouts, RESTAPI::parseAppTimeouts).get(sot);
+        if (appLimit != null) {
+            return appLimit;
+        }
+        return Integer.parseInt(defaultTimeout);
+    }
+
+    private static Map<String, Integer> parseAppTimeouts(String appTimeouts) {
         String[] ignoreAppIds = (appTimeouts).split("\\|");
-        int appLimit = Integer.parseInt(defaultTimeout);
         final Map<String, Integer> m = new HashMap<>();
         for (int i = 0; i < ignoreAppIds.length; i++) {
             String[] vals = ignoreAppIds[i].split(",");
             m.put(vals[0], Integer.parseInt(vals[1]));
         }
-        if (m.get(sot) != null) {
-            appLimit = m.get(sot);
-        }
-        return appLimit;
+        return m;
     }
 
     /**
@@ -330,6 +341,9 @@ public class RESTAPI {
 
     /**
      * runner sets up the timer logic and invokes it
+     * timed requests run on the shared rest handler pool, their limit counts from the moment a worker
+     * picks them up and they are interrupted, with their open transactions rolled back, once it is reached.
+     * A request not picked up within the limit is dropped without running
      *
      * @param toe
      * @param tba
@@ -343,30 +357,82 @@ public class RESTAPI {
     public Response runner(String toe, String tba, String tdl, HttpHeaders headers, UriInfo info, HttpMethod httpMethod,
             Callable<Response> c) {
         Response response = null;
-        Future<Response> handler = null;
-        ExecutorService executor = null;
+        TimedRequest handler = null;
         try {
             String timeoutEnabled = AAIConfig.get(toe);
             String timeoutByApp = AAIConfig.get(tba);
             String timeoutDefaultLimit = AAIConfig.get(tdl);
             String sourceOfTruth = headers.getRequestHeaders().getFirst("X-FromAppId");
             if (isTimeoutEnabled(sourceOfTruth, timeoutEnabled, timeoutByApp, timeoutDefaultLimit)) {
-                executor = Executors.newSingleThreadExecutor();
-                handler = executor.submit(c);
-                response = executeProcess(handler, sourceOfTruth, timeoutByApp, timeoutDefaultLimit, httpMethod,
-                        headers, info);
+                int timeoutLimit = getTimeoutLimit(sourceOfTruth, timeoutByApp, timeoutDefaultLimit);
+                handler = new TimedRequest(c);
+                RestHandlerService.getInstance().executor.execute(handler);
+                if (handler.awaitStart(timeoutLimit)) {
+                    response = executeProcess(handler, sourceOfTruth, timeoutByApp, timeoutDefaultLimit, httpMethod,
+                            headers, info);
+                } else {
+                    AAIException ex = new AAIException("AAI_7406", String.format(
+                            "Timeout limit of %s seconds reached waiting for the rest handler pool.",
+                            timeoutLimit / 1000));
+                    response = consumerExceptionResponseGenerator(headers, info, httpMethod, ex);
+                }
             } else {
                 response = (Response) c.call();
             }
+        } catch (RejectedExecutionException e) {
+            AAIException ex = new AAIException("AAI_7406", "Too many requests are waiting for the rest handler pool.");
+            response = consumerExceptionResponseGenerator(headers, info, httpMethod, ex);
+        } catch (InterruptedException e) {
+            AAIException ex = new AAIException("AAI_4000", e);
+            response = consumerExceptionResponseGenerator(headers, info, httpMethod, ex);
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             AAIException ex = new AAIException("AAI_4000", e);
             response = consumerExceptionResponseGenerator(headers, info, httpMethod, ex);
         } finally {
-            if (executor != null && handler != null) {
-                executor.shutdownNow();
+            if (handler != null && !handler.isDone()) {
+                handler.cancel(true);
             }
         }
         return response;
     }
 
+    /**
+     * A request run on the rest handler pool, it tells when a worker picks it up and rolls back
+     * the transactions it left open once it is cancelled.
+     */
+    private static final class TimedRequest extends FutureTask<Response> {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final RequestTransactions transactions = new RequestTransactions();
+
+        TimedRequest(Callable<Response> request) {
+            super(request);
+        }
+
+        /**
+         * @param timeoutLimit the longest wait in milliseconds
+         * @return false if no worker picked the request up in time
+         */
+        boolean awaitStart(long timeoutLimit) throws InterruptedException {
+            return started.await(timeoutLimit, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void run() {
+            started.countDown();
+            transactions.track();
+            try {
+                super.run();
+            } finally {
+                transactions.release();
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            transactions.cancel();
+            return super.cancel(mayInterruptIfRunning);
+        }
+    }
 }
@@ -20,7 +20,10 @@
 
 package org.onap.aai.restcore.search;
 
-import groovy.lang.GroovyShell;
+import com.google.common.cache.CacheStats;
+
+import groovy.lang.Binding;
+import groovy.lang.Script;
 import groovy.transform.TimedInterrupt;
 
 import java.util.HashMap;
@@ -45,9 +48,24 @@ import org.onap.aai.setup.SchemaVersions;
 
 public abstract class AAIAbstractGroovyShell {
 
-    protected final GroovyShell shell;
+    private static final int SCRIPT_CACHE_SIZE = Integer.getInteger("aai.groovy.script.cache.size", 500);
+
+    /**
+     * Compiled scripts shared by all shells, as they are configured the same way.
+     */
+    private static final ScriptCache SCRIPT_CACHE = new ScriptCache(compilerConfiguration(), SCRIPT_CACHE_SIZE);
+
+    private final ScriptCache scriptCache;
 
     public AAIAbstractGroovyShell() {
+        this(SCRIPT_CACHE);
+    }
+
+    AAIAbstractGroovyShell(ScriptCache scriptCache) {
+        this.scriptCache = scriptCache;
+    }
+
+    static CompilerConfiguration compilerConfiguration() {
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("value", 30000);
         parameters.put("unit",
@@ -63,8 +81,7 @@ public abstract class AAIAbstractGroovyShell {
         imports.addStarImports("java.util");
         CompilerConfiguration config = new CompilerConfiguration();
         config.addCompilationCustomizers(custom, imports);
-
-        this.shell = new GroovyShell(config);
+        return config;
     }
 
     /**
@@ -94,6 +111,25 @@ public abstract class AAIAbstractGroovyShell {
     public abstract String executeTraversal(TransactionalGraphEngine engine, String traversal,
             Map<String, Object> params, QueryStyle style, GraphTraversalSource source);
 
+    /**
+     * Returns a new instance of the script with the given binding, compiling the script only
+     * when it is not in the script cache yet.
+     *
+     * @param traversal the script text
+     * @param binding the variables of this run of the script
+     * @return the script ready to run
+     */
+    protected Script createScript(String traversal, Binding binding) {
+        return scriptCache.create(traversal, binding);
+    }
+
+    /**
+     * @return the hit, miss and eviction counts of the compiled script cache
+     */
+    public static CacheStats getScriptCacheStats() {
+        return SCRIPT_CACHE.stats();
+    }
+
     protected Loader getLoader() {
         SchemaVersions schemaVersions = (SchemaVersions) SpringContextAware.getBean("schemaVersions");
         return SpringContextAware.getBean(LoaderFactory.class).createLoaderForVersion(ModelType.MOXY,
@@ -41,14 +41,17 @@ public class GremlinGroovyShell extends AAIAbstractGroovyShell {
         super();
     }
 
+    GremlinGroovyShell(ScriptCache scriptCache) {
+        super(scriptCache);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public GraphTraversal<?, ?> executeTraversal(String traversal, Map<String, Object> params) {
         Binding binding = new Binding(params);
-        Script script = shell.parse(traversal);
-        script.setBinding(binding);
+        Script script = createScript(traversal, binding);
         return (GraphTraversal<?, ?>) script.run();
     }
 
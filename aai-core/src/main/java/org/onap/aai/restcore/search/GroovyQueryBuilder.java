@@ -53,8 +53,7 @@ public class GroovyQueryBuilder extends AAIAbstractGroovyShell {
         builder.changeLoader(getLoader());
         Binding binding = new Binding(params);
         binding.setVariable("builder", builder);
-        Script script = shell.parse(traversal);
-        script.setBinding(binding);
+        Script script = createScript(traversal, binding);
         script.run();
 
         return builder.getQuery();
@@ -75,8 +74,7 @@ public class GroovyQueryBuilder extends AAIAbstractGroovyShell {
         builder.changeLoader(getLoader());
         Binding binding = new Binding(params);
         binding.setVariable("builder", builder);
-        Script script = shell.parse(traversal);
-        script.setBinding(binding);
+        Script script = createScript(traversal, binding);
         script.run();
 
         return builder.getQuery();
@@ -0,0 +1,104 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.restcore.search;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalListener;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import groovy.lang.Binding;
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.Script;
+
+import java.util.concurrent.ExecutionException;
+
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.runtime.InvokerHelper;
+
+/**
+ * Compiled script classes keyed by the script text.
+ *
+ * Each script is compiled by a class loader of its own that only the cache entry holds, so when
+ * an entry is evicted its class and loader can be unloaded once no running script refers to them.
+ * Compiling through a shared loader would keep every class it ever parsed.
+ */
+final class ScriptCache {
+
+    private static final class CompiledScript {
+        private final GroovyClassLoader loader;
+        private final Class<? extends Script> scriptClass;
+
+        private CompiledScript(GroovyClassLoader loader, Class<? extends Script> scriptClass) {
+            this.loader = loader;
+            this.scriptClass = scriptClass;
+        }
+    }
+
+    private final CompilerConfiguration config;
+    private final Cache<String, CompiledScript> cache;
+
+    ScriptCache(CompilerConfiguration config, long maximumSize) {
+        this.config = config;
+        this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats()
+                .removalListener((RemovalListener<String, CompiledScript>) removal -> {
+                    if (removal.getValue() != null) {
+                        removal.getValue().loader.clearCache();
+                    }
+                }).build();
+    }
+
+    /**
+     * Returns a new instance of the script with the given binding, compiling the script only
+     * when it is not in the cache yet.
+     *
+     * @param text the script text
+     * @param binding the variables of this run of the script
+     * @return the script ready to run
+     */
+    Script create(String text, Binding binding) {
+        CompiledScript compiled;
+        try {
+            compiled = cache.get(text, () -> compile(text));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        }
+        // a new instance per run, the script state and its timed interrupt deadline are per instance
+        return InvokerHelper.createScript(compiled.scriptClass, binding);
+    }
+
+    CacheStats stats() {
+        return cache.stats();
+    }
+
+    long size() {
+        return cache.size();
+    }
+
+    private CompiledScript compile(String text) {
+        GroovyClassLoader loader = new GroovyClassLoader(ScriptCache.class.getClassLoader(), config);
+        Class<?> scriptClass = loader.parseClass(text);
+        return new CompiledScript(loader, scriptClass.asSubclass(Script.class));
+    }
+}
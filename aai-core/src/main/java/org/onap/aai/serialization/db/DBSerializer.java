@@ -87,7 +87,9 @@ import org.onap.aai.introspection.sideeffect.PrivateEdge;
 import org.onap.aai.introspection.sideeffect.SideEffectRunner;
 import org.onap.aai.logging.ErrorLogHelper;
 import org.onap.aai.logging.LogFormatTools;
-import org.onap.aai.logging.StopWatch;
+import org.onap.aai.metrics.PhaseTimer;
+import org.onap.aai.metrics.RequestMetrics;
+import org.onap.aai.metrics.RequestPhase;
 import org.onap.aai.parsers.query.QueryParser;
 import org.onap.aai.parsers.relationship.RelationshipToURI;
 import org.onap.aai.parsers.uri.URIParser;
@@ -134,6 +136,7 @@ public class DBSerializer {
     private final Loader loader;
     private final String baseURL;
     private double dbTimeMsecs = 0;
+    private final PhaseTimer dbTimer = RequestMetrics.timer(RequestPhase.DB);
     private long currentTimeMillis;
 
     private SchemaVersions schemaVersions;
@@ -419,11 +422,11 @@ public class DBSerializer {
     public Vertex createNewVertex(Introspector wrappedObject) {
         Vertex v;
         try {
-            StopWatch.conditionalStart();
+            dbTimer.conditionalStart();
             v = this.engine.tx().addVertex(wrappedObject.getDbName());
             touchStandardVertexProperties(wrappedObject.getDbName(), v, true);
         } finally {
-            dbTimeMsecs += StopWatch.stopIfStarted();
+            dbTimeMsecs += dbTimer.stopIfStarted();
         }
         return v;
     }
@@ -462,7 +465,8 @@ public class DBSerializer {
      */
     public void serializeToDb(Introspector obj, Vertex v, QueryParser uriQuery, String identifier,
             String requestContext) throws AAIException, UnsupportedEncodingException {
-        StopWatch.conditionalStart();
+        long serializationStart = RequestMetrics.start();
+        dbTimer.conditionalStart();
         try {
             if (uriQuery.isDependent()) {
                 // try to find the parent
@@ -471,7 +475,6 @@ public class DBSerializer {
                     Vertex parent = vertices.get(0);
                     this.reflectDependentVertex(parent, v, obj, requestContext);
                 } else {
-                    dbTimeMsecs += StopWatch.stopIfStarted();
                     throw new AAIException("AAI_6114",
                             "No parent Node of type " + uriQuery.getParentResultType() + " for " + identifier);
                 }
@@ -480,15 +483,16 @@ public class DBSerializer {
             }
 
         } catch (SchemaViolationException e) {
-            dbTimeMsecs += StopWatch.stopIfStarted();
             throw new AAIException("AAI_6117", e);
+        } finally {
+            dbTimeMsecs += dbTimer.stopIfStarted();
+            RequestMetrics.stop(RequestPhase.SERIALIZATION, serializationStart);
         }
-        dbTimeMsecs += StopWatch.stopIfStarted();
     }
 
     public void serializeSingleVertex(Vertex v, Introspector obj, String requestContext)
             throws UnsupportedEncodingException, AAIException {
-        StopWatch.conditionalStart();
+        dbTimer.conditionalStart();
         try {
             boolean isTopLevel = obj.isTopLevel();
             if (isTopLevel) {
@@ -505,14 +509,18 @@ public class DBSerializer {
         } catch (SchemaViolationException e) {
             throw new AAIException("AAI_6117", e);
         } finally {
-            dbTimeMsecs += StopWatch.stopIfStarted();
+            dbTimeMsecs += dbTimer.stopIfStarted();
         }
     }
 
     private void addUriIfNeeded(Vertex v, String uri) {
         VertexProperty<String> uriProp = v.property(AAIProperties.AAI_URI);
         if (!uriProp.isPresent() || !uriProp.value().equals(uri)) {
+            if (uriProp.isPresent()) {
+                engine.getUriCache().invalidate(uriProp.value());
+            }
             v.property(AAIProperties.AAI_URI, uri);
+            engine.getUriCache().put(uri, v);
         }
     }
 
@@ -963,6 +971,7 @@ public class DBSerializer {
 
         List<Path> paths = this.engine.getQueryEngine().findCousinsAsPath(v);
         Set<Path> toRemove = new HashSet<>();
+        Set<Pair<Object, String>> existingCousinEdges = new HashSet<>();
 
         // for each path 3 things can happen:
         // 1. The edge rule that created it is not in this version no action is to be taken on that edge
@@ -980,6 +989,7 @@ public class DBSerializer {
             // path objects.get(1) returns edge related-to
             // path objects.get(2) returns vertex otherV
             Vertex otherV = path.get(2);
+            existingCousinEdges.add(Pair.with(otherV.id(), path.<Edge>get(1).label()));
 
             String bUri;
             if (otherV.property(AAIProperties.AAI_URI).isPresent()) {
@@ -1007,24 +1017,33 @@ public class DBSerializer {
 
         }
 
+        // resolve all the new cousins in one lookup on aai-uri, the ones missed are looked up by their keys
+        Set<String> cousinUris = new HashSet<>();
+        for (Pair<String, String> cousinUriAndLabel : cousinUriAndLabels) {
+            cousinUris.add(cousinUriAndLabel.getValue0());
+        }
+        Map<String, Vertex> cousinVertices = this.engine.getQueryEngine().findByUris(cousinUris);
+
         Set<Pair<Vertex, String>> toBeCreated = new HashSet<>();
         for (Pair<String, String> cousinUriAndLabel : cousinUriAndLabels) {
-            Edge e;
-            Vertex cousinVertex;
             String label = cousinUriAndLabel.getValue1();
             String cousinUri = cousinUriAndLabel.getValue0();
-            QueryParser parser = engine.getQueryBuilder().createQueryFromURI(URI.create(cousinUri));
+            Vertex cousinVertex = cousinVertices.get(cousinUri);
+            if (cousinVertex == null) {
+                QueryParser parser = engine.getQueryBuilder().createQueryFromURI(URI.create(cousinUri));
 
-            List<Vertex> results = parser.getQueryBuilder().toList();
-            if (results.isEmpty()) {
-                final AAIException ex = new AAIException(AAI_6129,
-                        "Node of type " + parser.getResultType() + ". Could not find object at: " + parser.getUri());
-                ex.getTemplateVars().add(parser.getResultType());
-                ex.getTemplateVars().add(parser.getUri().toString());
-                throw ex;
-            } else {
-                // still an issue if there's more than one
-                cousinVertex = results.get(0);
+                List<Vertex> results = parser.getQueryBuilder().toList();
+                if (results.isEmpty()) {
+                    final AAIException ex = new AAIException(AAI_6129, "Node of type " + parser.getResultType()
+                            + ". Could not find object at: " + parser.getUri());
+                    ex.getTemplateVars().add(parser.getResultType());
+                    ex.getTemplateVars().add(parser.getUri().toString());
+                    throw ex;
+                } else {
+                    // still an issue if there's more than one
+                    cousinVertex = results.get(0);
+                    cousinVertices.put(cousinUri, cousinVertex);
+                }
             }
 
             if (cousinVertex != null) {
@@ -1041,9 +1060,7 @@ public class DBSerializer {
                     throw new AAIException(AAI_6145);
                 }
 
-                e = this.getEdgeBetween(EdgeType.COUSIN, v, cousinVertex, label);
-
-                if (e == null) {
+                if (!existingCousinEdges.contains(Pair.with(cousinVertex.id(), label))) {
                     toBeCreated.add(Pair.with(cousinVertex, label));
                 }
             }
@@ -1220,71 +1237,80 @@ public class DBSerializer {
      */
     public Introspector dbToObject(List<Vertex> vertices, final Introspector obj, int depth, boolean nodeOnly,
             String cleanUp, boolean isSkipRelatedTo) throws UnsupportedEncodingException, AAIException {
+        long serializationStart = RequestMetrics.start();
+        try {
+            return verticesToObject(vertices, obj, depth, nodeOnly, cleanUp, isSkipRelatedTo);
+        } finally {
+            RequestMetrics.stop(RequestPhase.SERIALIZATION, serializationStart);
+        }
+    }
+
+    private Introspector verticesToObject(List<Vertex> vertices, final Introspector obj, int depth, boolean nodeOnly,
+            String cleanUp, boolean isSkipRelatedTo) throws UnsupportedEncodingException, AAIException {
         final int internalDepth;
         if (depth == Integer.MAX_VALUE) {
             internalDepth = depth--;
         } else {
             internalDepth = depth;
         }
-        StopWatch.conditionalStart();
-        if (vertices.size() > 1 && !obj.isContainer()) {
-            dbTimeMsecs += StopWatch.stopIfStarted();
-            throw new AAIException("AAI_6136",
-                    "query object mismatch: this object cannot hold multiple items." + obj.getDbName());
-        } else if (obj.isContainer()) {
-            final List<Object> getList;
-            String listProperty = null;
-            for (String property : obj.getProperties()) {
-                if (obj.isListType(property) && obj.isComplexGenericType(property)) {
-                    listProperty = property;
-                    break;
+        dbTimer.conditionalStart();
+        try {
+            if (vertices.size() > 1 && !obj.isContainer()) {
+                throw new AAIException("AAI_6136",
+                        "query object mismatch: this object cannot hold multiple items." + obj.getDbName());
+            } else if (obj.isContainer()) {
+                final List<Object> getList;
+                String listProperty = null;
+                for (String property : obj.getProperties()) {
+                    if (obj.isListType(property) && obj.isComplexGenericType(property)) {
+                        listProperty = property;
+                        break;
+                    }
+                }
+                final String propertyName = listProperty;
+                getList = obj.getValue(listProperty);
+
+                /*
+                 * This is an experimental multithreading experiment
+                 * on get alls.
+                 */
+                ExecutorService pool = GetAllPool.getInstance().getPool();
+
+                List<Future<Object>> futures = new ArrayList<>();
+
+                for (Vertex v : vertices) {
+                    AaiCallable<Object> task = new AaiCallable<Object>() {
+                        @Override
+                        public Object process() throws UnsupportedEncodingException, AAIException {
+                            Set<Vertex> seen = new HashSet<>();
+                            Introspector childObject;
+                            childObject = obj.newIntrospectorInstanceOfNestedProperty(propertyName);
+                            dbToObject(childObject, v, seen, internalDepth, nodeOnly, cleanUp, isSkipRelatedTo);
+                            return childObject.getUnderlyingObject();
+                        }
+                    };
+                    futures.add(pool.submit(task));
                 }
-            }
-            final String propertyName = listProperty;
-            getList = obj.getValue(listProperty);
-
-            /*
-             * This is an experimental multithreading experiment
-             * on get alls.
-             */
-            ExecutorService pool = GetAllPool.getInstance().getPool();
-
-            List<Future<Object>> futures = new ArrayList<>();
 
-            for (Vertex v : vertices) {
-                AaiCallable<Object> task = new AaiCallable<Object>() {
-                    @Override
-                    public Object process() throws UnsupportedEncodingException, AAIException {
-                        Set<Vertex> seen = new HashSet<>();
-                        Introspector childObject;
-                        childObject = obj.newIntrospectorInstanceOfNestedProperty(propertyName);
-                        dbToObject(childObject, v, seen, internalDepth, nodeOnly, cleanUp, isSkipRelatedTo);
-                        return childObject.getUnderlyingObject();
+                for (Future<Object> future : futures) {
+                    try {
+                        getList.add(future.get());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new AAIException("AAI_4000", e);
+                    } catch (ExecutionException e) {
+                        throw new AAIException("AAI_4000", e);
                     }
-                };
-                futures.add(pool.submit(task));
-            }
-
-            for (Future<Object> future : futures) {
-                try {
-                    getList.add(future.get());
-                } catch (InterruptedException e) {
-                    dbTimeMsecs += StopWatch.stopIfStarted();
-                    Thread.currentThread().interrupt();
-                    throw new AAIException("AAI_4000", e);
-                } catch (ExecutionException e) {
-                    dbTimeMsecs += StopWatch.stopIfStarted();
-                    throw new AAIException("AAI_4000", e);
                 }
+            } else if (vertices.size() == 1) {
+                Set<Vertex> seen = new HashSet<>();
+                dbToObject(obj, vertices.get(0), seen, depth, nodeOnly, cleanUp, isSkipRelatedTo);
+            } else {
+                // obj = null;
             }
-        } else if (vertices.size() == 1) {
-            Set<Vertex> seen = new HashSet<>();
-            dbToObject(obj, vertices.get(0), seen, depth, nodeOnly, cleanUp, isSkipRelatedTo);
-        } else {
-            // obj = null;
+        } finally {
+            dbTimeMsecs += dbTimer.stopIfStarted();
         }
-
-        dbTimeMsecs += StopWatch.stopIfStarted();
         return obj;
     }
 
@@ -1468,9 +1494,12 @@ public class DBSerializer {
         Introspector obj = this.latestLoader.introspectorFromName(nodeType);
         Set<Vertex> seen = new HashSet<>();
         int depth = 0;
-        StopWatch.conditionalStart();
-        this.dbToObject(obj, v, seen, depth, true, FALSE);
-        dbTimeMsecs += StopWatch.stopIfStarted();
+        dbTimer.conditionalStart();
+        try {
+            this.dbToObject(obj, v, seen, depth, true, FALSE);
+        } finally {
+            dbTimeMsecs += dbTimer.stopIfStarted();
+        }
         return obj;
 
     }
@@ -1486,9 +1515,12 @@ public class DBSerializer {
         }
         Introspector obj = this.latestLoader.introspectorFromName(nodeType);
         Set<Vertex> seen = new HashSet<>();
-        StopWatch.conditionalStart();
-        this.dbToObject(obj, v, seen, depth, false, FALSE);
-        dbTimeMsecs += StopWatch.stopIfStarted();
+        dbTimer.conditionalStart();
+        try {
+            this.dbToObject(obj, v, seen, depth, false, FALSE);
+        } finally {
+            dbTimeMsecs += dbTimer.stopIfStarted();
+        }
         return obj;
     }
 
@@ -1776,32 +1808,30 @@ public class DBSerializer {
             throws UnsupportedEncodingException, AAIException {
 
         Vertex relatedVertex;
-        StopWatch.conditionalStart();
-        QueryParser parser = engine.getQueryBuilder().createQueryFromRelationship(relationship);
-
-        String label = null;
-        if (relationship.hasProperty(RELATIONSHIP_LABEL)) {
-            label = relationship.getValue(RELATIONSHIP_LABEL);
-        }
-
-        List<Vertex> results = parser.getQueryBuilder().toList();
-        if (results.isEmpty()) {
-            dbTimeMsecs += StopWatch.stopIfStarted();
-            AAIException e = new AAIException(AAI_6129,
-                    "Node of type " + parser.getResultType() + ". Could not find object at: " + parser.getUri());
-            e.getTemplateVars().add(parser.getResultType());
-            e.getTemplateVars().add(parser.getUri().toString());
-            throw e;
-        } else {
-            // still an issue if there's more than one
-            relatedVertex = results.get(0);
-        }
+        dbTimer.conditionalStart();
+        try {
+            QueryParser parser = engine.getQueryBuilder().createQueryFromRelationship(relationship);
 
-        if (relatedVertex != null) {
+            String label = null;
+            if (relationship.hasProperty(RELATIONSHIP_LABEL)) {
+                label = relationship.getValue(RELATIONSHIP_LABEL);
+            }
 
-            Edge e;
-            try {
-                e = this.getEdgeBetween(EdgeType.COUSIN, inputVertex, relatedVertex, label);
+            List<Vertex> results = parser.getQueryBuilder().toList();
+            if (results.isEmpty()) {
+                AAIException e = new AAIException(AAI_6129,
+                        "Node of type " + parser.getResultType() + ". Could not find object at: " + parser.getUri());
+                e.getTemplateVars().add(parser.getResultType());
+                e.getTemplateVars().add(parser.getUri().toString());
+                throw e;
+            } else {
+                // still an issue if there's more than one
+                relatedVertex = results.get(0);
+            }
+
+            if (relatedVertex != null) {
+
+                Edge e = this.getEdgeBetween(EdgeType.COUSIN, inputVertex, relatedVertex, label);
                 if (e == null) {
                     e = edgeSer.addEdge(this.engine.asAdmin().getTraversalSource(), inputVertex, relatedVertex, label);
                     if (isDeltaEventsEnabled) {
@@ -1811,12 +1841,10 @@ public class DBSerializer {
                 } else {
                     // attempted to link two vertexes already linked
                 }
-            } finally {
-                dbTimeMsecs += StopWatch.stopIfStarted();
             }
+        } finally {
+            dbTimeMsecs += dbTimer.stopIfStarted();
         }
-
-        dbTimeMsecs += StopWatch.stopIfStarted();
         return relatedVertex;
     }
 
@@ -1931,17 +1959,18 @@ public class DBSerializer {
      */
     public Edge getEdgeBetween(EdgeType type, Vertex vertexOut, Vertex vertexIn, String label) throws AAIException {
 
-        StopWatch.conditionalStart();
-        if (vertexIn != null) {
+        dbTimer.conditionalStart();
+        try {
+            if (vertexIn != null) {
 
-            Edge edge = this.getEdgesBetween(type, vertexOut, vertexIn, label);
-            if (edge != null) {
-                dbTimeMsecs += StopWatch.stopIfStarted();
-                return edge;
+                Edge edge = this.getEdgesBetween(type, vertexOut, vertexIn, label);
+                if (edge != null) {
+                    return edge;
+                }
             }
-
+        } finally {
+            dbTimeMsecs += dbTimer.stopIfStarted();
         }
-        dbTimeMsecs += StopWatch.stopIfStarted();
         return null;
     }
 
@@ -1962,42 +1991,41 @@ public class DBSerializer {
             throws UnsupportedEncodingException, AAIException {
 
         Vertex relatedVertex;
-        StopWatch.conditionalStart();
-        QueryParser parser = engine.getQueryBuilder().createQueryFromRelationship(relationship);
+        dbTimer.conditionalStart();
+        try {
+            QueryParser parser = engine.getQueryBuilder().createQueryFromRelationship(relationship);
 
-        List<Vertex> results = parser.getQueryBuilder().toList();
+            List<Vertex> results = parser.getQueryBuilder().toList();
 
-        String label = null;
-        if (relationship.hasProperty(RELATIONSHIP_LABEL)) {
-            label = relationship.getValue(RELATIONSHIP_LABEL);
-        }
+            String label = null;
+            if (relationship.hasProperty(RELATIONSHIP_LABEL)) {
+                label = relationship.getValue(RELATIONSHIP_LABEL);
+            }
 
-        if (results.isEmpty()) {
-            dbTimeMsecs += StopWatch.stopIfStarted();
-            return Optional.empty();
-        }
+            if (results.isEmpty()) {
+                return Optional.empty();
+            }
 
-        relatedVertex = results.get(0);
-        Edge edge;
-        try {
-            edge = this.getEdgeBetween(EdgeType.COUSIN, inputVertex, relatedVertex, label);
-        } catch (NoEdgeRuleFoundException e) {
-            dbTimeMsecs += StopWatch.stopIfStarted();
-            throw new AAIException(AAI_6129, e);
-        }
-        if (edge != null) {
-            if (isDeltaEventsEnabled) {
-                String mainUri = inputVertex.property(AAIProperties.AAI_URI).value().toString();
-                deltaForEdge(mainUri, edge, DeltaAction.DELETE_REL, DeltaAction.UPDATE);
+            relatedVertex = results.get(0);
+            Edge edge;
+            try {
+                edge = this.getEdgeBetween(EdgeType.COUSIN, inputVertex, relatedVertex, label);
+            } catch (NoEdgeRuleFoundException e) {
+                throw new AAIException(AAI_6129, e);
             }
-            edge.remove();
-            dbTimeMsecs += StopWatch.stopIfStarted();
-            return Optional.of(relatedVertex);
-        } else {
-            dbTimeMsecs += StopWatch.stopIfStarted();
-            return Optional.empty();
+            if (edge != null) {
+                if (isDeltaEventsEnabled) {
+                    String mainUri = inputVertex.property(AAIProperties.AAI_URI).value().toString();
+                    deltaForEdge(mainUri, edge, DeltaAction.DELETE_REL, DeltaAction.UPDATE);
+                }
+                edge.remove();
+                return Optional.of(relatedVertex);
+            } else {
+                return Optional.empty();
+            }
+        } finally {
+            dbTimeMsecs += dbTimer.stopIfStarted();
         }
-
     }
 
     /**
@@ -2006,9 +2034,13 @@ public class DBSerializer {
      * @param startVertex the start vertex
      */
     public void deleteWithTraversal(Vertex startVertex) {
-        StopWatch.conditionalStart();
-        List<Vertex> results = this.engine.getQueryEngine().findDeletable(startVertex);
-        this.delete(results);
+        dbTimer.conditionalStart();
+        try {
+            List<Vertex> results = this.engine.getQueryEngine().findDeletable(startVertex);
+            this.delete(results);
+        } finally {
+            dbTimeMsecs += dbTimer.stopIfStarted();
+        }
     }
 
     /**
@@ -2031,33 +2063,35 @@ public class DBSerializer {
      * @param vertices - list of vertices to delete from the graph
      */
     void delete(List<Vertex> vertices) {
-        StopWatch.conditionalStart();
-
-        for (Vertex v : vertices) {
-            LOGGER.debug("Removing vertex {} with label {}", v.id(), v.label());
-            if (isDeltaEventsEnabled) {
-                deltaForVertexDelete(v);
-            }
-            // add the cousin vertexes of v to have their resource-version updated and notified on.
-            v.edges(Direction.BOTH).forEachRemaining(e -> {
-                if (e.property(EdgeProperty.CONTAINS.toString()).isPresent()
-                        && AAIDirection.NONE.toString().equals(e.<String>value(EdgeProperty.CONTAINS.toString()))) {
-                    e.bothVertices().forEachRemaining(cousinV -> {
-                        if (!v.equals(cousinV)) {
-                            edgeVertexes.add(cousinV);
-                        }
-                    });
+        dbTimer.conditionalStart();
+        try {
+            for (Vertex v : vertices) {
+                LOGGER.debug("Removing vertex {} with label {}", v.id(), v.label());
+                if (isDeltaEventsEnabled) {
+                    deltaForVertexDelete(v);
                 }
-            });
-
-            // if somewhere along the way v was added to the sets tracking the what is to be updated/notified on
-            // it should be removed from them as v is to be deleted
-            edgeVertexes.remove(v);
-            updatedVertexes.remove(v);
-            v.remove();
+                // add the cousin vertexes of v to have their resource-version updated and notified on.
+                v.edges(Direction.BOTH).forEachRemaining(e -> {
+                    if (e.property(EdgeProperty.CONTAINS.toString()).isPresent()
+                            && AAIDirection.NONE.toString().equals(e.<String>value(EdgeProperty.CONTAINS.toString()))) {
+                        e.bothVertices().forEachRemaining(cousinV -> {
+                            if (!v.equals(cousinV)) {
+                                edgeVertexes.add(cousinV);
+                            }
+                        });
+                    }
+                });
+
+                // if somewhere along the way v was added to the sets tracking the what is to be updated/notified on
+                // it should be removed from them as v is to be deleted
+                edgeVertexes.remove(v);
+                updatedVertexes.remove(v);
+                v.<String>property(AAIProperties.AAI_URI).ifPresent(uri -> engine.getUriCache().invalidate(uri));
+                v.remove();
+            }
+        } finally {
+            dbTimeMsecs += dbTimer.stopIfStarted();
         }
-
-        dbTimeMsecs += StopWatch.stopIfStarted();
     }
 
     private void deltaForVertexDelete(Vertex vertex) {
@@ -2170,7 +2204,6 @@ public class DBSerializer {
         String errorDetail = " unknown delete semantic found";
         String aaiExceptionCode = "";
 
-        StopWatch.conditionalStart();
         /*
          * This takes in all the vertices in a cascade-delete-chain and checks if there is any edge with a
          * "prevent-delete" condition
@@ -2179,14 +2212,18 @@ public class DBSerializer {
          * The prevent-delete vertices are stored so that the error message displays what prevents the delete
          */
 
-        List<Object> preventDeleteVertices = this.engine.asAdmin().getReadOnlyTraversalSource().V(vertices)
-                .union(__.inE().has(EdgeProperty.PREVENT_DELETE.toString(), AAIDirection.IN.toString()).outV()
-                        .values(AAIProperties.NODE_TYPE),
-                        __.outE().has(EdgeProperty.PREVENT_DELETE.toString(), AAIDirection.OUT.toString()).inV()
-                                .values(AAIProperties.NODE_TYPE))
-                .dedup().toList();
-
-        dbTimeMsecs += StopWatch.stopIfStarted();
+        List<Object> preventDeleteVertices;
+        dbTimer.conditionalStart();
+        try {
+            preventDeleteVertices = this.engine.asAdmin().getReadOnlyTraversalSource().V(vertices)
+                    .union(__.inE().has(EdgeProperty.PREVENT_DELETE.toString(), AAIDirection.IN.toString()).outV()
+                            .values(AAIProperties.NODE_TYPE),
+                            __.outE().has(EdgeProperty.PREVENT_DELETE.toString(), AAIDirection.OUT.toString()).inV()
+                                    .values(AAIProperties.NODE_TYPE))
+                    .dedup().toList();
+        } finally {
+            dbTimeMsecs += dbTimer.stopIfStarted();
+        }
         if (!preventDeleteVertices.isEmpty()) {
             aaiExceptionCode = "AAI_6110";
             errorDetail =
@@ -2329,6 +2366,13 @@ public class DBSerializer {
         return (dbTimeMsecs);
     }
 
+    /**
+     * @return true if objects read from the graph are checked for their owner
+     */
+    public boolean isMultiTenancyEnabled() {
+        return isMultiTenancyEnabled;
+    }
+
     /**
      * Db to object With Filters
      * This is for a one-time run with Tenant Isloation to only filter relationships
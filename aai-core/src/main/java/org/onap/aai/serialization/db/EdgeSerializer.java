@@ -26,6 +26,7 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
@@ -246,28 +247,22 @@ public class EdgeSerializer {
         String detail = "";
         final String msg = "multiplicity rule violated: only one edge can exist with label: ";
 
+        // only whether such an edge exists matters, so stop at the first one rather than counting them
+        // all, which on a vertex with many edges of the label reads every one of them
+        boolean violated = false;
         if (multiplicityRule.equals(MultiplicityRule.ONE2ONE)) {
-            Long outEdgesCnt = traversalSource.V(a).out(label).has(AAIProperties.NODE_TYPE, bVertexType).count().next();
-            Long inEdgesCnt = traversalSource.V(b).in(label).has(AAIProperties.NODE_TYPE, aVertexType).count().next();
-            if (aVertexType.equals(bVertexType)) {
-                inEdgesCnt = inEdgesCnt
-                        + traversalSource.V(a).in(label).has(AAIProperties.NODE_TYPE, aVertexType).count().next();
-                outEdgesCnt = outEdgesCnt
-                        + traversalSource.V(b).out(label).has(AAIProperties.NODE_TYPE, bVertexType).count().next();
-            }
-            if ((inEdgesCnt != 0) || (outEdgesCnt != 0)) {
-                detail = msg + label + " between " + aVertexType + " and " + bVertexType;
-            }
+            violated = hasAdjacent(traversalSource, a, Direction.OUT, label, bVertexType)
+                    || hasAdjacent(traversalSource, b, Direction.IN, label, aVertexType)
+                    || (aVertexType.equals(bVertexType)
+                            && (hasAdjacent(traversalSource, a, Direction.IN, label, aVertexType)
+                                    || hasAdjacent(traversalSource, b, Direction.OUT, label, bVertexType)));
         } else if (multiplicityRule.equals(MultiplicityRule.ONE2MANY)) {
-            Long inEdgesCnt = traversalSource.V(b).in(label).has(AAIProperties.NODE_TYPE, aVertexType).count().next();
-            if (inEdgesCnt != 0) {
-                detail = msg + label + " between " + aVertexType + " and " + bVertexType;
-            }
+            violated = hasAdjacent(traversalSource, b, Direction.IN, label, aVertexType);
         } else if (multiplicityRule.equals(MultiplicityRule.MANY2ONE)) {
-            Long outEdgesCnt = traversalSource.V(a).out(label).has(AAIProperties.NODE_TYPE, bVertexType).count().next();
-            if (outEdgesCnt != 0) {
-                detail = msg + label + " between " + aVertexType + " and " + bVertexType;
-            }
+            violated = hasAdjacent(traversalSource, a, Direction.OUT, label, bVertexType);
+        }
+        if (violated) {
+            detail = msg + label + " between " + aVertexType + " and " + bVertexType;
         }
 
         if (!"".equals(detail)) {
@@ -276,4 +271,20 @@ public class EdgeSerializer {
             return Optional.empty();
         }
     }
+
+    /**
+     * Checks if the vertex has an edge with the label in the direction to a vertex of the node type.
+     *
+     * @param v the vertex
+     * @param direction the direction of the edge from the vertex
+     * @param label the edge label
+     * @param nodeType the node type of the other vertex
+     * @return true, if there is such an edge
+     */
+    private boolean hasAdjacent(GraphTraversalSource traversalSource, Vertex v, Direction direction, String label,
+            String nodeType) {
+        GraphTraversal<Vertex, Vertex> adjacent =
+                direction == Direction.OUT ? traversalSource.V(v).out(label) : traversalSource.V(v).in(label);
+        return adjacent.has(AAIProperties.NODE_TYPE, nodeType).limit(1).hasNext();
+    }
 }
@@ -0,0 +1,81 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.serialization.engines;
+
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The transactions a request opens on its worker thread, so a cancelled request rolls them back
+ * instead of leaving them open or committing them after its caller gave up on it.
+ */
+public class RequestTransactions {
+
+    private static final ThreadLocal<RequestTransactions> CURRENT = new ThreadLocal<>();
+
+    private final Set<TransactionalGraphEngine> open = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled = false;
+
+    /**
+     * Tracks the transactions started on the current thread until {@link #release()}.
+     */
+    public void track() {
+        CURRENT.set(this);
+    }
+
+    static RequestTransactions current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Marks the request as cancelled, its transactions can no longer be committed.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    void opened(TransactionalGraphEngine engine) {
+        open.add(engine);
+    }
+
+    void closed(TransactionalGraphEngine engine) {
+        open.remove(engine);
+    }
+
+    /**
+     * Stops tracking on the current thread and rolls back what a cancelled request left open.
+     * Must be called on the thread that ran the request.
+     */
+    public void release() {
+        CURRENT.remove();
+        if (cancelled) {
+            for (TransactionalGraphEngine engine : new ArrayList<>(open)) {
+                engine.rollback();
+            }
+        }
+        open.clear();
+    }
+}
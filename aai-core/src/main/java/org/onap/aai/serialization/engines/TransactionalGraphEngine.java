@@ -44,7 +44,10 @@ public abstract class TransactionalGraphEngine {
     protected Graph currentTx = null;
     protected GraphTraversalSource currentTraversal = null;
     protected GraphTraversalSource readOnlyTraversal = null;
+    protected final UriVertexCache uriCache = new UriVertexCache();
     private final Admin admin;
+    private int openStreams = 0;
+    private Runnable pendingClose = null;
 
     /**
      * Instantiates a new transactional graph engine.
@@ -158,7 +161,8 @@ public abstract class TransactionalGraphEngine {
         } else if (style.equals(QueryStyle.TRAVERSAL)) {
             return new TraversalQuery<>(loader, this.asAdmin().getTraversalSource());
         } else if (style.equals(QueryStyle.TRAVERSAL_URI)) {
-            return new TraversalURIOptimizedQuery<>(loader, this.asAdmin().getTraversalSource());
+            return new TraversalURIOptimizedQuery<Vertex>(loader, this.asAdmin().getTraversalSource())
+                    .setUriCache(uriCache);
         } else if (style.equals(QueryStyle.HISTORY_TRAVERSAL)) {
             throw new IllegalArgumentException("History Traversal needs history traversal source");
         } else if (style.equals(QueryStyle.HISTORY_GREMLIN_TRAVERSAL)) {
@@ -226,25 +230,77 @@ public abstract class TransactionalGraphEngine {
             this.currentTx = this.getGraph().newTransaction();
             this.currentTraversal = this.tx().traversal();
             this.readOnlyTraversal = this.tx().traversal().withStrategies(ReadOnlyStrategy.instance());
+            this.uriCache.clear();
+            RequestTransactions request = RequestTransactions.current();
+            if (request != null) {
+                request.opened(this);
+            }
         }
         return currentTx;
     }
 
-    public void rollback() {
+    public synchronized void rollback() {
         if (this.tx() != null) {
+            if (openStreams > 0) {
+                pendingClose = this::rollback;
+                return;
+            }
             this.tx().tx().rollback();
-            this.currentTx = null;
-            this.currentTraversal = null;
-            this.readOnlyTraversal = null;
+            this.close();
         }
     }
 
-    public void commit() {
+    /**
+     * Commits the transaction, or rolls it back when the request it belongs to was cancelled.
+     *
+     * @throws IllegalStateException if the request was cancelled
+     */
+    public synchronized void commit() {
         if (this.tx() != null) {
+            RequestTransactions request = RequestTransactions.current();
+            if (request != null && request.isCancelled()) {
+                this.rollback();
+                throw new IllegalStateException("Request was cancelled, its transaction was rolled back");
+            }
+            if (openStreams > 0) {
+                pendingClose = this::commit;
+                return;
+            }
             this.tx().tx().commit();
-            this.currentTx = null;
-            this.currentTraversal = null;
-            this.readOnlyTraversal = null;
+            this.close();
+        }
+    }
+
+    /**
+     * Keeps the transaction open for a response that reads from it after the request returned.
+     * A commit or rollback until the stream is closed is deferred to {@link #closeStream()}.
+     */
+    public synchronized void openStream() {
+        if (this.tx() != null) {
+            openStreams++;
+        }
+    }
+
+    /**
+     * Closes a stream opened with {@link #openStream()}, once no stream is left open the commit or
+     * rollback that was deferred is done.
+     */
+    public synchronized void closeStream() {
+        if (openStreams > 0 && --openStreams == 0 && pendingClose != null) {
+            Runnable close = pendingClose;
+            pendingClose = null;
+            close.run();
+        }
+    }
+
+    private void close() {
+        this.uriCache.clear();
+        this.currentTx = null;
+        this.currentTraversal = null;
+        this.readOnlyTraversal = null;
+        RequestTransactions request = RequestTransactions.current();
+        if (request != null) {
+            request.closed(this);
         }
     }
 
@@ -252,6 +308,15 @@ public abstract class TransactionalGraphEngine {
         return this.currentTx;
     }
 
+    /**
+     * Gets the cache of the aai-uris resolved in the current transaction.
+     *
+     * @return the uri cache
+     */
+    public UriVertexCache getUriCache() {
+        return uriCache;
+    }
+
     public Admin asAdmin() {
         return admin;
     }
@@ -25,7 +25,10 @@ import static org.onap.aai.edges.enums.EdgeField.PRIVATE;
 import static org.onap.aai.edges.enums.EdgeProperty.CONTAINS;
 import static org.onap.aai.edges.enums.EdgeProperty.DELETE_OTHER_V;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.tinkerpop.gremlin.process.traversal.Order;
@@ -43,7 +46,6 @@ import org.onap.aai.db.props.AAIProperties;
 import org.onap.aai.edges.enums.EdgeField;
 import org.onap.aai.edges.enums.EdgeProperty;
 import org.onap.aai.introspection.Loader;
-import org.onap.aai.logging.StopWatch;
 
 /*
  * This class needs some big explanation despite its compact size.
@@ -71,7 +73,7 @@ public class GraphTraversalQueryEngine extends QueryEngine {
     @Override
     public List<Vertex> findParents(Vertex start) {
         try {
-            StopWatch.conditionalStart();
+            dbTimer.conditionalStart();
 
             @SuppressWarnings("unchecked")
             final GraphTraversal<Vertex, Vertex> pipe = this.g.V(start).emit(v -> true)
@@ -79,7 +81,7 @@ public class GraphTraversalQueryEngine extends QueryEngine {
                             __.outE().has(CONTAINS.toString(), IN.toString()).inV()));
             return pipe.toList();
         } finally {
-            dbTimeMsecs += StopWatch.stopIfStarted();
+            dbTimeMsecs += dbTimer.stopIfStarted();
         }
     }
 
@@ -89,12 +91,35 @@ public class GraphTraversalQueryEngine extends QueryEngine {
     @Override
     public List<Vertex> findParents(String[] uris) {
         try {
-            StopWatch.conditionalStart();
+            dbTimer.conditionalStart();
             final GraphTraversal<Vertex, Vertex> pipe =
                     this.g.V().has(AAIProperties.AAI_URI, P.within(uris)).order().by(AAIProperties.AAI_URI, Order.decr);
             return pipe.toList();
         } finally {
-            dbTimeMsecs += StopWatch.stopIfStarted();
+            dbTimeMsecs += dbTimer.stopIfStarted();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Vertex> findByUris(Collection<String> uris) {
+        Map<String, Vertex> result = new HashMap<>();
+        if (uris.isEmpty()) {
+            return result;
+        }
+        try {
+            dbTimer.conditionalStart();
+            final GraphTraversal<Vertex, Vertex> pipe = this.g.V().has(AAIProperties.AAI_URI, P.within(uris));
+            while (pipe.hasNext()) {
+                Vertex v = pipe.next();
+                // keep the first match like a lookup by uri would
+                result.putIfAbsent(v.value(AAIProperties.AAI_URI), v);
+            }
+            return result;
+        } finally {
+            dbTimeMsecs += dbTimer.stopIfStarted();
         }
     }
 
@@ -145,7 +170,7 @@ public class GraphTraversalQueryEngine extends QueryEngine {
     @Override
     public List<Vertex> findDeletable(Vertex start) {
         try {
-            StopWatch.conditionalStart();
+            dbTimer.conditionalStart();
             @SuppressWarnings("unchecked")
             GraphTraversal<Vertex, Vertex> pipe = this.g.V(start).emit(v -> true)
                     .repeat(__.union(__.outE().has(DELETE_OTHER_V.toString(), OUT.toString()).inV(),
@@ -154,7 +179,7 @@ public class GraphTraversalQueryEngine extends QueryEngine {
 
             return pipe.toList();
         } finally {
-            dbTimeMsecs += StopWatch.stopIfStarted();
+            dbTimeMsecs += dbTimer.stopIfStarted();
         }
     }
 
@@ -164,7 +189,7 @@ public class GraphTraversalQueryEngine extends QueryEngine {
     @Override
     public List<Vertex> findDeletable(List<Vertex> startVertexes) {
         try {
-            StopWatch.conditionalStart();
+            dbTimer.conditionalStart();
             Vertex[] vertices = new Vertex[startVertexes.size()];
             vertices = startVertexes.toArray(vertices);
             GraphTraversal<Vertex, Vertex> pipe = this.g.V(vertices).emit(v -> true)
@@ -174,7 +199,7 @@ public class GraphTraversalQueryEngine extends QueryEngine {
 
             return pipe.toList();
         } finally {
-            dbTimeMsecs += StopWatch.stopIfStarted();
+            dbTimeMsecs += dbTimer.stopIfStarted();
         }
     }
 
@@ -20,7 +20,9 @@
 
 package org.onap.aai.serialization.engines.query;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.tinkerpop.gremlin.process.traversal.Path;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
@@ -31,11 +33,15 @@ import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.onap.aai.db.props.AAIProperties;
 import org.onap.aai.introspection.Loader;
+import org.onap.aai.metrics.PhaseTimer;
+import org.onap.aai.metrics.RequestMetrics;
+import org.onap.aai.metrics.RequestPhase;
 
 public abstract class QueryEngine {
 
     protected final GraphTraversalSource g;
     protected double dbTimeMsecs = 0;
+    protected final PhaseTimer dbTimer = RequestMetrics.timer(RequestPhase.DB);
 
     /**
      * Instantiates a new query engine.
@@ -72,6 +78,14 @@ public abstract class QueryEngine {
      */
     public abstract List<Vertex> findParents(String[] uris);
 
+    /**
+     * Finds the vertices with the given aai-uris in one lookup.
+     *
+     * @param uris - the aai-uris to look up
+     * @return the vertices found, keyed by their aai-uri; uris with no vertex are left out
+     */
+    public abstract Map<String, Vertex> findByUris(Collection<String> uris);
+
     /**
      * Finds all children, grandchildren, etc of start
      *
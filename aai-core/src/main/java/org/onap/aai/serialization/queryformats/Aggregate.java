@@ -93,6 +93,13 @@ public class Aggregate extends MultiFormatMapper {
 
     public Optional<JsonObject> createPropertiesObject(Vertex v) throws AAIFormatVertexException {
         try {
+            if (!serializer.isMultiTenancyEnabled()) {
+                Optional<JsonObject> direct = DirectJsonWriter.fromVertex(loader, v);
+                if (direct.isPresent()) {
+                    return direct;
+                }
+            }
+
             final Introspector obj =
                     loader.introspectorFromName(v.<String>property(AAIProperties.NODE_TYPE).orElse(null));
 
@@ -106,6 +113,11 @@ public class Aggregate extends MultiFormatMapper {
                         "Failed to format vertex - error while serializing: " + e.getMessage(), e);
             }
 
+            Optional<JsonObject> direct = DirectJsonWriter.fromIntrospector(obj);
+            if (direct.isPresent()) {
+                return direct;
+            }
+
             final String json = obj.marshal(false);
             return Optional.of(JsonParser.parseString(json).getAsJsonObject());
         } catch (AAIUnknownObjectException e) {
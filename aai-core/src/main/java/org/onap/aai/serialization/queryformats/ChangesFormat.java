@@ -26,7 +26,9 @@ import com.google.gson.JsonObject;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 
-import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.onap.aai.config.SpringContextAware;
 import org.onap.aai.db.props.AAIProperties;
@@ -60,29 +62,18 @@ public class ChangesFormat extends MultiFormatMapper {
         json.addProperty("node-type", v.<String>value(AAIProperties.NODE_TYPE));
         json.addProperty("uri", v.<String>value(AAIProperties.AAI_URI));
 
-        final Set<Long> changes = new HashSet<>();
-        v.properties(AAIProperties.RESOURCE_VERSION).forEachRemaining(
-                o -> o.properties(AAIProperties.START_TS, AAIProperties.END_TS).forEachRemaining(p -> {
-                    Long val = (Long) p.value();
-                    if (val >= startTs) {
-                        changes.add(val);
-                    }
-                }));
-        v.edges(Direction.BOTH).forEachRemaining(e -> {
-            if (e.property(AAIProperties.START_TS).isPresent()
-                    && (Long) e.property(AAIProperties.START_TS).value() >= startTs) {
-                changes.add((Long) e.property(AAIProperties.START_TS).value());
-            }
-            if (e.property(AAIProperties.END_TS).isPresent()
-                    && (Long) e.property(AAIProperties.END_TS).value() >= startTs) {
-                changes.add((Long) e.property(AAIProperties.END_TS).value());
-            }
-        });
+        // the resource-version versions and edges that started or ended since startTs, in time order
+        GraphTraversalSource g = v.graph().traversal();
+        final Set<Long> changes = new TreeSet<>();
+        g.V(v).properties(AAIProperties.RESOURCE_VERSION).values(AAIProperties.START_TS, AAIProperties.END_TS)
+                .is(P.gte(startTs)).forEachRemaining(ts -> changes.add((Long) ts));
+        g.V(v).bothE()
+                .or(__.has(AAIProperties.START_TS, P.gte(startTs)), __.has(AAIProperties.END_TS, P.gte(startTs)))
+                .values(AAIProperties.START_TS, AAIProperties.END_TS).is(P.gte(startTs))
+                .forEachRemaining(ts -> changes.add((Long) ts));
 
-        List<Long> sortedList = new ArrayList<>(changes);
-        sortedList.sort(Comparator.naturalOrder());
         JsonArray jsonArray = new JsonArray();
-        sortedList.forEach(jsonArray::add);
+        changes.forEach(jsonArray::add);
 
         json.add("changes", jsonArray);
 
@@ -51,6 +51,19 @@ public class Count implements FormatMapper {
         return Optional.of(countResult);
     }
 
+    /**
+     * Formats counts that were already computed in the graph, see
+     * {@link org.onap.aai.query.builder.QueryBuilder#countByNodeType()}.
+     *
+     * @param counts the number of results for each node type
+     * @return the count result
+     */
+    public Optional<JsonObject> formatCounts(Map<String, Long> counts) {
+        final JsonObject countResult = new JsonObject();
+        counts.forEach(countResult::addProperty);
+        return Optional.of(countResult);
+    }
+
     @Override
     public Optional<JsonObject> formatObject(Object o, Map<String, List<String>> properties)
             throws AAIFormatVertexException, AAIFormatQueryResultFormatNotSupported {
@@ -0,0 +1,233 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.serialization.queryformats;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.eclipse.persistence.dynamic.DynamicEntity;
+import org.onap.aai.db.props.AAIProperties;
+import org.onap.aai.introspection.Introspector;
+import org.onap.aai.introspection.IntrospectorFactory;
+import org.onap.aai.introspection.Loader;
+import org.onap.aai.introspection.ModelType;
+import org.onap.aai.introspection.PropertyPredicates;
+import org.onap.aai.introspection.exceptions.AAIUnknownObjectException;
+import org.onap.aai.schema.enums.PropertyMetadata;
+import org.onap.aai.setup.SchemaVersion;
+
+/**
+ * Writes objects as the same json the moxy marshaller would, without going through a json string.
+ *
+ * A vertex's own properties can be written straight from the graph, using the property names,
+ * db aliases and types of its schema type. Types with properties filled in by side effects
+ * can't, those still have to be read into an object first, which can then be written
+ * without the marshaller. Both return empty when the caller has to fall back to moxy.
+ */
+final class DirectJsonWriter {
+
+    private static final List<Class<?>> SUPPORTED_TYPES =
+            Arrays.asList(String.class, Boolean.class, Integer.class, Long.class);
+
+    private static final ConcurrentMap<SchemaVersion, ConcurrentMap<String, Field[]>> PLANS =
+            new ConcurrentHashMap<>();
+
+    /* marks types whose properties can't all be read straight from the vertex */
+    private static final Field[] UNSUPPORTED = new Field[0];
+
+    private static final class Field {
+        private final String name;
+        private final String dbName;
+        private final boolean isList;
+        private final Class<?> type;
+
+        private Field(String name, String dbName, boolean isList, Class<?> type) {
+            this.name = name;
+            this.dbName = dbName;
+            this.isList = isList;
+            this.type = type;
+        }
+    }
+
+    private DirectJsonWriter() {
+
+    }
+
+    /**
+     * Writes the properties of the vertex, like reading it with depth 0 and nodes only would.
+     *
+     * @param loader the loader of the version to write
+     * @param v the vertex
+     * @return the json, or empty if the vertex has to go through moxy
+     * @throws AAIUnknownObjectException if the version doesn't have the vertex's type
+     */
+    static Optional<JsonObject> fromVertex(Loader loader, Vertex v) throws AAIUnknownObjectException {
+        if (!ModelType.MOXY.equals(loader.getModelType())) {
+            return Optional.empty();
+        }
+        String nodeType = v.<String>property(AAIProperties.NODE_TYPE).orElse(null);
+        if (nodeType == null) {
+            return Optional.empty();
+        }
+        Field[] plan = plan(loader, nodeType);
+        if (plan == UNSUPPORTED) {
+            return Optional.empty();
+        }
+        JsonObject json = new JsonObject();
+        for (Field field : plan) {
+            if (field.isList) {
+                Iterator<VertexProperty<Object>> values = v.properties(field.dbName);
+                if (!values.hasNext()) {
+                    continue;
+                }
+                JsonArray array = new JsonArray();
+                while (values.hasNext()) {
+                    Object value = values.next().value();
+                    if (!field.type.equals(value.getClass())) {
+                        return Optional.empty();
+                    }
+                    array.add(toPrimitive(value));
+                }
+                json.add(field.name, array);
+            } else {
+                Object value = v.<Object>property(field.dbName).orElse(null);
+                if (value == null) {
+                    continue;
+                }
+                if (!field.type.equals(value.getClass())) {
+                    // same conversion as setting the value on the object
+                    try {
+                        value = field.type.getConstructor(String.class).newInstance(value.toString());
+                    } catch (ReflectiveOperationException | IllegalArgumentException e) {
+                        return Optional.empty();
+                    }
+                }
+                json.add(field.name, toPrimitive(value));
+            }
+        }
+        return Optional.of(json);
+    }
+
+    /**
+     * Writes the object and everything set on it.
+     *
+     * @param obj the object
+     * @return the json, or empty if the object holds values that have to go through moxy
+     */
+    static Optional<JsonObject> fromIntrospector(Introspector obj) {
+        if (!ModelType.MOXY.equals(obj.getModelType())) {
+            return Optional.empty();
+        }
+        JsonObject json = new JsonObject();
+        for (String property : obj.getProperties()) {
+            Object value = obj.getValue(property);
+            if (value == null) {
+                continue;
+            }
+            JsonElement element = toJson(value);
+            if (element == null) {
+                return Optional.empty();
+            }
+            // the marshaller leaves out empty lists
+            if (!element.isJsonArray() || element.getAsJsonArray().size() > 0) {
+                json.add(property, element);
+            }
+        }
+        return Optional.of(json);
+    }
+
+    private static JsonElement toJson(Object value) {
+        if (SUPPORTED_TYPES.contains(value.getClass())) {
+            return toPrimitive(value);
+        } else if (value instanceof List) {
+            JsonArray array = new JsonArray();
+            for (Object item : (List<?>) value) {
+                JsonElement element = item == null ? null : toJson(item);
+                if (element == null) {
+                    return null;
+                }
+                array.add(element);
+            }
+            return array;
+        } else if (value instanceof DynamicEntity) {
+            return fromIntrospector(IntrospectorFactory.newInstance(ModelType.MOXY, value)).orElse(null);
+        }
+        return null;
+    }
+
+    private static JsonPrimitive toPrimitive(Object value) {
+        if (value instanceof String) {
+            return new JsonPrimitive((String) value);
+        } else if (value instanceof Boolean) {
+            return new JsonPrimitive((Boolean) value);
+        }
+        return new JsonPrimitive((Number) value);
+    }
+
+    private static Field[] plan(Loader loader, String nodeType) throws AAIUnknownObjectException {
+        ConcurrentMap<String, Field[]> plans =
+                PLANS.computeIfAbsent(loader.getVersion(), version -> new ConcurrentHashMap<>());
+        Field[] plan = plans.get(nodeType);
+        if (plan == null) {
+            plan = buildPlan(loader.introspectorFromName(nodeType));
+            plans.putIfAbsent(nodeType, plan);
+        }
+        return plan;
+    }
+
+    private static Field[] buildPlan(Introspector obj) {
+        List<Field> fields = new ArrayList<>();
+        for (String property : obj.getProperties(PropertyPredicates.isVisible())) {
+            Map<PropertyMetadata, String> metadata = obj.getPropertyMetadata(property);
+            if (metadata.containsKey(PropertyMetadata.DATA_LINK)) {
+                return UNSUPPORTED;
+            }
+            if (!(obj.isComplexType(property) || obj.isListType(property))) {
+                Class<?> type = obj.getClass(property);
+                if (!SUPPORTED_TYPES.contains(type)) {
+                    return UNSUPPORTED;
+                }
+                fields.add(new Field(property, metadata.getOrDefault(PropertyMetadata.DB_ALIAS, property), false,
+                        type));
+            } else if (obj.isListType(property) && !"any".equals(property) && obj.isSimpleGenericType(property)) {
+                Class<?> type = obj.getGenericTypeClass(property);
+                if (!SUPPORTED_TYPES.contains(type)) {
+                    return UNSUPPORTED;
+                }
+                fields.add(new Field(property, property, true, type));
+            }
+        }
+        return fields.toArray(new Field[0]);
+    }
+}
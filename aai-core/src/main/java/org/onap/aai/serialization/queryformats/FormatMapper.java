@@ -21,7 +21,10 @@
 package org.onap.aai.serialization.queryformats;
 
 import com.google.gson.JsonObject;
+import com.google.gson.internal.Streams;
+import com.google.gson.stream.JsonWriter;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -37,4 +40,28 @@ public interface FormatMapper {
             throws AAIFormatVertexException, AAIFormatQueryResultFormatNotSupported;
 
     int parallelThreshold();
+
+    /**
+     * Writes the formatted result straight to the writer so that callers streaming a large result set
+     * never have to hold more than the current object in memory.
+     *
+     * @param writer the writer positioned inside the results array
+     * @param o the query result to format
+     * @param properties the optional properties filter, may be null
+     * @return true if an object was written, false if the result formatted to nothing
+     */
+    default boolean writeObject(JsonWriter writer, Object o, Map<String, List<String>> properties)
+            throws AAIFormatVertexException, AAIFormatQueryResultFormatNotSupported, IOException {
+        Optional<JsonObject> json;
+        if (properties != null && !properties.isEmpty()) {
+            json = this.formatObject(o, properties);
+        } else {
+            json = this.formatObject(o);
+        }
+        if (json.isPresent()) {
+            Streams.write(json.get(), writer);
+            return true;
+        }
+        return false;
+    }
 }
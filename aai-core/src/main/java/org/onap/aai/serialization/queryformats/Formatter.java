@@ -22,7 +22,15 @@ package org.onap.aai.serialization.queryformats;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import com.google.gson.internal.Streams;
+import com.google.gson.stream.JsonWriter;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -31,6 +39,8 @@ import java.util.stream.Stream;
 import javax.ws.rs.core.MultivaluedMap;
 
 import org.onap.aai.logging.LogFormatTools;
+import org.onap.aai.metrics.RequestMetrics;
+import org.onap.aai.metrics.RequestPhase;
 import org.onap.aai.serialization.queryformats.exceptions.AAIFormatQueryResultFormatNotSupported;
 import org.onap.aai.serialization.queryformats.exceptions.AAIFormatVertexException;
 import org.slf4j.Logger;
@@ -53,6 +63,15 @@ public class Formatter {
     }
 
     public JsonObject output(List<Object> queryResults, Map<String, List<String>> properties) {
+        long start = RequestMetrics.start();
+        try {
+            return formatResults(queryResults, properties);
+        } finally {
+            RequestMetrics.stop(RequestPhase.QUERY_FORMAT, start);
+        }
+    }
+
+    private JsonObject formatResults(List<Object> queryResults, Map<String, List<String>> properties) {
 
         final JsonArray body;
 
@@ -88,29 +107,16 @@ public class Formatter {
 
             final boolean isParallel = stream.isParallel();
 
-            stream.map(o -> {
-                try {
-                    if (properties != null && !properties.isEmpty()) {
-                        return format.formatObject(o, properties);
-                    } else {
-                        return format.formatObject(o);
-                    }
-                } catch (AAIFormatVertexException e) {
-                    LOGGER.warn("Failed to format vertex, returning a partial list " + LogFormatTools.getStackTop(e));
-                } catch (AAIFormatQueryResultFormatNotSupported e) {
-                    LOGGER.warn("Failed to format result type of the query " + LogFormatTools.getStackTop(e));
-                }
-
-                return Optional.<JsonObject>empty();
-            }).filter(Optional::isPresent).map(Optional::get).forEach(json -> {
-                if (isParallel) {
-                    synchronized (body) {
-                        body.add(json);
-                    }
-                } else {
-                    body.add(json);
-                }
-            });
+            stream.map(o -> this.formatResult(o, properties)).filter(Optional::isPresent).map(Optional::get)
+                    .forEach(json -> {
+                        if (isParallel) {
+                            synchronized (body) {
+                                body.add(json);
+                            }
+                        } else {
+                            body.add(json);
+                        }
+                    });
 
         }
 
@@ -133,4 +139,123 @@ public class Formatter {
         return output(queryResults, null);
     }
 
+    /**
+     * Outputs counts that were computed in the graph instead of from materialized results.
+     *
+     * @param counts the number of results for each node type
+     * @return the count response
+     */
+    public JsonObject outputCounts(Map<String, Long> counts) {
+        if (!(this.format instanceof Count)) {
+            throw new IllegalStateException("Counts can only be output by the count format");
+        }
+        JsonArray body = new JsonArray();
+        ((Count) format).formatCounts(counts).ifPresent(body::add);
+
+        JsonObject result = new JsonObject();
+        result.add("results", body);
+        return result;
+    }
+
+    /**
+     * Streams the formatted query results to the output stream, writing each result as soon as it
+     * is formatted instead of building the whole response in memory first.
+     * Formats that need the complete result set (count, lifecycle, aggregate and as-tree responses)
+     * are still built in memory and then written out.
+     * The stream is flushed but not closed.
+     *
+     * @param queryResults the query results
+     * @param properties the optional properties filter, may be null
+     * @param outputStream the stream to write the json response to
+     * @throws IOException if writing to the stream fails
+     */
+    public void output(List<Object> queryResults, Map<String, List<String>> properties, OutputStream outputStream)
+            throws IOException {
+        long start = RequestMetrics.start();
+        try {
+            writeResults(queryResults, properties, outputStream);
+        } finally {
+            RequestMetrics.stop(RequestPhase.QUERY_FORMAT, start);
+        }
+    }
+
+    private void writeResults(List<Object> queryResults, Map<String, List<String>> properties,
+            OutputStream outputStream) throws IOException {
+
+        JsonWriter writer =
+                new JsonWriter(new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)));
+
+        if (!this.isStreamable()) {
+            Streams.write(this.formatResults(queryResults, properties), writer);
+            writer.flush();
+            return;
+        }
+
+        writer.beginObject();
+        writer.name("results");
+        writer.beginArray();
+
+        if (queryResults.size() >= format.parallelThreshold()) {
+            // format in parallel but write in the original order of the results
+            try {
+                queryResults.parallelStream().map(o -> this.formatResult(o, properties))
+                        .forEachOrdered(json -> json.ifPresent(j -> {
+                            try {
+                                Streams.write(j, writer);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        } else {
+            for (Object o : queryResults) {
+                try {
+                    format.writeObject(writer, o, properties);
+                } catch (AAIFormatVertexException e) {
+                    LOGGER.warn("Failed to format vertex, returning a partial list " + LogFormatTools.getStackTop(e));
+                } catch (AAIFormatQueryResultFormatNotSupported e) {
+                    LOGGER.warn("Failed to format result type of the query " + LogFormatTools.getStackTop(e));
+                }
+            }
+        }
+
+        writer.endArray();
+        writer.endObject();
+        writer.flush();
+    }
+
+    private Optional<JsonObject> formatResult(Object o, Map<String, List<String>> properties) {
+        try {
+            if (properties != null && !properties.isEmpty()) {
+                return format.formatObject(o, properties);
+            } else {
+                return format.formatObject(o);
+            }
+        } catch (AAIFormatVertexException e) {
+            LOGGER.warn("Failed to format vertex, returning a partial list " + LogFormatTools.getStackTop(e));
+        } catch (AAIFormatQueryResultFormatNotSupported e) {
+            LOGGER.warn("Failed to format result type of the query " + LogFormatTools.getStackTop(e));
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Formats that aggregate over the whole result set, and as-tree responses which unwrap
+     * the first result, cannot be written one result at a time.
+     */
+    private boolean isStreamable() {
+        if (this.format instanceof Count || this.format instanceof LifecycleFormat
+                || this.format instanceof Aggregate) {
+            return false;
+        }
+        if (params != null && params.containsKey("as-tree")) {
+            String isAsTree = params.get("as-tree").get(0);
+            return !(isAsTree != null && isAsTree.equalsIgnoreCase("true"));
+        }
+        return true;
+    }
+
 }
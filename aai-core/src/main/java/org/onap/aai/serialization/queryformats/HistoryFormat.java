@@ -30,7 +30,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
@@ -121,10 +121,56 @@ public abstract class HistoryFormat extends MultiFormatMapper {
         return json;
     }
 
+    /**
+     * Starts a traversal at the vertex in the transaction it was read in, so the time window
+     * can be checked by the graph, using the start-ts and end-ts property indexes where
+     * there are any, instead of on every property version in turn.
+     *
+     * @param v the vertex
+     * @return a traversal of the vertex
+     */
+    protected GraphTraversal<Vertex, Vertex> traverse(Vertex v) {
+        return v.graph().traversal().V(v);
+    }
+
+    /**
+     * @param v the vertex
+     * @return the keys of the properties of the vertex that its history shows
+     */
+    protected List<String> propertyKeys(Vertex v) {
+        return v.keys().stream().filter(key -> !ignoredKeys.contains(key)).collect(Collectors.toList());
+    }
+
+    /**
+     * Starts a traversal of the versions of one property. A has step on start-ts that
+     * directly follows it is answered from the property centric index sorted on start-ts,
+     * where the property has one, instead of reading every version.
+     *
+     * @param v the vertex
+     * @param key the property
+     * @return a traversal of every version of the property
+     */
+    @SuppressWarnings("unchecked")
+    protected GraphTraversal<Vertex, VertexProperty<Object>> propertyVersions(Vertex v, String key) {
+        return (GraphTraversal<Vertex, VertexProperty<Object>>) (GraphTraversal<Vertex, ?>) traverse(v)
+                .properties(key);
+    }
+
+    /**
+     * Narrows the edges of a vertex down to the ones the time window can include.
+     * Edges that pass are still checked with {@link #isValidEdge(Edge)}.
+     *
+     * @param edges the edges of a vertex
+     * @return the edges in the window
+     */
+    protected GraphTraversal<Vertex, Edge> edgesInWindow(GraphTraversal<Vertex, Edge> edges) {
+        return edges;
+    }
+
     protected JsonArray createRelationshipObject(Vertex v) throws AAIFormatVertexException {
         JsonArray relatedToList = new JsonArray();
-        Iterator<Edge> inIter = v.edges(Direction.IN);
-        Iterator<Edge> outIter = v.edges(Direction.OUT);
+        Iterator<Edge> inIter = edgesInWindow(traverse(v).inE());
+        Iterator<Edge> outIter = edgesInWindow(traverse(v).outE());
 
         while (inIter.hasNext()) {
             Edge e = inIter.next();
@@ -27,6 +27,9 @@ import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
@@ -49,16 +52,21 @@ public class LifecycleFormat extends HistoryFormat {
 
     protected JsonArray createPropertiesObject(Vertex v) {
         JsonArray jsonArray = new JsonArray();
-        Iterator<VertexProperty<Object>> iter = v.properties();
+        // only the versions that started or ended in the window add entries, looked up as the
+        // ones that started in it and the older ones that ended in it so both start from start-ts
+        List<VertexProperty<Object>> versions = new ArrayList<>();
+        for (String key : propertyKeys(v)) {
+            propertyVersions(v, key).has(AAIProperties.START_TS, inRange()).forEachRemaining(versions::add);
+            propertyVersions(v, key).has(AAIProperties.START_TS, P.lt(startTs))
+                    .has(AAIProperties.END_TS, inRange()).forEachRemaining(versions::add);
+        }
+        Iterator<VertexProperty<Object>> iter = versions.iterator();
         List<JsonObject> jsonList = new ArrayList<>();
 
         Map<String, Set<Long>> propStartTimes = new HashMap<>(); // vertex end
         while (iter.hasNext()) {
             JsonObject json = new JsonObject();
             VertexProperty<Object> prop = iter.next();
-            if (prop.key() != null && ignoredKeys.contains(prop.key())) {
-                continue;
-            }
             if (!propStartTimes.containsKey(prop.key())) {
                 propStartTimes.put(prop.key(), new HashSet<>());
                 if (v.property(AAIProperties.END_TS).isPresent()) {
@@ -112,6 +120,15 @@ public class LifecycleFormat extends HistoryFormat {
         return ts >= startTs && ts <= endTs;
     }
 
+    private P<Long> inRange() {
+        return P.gte(startTs).and(P.lte(endTs));
+    }
+
+    @Override
+    protected GraphTraversal<Vertex, Edge> edgesInWindow(GraphTraversal<Vertex, Edge> edges) {
+        return edges.or(__.has(AAIProperties.START_TS, inRange()), __.has(AAIProperties.END_TS, inRange()));
+    }
+
     @Override
     protected boolean isValidEdge(Edge e) {
         if (e.property(AAIProperties.END_TS).isPresent()) {
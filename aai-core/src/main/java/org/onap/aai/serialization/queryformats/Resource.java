@@ -172,6 +172,13 @@ public class Resource extends MultiFormatMapper {
             return Optional.empty();
         }
         try {
+            if (this.depth == 0 && this.nodesOnly && !getSerializer().isMultiTenancyEnabled()) {
+                Optional<JsonObject> direct = DirectJsonWriter.fromVertex(getLoader(), v);
+                if (direct.isPresent()) {
+                    return direct;
+                }
+            }
+
             final Introspector obj =
                     getLoader().introspectorFromName(v.<String>property(AAIProperties.NODE_TYPE).orElse(null));
 
@@ -186,6 +193,11 @@ public class Resource extends MultiFormatMapper {
                         "Failed to format vertex - error while serializing: " + e.getMessage(), e);
             }
 
+            Optional<JsonObject> direct = DirectJsonWriter.fromIntrospector(obj);
+            if (direct.isPresent()) {
+                return direct;
+            }
+
             final String json = obj.marshal(false);
 
             return Optional.of(JsonParser.parseString(json).getAsJsonObject());
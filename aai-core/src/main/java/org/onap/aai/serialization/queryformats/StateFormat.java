@@ -25,6 +25,9 @@ import com.google.gson.JsonObject;
 
 import java.util.*;
 
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
@@ -42,37 +45,30 @@ public class StateFormat extends HistoryFormat {
     }
 
     protected JsonArray createPropertiesObject(Vertex v) {
-        Iterator<VertexProperty<Object>> iter = v.properties();
-        List<JsonObject> jsonList = new ArrayList<>();
-        while (iter.hasNext()) {
-            VertexProperty<Object> prop = iter.next();
-            if (prop.key() != null && ignoredKeys.contains(prop.key())) {
-                continue;
-            }
-
-            JsonObject metaProperties = createMetaPropertiesObject(prop);
-            if (isTsInRange(metaProperties)) {
-                JsonObject json = new JsonObject();
-                json.addProperty(KEY, prop.key());
-                json = mapPropertyValues(json, VALUE, prop.value());
-                addMetaProperties(json, metaProperties);
-                jsonList.add(json);
-            }
+        // the versions valid at startTs, oldest first
+        List<VertexProperty<Object>> versions = new ArrayList<>();
+        for (String key : propertyKeys(v)) {
+            propertyVersions(v, key).has(AAIProperties.START_TS, P.lte(startTs))
+                    .or(__.hasNot(AAIProperties.END_TS), __.has(AAIProperties.END_TS, P.gt(startTs)))
+                    .forEachRemaining(versions::add);
         }
-
+        versions.sort(Comparator
+                .comparingLong((VertexProperty<Object> prop) -> prop.<Long>value(AAIProperties.START_TS)));
         JsonArray jsonArray = new JsonArray();
-        jsonList.stream().sorted(Comparator.comparingLong(o -> o.get(TIMESTAMP).getAsLong())).forEach(jsonArray::add);
+        for (VertexProperty<Object> prop : versions) {
+            JsonObject json = new JsonObject();
+            json.addProperty(KEY, prop.key());
+            json = mapPropertyValues(json, VALUE, prop.value());
+            addMetaProperties(json, createMetaPropertiesObject(prop));
+            jsonArray.add(json);
+        }
         return jsonArray;
     }
 
-    private boolean isTsInRange(JsonObject metaProperties) {
-        long sTs = metaProperties.get(AAIProperties.START_TS).getAsLong();
-        long eTs = Long.MAX_VALUE;
-        if (metaProperties.has(AAIProperties.END_TS)) {
-            eTs = metaProperties.get(AAIProperties.END_TS).getAsLong();
-        }
-
-        return startTs >= sTs && eTs > startTs;
+    @Override
+    protected GraphTraversal<Vertex, Edge> edgesInWindow(GraphTraversal<Vertex, Edge> edges) {
+        return edges.not(__.has(AAIProperties.END_TS, P.lte(startTs)))
+                .not(__.has(AAIProperties.START_TS, P.gt(startTs)));
     }
 
     @Override
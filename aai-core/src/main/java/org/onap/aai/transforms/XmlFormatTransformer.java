@@ -20,53 +20,201 @@
 
 package org.onap.aai.transforms;
 
-import com.bazaarvoice.jolt.Chainr;
-import com.bazaarvoice.jolt.JsonUtils;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
 
-import org.json.JSONObject;
-import org.json.XML;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
+/**
+ * Transforms json query results to xml.
+ *
+ * The json is read as a token stream and written out through a StAX writer as it is read,
+ * so the only state kept is the nesting of the current element. Results are renamed the
+ * same way the related-to transform spec did: the top level results array becomes result
+ * elements inside a results root, and the related-to entries of a result are wrapped in node
+ * elements. Arrays and values are written following the org.json xml conventions.
+ */
 public class XmlFormatTransformer {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(XmlFormatTransformer.class);
-
     private static final String RESULT_WITH_QUOTES = "\"result\"";
     private static final String RESULTS_STRING = "results";
+    private static final String RESULT_STRING = "result";
+    private static final String RELATED_TO = "related-to";
+    private static final String NODE = "node";
+    private static final String ARRAY = "array";
+    private static final String CONTENT = "content";
 
-    private Chainr chainr;
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
 
-    public XmlFormatTransformer() {
-        List<Object> spec = JsonUtils.classpathToList("/specs/transform-related-to-node.json");
-        this.chainr = Chainr.fromSpec(spec);
+    /* which renames apply to the members of the object being written */
+    private enum Level {
+        TOP, RESULT, NONE
     }
 
     public String transform(String input) {
+        StringWriter output = new StringWriter();
+        transform(input, output);
+        return output.toString();
+    }
+
+    /**
+     * Transforms the json to xml, writing the xml as it goes.
+     *
+     * @param input the json
+     * @param output where the xml is written to
+     */
+    public void transform(String input, Writer output) {
+        // If the json is already conforming to the following format
+        // {"results":[{"results":"v[2]"}]}
+        // Then no transformation is required
+        transform(new JsonReader(new StringReader(input)), output, !input.contains(RESULT_WITH_QUOTES));
+    }
+
+    /**
+     * Transforms query results to xml as they are read, so neither the json nor the xml is held in memory.
+     * The results are always renamed, the input is not checked for an already converted format.
+     *
+     * @param input the json query results, closed once read
+     * @param output where the xml is written to
+     */
+    public void transform(JsonReader input, Writer output) {
+        transform(input, output, true);
+    }
+
+    private void transform(JsonReader input, Writer output, boolean renameResults) {
+        try (JsonReader reader = input) {
+            XMLStreamWriter writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(output);
+            try {
+                if (renameResults) {
+                    writer.writeStartElement(RESULTS_STRING);
+                    writeMembers(reader, writer, Level.TOP);
+                    writer.writeEndElement();
+                } else {
+                    writeMembers(reader, writer, Level.NONE);
+                }
+                writer.flush();
+            } finally {
+                writer.close();
+            }
+        } catch (IOException | XMLStreamException | IllegalStateException e) {
+            throw new IllegalArgumentException("Unable to transform the json to xml: " + e.getMessage(), e);
+        }
+    }
 
-        Object transformedOutput;
+    private void writeMembers(JsonReader reader, XMLStreamWriter writer, Level level)
+            throws IOException, XMLStreamException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            if (level == Level.TOP && RESULTS_STRING.equals(key)) {
+                writeMember(reader, writer, RESULT_STRING, Level.RESULT);
+            } else if (level == Level.RESULT && RELATED_TO.equals(key)) {
+                writer.writeStartElement(RELATED_TO);
+                writeMember(reader, writer, NODE, Level.NONE);
+                writer.writeEndElement();
+            } else if (CONTENT.equals(key)) {
+                writeContent(reader, writer);
+            } else {
+                writeMember(reader, writer, key, Level.NONE);
+            }
+        }
+        reader.endObject();
+    }
 
-        if (!input.contains(RESULT_WITH_QUOTES)) {
-            Object inputMap = JsonUtils.jsonToMap(input);
-            transformedOutput = chainr.transform(inputMap);
+    /**
+     * Writes a member of an object, an array is written as one element per item.
+     *
+     * @param level the renames for objects in the value, or for the items if it is an array
+     */
+    private void writeMember(JsonReader reader, XMLStreamWriter writer, String name, Level level)
+            throws IOException, XMLStreamException {
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            writeValue(reader, writer, name, Level.NONE);
+            return;
+        }
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                writer.writeStartElement(name);
+                writeArrayItems(reader, writer, ARRAY);
+                writer.writeEndElement();
+            } else {
+                writeValue(reader, writer, name, level);
+            }
+        }
+        reader.endArray();
+    }
 
-            JSONObject jsonObject;
-            if (transformedOutput == null) {
-                LOGGER.debug("For the input {}, unable to transform it so returning null", input);
-                jsonObject = new JSONObject();
+    private void writeArrayItems(JsonReader reader, XMLStreamWriter writer, String name)
+            throws IOException, XMLStreamException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                writeArrayItems(reader, writer, name);
             } else {
-                jsonObject = new JSONObject(JsonUtils.toJsonString(transformedOutput));
+                writeValue(reader, writer, name, Level.NONE);
             }
+        }
+        reader.endArray();
+    }
 
-            return XML.toString(jsonObject, RESULTS_STRING);
+    private void writeValue(JsonReader reader, XMLStreamWriter writer, String name, Level level)
+            throws IOException, XMLStreamException {
+        if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+            writer.writeStartElement(name);
+            writeMembers(reader, writer, level);
+            writer.writeEndElement();
+            return;
+        }
+        String text = readScalar(reader);
+        if (text.isEmpty()) {
+            writer.writeEmptyElement(name);
         } else {
-            // If the json is already conforming to the following format
-            // {"results":[{"results":"v[2]"}]}
-            // Then no transformation is required
-            return XML.toString(new JSONObject(input));
+            writer.writeStartElement(name);
+            writer.writeCharacters(text);
+            writer.writeEndElement();
+        }
+    }
+
+    /**
+     * A content member is written as the text of its parent, array items on separate lines.
+     */
+    private void writeContent(JsonReader reader, XMLStreamWriter writer) throws IOException, XMLStreamException {
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            writer.writeCharacters(readScalar(reader));
+            return;
         }
+        reader.beginArray();
+        boolean first = true;
+        while (reader.hasNext()) {
+            if (!first) {
+                writer.writeCharacters("\n");
+            }
+            writer.writeCharacters(readScalar(reader));
+            first = false;
+        }
+        reader.endArray();
+    }
 
+    private String readScalar(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case BOOLEAN:
+                return Boolean.toString(reader.nextBoolean());
+            case NULL:
+                reader.nextNull();
+                return "null";
+            case STRING:
+            case NUMBER:
+                return reader.nextString();
+            default:
+                throw new IllegalStateException("Unexpected " + reader.peek() + " at " + reader.getPath());
+        }
     }
 }
@@ -234,159 +234,116 @@ public class StoreNotificationEvent {
         }
     }
 
+    /**
+     * Builds the event payload, the event header and entity are each marshalled once
+     * and written straight into the payload.
+     *
+     * @return the payload as sent in aaiEventPayload
+     * @throws AAIException the AAI exception
+     */
     public String storeEventOnly(Loader loader, Introspector eventHeader, Introspector obj) throws AAIException {
         if (obj == null) {
             throw new AAIException("AAI_7350");
         }
 
         try {
-            final Introspector notificationEvent = loader.introspectorFromName("notification-event");
-
-            if (eventHeader.getValue("id") == null) {
-                eventHeader.setValue("id", genDate2() + "-" + UUID.randomUUID().toString());
-            }
-
-            if (eventHeader.getValue("timestamp") == null) {
-                eventHeader.setValue("timestamp", genDate());
-            }
-
-            if (eventHeader.getValue("entity-link") == null) {
-                eventHeader.setValue("entity-link", "UNK");
-            }
-
-            if (eventHeader.getValue("action") == null) {
-                eventHeader.setValue("action", "UNK");
-            }
-
-            if (eventHeader.getValue("event-type") == null) {
-                eventHeader.setValue("event-type", AAIConfig.get("aai.notificationEvent.default.eventType", "UNK"));
-            }
-
-            if (eventHeader.getValue("domain") == null) {
-                eventHeader.setValue("domain", AAIConfig.get("aai.notificationEvent.default.domain", "UNK"));
-            }
-
-            if (eventHeader.getValue("source-name") == null) {
-                eventHeader.setValue("source-name", AAIConfig.get("aai.notificationEvent.default.sourceName", "UNK"));
-            }
-
-            if (eventHeader.getValue("sequence-number") == null) {
-                eventHeader.setValue("sequence-number",
-                        AAIConfig.get("aai.notificationEvent.default.sequenceNumber", "UNK"));
-            }
-
-            if (eventHeader.getValue("severity") == null) {
-                eventHeader.setValue("severity", AAIConfig.get("aai.notificationEvent.default.severity", "UNK"));
-            }
-
-            if (eventHeader.getValue("version") == null) {
-                eventHeader.setValue("version", AAIConfig.get("aai.notificationEvent.default.version", "UNK"));
-            }
+            setEventHeaderDefaults(eventHeader);
 
-            if (notificationEvent.getValue("cambria-partition") == null) {
-                notificationEvent.setValue("cambria-partition",
-                        AAIConfig.get("aai.notificationEvent.default.partition", AAIConstants.UEB_PUB_PARTITION_AAI));
-            }
+            String cambriaPartition =
+                    AAIConfig.get("aai.notificationEvent.default.partition", AAIConstants.UEB_PUB_PARTITION_AAI);
 
-            notificationEvent.setValue("event-header", eventHeader.getUnderlyingObject());
-            notificationEvent.setValue("entity", obj.getUnderlyingObject());
-
-            String entityJson = notificationEvent.marshal(false);
-            JSONObject entityJsonObject = new JSONObject(entityJson);
-
-            JSONObject entityJsonObjectUpdated = new JSONObject();
-
-            JSONObject entityHeader = entityJsonObject.getJSONObject("event-header");
-            String cambriaPartition = entityJsonObject.getString("cambria.partition");
-
-            entityJsonObject.remove("event-header");
-            entityJsonObject.remove("cambria.partition");
-
-            entityJsonObjectUpdated.put("event-header", entityHeader);
-            entityJsonObjectUpdated.put("cambria.partition", cambriaPartition);
-
-            Iterator<String> iter = entityJsonObject.keys();
-            JSONObject entity = new JSONObject();
-            if (iter.hasNext()) {
-                entity = entityJsonObject.getJSONObject(iter.next());
-            }
-
-            entityJsonObjectUpdated.put("entity", entity);
-
-            return entityJsonObjectUpdated.toString();
-        } catch (JSONException e) {
-            throw new AAIException("AAI_7350", e);
+            StringBuilder payload = new StringBuilder();
+            payload.append("{\"cambria.partition\":").append(JSONObject.quote(cambriaPartition));
+            payload.append(",\"event-header\":").append(marshalObject(eventHeader));
+            payload.append(",\"entity\":").append(marshalObject(obj));
+            payload.append('}');
+            return payload.toString();
         } catch (AAIUnknownObjectException e) {
             throw new AAIException("AAI_7350", e);
         }
     }
 
+    /**
+     * Builds the event payload and sends it to the jms queue.
+     *
+     * @return the payload as sent in aaiEventPayload
+     * @throws AAIException the AAI exception
+     */
     public String storeEventAndSendToJms(Loader loader, Introspector eventHeader, Introspector obj)
             throws AAIException {
-        if (obj == null) {
-            throw new AAIException("AAI_7350");
-        }
-
-        try {
-            final Introspector notificationEvent = loader.introspectorFromName("notification-event");
-
-            if (eventHeader.getValue("id") == null) {
-                eventHeader.setValue("id", genDate2() + "-" + UUID.randomUUID().toString());
-            }
+        String payload = storeEventOnly(loader, eventHeader, obj);
+        sendEventPayload(eventHeader, payload);
+        return payload;
+    }
 
-            if (eventHeader.getValue("timestamp") == null) {
-                eventHeader.setValue("timestamp", genDate());
-            }
+    /**
+     * Sends a payload built by storeEventOnly to the jms queue.
+     *
+     * @param eventHeader the event header the payload was built with
+     * @param payload the payload
+     * @throws AAIException the AAI exception
+     */
+    public void sendEventPayload(Introspector eventHeader, String payload) throws AAIException {
+        StringBuilder finalJson = new StringBuilder(payload.length() + 128);
+        finalJson.append("{\"event-topic\":\"AAI-EVENT\"");
+        finalJson.append(",\"transId\":").append(JSONObject.quote(eventHeader.getValue("id")));
+        finalJson.append(",\"fromAppId\":").append(JSONObject.quote(eventHeader.getValue("source-name")));
+        finalJson.append(",\"fullId\":\"\"");
+        finalJson.append(",\"aaiEventPayload\":").append(payload);
+        finalJson.append('}');
+
+        messageProducer.sendMessageToDefaultDestination(finalJson.toString());
+    }
 
-            if (eventHeader.getValue("entity-link") == null) {
-                eventHeader.setValue("entity-link", "UNK");
-            }
+    private void setEventHeaderDefaults(Introspector eventHeader) throws AAIUnknownObjectException {
+        if (eventHeader.getValue("id") == null) {
+            eventHeader.setValue("id", genDate2() + "-" + UUID.randomUUID().toString());
+        }
 
-            if (eventHeader.getValue("action") == null) {
-                eventHeader.setValue("action", "UNK");
-            }
+        if (eventHeader.getValue("timestamp") == null) {
+            eventHeader.setValue("timestamp", genDate());
+        }
 
-            if (eventHeader.getValue("event-type") == null) {
-                eventHeader.setValue("event-type", AAIConfig.get("aai.notificationEvent.default.eventType", "UNK"));
-            }
+        if (eventHeader.getValue("entity-link") == null) {
+            eventHeader.setValue("entity-link", "UNK");
+        }
 
-            if (eventHeader.getValue("domain") == null) {
-                eventHeader.setValue("domain", AAIConfig.get("aai.notificationEvent.default.domain", "UNK"));
-            }
+        if (eventHeader.getValue("action") == null) {
+            eventHeader.setValue("action", "UNK");
+        }
 
-            if (eventHeader.getValue("source-name") == null) {
-                eventHeader.setValue("source-name", AAIConfig.get("aai.notificationEvent.default.sourceName", "UNK"));
-            }
+        if (eventHeader.getValue("event-type") == null) {
+            eventHeader.setValue("event-type", AAIConfig.get("aai.notificationEvent.default.eventType", "UNK"));
+        }
 
-            if (eventHeader.getValue("sequence-number") == null) {
-                eventHeader.setValue("sequence-number",
-                        AAIConfig.get("aai.notificationEvent.default.sequenceNumber", "UNK"));
-            }
+        if (eventHeader.getValue("domain") == null) {
+            eventHeader.setValue("domain", AAIConfig.get("aai.notificationEvent.default.domain", "UNK"));
+        }
 
-            if (eventHeader.getValue("severity") == null) {
-                eventHeader.setValue("severity", AAIConfig.get("aai.notificationEvent.default.severity", "UNK"));
-            }
+        if (eventHeader.getValue("source-name") == null) {
+            eventHeader.setValue("source-name", AAIConfig.get("aai.notificationEvent.default.sourceName", "UNK"));
+        }
 
-            if (eventHeader.getValue("version") == null) {
-                eventHeader.setValue("version", AAIConfig.get("aai.notificationEvent.default.version", "UNK"));
-            }
+        if (eventHeader.getValue("sequence-number") == null) {
+            eventHeader.setValue("sequence-number",
+                    AAIConfig.get("aai.notificationEvent.default.sequenceNumber", "UNK"));
+        }
 
-            if (notificationEvent.getValue("cambria-partition") == null) {
-                notificationEvent.setValue("cambria-partition",
-                        AAIConfig.get("aai.notificationEvent.default.partition", AAIConstants.UEB_PUB_PARTITION_AAI));
-            }
+        if (eventHeader.getValue("severity") == null) {
+            eventHeader.setValue("severity", AAIConfig.get("aai.notificationEvent.default.severity", "UNK"));
+        }
 
-            notificationEvent.setValue("event-header", eventHeader.getUnderlyingObject());
-            notificationEvent.setValue("entity", obj.getUnderlyingObject());
+        if (eventHeader.getValue("version") == null) {
+            eventHeader.setValue("version", AAIConfig.get("aai.notificationEvent.default.version", "UNK"));
+        }
+    }
 
-            String entityJson = notificationEvent.marshal(false);
-            sendToDmaapJmsQueue(entityJson);
-            return entityJson;
-        } catch (JSONException e) {
-            throw new AAIException("AAI_7350", e);
-        } catch (AAIUnknownObjectException e) {
-            throw new AAIException("AAI_7350", e);
+    private String marshalObject(Introspector obj) {
+        String json = obj.marshal(false);
+        if (json == null || json.isEmpty()) {
+            return "{}";
         }
+        return json;
     }
 
     private void sendToDmaapJmsQueue(String entityString) throws JSONException {
@@ -0,0 +1,138 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.dbgen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.janusgraph.core.JanusGraph;
+import org.janusgraph.core.JanusGraphFactory;
+import org.janusgraph.core.schema.JanusGraphManagement;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GraphSONChunkedSnapshotTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Graph source;
+    private JanusGraph target;
+
+    @Before
+    public void setup() {
+        source = TinkerGraph.open();
+        for (int i = 0; i < 25; i++) {
+            Vertex pserver = source.addVertex("aai-node-type", "pserver", "hostname", "ps" + i);
+            Vertex pInterface = source.addVertex("aai-node-type", "p-interface", "interface-name", "p" + i);
+            pInterface.addEdge("tosca.relationships.network.BindsTo", pserver, "contains-other-v", "OUT");
+        }
+        target = JanusGraphFactory.build().set("storage.backend", "inmemory").open();
+        JanusGraphManagement mgmt = target.openManagement();
+        for (String key : new String[] {"aai-node-type", "hostname", "interface-name", "contains-other-v"}) {
+            mgmt.makePropertyKey(key).dataType(String.class).make();
+        }
+        mgmt.makeEdgeLabel("tosca.relationships.network.BindsTo").make();
+        mgmt.commit();
+    }
+
+    @After
+    public void tearDown() {
+        target.close();
+    }
+
+    @Test
+    public void chunkedSnapshotLoadsBackTheSameGraph() throws Exception {
+        GraphSONChunkedSnapshot snapshot = GraphSONChunkedSnapshot.build().threads(4).chunkSize(7).create();
+        List<File> files = snapshot.write(source, folder.getRoot(), "snapshot");
+
+        assertEquals(8, files.size());
+        assertEquals(50, snapshot
+                .load(GraphSONChunkedSnapshot.snapshotFiles(folder.getRoot().getAbsolutePath()), target));
+
+        GraphTraversalSource g = target.traversal();
+        assertEquals(50L, (long) g.V().count().next());
+        assertEquals(25L, (long) g.E().has("contains-other-v", "OUT").count().next());
+        assertEquals("ps7", g.V().has("interface-name", "p7").out("tosca.relationships.network.BindsTo")
+                .values("hostname").next());
+    }
+
+    @Test
+    public void graphWithoutThreadedTransactionsIsLoadedOnOneThread() throws Exception {
+        GraphSONChunkedSnapshot snapshot = GraphSONChunkedSnapshot.build().threads(4).chunkSize(10).create();
+        snapshot.write(source, folder.getRoot(), "snapshot");
+        Graph copy = TinkerGraph.open();
+
+        snapshot.load(GraphSONChunkedSnapshot.snapshotFiles(folder.getRoot().getAbsolutePath()), copy);
+
+        assertEquals(50L, (long) copy.traversal().V().count().next());
+        assertEquals(25L, (long) copy.traversal().E().count().next());
+    }
+
+    @Test
+    public void failedLoadLeavesTheGraphEmpty() throws Exception {
+        GraphSONChunkedSnapshot snapshot = GraphSONChunkedSnapshot.build().threads(4).chunkSize(7).create();
+        List<File> files = snapshot.write(source, folder.getRoot(), "snapshot");
+        Files.write(files.get(files.size() - 1).toPath(), "{not a vertex\n".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        try {
+            snapshot.load(files, target);
+            fail("Expected the load to fail");
+        } catch (IOException e) {
+            // the partly loaded snapshot is removed
+        }
+
+        assertEquals(0L, (long) target.traversal().V().count().next());
+        assertEquals(0L, (long) target.traversal().E().count().next());
+    }
+
+    @Test
+    public void onlyTheChunksOfTheLatestSnapshotAreFound() throws Exception {
+        for (String name : new String[] {"snapshot.201901010000.P10", "snapshot.201901010000.P2",
+                "snapshot.201901010000.P0", "snapshot.201801010000.P0", "snapshot.201901010000.P1.tmp",
+                "README"}) {
+            folder.newFile(name);
+        }
+
+        List<File> files = GraphSONChunkedSnapshot.snapshotFiles(folder.getRoot().getAbsolutePath());
+
+        assertEquals(
+                Arrays.asList("snapshot.201901010000.P0", "snapshot.201901010000.P2", "snapshot.201901010000.P10"),
+                files.stream().map(File::getName).collect(Collectors.toList()));
+    }
+}
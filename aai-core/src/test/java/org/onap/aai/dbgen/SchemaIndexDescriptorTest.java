@@ -0,0 +1,157 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.dbgen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.janusgraph.core.Cardinality;
+import org.janusgraph.core.JanusGraph;
+import org.janusgraph.core.JanusGraphFactory;
+import org.janusgraph.core.schema.JanusGraphIndex;
+import org.janusgraph.core.schema.JanusGraphManagement;
+import org.janusgraph.core.schema.SchemaStatus;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SchemaIndexDescriptorTest {
+
+    private static final String BELONGS_TO = "org.onap.relationships.inventory.BelongsTo";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private JanusGraph graph;
+    private SchemaIndexDescriptor descriptor;
+
+    @Before
+    public void setup() throws Exception {
+        graph = JanusGraphFactory.build().set("storage.backend", "inmemory").open();
+        descriptor = SchemaIndexDescriptor
+                .load(Paths.get(getClass().getResource("/schema-indexes/schema-indexes.json").toURI()));
+    }
+
+    @After
+    public void tearDown() {
+        graph.close();
+    }
+
+    @Test
+    public void indexesOnNewKeysAreEnabledRightAway() {
+        JanusGraphManagement graphMgmt = graph.openManagement();
+        graphMgmt.makeEdgeLabel(BELONGS_TO).make();
+        graphMgmt.makePropertyKey("prov-status").dataType(String.class).cardinality(Cardinality.LIST).make();
+        graphMgmt.makePropertyKey("start-ts").dataType(Long.class).make();
+        descriptor.makeIndexes(graphMgmt, true);
+        graphMgmt.commit();
+
+        graphMgmt = graph.openManagement();
+        JanusGraphIndex index = graphMgmt.getGraphIndex("node-type-prov-status");
+        assertEquals(2, index.getFieldKeys().length);
+        assertEquals(SchemaStatus.ENABLED, index.getIndexStatus(graphMgmt.getPropertyKey("prov-status")));
+        assertTrue(graphMgmt.containsRelationIndex(graphMgmt.getEdgeLabel(BELONGS_TO), "belongs-to-by-contains"));
+        assertTrue(graphMgmt.containsRelationIndex(graphMgmt.getPropertyKey("prov-status"),
+                "prov-status-by-start-ts"));
+        // no index backend is configured
+        assertFalse(graphMgmt.containsGraphIndex("hostname-search"));
+        graphMgmt.rollback();
+    }
+
+    @Test
+    public void indexesOnExistingDataAreBackfilled() throws Exception {
+        JanusGraphManagement graphMgmt = graph.openManagement();
+        graphMgmt.makePropertyKey("aai-node-type").dataType(String.class).make();
+        graphMgmt.makePropertyKey("prov-status").dataType(String.class).cardinality(Cardinality.LIST).make();
+        graphMgmt.makePropertyKey("start-ts").dataType(Long.class).make();
+        graphMgmt.makePropertyKey("contains-other-v").dataType(String.class).make();
+        graphMgmt.makeEdgeLabel(BELONGS_TO).make();
+        graphMgmt.commit();
+        Vertex cloudRegion = graph.addVertex("aai-node-type", "cloud-region");
+        for (int i = 0; i < 20; i++) {
+            Vertex tenant = graph.addVertex("aai-node-type", "tenant", "prov-status", i % 2 == 0 ? "ACTIVE" : "PROV");
+            tenant.addEdge(BELONGS_TO, cloudRegion, "contains-other-v", "IN");
+        }
+        graph.tx().commit();
+
+        graphMgmt = graph.openManagement();
+        descriptor.makeIndexes(graphMgmt, true);
+        graphMgmt.commit();
+        graphMgmt = graph.openManagement();
+        assertEquals(SchemaStatus.INSTALLED, graphMgmt.getGraphIndex("node-type-prov-status")
+                .getIndexStatus(graphMgmt.getPropertyKey("prov-status")));
+        graphMgmt.rollback();
+
+        SchemaReindexJob job = new SchemaReindexJob(graph, descriptor, 100);
+        Map<String, Long> reindexed = job.start().get();
+
+        assertTrue(reindexed.containsKey("node-type-prov-status"));
+        assertTrue(reindexed.containsKey("belongs-to-by-contains"));
+        assertTrue(reindexed.containsKey("prov-status-by-start-ts"));
+        assertEquals(reindexed, job.getProgress());
+        graphMgmt = graph.openManagement();
+        assertEquals(SchemaStatus.ENABLED, graphMgmt.getGraphIndex("node-type-prov-status")
+                .getIndexStatus(graphMgmt.getPropertyKey("prov-status")));
+        assertEquals(SchemaStatus.ENABLED, graphMgmt
+                .getRelationIndex(graphMgmt.getEdgeLabel(BELONGS_TO), "belongs-to-by-contains").getIndexStatus());
+        graphMgmt.rollback();
+        assertEquals(10L, (long) graph.traversal().V().has("aai-node-type", "tenant").has("prov-status", "ACTIVE")
+                .count().next());
+
+        assertTrue(new SchemaReindexJob(graph, descriptor).call().isEmpty());
+    }
+
+    @Test
+    public void invalidVertexCentricIndexesAreSkipped() throws Exception {
+        Path path = folder.newFile("schema-indexes.json").toPath();
+        Files.write(path, ("{\"vertexCentric\": ["
+                + "{\"name\": \"no-label\", \"direction\": \"IN\", \"keys\": [\"contains-other-v\"]},"
+                + "{\"name\": \"bad-direction\", \"label\": \"" + BELONGS_TO + "\", \"direction\": \"UP\","
+                + " \"keys\": [\"contains-other-v\"]},"
+                + "{\"name\": \"belongs-to-by-contains\", \"label\": \"" + BELONGS_TO + "\","
+                + " \"keys\": [\"contains-other-v\"]}]}").getBytes(StandardCharsets.UTF_8));
+        SchemaIndexDescriptor invalid = SchemaIndexDescriptor.load(path);
+
+        JanusGraphManagement graphMgmt = graph.openManagement();
+        graphMgmt.makeEdgeLabel(BELONGS_TO).make();
+        invalid.makeIndexes(graphMgmt, true);
+        graphMgmt.commit();
+
+        graphMgmt = graph.openManagement();
+        assertFalse(graphMgmt.containsRelationIndex(graphMgmt.getEdgeLabel(BELONGS_TO), "bad-direction"));
+        assertTrue(graphMgmt.containsRelationIndex(graphMgmt.getEdgeLabel(BELONGS_TO), "belongs-to-by-contains"));
+        assertEquals(Direction.BOTH, graphMgmt
+                .getRelationIndex(graphMgmt.getEdgeLabel(BELONGS_TO), "belongs-to-by-contains").getDirection());
+        graphMgmt.rollback();
+        assertTrue(new SchemaReindexJob(graph, invalid).call().isEmpty());
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.dmaap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jms.JMSException;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+
+import org.junit.Test;
+import org.springframework.jms.UncategorizedJmsException;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.core.SessionCallback;
+
+public class AAIDmaapEventPublisherTest {
+
+    @Test
+    public void eventsAreSentInOrderInBatches() throws Exception {
+        List<String> sent = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> batches = Collections.synchronizedList(new ArrayList<>());
+        JmsTemplate jmsTemplate = recordingTemplate(sent, batches, null);
+
+        AAIDmaapEventPublisher publisher = new AAIDmaapEventPublisher(jmsTemplate, 100, 10, 200, 100);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            expected.add("event-" + i);
+            publisher.publish("event-" + i);
+        }
+        publisher.close();
+
+        assertEquals(expected, sent);
+        assertEquals(25, publisher.getSentCount());
+        assertEquals(3, batches.size());
+    }
+
+    @Test
+    public void eventsAreDroppedWhenTheQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        JmsTemplate jmsTemplate = recordingTemplate(new ArrayList<>(), new ArrayList<>(), release);
+
+        AAIDmaapEventPublisher publisher = new AAIDmaapEventPublisher(jmsTemplate, 1, 1, 0, 10);
+        publisher.publish("in-flight");
+        while (publisher.getQueueDepth() > 0) {
+            Thread.sleep(5);
+        }
+        publisher.publish("queued");
+        assertFalse(publisher.publish("dropped"));
+        release.countDown();
+        publisher.close();
+
+        assertEquals(1, publisher.getDroppedCount());
+        assertEquals(2, publisher.getSentCount());
+    }
+
+    @Test
+    public void failedBatchIsRetriedWithoutResendingTheSentEvents() throws Exception {
+        List<String> sent = Collections.synchronizedList(new ArrayList<>());
+        JmsTemplate jmsTemplate = failingTemplate(sent, 1);
+
+        AAIDmaapEventPublisher publisher = new AAIDmaapEventPublisher(jmsTemplate, 100, 10, 200, 100, 3, 1);
+        publisher.publish("event-0");
+        publisher.publish("event-1");
+        publisher.publish("event-2");
+        publisher.close();
+
+        assertEquals(Arrays.asList("event-0", "event-1", "event-2"), sent);
+        assertEquals(3, publisher.getSentCount());
+        assertEquals(0, publisher.getFailedCount());
+    }
+
+    @Test
+    public void eventsAreCountedAsFailedAfterTheLastAttempt() throws Exception {
+        List<String> sent = Collections.synchronizedList(new ArrayList<>());
+        JmsTemplate jmsTemplate = failingTemplate(sent, Integer.MAX_VALUE);
+
+        AAIDmaapEventPublisher publisher = new AAIDmaapEventPublisher(jmsTemplate, 100, 10, 200, 100, 2, 1);
+        publisher.publish("event-0");
+        publisher.publish("event-1");
+        publisher.close();
+
+        assertEquals(Collections.singletonList("event-0"), sent);
+        assertEquals(1, publisher.getSentCount());
+        assertEquals(1, publisher.getFailedCount());
+        verify(jmsTemplate, times(2)).execute(any(SessionCallback.class), eq(true));
+    }
+
+    /**
+     * A template that sends the first event of every batch and then fails, the given number of times.
+     */
+    private JmsTemplate failingTemplate(List<String> sent, int failures) throws Exception {
+        Session session = mock(Session.class);
+        javax.jms.MessageProducer producer = mock(javax.jms.MessageProducer.class);
+        when(session.createProducer(any())).thenReturn(producer);
+        AtomicInteger remainingFailures = new AtomicInteger(failures);
+        AtomicBoolean failed = new AtomicBoolean();
+        when(session.createTextMessage(anyString())).thenAnswer(invocation -> {
+            if (failed.get() && remainingFailures.getAndDecrement() > 0) {
+                throw new JMSException("broker unavailable");
+            }
+            failed.set(true);
+            sent.add(invocation.getArgument(0));
+            return mock(TextMessage.class);
+        });
+        JmsTemplate jmsTemplate = mock(JmsTemplate.class);
+        when(jmsTemplate.execute(any(SessionCallback.class), eq(true))).thenAnswer(invocation -> {
+            try {
+                return ((SessionCallback<?>) invocation.getArgument(0)).doInJms(session);
+            } catch (JMSException e) {
+                throw new UncategorizedJmsException(e);
+            }
+        });
+        return jmsTemplate;
+    }
+
+    private JmsTemplate recordingTemplate(List<String> sent, List<Integer> batches, CountDownLatch release)
+            throws Exception {
+        Session session = mock(Session.class);
+        javax.jms.MessageProducer producer = mock(javax.jms.MessageProducer.class);
+        when(session.createProducer(any())).thenReturn(producer);
+        when(session.createTextMessage(anyString())).thenAnswer(invocation -> {
+            sent.add(invocation.getArgument(0));
+            return mock(TextMessage.class);
+        });
+        JmsTemplate jmsTemplate = mock(JmsTemplate.class);
+        when(jmsTemplate.execute(any(SessionCallback.class), eq(true))).thenAnswer(invocation -> {
+            if (release != null) {
+                release.await();
+            }
+            int before = sent.size();
+            ((SessionCallback<?>) invocation.getArgument(0)).doInJms(session);
+            batches.add(sent.size() - before);
+            return null;
+        });
+        return jmsTemplate;
+    }
+}
@@ -75,4 +75,18 @@ public class MoxyEngineTest extends IntrospectorTestSpec {
         Assert.assertTrue(obj.getDslStartNodeProperties().contains("in-maint"));
     }
 
+    @Test
+    public void schemaMetadataIsSharedAcrossInstances() throws AAIUnknownObjectException {
+        Loader loader = loaderFactory.createLoaderForVersion(ModelType.MOXY, schemaVersions.getDepthVersion());
+        Introspector first = loader.introspectorFromName("pserver");
+        Introspector second = loader.introspectorFromName("pserver");
+
+        Assert.assertSame(first.getProperties(), second.getProperties());
+        Assert.assertSame(first.getKeys(), second.getKeys());
+        Assert.assertSame(first.getIndexedProperties(), second.getIndexedProperties());
+        Assert.assertSame(first.getPropertyMetadata("hostname"), second.getPropertyMetadata("hostname"));
+        Assert.assertEquals("pserver", second.getName());
+        Assert.assertEquals(String.class, second.getClass("hostname"));
+    }
+
 }
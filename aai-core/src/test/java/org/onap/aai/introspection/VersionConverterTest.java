@@ -0,0 +1,59 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.introspection;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.onap.aai.AAISetup;
+import org.skyscreamer.jsonassert.JSONAssert;
+
+public class VersionConverterTest extends AAISetup {
+
+    @Test
+    public void convertsLikeAJsonRoundTrip() throws Exception {
+        Loader oldLoader = loaderFactory.createLoaderForVersion(ModelType.MOXY, schemaVersions.getDepthVersion());
+        Loader newLoader = loaderFactory.createLoaderForVersion(ModelType.MOXY, schemaVersions.getDefaultVersion());
+
+        Introspector pserver = oldLoader.introspectorFromName("pserver");
+        pserver.setValue("hostname", "host1");
+        pserver.setValue("number-of-cpus", 4);
+        pserver.setValue("in-maint", false);
+        Introspector pInterface = oldLoader.introspectorFromName("p-interface");
+        pInterface.setValue("interface-name", "p1");
+        Introspector lInterface = oldLoader.introspectorFromName("l-interface");
+        lInterface.setValue("interface-name", "l1");
+        Introspector lInterfaces = pInterface.newIntrospectorInstanceOfProperty("l-interfaces");
+        ((List<Object>) lInterfaces.getValue("l-interface")).add(lInterface.getUnderlyingObject());
+        pInterface.setValue("l-interfaces", lInterfaces.getUnderlyingObject());
+        Introspector pInterfaces = pserver.newIntrospectorInstanceOfProperty("p-interfaces");
+        ((List<Object>) pInterfaces.getValue("p-interface")).add(pInterface.getUnderlyingObject());
+        pserver.setValue("p-interfaces", pInterfaces.getUnderlyingObject());
+
+        Introspector converted = VersionConverter.convert(pserver, newLoader);
+        Introspector expected = newLoader.unmarshal("pserver", pserver.marshal(false));
+
+        assertEquals(schemaVersions.getDefaultVersion(), converted.getVersion());
+        JSONAssert.assertEquals(expected.marshal(false), converted.marshal(false), true);
+    }
+}
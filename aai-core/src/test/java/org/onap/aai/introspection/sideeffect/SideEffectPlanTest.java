@@ -0,0 +1,115 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.introspection.sideeffect;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.onap.aai.AAISetup;
+import org.onap.aai.introspection.Introspector;
+import org.onap.aai.introspection.Loader;
+import org.onap.aai.introspection.ModelType;
+import org.onap.aai.schema.enums.PropertyMetadata;
+
+public class SideEffectPlanTest extends AAISetup {
+
+    @Test
+    public void planHasThePropertiesOfEachMetadata() throws Exception {
+        Loader loader = loaderFactory.createLoaderForVersion(ModelType.MOXY, schemaVersions.getDefaultVersion());
+        boolean foundEffects = false;
+        for (String type : Arrays.asList("generic-vnf", "vf-module", "l-interface", "pserver", "complex")) {
+            Introspector obj = loader.introspectorFromName(type);
+            SideEffectPlan plan = SideEffectPlan.forObject(obj);
+            Map<PropertyMetadata, Map<String, String>> expected = new EnumMap<>(PropertyMetadata.class);
+            for (String prop : obj.getProperties()) {
+                obj.getPropertyMetadata(prop).forEach((metadata, value) -> {
+                    if (SideEffectPlan.isSideEffectMetadata(metadata)) {
+                        expected.computeIfAbsent(metadata, key -> new LinkedHashMap<>()).put(prop, value);
+                    }
+                });
+            }
+            for (PropertyMetadata metadata : PropertyMetadata.values()) {
+                assertEquals(type + " " + metadata, expected.containsKey(metadata), plan.hasProperties(metadata));
+                assertEquals(type + " " + metadata, expected.getOrDefault(metadata, new HashMap<>()),
+                        plan.getProperties(metadata));
+            }
+            assertEquals(expected.isEmpty(), plan.isEmpty());
+            assertSame(plan, SideEffectPlan.forObject(loader.introspectorFromName(type)));
+            foundEffects |= plan.hasProperties(PropertyMetadata.PRIVATE_EDGE)
+                    || plan.hasProperties(PropertyMetadata.DATA_LINK);
+        }
+        assertTrue("Expected one of the types to have side effects", foundEffects);
+    }
+
+    @Test
+    public void planOfATypeWithoutSideEffectMetadataIsEmpty() throws Exception {
+        Loader loader = loaderFactory.createLoaderForVersion(ModelType.MOXY, schemaVersions.getDefaultVersion());
+        boolean foundDescriptions = false;
+        for (Map.Entry<String, Introspector> entry : loader.getAllObjects().entrySet()) {
+            Introspector obj = entry.getValue();
+            boolean hasDescriptions = false;
+            boolean hasSideEffects = false;
+            for (String prop : obj.getProperties()) {
+                Map<PropertyMetadata, String> metadata = obj.getPropertyMetadata(prop);
+                hasDescriptions |= metadata.containsKey(PropertyMetadata.DESCRIPTION);
+                hasSideEffects |= metadata.keySet().stream().anyMatch(SideEffectPlan::isSideEffectMetadata);
+            }
+            if (hasDescriptions && !hasSideEffects) {
+                foundDescriptions = true;
+                SideEffectPlan plan = SideEffectPlan.forObject(obj);
+                assertTrue(entry.getKey(), plan.isEmpty());
+                assertFalse(entry.getKey(), plan.hasProperties(PropertyMetadata.DESCRIPTION));
+            }
+        }
+        assertTrue("Expected a type with only descriptions", foundDescriptions);
+    }
+
+    @Test
+    public void templateIsFilledInWithoutRescanningTheUri() {
+        SideEffectPlan.UriTemplate template = SideEffectPlan
+                .template("service-design-and-creation/models/model/{model-invariant-id}/model-vers/model-ver/"
+                        + "{model-version-id}#model-version");
+        assertEquals(Arrays.asList("model-invariant-id", "model-version-id"), template.getKeys());
+
+        Map<String, String> values = new HashMap<>();
+        values.put("model-invariant-id", "key$1");
+        values.put("model-version-id", "key2");
+        assertEquals("service-design-and-creation/models/model/key$1/model-vers/model-ver/key2#model-version",
+                template.fill(values));
+
+        values.remove("model-version-id");
+        assertEquals("service-design-and-creation/models/model/key$1/model-vers/model-ver/{model-version-id}"
+                + "#model-version", template.fill(values));
+        assertSame(template, SideEffectPlan.template(
+                "service-design-and-creation/models/model/{model-invariant-id}/model-vers/model-ver/"
+                        + "{model-version-id}#model-version"));
+        assertFalse(SideEffectPlan.template("cloud-infrastructure/pservers").getKeys().iterator().hasNext());
+    }
+}
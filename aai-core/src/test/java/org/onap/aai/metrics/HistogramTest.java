@@ -0,0 +1,78 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class HistogramTest {
+
+    @Test
+    public void emptyHistogramHasNoValues() {
+        Histogram histogram = new Histogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtQuantile(0.99));
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        Histogram histogram = new Histogram();
+        for (long i = 1; i <= 10; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(10, histogram.getCount());
+        assertEquals(55, histogram.getSum());
+        assertEquals(10, histogram.getMax());
+        assertEquals(5, histogram.getValueAtQuantile(0.5));
+        assertEquals(9, histogram.getValueAtQuantile(0.9));
+    }
+
+    @Test
+    public void quantilesAreWithinTheBucketPrecision() {
+        Histogram histogram = new Histogram();
+        for (long i = 1; i <= 100_000; i++) {
+            histogram.record(i * 1_000);
+        }
+
+        assertWithinPrecision(50_000_000, histogram.getValueAtQuantile(0.5));
+        assertWithinPrecision(99_000_000, histogram.getValueAtQuantile(0.99));
+        assertEquals(100_000_000, histogram.getValueAtQuantile(1));
+    }
+
+    @Test
+    public void bucketsCoverEveryValue() {
+        long[] values = {0, 15, 16, 17, 31, 32, 1_000_003, Long.MAX_VALUE};
+        for (long value : values) {
+            int index = Histogram.index(value);
+            assertTrue(value <= Histogram.highestValue(index));
+            assertTrue(index == 0 || value > Histogram.highestValue(index - 1));
+        }
+    }
+
+    private void assertWithinPrecision(long expected, long actual) {
+        assertTrue("expected about " + expected + " but was " + actual,
+                actual >= expected && actual <= expected + expected / 16);
+    }
+}
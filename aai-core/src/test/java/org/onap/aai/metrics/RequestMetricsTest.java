@@ -0,0 +1,104 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class RequestMetricsTest {
+
+    @Test
+    public void nestedStartsAreTimedOnce() {
+        Histogram histogram = RequestMetrics.get(RequestPhase.DB);
+        PhaseTimer timer = RequestMetrics.timer(RequestPhase.DB);
+        long before = histogram.getCount();
+
+        timer.conditionalStart();
+        timer.conditionalStart();
+        assertTrue(timer.stopIfStarted() >= 0);
+        assertEquals(0, timer.stopIfStarted(), 0);
+
+        assertEquals(before + 1, histogram.getCount());
+    }
+
+    @Test
+    public void resetTimersForgetsAStartLeftRunning() {
+        Histogram histogram = RequestMetrics.get(RequestPhase.DB);
+        PhaseTimer timer = RequestMetrics.timer(RequestPhase.DB);
+        long before = histogram.getCount();
+
+        timer.conditionalStart();
+        RequestMetrics.resetTimers();
+        assertEquals(0, timer.stopIfStarted(), 0);
+
+        assertEquals(before, histogram.getCount());
+    }
+
+    @Test
+    public void scrapeWritesASummaryOfEachPhase() throws Exception {
+        RequestMetrics.stop(RequestPhase.NOTIFICATION, RequestMetrics.start());
+
+        StringBuilder out = new StringBuilder();
+        RequestMetrics.scrape(out);
+
+        for (RequestPhase phase : RequestPhase.values()) {
+            String name = phase.getMetricName() + "_seconds";
+            assertTrue(out.toString().contains("# TYPE " + name + " summary\n"));
+            assertTrue(out.toString().contains(name + "{quantile=\"0.99\"} "));
+        }
+        assertTrue(out.toString().contains(
+                "aai_notification_seconds_count " + RequestMetrics.get(RequestPhase.NOTIFICATION).getCount() + "\n"));
+    }
+
+    @Test
+    public void endpointServesTheScrape() throws Exception {
+        MetricsEndpoint endpoint = new MetricsEndpoint(0);
+        try {
+            URL url = new URL("http", endpoint.getAddress().getHostString(), endpoint.getAddress().getPort(),
+                    MetricsEndpoint.PATH);
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+
+            assertEquals(200, connection.getResponseCode());
+            assertTrue(connection.getContentType().startsWith("text/plain"));
+            assertTrue(read(connection.getInputStream()).contains("aai_request_seconds_count "));
+        } finally {
+            endpoint.stop();
+        }
+    }
+
+    private String read(InputStream in) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        for (int n; (n = in.read(buffer)) != -1;) {
+            out.write(buffer, 0, n);
+        }
+        in.close();
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
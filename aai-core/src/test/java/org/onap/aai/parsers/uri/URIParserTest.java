@@ -23,6 +23,9 @@ package org.onap.aai.parsers.uri;
 import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -153,4 +156,35 @@ public class URIParserTest extends AAISetup {
         assertEquals("complex", objectArgument.getAllValues().get(0).getName());
         assertEquals("ctag-pool", objectArgument.getAllValues().get(1).getName());
     }
+
+    @Test
+    public void validateChecksThePathWithoutAParsable() throws UnsupportedEncodingException, AAIException {
+        URI uri = UriBuilder.fromPath("/aai/" + loader.getVersion()
+                + "/cloud-infrastructure/complexes/complex/key1/ctag-pools/ctag-pool/key2/key3").build();
+        assertTrue(new URIParser(loader, uri).validate());
+
+        uri = UriBuilder.fromPath("/aai/" + loader.getVersion()
+                + "/network/tenants/tenant/key1/vservers/vserver/key2/l-interfaces/l-interface/key3").build();
+        thrown.expect(AAIException.class);
+        thrown.expect(hasProperty("code", is("AAI_3001")));
+        new URIParser(loader, uri).validate();
+    }
+
+    @Test
+    public void routesAreCompiledOncePerSegment() throws AAIUnknownObjectException {
+        URIRoutes.Route complex = URIRoutes.get(loader, "complex");
+        assertSame(complex, URIRoutes.get(loader, "complex"));
+        assertEquals(Collections.singletonList("physical-location-id"), complex.getKeys());
+        assertFalse(complex.isContainer());
+        assertTrue(complex.hasChild(URIRoutes.get(loader, "ctag-pools")));
+
+        URIRoutes.Route complexes = URIRoutes.get(loader, "complexes");
+        assertTrue(complexes.isContainer());
+        assertTrue(complexes.getKeys().isEmpty());
+        assertTrue(complexes.hasChild(complex));
+        assertFalse(complexes.hasChild(URIRoutes.get(loader, "tenant")));
+
+        assertTrue(URIRoutes.isNamespace(loader, URIRoutes.get(loader, "cloud-infrastructure")));
+        assertFalse(URIRoutes.isNamespace(loader, complexes));
+    }
 }
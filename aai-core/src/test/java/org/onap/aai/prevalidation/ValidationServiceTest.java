@@ -24,27 +24,51 @@ import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.net.ConnectException;
+import java.net.InetSocketAddress;
 import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.http.conn.ConnectTimeoutException;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.mockito.Mockito;
 import org.onap.aai.PayloadUtil;
 import org.onap.aai.exceptions.AAIException;
+import org.onap.aai.introspection.Introspector;
+import org.onap.aai.rest.ueb.NotificationEvent;
 import org.onap.aai.restclient.RestClient;
+import org.onap.aai.restclient.RestClientResponseErrorHandler;
 import org.springframework.boot.test.rule.OutputCapture;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestTemplate;
 
 public class ValidationServiceTest {
 
@@ -57,6 +81,14 @@ public class ValidationServiceTest {
 
     private Gson gson;
 
+    private HttpServer stubServer;
+
+    private final AtomicInteger stubRequests = new AtomicInteger();
+
+    private final AtomicInteger stubInFlight = new AtomicInteger();
+
+    private final AtomicInteger stubMaxInFlight = new AtomicInteger();
+
     @Before
     public void setUp() throws Exception {
         gson = new Gson();
@@ -64,6 +96,13 @@ public class ValidationServiceTest {
         validationService = Mockito.spy(new ValidationService(restClient, "JUNIT", "generic-vnf", null));
     }
 
+    @After
+    public void tearDown() {
+        if (stubServer != null) {
+            stubServer.stop(0);
+        }
+    }
+
     @Test
     public void testNodeTypeThatIsAllowedAndItShouldReturnTrue() {
         boolean shouldValidate = validationService.shouldValidate("generic-vnf");
@@ -183,4 +222,193 @@ public class ValidationServiceTest {
         assertNotNull("Expected the error messages to be not null", errorMessages);
         assertThat(errorMessages.size(), is(0));
     }
+
+    @Test
+    public void testEventsAreValidatedInOneBatchRequestAndViolationsOfEachEventAreReturned() throws Exception {
+
+        ValidationService service = new ValidationService(startStubServer(0), "JUNIT", "pserver", null, 10, 4, 0, 0);
+
+        List<String> violations = service.preValidateAll(
+                Arrays.asList(pserverEvent("host1", "1"), pserverEvent("bad-host", "1"), pserverEvent("host2", "1")));
+
+        assertThat(stubRequests.get(), is(1));
+        assertThat(violations, is(Collections.singletonList("Invalid hostname bad-host")));
+    }
+
+    @Test
+    public void testUnchangedEventIsNotSentToTheValidationServiceAgain() throws Exception {
+
+        ValidationService service = new ValidationService(startStubServer(0), "JUNIT", "pserver", null, 1, 4, 100, 60);
+
+        assertThat(service.preValidateAll(Collections.singletonList(pserverEvent("bad-host", "1"))).size(), is(1));
+        // a new event id, timestamp and resource version don't change the verdict
+        assertThat(service.preValidateAll(Collections.singletonList(pserverEvent("bad-host", "2"))).size(), is(1));
+        assertThat(service.preValidateAll(Collections.singletonList(pserverEvent("host1", "2"))).size(), is(0));
+
+        assertThat(stubRequests.get(), is(2));
+    }
+
+    @Test
+    public void testEventsAreSentInParallelUpToTheMaxConcurrentRequests() throws Exception {
+
+        ValidationService service = new ValidationService(startStubServer(200), "JUNIT", "pserver", null, 1, 2, 0, 0);
+
+        List<String> bodies = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            bodies.add(pserverEvent("host" + i, "1"));
+        }
+        assertThat(service.preValidateAll(bodies).size(), is(0));
+
+        assertThat(stubRequests.get(), is(6));
+        assertThat(stubMaxInFlight.get(), is(2));
+    }
+
+    @Test
+    public void testFailedBatchIsReportedAndTheOtherBatchesAreStillValidated() throws Exception {
+
+        RestClient stubClient = startStubServer(0);
+        Mockito.when(restClient.execute(eq(ValidationService.VALIDATION_ENDPOINT), eq(HttpMethod.POST), any(),
+                any(String.class))).thenAnswer(invocation -> {
+                    String body = invocation.getArgument(3);
+                    if (body.contains("broken-host")) {
+                        throw new NoClassDefFoundError("validation client");
+                    }
+                    return stubClient.execute(ValidationService.VALIDATION_ENDPOINT, HttpMethod.POST,
+                            invocation.getArgument(2), body);
+                });
+        ValidationService service = new ValidationService(restClient, "JUNIT", "pserver", null, 1, 2, 0, 0);
+
+        List<String> violations = service.preValidateAll(Arrays.asList(pserverEvent("broken-host", "1"),
+                pserverEvent("host1", "1"), pserverEvent("bad-host", "1")));
+
+        assertThat(violations.size(), is(2));
+        assertThat(violations.get(0), containsString("Validation of a batch of 1 events failed"));
+        assertThat(violations.get(1), is("Invalid hostname bad-host"));
+        assertThat(stubRequests.get(), is(2));
+    }
+
+    @Test
+    public void testValidateFailsWithTheViolationsAndSkipsExcludedSources() throws Exception {
+
+        ValidationService service =
+                new ValidationService(startStubServer(0), "JUNIT", "pserver", "SO,JUNIT.*", 10, 4, 0, 0);
+
+        List<NotificationEvent> events =
+                Arrays.asList(notificationEvent("JUNIT-TEST", pserverEvent("bad-host", "1")));
+        service.validate(events);
+        assertThat(stubRequests.get(), is(0));
+
+        events = Arrays.asList(notificationEvent("CLIENT", pserverEvent("host1", "1")),
+                notificationEvent("CLIENT", pserverEvent("bad-host", "1")));
+        try {
+            service.validate(events);
+            fail("Expected the violations to fail the request");
+        } catch (AAIException e) {
+            assertThat(e.getCode(), is("AAI_4019"));
+            assertThat(e.getTemplateVars(), is(Collections.singletonList("Invalid hostname bad-host")));
+        }
+        assertThat(stubRequests.get(), is(1));
+    }
+
+    private String pserverEvent(String hostname, String version) throws IOException {
+        JsonObject event = JsonParser
+                .parseString(PayloadUtil.getResourcePayload("prevalidation/success-request-with-no-violations.json"))
+                .getAsJsonObject();
+        JsonObject header = event.getAsJsonObject("event-header");
+        header.addProperty("id", "event-" + version);
+        header.addProperty("timestamp", "20191202-01:26:2" + version + ":749");
+        JsonObject entity = event.getAsJsonObject("entity");
+        entity.addProperty("hostname", hostname);
+        entity.addProperty("resource-version", version);
+        return event.toString();
+    }
+
+    private NotificationEvent notificationEvent(String source, String body) throws AAIException {
+        Introspector header = Mockito.mock(Introspector.class);
+        Mockito.when(header.getValue("source-name")).thenReturn(source);
+        Mockito.when(header.getValue("entity-type")).thenReturn("pserver");
+        Mockito.when(header.getValue("action")).thenReturn("CREATE");
+        NotificationEvent event = Mockito.mock(NotificationEvent.class);
+        Mockito.when(event.getEventHeader()).thenReturn(header);
+        Mockito.when(event.getNotificationEvent()).thenReturn(body);
+        return event;
+    }
+
+    /**
+     * Starts a validation service that flags every pserver named bad-host,
+     * taking the given time to answer each request.
+     */
+    private RestClient startStubServer(long delayMillis) throws IOException {
+        stubServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stubServer.setExecutor(Executors.newCachedThreadPool());
+        stubServer.createContext(ValidationService.VALIDATION_ENDPOINT, exchange -> {
+            int inFlight = stubInFlight.incrementAndGet();
+            stubMaxInFlight.accumulateAndGet(inFlight, Math::max);
+            stubRequests.incrementAndGet();
+            try {
+                Thread.sleep(delayMillis);
+                JsonElement request = JsonParser
+                        .parseReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8));
+                if (request.isJsonArray()) {
+                    JsonArray validations = new JsonArray();
+                    request.getAsJsonArray().forEach(event -> validations.add(stubValidation(event)));
+                    respond(exchange, 200, validations.toString());
+                } else {
+                    JsonObject validation = stubValidation(request);
+                    respond(exchange, validation.getAsJsonArray("violations").size() == 0 ? 200 : 400,
+                            validation.toString());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                stubInFlight.decrementAndGet();
+            }
+        });
+        stubServer.start();
+
+        String baseUrl = "http://localhost:" + stubServer.getAddress().getPort();
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.setErrorHandler(new RestClientResponseErrorHandler());
+        return new RestClient() {
+            @Override
+            public RestTemplate getRestTemplate() {
+                return restTemplate;
+            }
+
+            @Override
+            public String getBaseUrl() {
+                return baseUrl;
+            }
+
+            @Override
+            protected MultiValueMap<String, String> getHeaders(Map<String, String> headers) {
+                HttpHeaders httpHeaders = new HttpHeaders();
+                headers.forEach(httpHeaders::add);
+                return httpHeaders;
+            }
+        };
+    }
+
+    private static JsonObject stubValidation(JsonElement event) {
+        String hostname = event.getAsJsonObject().getAsJsonObject("entity").get("hostname").getAsString();
+        JsonArray violations = new JsonArray();
+        if ("bad-host".equals(hostname)) {
+            JsonObject violation = new JsonObject();
+            violation.addProperty("errorMessage", "Invalid hostname " + hostname);
+            violations.add(violation);
+        }
+        JsonObject validation = new JsonObject();
+        validation.addProperty("validationId", hostname);
+        validation.add("violations", violations);
+        return validation;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
 }
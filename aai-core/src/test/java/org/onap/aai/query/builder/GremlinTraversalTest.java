@@ -20,10 +20,17 @@
 
 package org.onap.aai.query.builder;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
 import org.apache.tinkerpop.gremlin.process.traversal.Path;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.Tree;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Test;
 import org.onap.aai.introspection.ModelType;
 
 public class GremlinTraversalTest extends QueryBuilderTestAbstraction {
@@ -70,4 +77,49 @@ public class GremlinTraversalTest extends QueryBuilderTestAbstraction {
         return new GremlinTraversal<>(loader, g);
     }
 
+    @Test
+    public void valuesAreBoundAndKeptInTheQuery() {
+        GremlinTraversal<Vertex> builder = new GremlinTraversal<>(loader, g);
+        builder.getVerticesByProperty("hostname", "it's").getVerticesByProperty("in-maint", true).range(0, 10);
+
+        Map<String, Object> bindings = new HashMap<>();
+        String script = builder.getScript(".count()", bindings);
+
+        assertEquals("g.has('hostname', aaiArg0).has('in-maint', aaiArg1).range(aaiArg2,aaiArg3).count()", script);
+        assertEquals("it's", bindings.get("aaiArg0"));
+        assertEquals(true, bindings.get("aaiArg1"));
+        assertEquals(0L, bindings.get("aaiArg2"));
+        assertEquals(10L, bindings.get("aaiArg3"));
+        assertEquals(".has('hostname', 'it\\'s').has('in-maint', true).range(0,10)", builder.getQuery());
+    }
+
+    @Test
+    public void sameShapeGivesSameScript() {
+        Map<String, Object> first = new HashMap<>();
+        Map<String, Object> second = new HashMap<>();
+        GremlinTraversal<Vertex> a = new GremlinTraversal<>(loader, g);
+        a.getVerticesByProperty("hostname", "a");
+        GremlinTraversal<Vertex> b = new GremlinTraversal<>(loader, g);
+        b.getVerticesByProperty("hostname", "say \"b\"");
+
+        assertEquals(a.getScript("", first), b.getScript("", second));
+        assertEquals("a", first.get("aaiArg0"));
+        assertEquals("say \"b\"", second.get("aaiArg0"));
+    }
+
+    @Test
+    public void nestedBuilderValuesAreBound() {
+        GremlinTraversal<Vertex> inner = new GremlinTraversal<>(loader, g);
+        inner.getVerticesByProperty("hostname", "inner");
+        GremlinTraversal<Vertex> builder = new GremlinTraversal<>(loader, g);
+        builder.getVerticesByProperty("hostname", "outer").where(inner);
+
+        Map<String, Object> bindings = new HashMap<>();
+        String script = builder.getScript("", bindings);
+
+        assertEquals("g.has('hostname', aaiArg0).where(__.has('hostname', aaiArg1))", script);
+        assertEquals("outer", bindings.get("aaiArg0"));
+        assertEquals("inner", bindings.get("aaiArg1"));
+        assertTrue(builder.getQuery().toString().endsWith(".where(__.has('hostname', 'inner'))"));
+    }
 }
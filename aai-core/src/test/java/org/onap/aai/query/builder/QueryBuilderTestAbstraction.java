@@ -28,6 +28,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.tinkerpop.gremlin.process.traversal.Path;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
@@ -800,6 +801,77 @@ public abstract class QueryBuilderTestAbstraction {
         assertTrue("result does not have optional-vce vertex ", !list.contains(optionalVce));
     }
 
+    @Test
+    public void countByNodeTypeTest() throws AAIException {
+
+        Vertex gvnf = this.addVHelper(g, "vertex", "aai-node-type", "generic-vnf", "vnf-id", "count-gvnf").next();
+        Vertex pserver1 = this.addVHelper(g, "vertex", "aai-node-type", "pserver", "hostname", "count-a").next();
+        Vertex pserver2 = this.addVHelper(g, "vertex", "aai-node-type", "pserver", "hostname", "count-b").next();
+        Vertex vce = this.addVHelper(g, "vertex", "aai-node-type", "vce", "vnf-id", "count-vce").next();
+
+        testEdgeSer.addEdge(g, gvnf, pserver1);
+        testEdgeSer.addEdge(g, gvnf, pserver2);
+        testEdgeSer.addEdge(g, vce, pserver1);
+
+        QueryBuilder<Vertex> tQ = getNewVertexTraversalWithTestEdgeRules(gvnf);
+        tQ.createEdgeTraversal(EdgeType.COUSIN, "generic-vnf", "pserver");
+
+        Map<String, Long> counts = tQ.countByNodeType();
+        assertEquals("Has 1 node type ", 1, counts.size());
+        assertEquals("Has 2 pservers ", Long.valueOf(2), counts.get("pserver"));
+        assertEquals("Counting again gives the same counts ", counts, tQ.countByNodeType());
+        List<Vertex> list = tQ.toList();
+        assertEquals("Query still returns the pservers ", 2, list.size());
+        assertTrue("result has pserver-1 vertex ", list.contains(pserver1));
+    }
+
+    @Test
+    public void rangeAndCountTest() throws AAIException {
+
+        Vertex gvnf = this.addVHelper(g, "vertex", "aai-node-type", "generic-vnf", "vnf-id", "range-gvnf").next();
+        Vertex pserver1 = this.addVHelper(g, "vertex", "aai-node-type", "pserver", "hostname", "range-a").next();
+        Vertex pserver2 = this.addVHelper(g, "vertex", "aai-node-type", "pserver", "hostname", "range-b").next();
+        Vertex pserver3 = this.addVHelper(g, "vertex", "aai-node-type", "pserver", "hostname", "range-c").next();
+
+        testEdgeSer.addEdge(g, gvnf, pserver1);
+        testEdgeSer.addEdge(g, gvnf, pserver2);
+        testEdgeSer.addEdge(g, gvnf, pserver3);
+
+        QueryBuilder<Vertex> tQ = getNewVertexTraversalWithTestEdgeRules(gvnf);
+        tQ.createEdgeTraversal(EdgeType.COUSIN, "generic-vnf", "pserver");
+
+        assertEquals("Counts 3 pservers ", 3, tQ.count());
+
+        tQ.range(1, 3);
+        assertEquals("Counts 2 pservers in the range ", 2, tQ.count());
+
+        List<Vertex> page = tQ.toList();
+        assertEquals("Has 2 vertices in the range ", 2, page.size());
+        assertTrue("Range only has pservers ",
+                page.stream().allMatch(v -> "pserver".equals(v.value("aai-node-type"))));
+    }
+
+    @Test
+    public void afterIdResumesResultsOrderedByIdTest() throws AAIException {
+
+        Vertex gvnf = this.addVHelper(g, "vertex", "aai-node-type", "generic-vnf", "vnf-id", "after-id-gvnf").next();
+        for (String hostname : Arrays.asList("after-id-a", "after-id-b", "after-id-c")) {
+            testEdgeSer.addEdge(g, gvnf,
+                    this.addVHelper(g, "vertex", "aai-node-type", "pserver", "hostname", hostname).next());
+        }
+
+        QueryBuilder<Vertex> tQ = getNewVertexTraversalWithTestEdgeRules(gvnf);
+        tQ.createEdgeTraversal(EdgeType.COUSIN, "generic-vnf", "pserver");
+        tQ.orderById();
+        List<Vertex> all = tQ.toList();
+
+        QueryBuilder<Vertex> resumed = getNewVertexTraversalWithTestEdgeRules(gvnf);
+        resumed.createEdgeTraversal(EdgeType.COUSIN, "generic-vnf", "pserver");
+        resumed.afterId(all.get(0).id()).orderById();
+
+        assertEquals("Resumes after the first pserver ", all.subList(1, 3), resumed.toList());
+    }
+
     protected abstract QueryBuilder<Edge> getNewEdgeTraversalWithTestEdgeRules(Vertex v);
 
     protected abstract QueryBuilder<Edge> getNewEdgeTraversalWithTestEdgeRules();
@@ -20,10 +20,22 @@
 
 package org.onap.aai.query.builder;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import javax.ws.rs.core.UriBuilder;
+
 import org.apache.tinkerpop.gremlin.process.traversal.Path;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.Tree;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Test;
+import org.onap.aai.db.props.AAIProperties;
 
 public class TraversalURIOptimizedQueryTest extends TraversalQueryTest {
 
@@ -71,4 +83,26 @@ public class TraversalURIOptimizedQueryTest extends TraversalQueryTest {
     protected QueryBuilder<Path> getNewPathTraversalWithTestEdgeRules() {
         return new TraversalURIOptimizedQuery<>(loader, g);
     }
+
+    @Test
+    public void everyVertexWithTheUriIsReturnedThroughTheUriCache() throws Exception {
+        String uri = "/cloud-infrastructure/pservers/pserver/dup-hostname";
+        Vertex pserver1 = this.addVHelper(g, "vertex", "aai-node-type", "pserver", "hostname", "dup-hostname",
+                AAIProperties.AAI_URI, uri).next();
+        Vertex pserver2 = this.addVHelper(g, "vertex", "aai-node-type", "pserver", "hostname", "dup-hostname",
+                AAIProperties.AAI_URI, uri).next();
+        UriVertexCache cache = new UriVertexCache();
+        URI path = UriBuilder.fromPath(uri).build();
+
+        for (int i = 0; i < 2; i++) {
+            List<Vertex> result = new TraversalURIOptimizedQuery<Vertex>(loader, g).setUriCache(cache)
+                    .createQueryFromURI(path).getQueryBuilder().toList();
+            assertEquals(new HashSet<>(Arrays.asList(pserver1, pserver2)), new HashSet<>(result));
+        }
+        assertEquals(1, cache.getHitCount());
+
+        assertTrue(new TraversalURIOptimizedQuery<Vertex>(loader, g).setUriCache(cache)
+                .createQueryFromURI(UriBuilder.fromPath("/cloud-infrastructure/pservers/pserver/missing").build())
+                .getQueryBuilder().toList().isEmpty());
+    }
 }
@@ -0,0 +1,110 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.query.builder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+public class UriVertexCacheTest {
+
+    private static final String URI = "/cloud-infrastructure/pservers/pserver/ps1";
+
+    private GraphTraversalSource g;
+    private Vertex pserver;
+    private UriVertexCache cache;
+
+    @Before
+    public void setup() {
+        Graph graph = TinkerGraph.open();
+        pserver = graph.addVertex("aai-node-type", "pserver", "hostname", "ps1", "aai-uri", URI);
+        g = graph.traversal();
+        cache = new UriVertexCache();
+    }
+
+    @Test
+    public void secondLookupIsAHit() {
+        assertEquals(Collections.singletonList(pserver), cache.resolve(g, URI));
+        assertEquals(Collections.singletonList(pserver), cache.resolve(g, URI));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRatio(), 0.0);
+    }
+
+    @Test
+    public void staleEntryIsNotReturned() {
+        cache.resolve(g, URI);
+        pserver.property("aai-uri", "/cloud-infrastructure/pservers/pserver/ps2");
+
+        assertTrue(cache.resolve(g, URI).isEmpty());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void deletedVertexIsNotReturned() {
+        cache.resolve(g, URI);
+        pserver.remove();
+
+        assertTrue(cache.resolve(g, URI).isEmpty());
+    }
+
+    @Test
+    public void everyVertexWithADuplicatedUriIsReturned() {
+        Vertex duplicate = g.addV("pserver").property("aai-uri", URI).next();
+
+        assertEquals(new HashSet<>(Arrays.asList(pserver, duplicate)), new HashSet<>(cache.resolve(g, URI)));
+        assertEquals(2, cache.resolve(g, URI).size());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void putVertexIsAddedToTheCachedVertices() {
+        cache.resolve(g, URI);
+        Vertex duplicate = g.addV("pserver").property("aai-uri", URI).next();
+        cache.put(URI, duplicate);
+
+        assertEquals(2, cache.resolve(g, URI).size());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void putVertexWithoutCachedVerticesIsLookedUp() {
+        Vertex pserver2 = g.addV("pserver").property("aai-uri", "/cloud-infrastructure/pservers/pserver/ps2").next();
+        cache.put("/cloud-infrastructure/pservers/pserver/ps2", pserver2);
+
+        assertFalse(cache.contains("/cloud-infrastructure/pservers/pserver/ps2"));
+        assertEquals(Collections.singletonList(pserver2),
+                cache.resolve(g, "/cloud-infrastructure/pservers/pserver/ps2"));
+        assertEquals(1, cache.getMissCount());
+    }
+}
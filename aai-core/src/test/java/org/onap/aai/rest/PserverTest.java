@@ -108,8 +108,9 @@ public class PserverTest extends AAISetup {
         response = httpTestUtil.doGet(pserverUri, "0", "raw");
         assertNotNull("Expected the response to be not null", response);
         assertEquals("Expecting the pserver to be created", 200, response.getStatus());
+        assertThat(response.getEntity().toString(), containsString("<related-to><node><id>"));
         assertThat(response.getEntity().toString(), containsString(
-                "<related-to><node><relationship-label>org.onap.relationships.inventory.LocatedIn</relationship-label><node-type>cloud-region</node-type>"));
+                "<relationship-label>org.onap.relationships.inventory.LocatedIn</relationship-label><node-type>cloud-region</node-type>"));
     }
 
     @Test
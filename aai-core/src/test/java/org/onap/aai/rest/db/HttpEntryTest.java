@@ -27,6 +27,9 @@ import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -499,6 +502,34 @@ public class HttpEntryTest extends AAISetup {
                 serviceException.getVariables().get(2));
     }
 
+    @Test
+    public void thatObjectsCanBeRetrievedAsXmlInPathedResponseFormat()
+            throws UnsupportedEncodingException, AAIException {
+        traversal.addV()
+                .property("aai-node-type", "pserver")
+                .property("hostname", "xml-pserver-1")
+                .property(AAIProperties.AAI_URI, "/cloud-infrastructure/pservers/pserver/xml-pserver-1")
+                .property(AAIProperties.RESOURCE_VERSION, "123")
+                .next();
+
+        queryParameters.add("format", "pathed");
+        outputMediaTypes.set(0, MediaType.APPLICATION_XML_TYPE);
+        Response response;
+        try {
+            response = doRequest(traversalHttpEntry, loader, dbEngine, HttpMethod.GET,
+                    "/cloud-infrastructure/pservers", "");
+        } finally {
+            queryParameters.remove("format");
+            outputMediaTypes.set(0, APPLICATION_JSON);
+        }
+
+        String responseEntity = response.getEntity().toString();
+        assertEquals("Expected get to succeed", 200, response.getStatus());
+        assertThat(responseEntity, containsString("<results><result><resource-type>pserver</resource-type>"));
+        assertThat(responseEntity,
+                containsString("/cloud-infrastructure/pservers/pserver/xml-pserver-1</resource-link></result></results>"));
+    }
+
     @Test
     public void thatObjectsCanBeRetrievedInPathedResponseFormat() throws UnsupportedEncodingException, AAIException {
         traversal
@@ -767,6 +798,19 @@ public class HttpEntryTest extends AAISetup {
         return responsesTuple.getValue1().get(0).getValue1();
     }
 
+    private Response doGetAll(String uri) throws UnsupportedEncodingException, AAIException {
+        URI uriObject = UriBuilder.fromPath(uri).build();
+        QueryParser uriQuery = dbEngine.getQueryBuilder().createQueryFromURI(uriObject);
+        Introspector obj = loader.introspectorFromName(uriQuery.getContainerType());
+
+        DBRequest dbRequest = new DBRequest.Builder(HttpMethod.GET, uriObject, uriQuery, obj, httpHeaders, uriInfo,
+                "JUNIT-TRANSACTION").rawRequestContent("").build();
+
+        Pair<Boolean, List<Pair<URI, Response>>> responsesTuple = traversalHttpEntry.process(Arrays.asList(dbRequest),
+                "JUNIT");
+        return responsesTuple.getValue1().get(0).getValue1();
+    }
+
     private Response doDelete(String resourceVersion, String uri, String nodeType)
             throws UnsupportedEncodingException, AAIException {
         queryParameters.add("resource-version", resourceVersion);
@@ -800,6 +844,78 @@ public class HttpEntryTest extends AAISetup {
         assertEquals("Expected the total amount of vertices to be 101", 101, traversalHttpEntry.getTotalVertices());
     }
 
+    @Test
+    public void thatPaginatedResultsCanBeContinuedWithCursor() throws UnsupportedEncodingException, AAIException {
+        for (String hostname : Arrays.asList("pagedHost1", "pagedHost2", "pagedHost3")) {
+            traversal.addV()
+                    .property("aai-node-type", "pserver")
+                    .property("hostname", hostname)
+                    .property(AAIProperties.AAI_URI, "/cloud-infrastructure/pservers/pserver/" + hostname)
+                    .next();
+        }
+        String uri = "/cloud-infrastructure/pservers";
+
+        try {
+            traversalHttpEntry.setPaginationCursor(PaginationCursor.first(2).encode());
+            Response response = doGetAll(uri);
+            assertEquals("Expected the first page to be returned", 200, response.getStatus());
+            assertEquals("3", response.getHeaderString("total-results"));
+            assertEquals("2", response.getHeaderString("total-pages"));
+            JSONArray firstPage = new JSONObject(response.getEntity().toString()).getJSONArray("pserver");
+            assertEquals(2, firstPage.length());
+            String cursor = response.getHeaderString("next-cursor");
+            assertEquals(traversalHttpEntry.getNextPaginationCursor(), cursor);
+            assertNotNull("Expected the cursor to resume after the last result",
+                    PaginationCursor.decode(cursor).getLastId());
+
+            traversalHttpEntry.setPaginationCursor(cursor);
+            assertEquals(2, traversalHttpEntry.getPaginationIndex());
+            response = doGetAll(uri);
+            assertEquals("Expected the second page to be returned", 200, response.getStatus());
+            JSONArray secondPage = new JSONObject(response.getEntity().toString()).getJSONArray("pserver");
+            assertEquals(1, secondPage.length());
+            String hostname = secondPage.getJSONObject(0).getString("hostname");
+            for (int i = 0; i < firstPage.length(); i++) {
+                assertNotEquals(firstPage.getJSONObject(i).getString("hostname"), hostname);
+            }
+            assertNull("Expected no count for a page requested with a cursor",
+                    response.getHeaderString("total-results"));
+            assertEquals("Expected no cursor after the last page", null, response.getHeaderString("next-cursor"));
+        } finally {
+            traversalHttpEntry.setPaginationIndex(-1);
+            traversalHttpEntry.setPaginationBucket(-1);
+        }
+    }
+
+    @Test
+    public void thatPagesRequestedByIndexHandOutAnIndexCursor() throws UnsupportedEncodingException, AAIException {
+        for (String hostname : Arrays.asList("indexedHost1", "indexedHost2", "indexedHost3")) {
+            traversal.addV()
+                    .property("aai-node-type", "pserver")
+                    .property("hostname", hostname)
+                    .property(AAIProperties.AAI_URI, "/cloud-infrastructure/pservers/pserver/" + hostname)
+                    .next();
+        }
+
+        try {
+            traversalHttpEntry.setPaginationParameters("1", "2");
+            Response response = doGetAll("/cloud-infrastructure/pservers");
+            assertEquals("Expected the first page to be returned", 200, response.getStatus());
+            PaginationCursor cursor = PaginationCursor.decode(response.getHeaderString("next-cursor"));
+            assertFalse("Expected the results to keep the order of the query", cursor.isKeyset());
+            assertNull(cursor.getLastId());
+            assertEquals(2, cursor.getIndex());
+        } finally {
+            traversalHttpEntry.setPaginationIndex(-1);
+            traversalHttpEntry.setPaginationBucket(-1);
+        }
+    }
+
+    @Test(expected = AAIException.class)
+    public void thatInvalidPaginationCursorIsRejected() throws AAIException {
+        traversalHttpEntry.setPaginationCursor("not-a-cursor");
+    }
+
     @Test
     public void setDepthTest() throws AAIException {
         System.setProperty("AJSC_HOME", ".");
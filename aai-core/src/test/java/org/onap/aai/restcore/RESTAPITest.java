@@ -25,7 +25,13 @@ import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MultivaluedHashMap;
@@ -37,7 +43,13 @@ import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.onap.aai.AAISetup;
+import org.onap.aai.dbmap.AAIGraph;
 import org.onap.aai.exceptions.AAIException;
+import org.onap.aai.introspection.ModelType;
+import org.onap.aai.rest.RestHandlerService;
+import org.onap.aai.serialization.engines.JanusGraphDBEngine;
+import org.onap.aai.serialization.engines.QueryStyle;
+import org.onap.aai.serialization.engines.TransactionalGraphEngine;
 
 public class RESTAPITest extends AAISetup {
     private static RESTAPI restapi;
@@ -103,4 +115,118 @@ public class RESTAPITest extends AAISetup {
                 info, HttpMethod.GET, callable);
         Assert.assertNotNull(resp);
     }
+
+    @Test
+    public void testRunnerInterruptsRequestAfterTimeoutLimit() throws Exception {
+        MultivaluedMap<String, String> requestHeaders = new MultivaluedHashMap<String, String>();
+        requestHeaders.add("X-FromAppId", "from-app-id-01");
+        requestHeaders.add("X-TransactionId", "transaction-id-01");
+        when(httpHeaders.getRequestHeaders()).thenReturn(requestHeaders);
+        when(httpHeaders.getAcceptableMediaTypes()).thenReturn(new ArrayList<>());
+        when(info.getPath()).thenReturn("/cloud-infrastructure/pservers");
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Callable<Response> slowCallable = () -> {
+            try {
+                Thread.sleep(10000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return response;
+        };
+
+        Response resp = restapi.runner(AAI_TIMEOUT_ENABLED, AAI_TIMEOUT_BY_APP, AAI_TIMEOUT_DEFAULT_LIMIT, httpHeaders,
+                info, HttpMethod.GET, slowCallable);
+
+        Assert.assertNotSame(response, resp);
+        Assert.assertTrue("request is interrupted once the limit is reached", interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testRunnerRollsBackTransactionOfCancelledRequest() throws Exception {
+        MultivaluedMap<String, String> requestHeaders = new MultivaluedHashMap<String, String>();
+        requestHeaders.add("X-FromAppId", "from-app-id-01");
+        requestHeaders.add("X-TransactionId", "transaction-id-01");
+        when(httpHeaders.getRequestHeaders()).thenReturn(requestHeaders);
+        when(httpHeaders.getAcceptableMediaTypes()).thenReturn(new ArrayList<>());
+        when(info.getPath()).thenReturn("/cloud-infrastructure/pservers");
+        TransactionalGraphEngine dbEngine = new JanusGraphDBEngine(QueryStyle.TRAVERSAL,
+                loaderFactory.createLoaderForVersion(ModelType.MOXY, schemaVersions.getDefaultVersion()));
+        AAIGraph.getInstance();
+        CountDownLatch finished = new CountDownLatch(1);
+        AtomicReference<Exception> commitFailure = new AtomicReference<>();
+        Callable<Response> slowCallable = () -> {
+            try {
+                dbEngine.startTransaction();
+                Thread.sleep(10000);
+            } catch (InterruptedException e) {
+                // the request keeps writing after it was cancelled
+                dbEngine.tx().addVertex("aai-node-type", "pserver", "hostname", "cancelled-request-host");
+                try {
+                    dbEngine.commit();
+                } catch (IllegalStateException ex) {
+                    commitFailure.set(ex);
+                }
+            } finally {
+                finished.countDown();
+            }
+            return response;
+        };
+
+        restapi.runner(AAI_TIMEOUT_ENABLED, AAI_TIMEOUT_BY_APP, AAI_TIMEOUT_DEFAULT_LIMIT, httpHeaders, info,
+                HttpMethod.PUT, slowCallable);
+
+        Assert.assertTrue(finished.await(5, TimeUnit.SECONDS));
+        Assert.assertNotNull("commit of a cancelled request fails", commitFailure.get());
+        Assert.assertNull(dbEngine.tx());
+        Assert.assertFalse(AAIGraph.getInstance().getGraph().traversal().V()
+                .has("hostname", "cancelled-request-host").hasNext());
+    }
+
+    @Test
+    public void testRunnerDropsRequestNotStartedWithinTimeoutLimit() throws Exception {
+        MultivaluedMap<String, String> requestHeaders = new MultivaluedHashMap<String, String>();
+        requestHeaders.add("X-FromAppId", "from-app-id-01");
+        requestHeaders.add("X-TransactionId", "transaction-id-01");
+        when(httpHeaders.getRequestHeaders()).thenReturn(requestHeaders);
+        when(httpHeaders.getAcceptableMediaTypes()).thenReturn(new ArrayList<>());
+        when(info.getPath()).thenReturn("/cloud-infrastructure/pservers");
+        RestHandlerService service = RestHandlerService.getInstance();
+        ThreadPoolExecutor pool = service.executor;
+        ThreadPoolExecutor busy =
+                new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean called = new AtomicBoolean();
+        try {
+            busy.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            service.executor = busy;
+
+            Response resp = restapi.runner(AAI_TIMEOUT_ENABLED, AAI_TIMEOUT_BY_APP, AAI_TIMEOUT_DEFAULT_LIMIT,
+                    httpHeaders, info, HttpMethod.GET, () -> {
+                        called.set(true);
+                        return response;
+                    });
+
+            Assert.assertNotSame(response, resp);
+        } finally {
+            service.executor = pool;
+            release.countDown();
+            busy.shutdown();
+        }
+        Assert.assertTrue(busy.awaitTermination(5, TimeUnit.SECONDS));
+        Assert.assertFalse("a dropped request is never run", called.get());
+    }
+
+    @Test
+    public void testGetTimeoutLimit() {
+        String appTimeouts = "from-app-id-01,100|from-app-id-02,200";
+        Assert.assertEquals(100, restapi.getTimeoutLimit("from-app-id-01", appTimeouts, "500"));
+        Assert.assertEquals(200, restapi.getTimeoutLimit("from-app-id-02", appTimeouts, "500"));
+        Assert.assertEquals(500, restapi.getTimeoutLimit("from-app-id-03", appTimeouts, "500"));
+    }
 }
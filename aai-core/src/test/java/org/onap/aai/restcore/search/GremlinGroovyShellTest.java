@@ -0,0 +1,99 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.restcore.search;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.common.cache.CacheStats;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.janusgraph.core.JanusGraphFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GremlinGroovyShellTest {
+
+    private Graph graph;
+
+    @Before
+    public void setup() {
+        graph = JanusGraphFactory.build().set("storage.backend", "inmemory").open();
+        graph.traversal().addV("pserver").property("aai-node-type", "pserver").property("hostname", "host1")
+                .iterate();
+        graph.traversal().addV("pserver").property("aai-node-type", "pserver").property("hostname", "host2")
+                .iterate();
+    }
+
+    @After
+    public void teardown() throws Exception {
+        graph.tx().rollback();
+        graph.close();
+    }
+
+    @Test
+    public void compiledScriptIsReusedWithNewBinding() {
+        String script = "g.has('hostname', hostname)";
+        ScriptCache cache = new ScriptCache(AAIAbstractGroovyShell.compilerConfiguration(), 10);
+
+        List<Vertex> first =
+                (List<Vertex>) new GremlinGroovyShell(cache).executeTraversal(script, params("host1")).toList();
+        List<Vertex> second =
+                (List<Vertex>) new GremlinGroovyShell(cache).executeTraversal(script, params("host2")).toList();
+
+        CacheStats stats = cache.stats();
+        assertEquals("script is compiled once", 1, stats.missCount());
+        assertEquals("second run uses the compiled script", 1, stats.hitCount());
+        assertEquals(1, first.size());
+        assertEquals("host1", first.get(0).value("hostname"));
+        assertEquals(1, second.size());
+        assertEquals("host2", second.get(0).value("hostname"));
+    }
+
+    @Test
+    public void evictedScriptIsCompiledAgain() {
+        ScriptCache cache = new ScriptCache(AAIAbstractGroovyShell.compilerConfiguration(), 1);
+        GremlinGroovyShell shell = new GremlinGroovyShell(cache);
+
+        shell.executeTraversal("g.has('hostname', hostname)", params("host1")).toList();
+        shell.executeTraversal("g.has('aai-node-type', 'pserver').has('hostname', hostname)", params("host1"))
+                .toList();
+        List<Vertex> again = (List<Vertex>) shell.executeTraversal("g.has('hostname', hostname)", params("host2"))
+                .toList();
+
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.stats().evictionCount());
+        assertEquals(3, cache.stats().missCount());
+        assertEquals("host2", again.get(0).value("hostname"));
+    }
+
+    private Map<String, Object> params(String hostname) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("g", graph.traversal().V());
+        params.put("hostname", hostname);
+        return params;
+    }
+}
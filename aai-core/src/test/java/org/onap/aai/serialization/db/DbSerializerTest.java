@@ -68,6 +68,7 @@ import org.onap.aai.introspection.Introspector;
 import org.onap.aai.introspection.Loader;
 import org.onap.aai.introspection.ModelType;
 import org.onap.aai.parsers.query.QueryParser;
+import org.onap.aai.query.builder.UriVertexCache;
 import org.onap.aai.serialization.engines.JanusGraphDBEngine;
 import org.onap.aai.serialization.engines.QueryStyle;
 import org.onap.aai.serialization.engines.TransactionalGraphEngine;
@@ -720,6 +721,83 @@ public class DbSerializerTest extends AAISetup {
         }
     }
 
+    @Test
+    public void serializeRelationshipListDiffsCousinsTest()
+            throws AAIException, UnsupportedEncodingException, URISyntaxException {
+        engine.startTransaction();
+
+        Vertex gvnf = engine.tx().addVertex("aai-node-type", "generic-vnf", "vnf-id", "myvnf", "aai-uri",
+                "/network/generic-vnfs/generic-vnf/myvnf");
+        Vertex pserver1 = engine.tx().addVertex("aai-node-type", "pserver", "hostname", "ps1", "aai-uri",
+                "/cloud-infrastructure/pservers/pserver/ps1");
+        Vertex pserver2 = engine.tx().addVertex("aai-node-type", "pserver", "hostname", "ps2", "aai-uri",
+                "/cloud-infrastructure/pservers/pserver/ps2");
+        Vertex pserver3 = engine.tx().addVertex("aai-node-type", "pserver", "hostname", "ps3", "aai-uri",
+                "/cloud-infrastructure/pservers/pserver/ps3");
+        Edge kept = edgeSer.addEdge(engine.tx().traversal(), gvnf, pserver1);
+        edgeSer.addEdge(engine.tx().traversal(), gvnf, pserver3);
+
+        List<Object> relationships = new ArrayList<>();
+        for (String hostname : Arrays.asList("ps1", "ps2")) {
+            Introspector relationship = loader.introspectorFromName("relationship");
+            relationship.setValue("related-to", "pserver");
+            relationship.setValue("related-link", "/cloud-infrastructure/pservers/pserver/" + hostname);
+            relationships.add(relationship.getUnderlyingObject());
+        }
+        Introspector relationshipList = loader.introspectorFromName("relationship-list");
+        relationshipList.setValue("relationship", relationships);
+
+        Introspector gvnfObj = serializer.getLatestVersionView(gvnf);
+        gvnfObj.setValue("relationship-list", relationshipList.getUnderlyingObject());
+
+        QueryParser uriQuery =
+                dbEngine.getQueryBuilder().createQueryFromURI(new URI("/network/generic-vnfs/generic-vnf/myvnf"));
+        serializer.serializeToDb(gvnfObj, gvnf, uriQuery, null, "test");
+
+        List<Vertex> cousins = engine.tx().traversal().V(gvnf).both().toList();
+        assertEquals(2, cousins.size());
+        assertTrue(cousins.containsAll(Arrays.asList(pserver1, pserver2)));
+        assertTrue("existing edge is left alone", engine.tx().traversal().E(kept.id()).hasNext());
+    }
+
+    @Test
+    public void deletesAndUriChangesInvalidateTheUriCache() throws Exception {
+        engine.startTransaction();
+        String oldUri = "/network/generic-vnfs/generic-vnf/old-vnf";
+        String uri = "/network/generic-vnfs/generic-vnf/myvnf";
+        Vertex gvnf = engine.tx().addVertex("aai-node-type", "generic-vnf", "vnf-id", "myvnf", "aai-uri", oldUri);
+        UriVertexCache cache = engine.getUriCache();
+        assertEquals(Collections.singletonList(gvnf), cache.resolve(engine.tx().traversal(), oldUri));
+        assertTrue(cache.contains(oldUri));
+
+        Introspector gvnfObj = loader.introspectorFromName("generic-vnf");
+        gvnfObj.setValue("vnf-id", "myvnf");
+        serializer.serializeSingleVertex(gvnf, gvnfObj, "test");
+
+        assertFalse(cache.contains(oldUri));
+        assertTrue(cache.resolve(engine.tx().traversal(), oldUri).isEmpty());
+        assertEquals(Collections.singletonList(gvnf), cache.resolve(engine.tx().traversal(), uri));
+        assertTrue(cache.contains(uri));
+
+        serializer.delete(gvnf, "resourceVersion", false);
+
+        assertFalse(cache.contains(uri));
+        assertTrue(cache.resolve(engine.tx().traversal(), uri).isEmpty());
+    }
+
+    @Test
+    public void uriThatNoVertexHasIsLookedUpOnce() throws Exception {
+        engine.startTransaction();
+
+        QueryParser query =
+                engine.getQueryBuilder().createQueryFromURI(new URI("/network/generic-vnfs/generic-vnf/missing"));
+
+        assertTrue(query.getQueryBuilder().toList().isEmpty());
+        if (QueryStyle.TRAVERSAL_URI.equals(queryStyle)) {
+            assertEquals(1, engine.getUriCache().getMissCount());
+        }
+    }
+
     @Test
     public void createEdgeNodeDoesNotExistExceptionTest() throws AAIException, UnsupportedEncodingException {
         engine.startTransaction();
@@ -21,6 +21,7 @@
 package org.onap.aai.serialization.db;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
@@ -89,6 +90,22 @@ public class EdgeSerializerTest extends AAISetup {
         rules.addEdge(g, v2, v3);
     }
 
+    @Test
+    public void multiplicityIsCheckedNextToAVertexWithManyEdgesTest() throws AAIException {
+        Graph graph = TinkerGraph.open();
+        GraphTraversalSource g = graph.traversal();
+        Vertex cloudRegion = graph.addVertex(T.id, "1", "aai-node-type", "cloud-region");
+        for (int i = 0; i < 1000; i++) {
+            rules.addTreeEdge(g, cloudRegion, graph.addVertex(T.id, "tenant" + i, "aai-node-type", "tenant"));
+        }
+        Vertex tenant = graph.addVertex(T.id, "tenant", "aai-node-type", "tenant");
+        rules.addTreeEdge(g, cloudRegion, tenant);
+        assertEquals(1001L, (long) g.V(cloudRegion).in("org.onap.relationships.inventory.BelongsTo").count().next());
+
+        Vertex otherCloudRegion = graph.addVertex(T.id, "2", "aai-node-type", "cloud-region");
+        assertNull(rules.addTreeEdgeIfPossible(g, otherCloudRegion, tenant));
+    }
+
     @Test
     public void addEdgeVerifyAAIUUIDCousinTest() throws AAIException {
         Graph graph = TinkerGraph.open();
@@ -0,0 +1,97 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.serialization.engines;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.janusgraph.core.JanusGraph;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onap.aai.AAISetup;
+import org.onap.aai.dbmap.AAIGraph;
+import org.onap.aai.introspection.ModelType;
+
+public class TransactionalGraphEngineTest extends AAISetup {
+
+    private TransactionalGraphEngine dbEngine;
+
+    @Before
+    public void setUp() {
+        AAIGraph.getInstance();
+        dbEngine = new JanusGraphDBEngine(QueryStyle.TRAVERSAL,
+                loaderFactory.createLoaderForVersion(ModelType.MOXY, schemaVersions.getDefaultVersion()));
+    }
+
+    @After
+    public void tearDown() {
+        dbEngine.rollback();
+        JanusGraph graph = AAIGraph.getInstance().getGraph();
+        graph.traversal().V().has("hostname", "streamed-response-host").drop().iterate();
+        graph.tx().commit();
+    }
+
+    @Test
+    public void commitWaitsForTheOpenStream() {
+        dbEngine.startTransaction();
+        Vertex v = dbEngine.tx().addVertex("aai-node-type", "pserver", "hostname", "streamed-response-host");
+        dbEngine.openStream();
+
+        dbEngine.commit();
+        assertNotNull("the stream can still read from the transaction", dbEngine.tx());
+        assertTrue(dbEngine.tx().traversal().V(v).hasNext());
+
+        dbEngine.closeStream();
+        assertNull(dbEngine.tx());
+        assertTrue(AAIGraph.getInstance().getGraph().traversal().V().has("hostname", "streamed-response-host")
+                .hasNext());
+    }
+
+    @Test
+    public void rollbackWaitsForEveryOpenStream() {
+        dbEngine.startTransaction();
+        dbEngine.tx().addVertex("aai-node-type", "pserver", "hostname", "rolled-back-stream-host");
+        dbEngine.openStream();
+        dbEngine.openStream();
+
+        dbEngine.rollback();
+        dbEngine.closeStream();
+        assertNotNull(dbEngine.tx());
+
+        dbEngine.closeStream();
+        assertNull(dbEngine.tx());
+        assertFalse(AAIGraph.getInstance().getGraph().traversal().V().has("hostname", "rolled-back-stream-host")
+                .hasNext());
+    }
+
+    @Test
+    public void closeWithoutAStreamIsNotDeferred() {
+        dbEngine.openStream();
+        dbEngine.startTransaction();
+
+        dbEngine.rollback();
+        assertNull(dbEngine.tx());
+    }
+}
@@ -113,6 +113,31 @@ public class GraphTraversalQueryEngineTest extends AAISetup {
         assertThat("Expected the element back to be cloud region", vertices.get(2), is(cloudreg));
     }
 
+    @Test
+    public void testFindByUris() {
+
+        // setup
+        Graph graph = TinkerGraph.open();
+
+        Vertex pserver = graph.addVertex(T.id, "00", "aai-node-type", "pserver", "aai-uri",
+                "/cloud-infrastructure/pservers/pserver/testPserver1");
+        Vertex complex = graph.addVertex(T.id, "10", "aai-node-type", "complex", "aai-uri",
+                "/cloud-infrastructure/complexes/complex/testComplex1");
+        graph.addVertex(T.id, "20", "aai-node-type", "vserver");
+
+        List<String> uris = Arrays.asList("/cloud-infrastructure/pservers/pserver/testPserver1",
+                "/cloud-infrastructure/complexes/complex/testComplex1",
+                "/cloud-infrastructure/complexes/complex/notThere");
+
+        GraphTraversalQueryEngine queryEngine = new GraphTraversalQueryEngine(graph.traversal());
+        Map<String, Vertex> vertices = queryEngine.findByUris(uris);
+
+        assertThat("Only the uris with a vertex should be returned", vertices.size(), is(2));
+        assertThat(vertices.get("/cloud-infrastructure/pservers/pserver/testPserver1"), is(pserver));
+        assertThat(vertices.get("/cloud-infrastructure/complexes/complex/testComplex1"), is(complex));
+        assertTrue(queryEngine.findByUris(Collections.emptyList()).isEmpty());
+    }
+
     @Test
     public void testFindAllChildren() throws AAIException {
         // setup
@@ -27,7 +27,9 @@ import static org.mockito.Mockito.when;
 import com.google.gson.JsonObject;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.ReadOnlyStrategy;
@@ -142,6 +144,17 @@ public class CountQuerySupportTest extends AAISetup {
         assertEquals(22, jo.get("results").getAsJsonArray().get(0).getAsJsonObject().get("count").getAsInt());
     }
 
+    @Test
+    public void verifyPushedDownCountsTest() {
+        Map<String, Long> counts = new HashMap<>();
+        counts.put("complex", 2L);
+        counts.put("pserver", 1L);
+        JsonObject jo = this.formatter.outputCounts(counts);
+        JsonObject result = jo.get("results").getAsJsonArray().get(0).getAsJsonObject();
+        assertEquals(2, result.get("complex").getAsInt());
+        assertEquals(1, result.get("pserver").getAsInt());
+    }
+
     public void createLoaderEngineSetup() throws AAIException {
 
         if (loader == null) {
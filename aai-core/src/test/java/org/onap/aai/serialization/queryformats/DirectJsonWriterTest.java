@@ -0,0 +1,115 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.serialization.queryformats;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+import com.google.gson.JsonParser;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Before;
+import org.junit.Test;
+import org.onap.aai.AAISetup;
+import org.onap.aai.introspection.Introspector;
+import org.onap.aai.introspection.Loader;
+import org.onap.aai.introspection.ModelType;
+import org.onap.aai.serialization.db.DBSerializer;
+import org.onap.aai.serialization.engines.JanusGraphDBEngine;
+import org.onap.aai.serialization.engines.QueryStyle;
+import org.onap.aai.serialization.engines.TransactionalGraphEngine;
+import org.springframework.test.annotation.DirtiesContext;
+
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+public class DirectJsonWriterTest extends AAISetup {
+
+    private Graph graph;
+    private Loader loader;
+    private DBSerializer serializer;
+
+    @Before
+    public void setUp() throws Exception {
+        graph = TinkerGraph.open();
+        loader = loaderFactory.createLoaderForVersion(ModelType.MOXY, schemaVersions.getAppRootVersion());
+        TransactionalGraphEngine dbEngine = spy(new JanusGraphDBEngine(QueryStyle.TRAVERSAL, loader));
+        TransactionalGraphEngine.Admin spyAdmin = spy(dbEngine.asAdmin());
+        when(dbEngine.tx()).thenReturn(graph);
+        when(dbEngine.asAdmin()).thenReturn(spyAdmin);
+        when(spyAdmin.getTraversalSource()).thenReturn(graph.traversal());
+        serializer = new DBSerializer(schemaVersions.getAppRootVersion(), dbEngine, ModelType.MOXY, "Junit");
+    }
+
+    @Test
+    public void vertexIsWrittenLikeTheMarshaller() throws Exception {
+        Vertex vfModule = graph.addVertex(T.label, "vf-module", T.id, "5", "aai-node-type", "vf-module",
+                "vf-module-id", "vf-module-id-1", "vf-module-name", "vf-module-name-1", "is-base-vf-module", "true",
+                "resource-version", "1498166571906", "model-invariant-id-local", "invariant-1",
+                "model-version-id-local", "version-1");
+        Vertex vigServer = graph.addVertex(T.label, "vig-server", T.id, "6", "aai-node-type", "vig-server",
+                "vig-address-type", "ipv4");
+        vigServer.property(VertexProperty.Cardinality.list, "ipaddress-v4-vig", "10.0.0.1");
+        vigServer.property(VertexProperty.Cardinality.list, "ipaddress-v4-vig", "10.0.0.2");
+
+        for (Vertex v : new Vertex[] {vfModule, vigServer}) {
+            assertEquals(marshalled(v), DirectJsonWriter.fromVertex(loader, v).get().toString());
+        }
+    }
+
+    @Test
+    public void objectIsWrittenLikeTheMarshaller() throws Exception {
+        Introspector pserver = loader.introspectorFromName("pserver");
+        pserver.setValue("hostname", "host1");
+        pserver.setValue("number-of-cpus", 4);
+        pserver.setValue("in-maint", false);
+        Introspector pInterface = loader.introspectorFromName("p-interface");
+        pInterface.setValue("interface-name", "p1");
+        Introspector pInterfaces = pserver.newIntrospectorInstanceOfProperty("p-interfaces");
+        ((List<Object>) pInterfaces.getValue("p-interface")).add(pInterface.getUnderlyingObject());
+        pserver.setValue("p-interfaces", pInterfaces.getUnderlyingObject());
+        Introspector relData = loader.introspectorFromName("relationship-data");
+        relData.setValue("relationship-key", "complex.physical-location-id");
+        relData.setValue("relationship-value", "loc1");
+        Introspector relationship = loader.introspectorFromName("relationship");
+        relationship.setValue("related-to", "complex");
+        relationship.setValue("related-link", "/aai/v14/cloud-infrastructure/complexes/complex/loc1");
+        relationship.setValue("relationship-data", Collections.singletonList(relData.getUnderlyingObject()));
+        Introspector relationshipList = loader.introspectorFromName("relationship-list");
+        relationshipList.setValue("relationship", Collections.singletonList(relationship.getUnderlyingObject()));
+        pserver.setValue("relationship-list", relationshipList.getUnderlyingObject());
+
+        assertEquals(JsonParser.parseString(pserver.marshal(false)).toString(),
+                DirectJsonWriter.fromIntrospector(pserver).get().toString());
+    }
+
+    private String marshalled(Vertex v) throws Exception {
+        Introspector obj = loader.introspectorFromName(v.<String>value("aai-node-type"));
+        serializer.dbToObject(Collections.singletonList(v), obj, 0, true, "false");
+        return JsonParser.parseString(obj.marshal(false)).toString();
+    }
+}
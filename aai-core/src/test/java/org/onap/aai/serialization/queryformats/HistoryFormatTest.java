@@ -0,0 +1,183 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.serialization.queryformats;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.janusgraph.core.Cardinality;
+import org.janusgraph.core.JanusGraph;
+import org.janusgraph.core.JanusGraphFactory;
+import org.janusgraph.core.PropertyKey;
+import org.janusgraph.core.schema.JanusGraphManagement;
+import org.junit.Before;
+import org.junit.Test;
+import org.onap.aai.db.props.AAIProperties;
+import org.onap.aai.serialization.queryformats.utils.UrlBuilder;
+
+public class HistoryFormatTest {
+
+    private Vertex pserver;
+    private HistoryFormat.Builder builder;
+
+    @Before
+    public void setup() throws Exception {
+        UrlBuilder urlBuilder = mock(UrlBuilder.class);
+        when(urlBuilder.pathed(any(Vertex.class))).thenReturn("url");
+        builder = new HistoryFormat.Builder(null, null, urlBuilder);
+        pserver = addHistory(TinkerGraph.open());
+    }
+
+    private static Vertex addHistory(Graph graph) {
+        Vertex pserver = graph.addVertex(T.label, "pserver");
+        addProperty(pserver, AAIProperties.NODE_TYPE, "pserver", 100L, null);
+        addProperty(pserver, AAIProperties.AAI_URI, "/cloud-infrastructure/pservers/pserver/h1", 100L, null);
+        addProperty(pserver, AAIProperties.START_TS, 100L, 100L, null);
+        addProperty(pserver, AAIProperties.SOURCE_OF_TRUTH, "user", 100L, null);
+        addProperty(pserver, "hostname", "h1", 100L, null);
+        addProperty(pserver, "equip-type", "A", 100L, 200L);
+        addProperty(pserver, "equip-type", "B", 200L, 300L);
+        addProperty(pserver, "equip-type", "C", 300L, null);
+        addProperty(pserver, "prov-status", "PROV", 120L, 180L);
+        addProperty(pserver, AAIProperties.RESOURCE_VERSION, "1", 100L, 200L);
+        addProperty(pserver, AAIProperties.RESOURCE_VERSION, "2", 200L, 300L);
+        addProperty(pserver, AAIProperties.RESOURCE_VERSION, "3", 300L, null);
+
+        Vertex complex = graph.addVertex(T.label, "complex");
+        addProperty(complex, AAIProperties.NODE_TYPE, "complex", 100L, null);
+        addProperty(complex, AAIProperties.AAI_URI, "/cloud-infrastructure/complexes/complex/c1", 100L, null);
+        Vertex zone = graph.addVertex(T.label, "zone");
+        addProperty(zone, AAIProperties.NODE_TYPE, "zone", 100L, null);
+        addProperty(zone, AAIProperties.AAI_URI, "/network/zones/zone/z1", 100L, null);
+        Edge located = pserver.addEdge("org.onap.relationships.inventory.LocatedIn", complex);
+        located.property(AAIProperties.START_TS, 150L);
+        located.property(AAIProperties.END_TS, 250L);
+        Edge zoned = zone.addEdge("org.onap.relationships.inventory.LocatedIn", pserver);
+        zoned.property(AAIProperties.START_TS, 260L);
+        return pserver;
+    }
+
+    private static void addProperty(Vertex v, String key, Object value, Long startTs, Long endTs) {
+        VertexProperty<Object> p = v.property(VertexProperty.Cardinality.list, key, value);
+        p.property(AAIProperties.START_TS, startTs);
+        p.property(AAIProperties.START_TX_ID, "tx" + startTs);
+        p.property(AAIProperties.SOURCE_OF_TRUTH, "user");
+        if (endTs != null) {
+            p.property(AAIProperties.END_TS, endTs);
+            p.property(AAIProperties.END_TX_ID, "tx" + endTs);
+            p.property(AAIProperties.END_SOT, "user");
+        }
+    }
+
+    private static List<String> keyValues(JsonObject json) {
+        List<String> keyValues = new ArrayList<>();
+        for (JsonElement property : json.getAsJsonArray("properties")) {
+            JsonObject p = property.getAsJsonObject();
+            keyValues.add(p.get("key").getAsString() + "="
+                    + (p.get("value").isJsonNull() ? "null" : p.get("value").getAsString()));
+        }
+        return keyValues;
+    }
+
+    @Test
+    public void stateHasThePropertiesValidAtStartTs() throws Exception {
+        HistoryFormat state = builder.startTs("250").build(Format.state);
+
+        JsonObject json = state.formatObject(pserver).get();
+
+        assertEquals(Arrays.asList("start-ts=100", "hostname=h1", "aai-uri=/cloud-infrastructure/pservers/pserver/h1",
+                "source-of-truth=user", "aai-node-type=pserver", "equip-type=B", "resource-version=2"),
+                keyValues(json));
+        assertEquals(200, json.getAsJsonArray("properties").get(5).getAsJsonObject().get("timestamp").getAsLong());
+        assertEquals(0, json.getAsJsonArray("related-to").size());
+    }
+
+    @Test
+    public void stateIsTheSameWithPropertyIndexes() throws Exception {
+        JanusGraph graph = JanusGraphFactory.build().set("storage.backend", "inmemory").open();
+        try {
+            JanusGraphManagement graphMgmt = graph.openManagement();
+            PropertyKey startTs = graphMgmt.makePropertyKey(AAIProperties.START_TS).dataType(Long.class)
+                    .cardinality(Cardinality.LIST).make();
+            graphMgmt.makePropertyKey(AAIProperties.END_TS).dataType(Long.class).make();
+            for (String key : new String[] {AAIProperties.NODE_TYPE, AAIProperties.AAI_URI,
+                AAIProperties.SOURCE_OF_TRUTH, "hostname", "equip-type", "prov-status",
+                AAIProperties.RESOURCE_VERSION}) {
+                PropertyKey propertyKey =
+                        graphMgmt.makePropertyKey(key).dataType(String.class).cardinality(Cardinality.LIST).make();
+                graphMgmt.buildPropertyIndex(propertyKey, key + "-by-start-ts", startTs);
+            }
+            graphMgmt.commit();
+
+            Vertex janusPserver = addHistory(graph);
+            HistoryFormat state = builder.startTs("250").build(Format.state);
+
+            assertEquals(keyValues(state.formatObject(pserver).get()).stream().sorted().collect(Collectors.toList()),
+                    keyValues(state.formatObject(janusPserver).get()).stream().sorted()
+                            .collect(Collectors.toList()));
+            graph.tx().rollback();
+        } finally {
+            graph.close();
+        }
+    }
+
+    @Test
+    public void lifecycleHasTheChangesInTheWindow() throws Exception {
+        HistoryFormat lifecycle = builder.startTs("150").endTs("250").build(Format.lifecycle);
+
+        JsonObject json = lifecycle.formatObject(pserver).get();
+
+        assertEquals(Arrays.asList("equip-type=B", "resource-version=2", "prov-status=null"), keyValues(json));
+        JsonArray relatedTo = json.getAsJsonArray("related-to");
+        assertEquals(1, relatedTo.size());
+        assertEquals("/cloud-infrastructure/complexes/complex/c1",
+                relatedTo.get(0).getAsJsonObject().get("uri").getAsString());
+        assertEquals(250, relatedTo.get(0).getAsJsonObject().get("end-timestamp").getAsLong());
+        assertEquals(0, json.getAsJsonArray("node-actions").size());
+    }
+
+    @Test
+    public void changesAreTheTimestampsSinceStartTs() throws Exception {
+        ChangesFormat changes = new ChangesFormat();
+        changes.startTs("150");
+
+        JsonObject json = changes.formatObject(pserver).get();
+
+        assertEquals("[150,200,250,260,300]", json.getAsJsonArray("changes").toString());
+    }
+}
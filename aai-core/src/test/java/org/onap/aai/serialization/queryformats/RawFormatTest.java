@@ -25,7 +25,10 @@ import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
 
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
@@ -158,4 +161,15 @@ public class RawFormatTest extends AAISetup {
         assertTrue(json1.has("physical-location-id"));
     }
 
+    @Test
+    public void streamedOutputMatchesBufferedOutput() throws Exception {
+        Formatter formatter = new Formatter(rawFormat);
+        List<Object> results = Arrays.asList(pserver, complex);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        formatter.output(results, null, out);
+
+        assertEquals(formatter.output(results), JsonParser.parseString(out.toString(StandardCharsets.UTF_8.name())));
+    }
+
 }
@@ -23,8 +23,14 @@ package org.onap.aai.transforms;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 
+import com.google.gson.stream.JsonReader;
+
 import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
 
+import org.json.JSONObject;
+import org.json.XML;
 import org.junit.Before;
 import org.junit.Test;
 import org.onap.aai.PayloadUtil;
@@ -56,4 +62,30 @@ public class XmlFormatTransformerTest {
         LOGGER.debug("Converted xml payload: {}", output);
         assertThat(output, is(expected));
     }
+
+    @Test
+    public void testConformingJsonIsWrittenLikeOrgJson() {
+
+        String input = "{\"results\":[{\"result\":\"\"},{\"result\":null},{\"result\":[1,[2,[3]]]},"
+                + "{\"result\":{\"content\":[\"a\",\"b\"]}},{\"result\":true},{\"result\":\"a&b<c\"},"
+                + "{\"result\":{}}]}";
+
+        assertThat(xmlFormatTransformer.transform(input), is(XML.toString(new JSONObject(input))));
+    }
+
+    @Test
+    public void testResultsReadFromAStreamAreTransformed() throws IOException {
+
+        String input = PayloadUtil.getResourcePayload("transform-results-to-result.json");
+        StringWriter output = new StringWriter();
+
+        xmlFormatTransformer.transform(new JsonReader(new StringReader(input)), output);
+
+        assertThat(output.toString(), is(xmlFormatTransformer.transform(input)));
+    }
+
+    @Test
+    public void testEmptyJsonIsAnEmptyResults() {
+        assertThat(xmlFormatTransformer.transform("{}"), is("<results></results>"));
+    }
 }
@@ -20,6 +20,7 @@
 
 package org.onap.aai.util;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -37,6 +38,8 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.json.JSONObject;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.onap.aai.AAISetup;
 import org.onap.aai.dmaap.AAIDmaapEventJMSProducer;
@@ -224,4 +227,30 @@ public class StoreNotificationEventTest extends AAISetup {
         assertTrue(res.contains("\"entity-link\":\"UNK\""));
         assertTrue(res.contains("\"notification-event\""));
     }
+
+    @Test
+    public void testStoreEventIntrospectorWritesPayloadOnce() throws Exception {
+        Loader loader = loaderFactory.createLoaderForVersion(ModelType.MOXY, schemaVersions.getDefaultVersion());
+        Introspector eventHeader = loader.introspectorFromName("notification-event-header");
+        eventHeader.setValue("id", "123");
+        eventHeader.setValue("source-name", "source");
+        Introspector obj = loader.introspectorFromName("pserver");
+        obj.setValue("hostname", "host1");
+        obj.setValue("number-of-cpus", 4);
+
+        String payload = sne.storeEventAndSendToJms(loader, eventHeader, obj);
+
+        ArgumentCaptor<String> sent = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(producer).sendMessageToDefaultDestination(sent.capture());
+        JSONObject finalJson = new JSONObject(sent.getValue());
+        assertEquals("AAI-EVENT", finalJson.getString("event-topic"));
+        assertEquals("123", finalJson.getString("transId"));
+        assertEquals("source", finalJson.getString("fromAppId"));
+        JSONObject eventPayload = finalJson.getJSONObject("aaiEventPayload");
+        assertEquals(new JSONObject(payload).toString(), eventPayload.toString());
+        assertEquals(AAIConstants.UEB_PUB_PARTITION_AAI, eventPayload.getString("cambria.partition"));
+        assertEquals("UNK", eventPayload.getJSONObject("event-header").getString("action"));
+        assertEquals("host1", eventPayload.getJSONObject("entity").getString("hostname"));
+        assertEquals(4, eventPayload.getJSONObject("entity").getInt("number-of-cpus"));
+    }
 }
@@ -159,6 +159,11 @@ public final class AAIConstants {
 
     public static final String AAI_LOCK_RV_ENABLED = "aai.lock.rv.enabled";
 
+    /** Extra composite, vertex centric and mixed indexes made with the schema */
+    public static final String AAI_SCHEMA_INDEX_DESCRIPTOR = "aai.schema.index.descriptor";
+
+    public static final String AAI_SCHEMA_MIXED_INDEX_BACKEND = "aai.schema.mixed.index.backend";
+
     /**
      * Instantiates a new AAI constants.
      */
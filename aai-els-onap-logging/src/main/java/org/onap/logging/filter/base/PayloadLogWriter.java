@@ -0,0 +1,135 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * ONAP - Logging
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.logging.filter.base;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.slf4j.MDC;
+
+/**
+ * Writes log messages on its own thread from a bounded queue, so the thread handling a request
+ * never waits for the log. Messages are built on the writer thread as well, under the MDC the
+ * request had when the message was queued.
+ * When the queue is full the message is dropped and counted, and the count is logged once the
+ * writer catches up.
+ */
+public class PayloadLogWriter {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(PayloadLogWriter.class);
+
+    private final Consumer<String> sink;
+    private final BlockingQueue<Message> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread thread;
+    private volatile boolean running = true;
+    private long reportedDrops;
+
+    /**
+     * Starts the writer thread.
+     *
+     * @param sink where the messages are written
+     * @param capacity the number of messages that can wait to be written
+     */
+    public PayloadLogWriter(Consumer<String> sink, int capacity) {
+        this.sink = sink;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.thread = new Thread(this::run, "payload-log-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * @param message builds the message on the writer thread
+     * @return false if the queue was full and the message was dropped
+     */
+    public boolean write(Supplier<String> message) {
+        if (running && queue.offer(new Message(message, MDC.getCopyOfContextMap()))) {
+            return true;
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Writes the messages already queued and stops the writer thread.
+     */
+    public void shutdown() {
+        running = false;
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (running || !queue.isEmpty()) {
+            try {
+                Message message = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (message != null) {
+                    message.write();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed to write payload log message", e);
+            }
+            long drops = dropped.get();
+            if (drops != reportedDrops) {
+                log.warn("Dropped {} payload log messages because the log queue was full", drops - reportedDrops);
+                reportedDrops = drops;
+            }
+        }
+    }
+
+    private final class Message {
+
+        private final Supplier<String> text;
+        private final Map<String, String> context;
+
+        private Message(Supplier<String> text, Map<String, String> context) {
+            this.text = text;
+            this.context = context;
+        }
+
+        private void write() {
+            if (context != null) {
+                MDC.setContextMap(context);
+            }
+            try {
+                sink.accept(text.get());
+            } finally {
+                MDC.clear();
+            }
+        }
+    }
+}
@@ -24,11 +24,22 @@ package org.onap.logging.filter.base;
 
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.zip.GZIPInputStream;
 
 import javax.servlet.Filter;
@@ -46,157 +57,349 @@ import javax.servlet.http.HttpServletRequestWrapper;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpServletResponseWrapper;
 
+/**
+ * Logs the headers and bodies of a sample of the requests and their responses.
+ *
+ * The bodies pass through to the application and the client as they are read and written,
+ * and only the first maxPayloadSize bytes of each are kept for the log. The log messages are
+ * built and written by a {@link PayloadLogWriter}, which drops them when it falls behind.
+ *
+ * It is configured with the constructor or with the init parameters
+ * maxPayloadSize, sampleRate, endpointSampleRates and queueSize, where endpointSampleRates
+ * is a comma separated list of uri prefix=rate, for example "/aai/util/echo=0,/aai/v19/query=0.1".
+ * The rate of the longest prefix of the request uri is used, sampleRate otherwise.
+ */
 public class PayloadLoggingServletFilter extends AbstractServletFilter implements Filter {
 
     private static org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(PayloadLoggingServletFilter.class);
 
-    private static class ByteArrayServletStream extends ServletOutputStream {
-        ByteArrayOutputStream baos;
+    static final String TRUNCATED = "...more...";
+
+    private static final int DEFAULT_MAX_PAYLOAD_SIZE = 1024 * 1024;
+    private static final int DEFAULT_QUEUE_SIZE = 1000;
+
+    private int maxPayloadSize;
+    private double sampleRate;
+    private List<Map.Entry<String, Double>> endpointSampleRates;
+    private PayloadLogWriter writer;
+
+    public PayloadLoggingServletFilter() {
+        this(DEFAULT_MAX_PAYLOAD_SIZE, 1.0, Collections.emptyMap(), DEFAULT_QUEUE_SIZE);
+    }
+
+    /**
+     * @param maxPayloadSize the number of bytes of each body to log
+     * @param sampleRate the fraction of the requests to log, from 0 to 1
+     * @param endpointSampleRates the fraction of the requests to log by uri prefix
+     * @param queueSize the number of log messages that can wait to be written
+     */
+    public PayloadLoggingServletFilter(int maxPayloadSize, double sampleRate, Map<String, Double> endpointSampleRates,
+            int queueSize) {
+        this(maxPayloadSize, sampleRate, endpointSampleRates, new PayloadLogWriter(log::info, queueSize));
+    }
+
+    PayloadLoggingServletFilter(int maxPayloadSize, double sampleRate, Map<String, Double> endpointSampleRates,
+            PayloadLogWriter writer) {
+        this.maxPayloadSize = maxPayloadSize;
+        this.sampleRate = sampleRate;
+        setEndpointSampleRates(endpointSampleRates);
+        this.writer = writer;
+    }
 
-        ByteArrayServletStream(ByteArrayOutputStream baos) {
-            this.baos = baos;
+    /**
+     * A copy of the first bytes of a body, and how many bytes the body had.
+     */
+    static class Capture {
+        private final int max;
+        private byte[] bytes;
+        private int size;
+        private long total;
+
+        Capture(int max) {
+            this.max = max;
+            this.bytes = new byte[Math.min(max, 1024)];
         }
 
-        @Override
-        public void write(int param) throws IOException {
-            baos.write(param);
+        void write(int b) {
+            if (size < max) {
+                ensureCapacity(size + 1);
+                bytes[size++] = (byte) b;
+            }
+            total++;
         }
 
-        @Override
-        public boolean isReady() {
-            return true;
+        void write(byte[] b, int off, int len) {
+            int kept = Math.min(len, max - size);
+            if (kept > 0) {
+                ensureCapacity(size + kept);
+                System.arraycopy(b, off, bytes, size, kept);
+                size += kept;
+            }
+            total += len;
         }
 
-        @Override
-        public void setWriteListener(WriteListener arg0) {
-            // this method does nothing
+        private void ensureCapacity(int capacity) {
+            if (capacity > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.min(max, Math.max(capacity, bytes.length * 2)));
+            }
+        }
+
+        boolean isTruncated() {
+            return total > size;
+        }
+
+        String toString(Charset charset) {
+            String body = new String(bytes, 0, size, charset);
+            return isTruncated() ? body + TRUNCATED : body;
+        }
+
+        /**
+         * Inflates the kept bytes, as much of them as is there when the body was truncated.
+         */
+        String ungzip(Charset charset, int maxChars) {
+            if (size == 0) {
+                return "";
+            }
+            StringBuilder str = new StringBuilder();
+            boolean truncated = isTruncated();
+            try (Reader in = new InputStreamReader(
+                    new GZIPInputStream(new ByteArrayInputStream(bytes, 0, size)), charset)) {
+                char[] buf = new char[4096];
+                int read;
+                while ((read = in.read(buf)) != -1) {
+                    int kept = Math.min(read, maxChars - str.length());
+                    str.append(buf, 0, kept);
+                    if (kept < read) {
+                        truncated = true;
+                        break;
+                    }
+                }
+            } catch (EOFException e) {
+                truncated = true;
+            } catch (IOException e) {
+                log.error("Failed get read GZIPInputStream", e);
+            }
+            return truncated ? str.append(TRUNCATED).toString() : str.toString();
         }
     }
 
-    private static class ByteArrayPrintWriter extends PrintWriter {
-        private ByteArrayOutputStream baos;
-        private int errorCode = -1;
-        private String errorMsg = "";
-        private boolean errored = false;
+    private static class CapturingServletInputStream extends ServletInputStream {
+        private final ServletInputStream in;
+        private final Capture capture;
 
-        public ByteArrayPrintWriter(ByteArrayOutputStream out) {
-            super(out);
-            this.baos = out;
+        CapturingServletInputStream(ServletInputStream in, Capture capture) {
+            this.in = in;
+            this.capture = capture;
         }
 
-        public ServletOutputStream getStream() {
-            return new ByteArrayServletStream(baos);
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b != -1) {
+                capture.write(b);
+            }
+            return b;
         }
 
-        public Boolean hasErrored() {
-            return errored;
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            int read = in.read(buf, off, len);
+            if (read > 0) {
+                capture.write(buf, off, read);
+            }
+            return read;
         }
 
-        public int getErrorCode() {
-            return errorCode;
+        @Override
+        public int available() throws IOException {
+            return in.available();
         }
 
-        public String getErrorMsg() {
-            return errorMsg;
+        @Override
+        public boolean isFinished() {
+            return in.isFinished();
         }
 
-        public void setError(int code) {
-            errorCode = code;
-            errored = true;
+        @Override
+        public boolean isReady() {
+            return in.isReady();
         }
 
-        public void setError(int code, String msg) {
-            errorMsg = msg;
-            errorCode = code;
-            errored = true;
+        @Override
+        public void setReadListener(ReadListener listener) {
+            in.setReadListener(listener);
         }
 
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
     }
 
-    private class BufferedServletInputStream extends ServletInputStream {
-        ByteArrayInputStream bais;
+    private static class CapturingServletOutputStream extends ServletOutputStream {
+        private final ServletOutputStream out;
+        private final Capture capture;
 
-        public BufferedServletInputStream(ByteArrayInputStream bais) {
-            this.bais = bais;
+        CapturingServletOutputStream(ServletOutputStream out, Capture capture) {
+            this.out = out;
+            this.capture = capture;
         }
 
         @Override
-        public int available() {
-            return bais.available();
+        public void write(int b) throws IOException {
+            out.write(b);
+            capture.write(b);
         }
 
         @Override
-        public int read() {
-            return bais.read();
+        public void write(byte[] buf, int off, int len) throws IOException {
+            out.write(buf, off, len);
+            capture.write(buf, off, len);
         }
 
         @Override
-        public int read(byte[] buf, int off, int len) {
-            return bais.read(buf, off, len);
+        public void flush() throws IOException {
+            out.flush();
         }
 
         @Override
-        public boolean isFinished() {
-            return available() < 1;
+        public void close() throws IOException {
+            out.close();
         }
 
         @Override
         public boolean isReady() {
-            return true;
+            return out.isReady();
         }
 
         @Override
-        public void setReadListener(ReadListener arg0) {
-            // this method does nothing
+        public void setWriteListener(WriteListener listener) {
+            out.setWriteListener(listener);
         }
-
     }
 
-    private class BufferedRequestWrapper extends HttpServletRequestWrapper {
-        ByteArrayInputStream bais;
-        ByteArrayOutputStream baos;
-        BufferedServletInputStream bsis;
-        byte[] buffer;
+    private static class CapturingRequestWrapper extends HttpServletRequestWrapper {
+        private final Capture capture;
+        private ServletInputStream in;
+        private BufferedReader reader;
 
-        public BufferedRequestWrapper(HttpServletRequest req) throws IOException {
+        CapturingRequestWrapper(HttpServletRequest req, int maxPayloadSize) {
             super(req);
+            this.capture = new Capture(maxPayloadSize);
+        }
 
-            InputStream is = req.getInputStream();
-            baos = new ByteArrayOutputStream();
-            byte[] buf = new byte[1024];
-            int letti;
-            while ((letti = is.read(buf)) > 0) {
-                baos.write(buf, 0, letti);
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (in == null) {
+                in = new CapturingServletInputStream(super.getInputStream(), capture);
             }
-            buffer = baos.toByteArray();
+            return in;
         }
 
         @Override
-        public ServletInputStream getInputStream() {
-            try {
-                bais = new ByteArrayInputStream(buffer);
-                bsis = new BufferedServletInputStream(bais);
-            } catch (Exception ex) {
-                log.error("Exception in getInputStream", ex);
+        public BufferedReader getReader() throws IOException {
+            if (reader == null) {
+                reader = new BufferedReader(new InputStreamReader(getInputStream(), charsetOf(getCharacterEncoding())));
+            }
+            return reader;
+        }
+    }
+
+    private static class CapturingResponseWrapper extends HttpServletResponseWrapper {
+        private final Capture capture;
+        private ServletOutputStream out;
+        private PrintWriter writer;
+        private int errorCode = -1;
+        private String errorMsg = "";
+        private boolean errored = false;
+
+        CapturingResponseWrapper(HttpServletResponse response, int maxPayloadSize) {
+            super(response);
+            this.capture = new Capture(maxPayloadSize);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (out == null) {
+                out = new CapturingServletOutputStream(super.getOutputStream(), capture);
+            }
+            return out;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), charsetOf(getCharacterEncoding())));
             }
-            return bsis;
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            flushWriter();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            super.sendError(sc);
+            errorCode = sc;
+            errored = true;
         }
 
-        public byte[] getBuffer() {
-            return buffer;
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            super.sendError(sc, msg);
+            errorMsg = msg;
+            errorCode = sc;
+            errored = true;
+        }
+
+        void flushWriter() {
+            if (writer != null) {
+                writer.flush();
+            }
         }
     }
 
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
-        // this method does nothing
+        String value = filterConfig.getInitParameter("maxPayloadSize");
+        if (value != null) {
+            maxPayloadSize = Integer.parseInt(value.trim());
+        }
+        value = filterConfig.getInitParameter("sampleRate");
+        if (value != null) {
+            sampleRate = Double.parseDouble(value.trim());
+        }
+        value = filterConfig.getInitParameter("endpointSampleRates");
+        if (value != null) {
+            Map<String, Double> rates = new LinkedHashMap<>();
+            for (String rate : value.split(",")) {
+                String[] prefixAndRate = rate.split("=");
+                if (prefixAndRate.length != 2) {
+                    throw new ServletException("Invalid endpoint sample rate " + rate);
+                }
+                rates.put(prefixAndRate[0].trim(), Double.parseDouble(prefixAndRate[1].trim()));
+            }
+            setEndpointSampleRates(rates);
+        }
+        value = filterConfig.getInitParameter("queueSize");
+        if (value != null) {
+            writer.shutdown();
+            writer = new PayloadLogWriter(log::info, Integer.parseInt(value.trim()));
+        }
     }
 
     @Override
     public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
             throws IOException, ServletException {
         final HttpServletRequest httpRequest = (HttpServletRequest) servletRequest;
-        BufferedRequestWrapper bufferedRequest = new BufferedRequestWrapper(httpRequest);
+        if (!isSampled(httpRequest)) {
+            filterChain.doFilter(servletRequest, servletResponse);
+            return;
+        }
+        CapturingRequestWrapper bufferedRequest = new CapturingRequestWrapper(httpRequest, maxPayloadSize);
 
         StringBuilder requestHeaders = new StringBuilder("REQUEST|");
         requestHeaders.append(httpRequest.getMethod());
@@ -204,38 +407,10 @@ public class PayloadLoggingServletFilter extends AbstractServletFilter implement
         requestHeaders.append(httpRequest.getRequestURL().toString());
         requestHeaders.append("|");
         requestHeaders.append(getSecureRequestHeaders(httpRequest));
-        log.info(requestHeaders.toString());
-
-        log.info("REQUEST BODY|" + new String(bufferedRequest.getBuffer()));
+        writer.write(requestHeaders::toString);
 
         final HttpServletResponse response = (HttpServletResponse) servletResponse;
-        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        final ByteArrayPrintWriter pw = new ByteArrayPrintWriter(baos);
-
-        HttpServletResponse wrappedResp = new HttpServletResponseWrapper(response) {
-            @Override
-            public PrintWriter getWriter() {
-                return pw;
-            }
-
-            @Override
-            public ServletOutputStream getOutputStream() {
-                return pw.getStream();
-            }
-
-            @Override
-            public void sendError(int sc) throws IOException {
-                super.sendError(sc);
-                pw.setError(sc);
-
-            }
-
-            @Override
-            public void sendError(int sc, String msg) throws IOException {
-                super.sendError(sc, msg);
-                pw.setError(sc, msg);
-            }
-        };
+        final CapturingResponseWrapper wrappedResp = new CapturingResponseWrapper(response, maxPayloadSize);
 
         try {
             filterChain.doFilter(bufferedRequest, wrappedResp);
@@ -244,28 +419,30 @@ public class PayloadLoggingServletFilter extends AbstractServletFilter implement
             throw e;
         } finally {
             try {
-                byte[] bytes = baos.toByteArray();
+                wrappedResp.flushWriter();
+                final Capture requestBody = bufferedRequest.capture;
+                final Charset requestCharset = charsetOf(httpRequest.getCharacterEncoding());
+                writer.write(() -> "REQUEST BODY|" + requestBody.toString(requestCharset));
+
                 StringBuilder responseHeaders = new StringBuilder("RESPONSE HEADERS|");
                 responseHeaders.append(formatResponseHeaders(response));
                 responseHeaders.append("Status:");
                 responseHeaders.append(response.getStatus());
                 responseHeaders.append(";IsCommited:" + wrappedResp.isCommitted());
+                writer.write(responseHeaders::toString);
 
-                log.info(responseHeaders.toString());
-
+                final Capture responseBody = wrappedResp.capture;
+                final Charset responseCharset = charsetOf(response.getCharacterEncoding());
+                final int maxChars = maxPayloadSize;
                 if ("gzip".equals(response.getHeader("Content-Encoding"))) {
-                    log.info("UNGZIPED RESPONSE BODY|" + decompressGZIPByteArray(bytes));
+                    writer.write(() -> "UNGZIPED RESPONSE BODY|" + responseBody.ungzip(responseCharset, maxChars));
                 } else {
-                    log.info("RESPONSE BODY|" + new String(bytes));
+                    writer.write(() -> "RESPONSE BODY|" + responseBody.toString(responseCharset));
                 }
 
-                if (pw.hasErrored()) {
-                    log.info("ERROR RESPONSE|" + pw.getErrorCode() + ":" + pw.getErrorMsg());
-                } else {
-                    if (!wrappedResp.isCommitted()) {
-                        response.getOutputStream().write(bytes);
-                        response.getOutputStream().flush();
-                    }
+                if (wrappedResp.errored) {
+                    final String error = wrappedResp.errorCode + ":" + wrappedResp.errorMsg;
+                    writer.write(() -> "ERROR RESPONSE|" + error);
                 }
             } catch (Exception e) {
                 log.error("Exception in response filter", e);
@@ -275,57 +452,38 @@ public class PayloadLoggingServletFilter extends AbstractServletFilter implement
 
     @Override
     public void destroy() {
-        // this method does nothing
+        writer.shutdown();
     }
 
-    private String decompressGZIPByteArray(byte[] bytes) {
-        BufferedReader in = null;
-        InputStreamReader inR = null;
-        ByteArrayInputStream byteS = null;
-        GZIPInputStream gzS = null;
-        StringBuilder str = new StringBuilder();
-        try {
-            byteS = new ByteArrayInputStream(bytes);
-            gzS = new GZIPInputStream(byteS);
-            inR = new InputStreamReader(gzS);
-            in = new BufferedReader(inR);
-
-            if (in != null) {
-                String content;
-                while ((content = in.readLine()) != null) {
-                    str.append(content);
+    private boolean isSampled(HttpServletRequest request) {
+        double rate = sampleRate;
+        String uri = request.getRequestURI();
+        if (uri != null) {
+            for (Map.Entry<String, Double> endpoint : endpointSampleRates) {
+                if (uri.startsWith(endpoint.getKey())) {
+                    rate = endpoint.getValue();
+                    break;
                 }
             }
-
-        } catch (Exception e) {
-            log.error("Failed get read GZIPInputStream", e);
-        } finally {
-            if (byteS != null)
-                try {
-                    byteS.close();
-                } catch (IOException e1) {
-                    log.error("Failed to close ByteStream", e1);
-                }
-            if (gzS != null)
-                try {
-                    gzS.close();
-                } catch (IOException e2) {
-                    log.error("Failed to close GZStream", e2);
-                }
-            if (inR != null)
-                try {
-                    inR.close();
-                } catch (IOException e3) {
-                    log.error("Failed to close InputReader", e3);
-                }
-            if (in != null)
-                try {
-                    in.close();
-                } catch (IOException e) {
-                    log.error("Failed to close BufferedReader", e);
-                }
         }
-        return str.toString();
+        return rate >= 1 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private void setEndpointSampleRates(Map<String, Double> rates) {
+        List<Map.Entry<String, Double>> sorted = new ArrayList<>(rates.entrySet());
+        // the longest prefix is checked first
+        sorted.sort(Comparator.comparing((Map.Entry<String, Double> e) -> e.getKey().length()).reversed());
+        this.endpointSampleRates = sorted;
     }
 
+    private static Charset charsetOf(String encoding) {
+        if (encoding != null) {
+            try {
+                return Charset.forName(encoding);
+            } catch (IllegalArgumentException e) {
+                log.debug("Unknown character encoding {}", encoding);
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
 }
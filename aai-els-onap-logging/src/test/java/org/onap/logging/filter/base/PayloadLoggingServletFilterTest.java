@@ -0,0 +1,151 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * ONAP - Logging
+ * ================================================================================
+ * Copyright (C) 2019 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.logging.filter.base;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Test;
+import org.onap.logging.ref.slf4j.ONAPLogConstants;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class PayloadLoggingServletFilterTest {
+
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void bodiesPassThroughAndOnlyTheFirstBytesAreLogged() throws Exception {
+        PayloadLogWriter writer = new PayloadLogWriter(messages::add, 100);
+        PayloadLoggingServletFilter filter =
+                new PayloadLoggingServletFilter(8, 1.0, Collections.emptyMap(), writer);
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/aai/v19/network/pnfs/pnf/pnf-1");
+        request.setContent("{\"pnf-name\":\"pnf-1\"}".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        StringBuilder read = new StringBuilder();
+
+        filter.doFilter(request, response, (req, resp) -> {
+            read.append(req.getReader().readLine());
+            resp.getWriter().write("0123456789abc");
+        });
+        writer.shutdown();
+
+        assertEquals("{\"pnf-name\":\"pnf-1\"}", read.toString());
+        assertEquals("0123456789abc", response.getContentAsString());
+        assertTrue(messages.contains("REQUEST BODY|{\"pnf-na" + PayloadLoggingServletFilter.TRUNCATED));
+        assertTrue(messages.contains("RESPONSE BODY|01234567" + PayloadLoggingServletFilter.TRUNCATED));
+    }
+
+    @Test
+    public void gzipResponseIsLoggedInflated() throws Exception {
+        PayloadLogWriter writer = new PayloadLogWriter(messages::add, 100);
+        PayloadLoggingServletFilter filter =
+                new PayloadLoggingServletFilter(1024, 1.0, Collections.emptyMap(), writer);
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+            out.write("{\"results\":[]}".getBytes(StandardCharsets.UTF_8));
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/aai/v19/query"), response, (req, resp) -> {
+            response.setHeader("Content-Encoding", "gzip");
+            resp.getOutputStream().write(gzipped.toByteArray());
+        });
+        writer.shutdown();
+
+        assertEquals(gzipped.size(), response.getContentAsByteArray().length);
+        assertTrue(messages.contains("UNGZIPED RESPONSE BODY|{\"results\":[]}"));
+    }
+
+    @Test
+    public void requestsOfAnUnsampledEndpointAreNotWrapped() throws Exception {
+        PayloadLogWriter writer = new PayloadLogWriter(messages::add, 100);
+        PayloadLoggingServletFilter filter = new PayloadLoggingServletFilter(1024, 1.0,
+                Collections.singletonMap("/aai/util/echo", 0.0), writer);
+        HttpServletRequest request = new MockHttpServletRequest("GET", "/aai/util/echo");
+        ServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (ServletRequest req, ServletResponse resp) -> {
+            assertSame(request, req);
+            assertSame(response, resp);
+        };
+
+        filter.doFilter(request, response, chain);
+        writer.shutdown();
+
+        assertTrue(messages.isEmpty());
+    }
+
+    @Test
+    public void messagesAreDroppedWhenTheQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PayloadLogWriter writer = new PayloadLogWriter(message -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            messages.add(message);
+        }, 1);
+
+        for (int i = 0; i < 10; i++) {
+            writer.write(() -> "message");
+        }
+        release.countDown();
+        writer.shutdown();
+
+        assertTrue(writer.getDroppedCount() >= 8);
+        assertEquals(10 - writer.getDroppedCount(), messages.size());
+    }
+
+    @Test
+    public void messagesAreWrittenUnderTheMdcOfTheRequest() throws Exception {
+        PayloadLogWriter writer = new PayloadLogWriter(
+                message -> messages.add(message + "|" + MDC.get(ONAPLogConstants.MDCs.REQUEST_ID)), 100);
+
+        MDC.put(ONAPLogConstants.MDCs.REQUEST_ID, "request-1");
+        try {
+            writer.write(() -> "first");
+        } finally {
+            MDC.clear();
+        }
+        writer.write(() -> "second");
+        writer.shutdown();
+
+        assertEquals(2, messages.size());
+        assertEquals("first|request-1", messages.get(0));
+        assertEquals("second|null", messages.get(1));
+    }
+}
@@ -20,28 +20,22 @@
 
 package org.onap.aai.edges;
 
-import static com.jayway.jsonpath.Criteria.where;
-import static com.jayway.jsonpath.Filter.filter;
-
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
-import com.jayway.jsonpath.Criteria;
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.Filter;
 
 import java.io.IOException;
 import java.util.*;
-import java.util.Map.Entry;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 
-import org.apache.tinkerpop.gremlin.structure.Direction;
-import org.onap.aai.edges.enums.DirectionNotation;
 import org.onap.aai.edges.enums.EdgeField;
 import org.onap.aai.edges.enums.EdgeType;
 import org.onap.aai.edges.exceptions.AmbiguousRuleChoiceException;
@@ -62,6 +56,7 @@ import org.springframework.stereotype.Component;
 public class EdgeIngestor {
     private static final Logger LOGGER = LoggerFactory.getLogger(EdgeIngestor.class);
     private Map<SchemaVersion, List<DocumentContext>> versionJsonFilesMap = new TreeMap<>();
+    private Map<SchemaVersion, EdgeRuleIndex> versionRuleIndexMap = new TreeMap<>();
     private static final String READ_START = "$.rules.[?]";
     private static final String READ_ALL_START = "$.rules.*";
     private SchemaVersions schemaVersions;
@@ -70,8 +65,6 @@ public class EdgeIngestor {
 
     private Set<String> multipleLabelKeys;
 
-    private LoadingCache<SchemaFilter, Multimap<String, EdgeRule>> cacheFilterStore;
-
     private LoadingCache<String, String[]> cousinLabelStore;
 
     private Set<Translator> translators;
@@ -129,13 +122,9 @@ public class EdgeIngestor {
         }
         versionJsonFilesMap = ji.ingestContent(edgeRulesToIngest);
 
-        this.cacheFilterStore = CacheBuilder.newBuilder().maximumSize(2000)
-                .build(new CacheLoader<SchemaFilter, Multimap<String, EdgeRule>>() {
-                    @Override
-                    public Multimap<String, EdgeRule> load(SchemaFilter key) {
-                        return extractRules(key);
-                    }
-                });
+        Map<SchemaVersion, EdgeRuleIndex> ruleIndexes = new TreeMap<>();
+        versionJsonFilesMap.forEach((version, docs) -> ruleIndexes.put(version, new EdgeRuleIndex(docs)));
+        this.versionRuleIndexMap = ruleIndexes;
 
         this.cousinLabelStore = CacheBuilder.newBuilder().maximumSize(50).build(new CacheLoader<String, String[]>() {
             @Override
@@ -212,7 +201,7 @@ public class EdgeIngestor {
      * @throws EdgeRuleNotFoundException if none found
      */
     public Multimap<String, EdgeRule> getAllRules(SchemaVersion v) throws EdgeRuleNotFoundException {
-        Multimap<String, EdgeRule> found = extractRules(null, v);
+        Multimap<String, EdgeRule> found = getRuleIndex(v).getAllRules();
         if (found.isEmpty()) {
             throw new EdgeRuleNotFoundException("No rules found for version " + v.toString() + ".");
         } else {
@@ -238,36 +227,17 @@ public class EdgeIngestor {
      */
 
     public Multimap<String, EdgeRule> getRules(EdgeRuleQuery q) throws EdgeRuleNotFoundException {
-        Multimap<String, EdgeRule> found = null;
-        Optional<SchemaVersion> versionOpt = q.getVersion();
-        if (versionOpt.isPresent()) {
-            found = extractRules(q.getFilter(), versionOpt.get());
-        } else {
-            found = extractRules(q.getFilter(), schemaVersions.getDefaultVersion());
+        Multimap<String, EdgeRule> found = ArrayListMultimap.create();
+        for (IndexedEdgeRule indexed : getRuleIndex(q).getRules(q.getIndexedNodeType())) {
+            if (q.matches(indexed)) {
+                // the returned rules are oriented to match the directionality of the input params
+                found.put(indexed.getKey(), indexed.getRule(q.getFromType()));
+            }
         }
         if (found.isEmpty()) {
             throw new EdgeRuleNotFoundException("No rules found for " + q.toString());
-        } else {
-            Multimap<String, EdgeRule> copy = ArrayListMultimap.create();
-            found.entries().stream().forEach((entry) -> {
-                EdgeRule rule = new EdgeRule(entry.getValue());
-                if (!q.getFromType().equals(rule.getFrom())) {
-                    /*
-                     * To maintain backwards compatibility with old EdgeRules API,
-                     * where the direction of the returned EdgeRule would be
-                     * flipped (if necessary) to match the directionality of
-                     * the input params.
-                     * ie, If the rule is from=A,to=B,direction=OUT,
-                     * if the user asked (A,B) the direction would be OUT,
-                     * if they asked (B,A), it would be IN to match.
-                     */
-                    rule.flipDirection();
-                }
-                copy.put(entry.getKey(), rule);
-            });
-
-            return copy;
         }
+        return found;
     }
 
     /**
@@ -287,73 +257,52 @@ public class EdgeIngestor {
      *         ex: which l-interface|logical-link rule to default to.
      */
     public EdgeRule getRule(EdgeRuleQuery q) throws EdgeRuleNotFoundException, AmbiguousRuleChoiceException {
-        Multimap<String, EdgeRule> found = null;
-        Optional<SchemaVersion> versionOpt = q.getVersion();
-        if (versionOpt.isPresent()) {
-            found = extractRules(q.getFilter(), versionOpt.get());
-        } else {
-            found = extractRules(q.getFilter(), schemaVersions.getDefaultVersion());
-        }
-
-        if (found.isEmpty()) {
-            throw new EdgeRuleNotFoundException("No rule found for " + q.toString() + ".");
-        }
+        List<IndexedEdgeRule> candidates = getRuleIndex(q).getRules(q.getIndexedNodeType());
 
-        EdgeRule rule = null;
-        if (found.keys().size() == 1) { // only one found, cool we're done
-            for (Entry<String, EdgeRule> e : found.entries()) {
-                rule = e.getValue();
+        IndexedEdgeRule found = null;
+        IndexedEdgeRule defRule = null;
+        int foundCount = 0;
+        int defaultCount = 0;
+        boolean multiplePairs = false;
+        for (IndexedEdgeRule indexed : candidates) {
+            if (!q.matches(indexed)) {
+                continue;
             }
-        } else {
-            rule = getDefaultRule(found);
-        }
-
-        if (rule == null) { // should never get here though
-            throw new EdgeRuleNotFoundException("No rule found for " + q.toString() + ".");
-        } else {
-            rule = new EdgeRule(rule);
-            if (!q.getFromType().equals(rule.getFrom())) {
-                /*
-                 * To maintain backwards compatibility with old EdgeRules API,
-                 * where the direction of the returned EdgeRule would be
-                 * flipped (if necessary) to match the directionality of
-                 * the input params.
-                 * ie, If the rule is from=A,to=B,direction=OUT,
-                 * if the user asked (A,B) the direction would be OUT,
-                 * if they asked (B,A), it would be IN to match.
-                 */
-                rule.flipDirection();
+            if (found != null && !found.getKey().equals(indexed.getKey())) {
+                multiplePairs = true;
+            }
+            found = indexed;
+            foundCount++;
+            if (indexed.isDefault()) {
+                defaultCount++;
+                defRule = indexed;
             }
-            return rule;
         }
-    }
 
-    private EdgeRule getDefaultRule(Multimap<String, EdgeRule> found) throws AmbiguousRuleChoiceException {
-        if (found.keySet().size() > 1) { // ie multiple node pairs (a|c and b|c not just all a|c) case
-            StringBuilder sb = new StringBuilder();
-            for (String k : found.keySet()) {
-                sb.append(k).append(" ");
-            }
-            throw new AmbiguousRuleChoiceException(
-                    "No way to select single rule from these pairs: " + sb.toString() + ".");
+        if (found == null) {
+            throw new EdgeRuleNotFoundException("No rule found for " + q.toString() + ".");
         }
 
-        int defaultCount = 0;
-        EdgeRule defRule = null;
-        for (Entry<String, EdgeRule> e : found.entries()) {
-            EdgeRule rule = e.getValue();
-            if (rule.isDefault()) {
-                defaultCount++;
-                defRule = rule;
+        if (foundCount > 1) { // more than one found, the default rule is the one to use
+            if (multiplePairs) { // ie multiple node pairs (a|c and b|c not just all a|c) case
+                Set<String> pairs = new LinkedHashSet<>();
+                candidates.stream().filter(q::matches).forEach(indexed -> pairs.add(indexed.getKey()));
+                StringBuilder sb = new StringBuilder();
+                for (String k : pairs) {
+                    sb.append(k).append(" ");
+                }
+                throw new AmbiguousRuleChoiceException(
+                        "No way to select single rule from these pairs: " + sb.toString() + ".");
+            } else if (defaultCount > 1) {
+                throw new AmbiguousRuleChoiceException("Multiple defaults found.");
+            } else if (defaultCount == 0) {
+                throw new AmbiguousRuleChoiceException("No default found.");
             }
-        }
-        if (defaultCount > 1) {
-            throw new AmbiguousRuleChoiceException("Multiple defaults found.");
-        } else if (defaultCount == 0) {
-            throw new AmbiguousRuleChoiceException("No default found.");
+            found = defRule;
         }
 
-        return defRule;
+        // the returned rule is oriented to match the directionality of the input params
+        return found.getRule(q.getFromType());
     }
 
     /**
@@ -363,12 +312,12 @@ public class EdgeIngestor {
      * @return boolean
      */
     public boolean hasRule(EdgeRuleQuery q) {
-        Optional<SchemaVersion> versionOpt = q.getVersion();
-        if (versionOpt.isPresent()) {
-            return !extractRules(q.getFilter(), versionOpt.get()).isEmpty();
-        } else {
-            return !extractRules(q.getFilter(), schemaVersions.getDefaultVersion()).isEmpty();
+        for (IndexedEdgeRule indexed : getRuleIndex(q).getRules(q.getIndexedNodeType())) {
+            if (q.matches(indexed)) {
+                return true;
+            }
         }
+        return false;
     }
 
     /**
@@ -416,7 +365,8 @@ public class EdgeIngestor {
      *         rules for a pair of node types but the from/to value in the json is flipped for some of them.
      */
     public Multimap<String, EdgeRule> getCousinRules(String nodeType, SchemaVersion v) {
-        return extractRules(new EdgeRuleQuery.Builder(nodeType).edgeType(EdgeType.COUSIN).build().getFilter(), v);
+        EdgeRuleQuery q = new EdgeRuleQuery.Builder(nodeType).edgeType(EdgeType.COUSIN).build();
+        return findRules(nodeType, v, q::matches);
     }
 
     /**
@@ -470,13 +420,9 @@ public class EdgeIngestor {
      *         rules for a pair of node types but the from/to value in the json is flipped for some of them.
      */
     public Multimap<String, EdgeRule> getChildRules(String nodeType, SchemaVersion v) {
-        Filter from = assembleFilterSegments(where(EdgeField.FROM.toString()).is(nodeType),
-                getSameDirectionContainmentCriteria());
-        Filter to = assembleFilterSegments(where(EdgeField.TO.toString()).is(nodeType),
-                getOppositeDirectionContainmentCriteria());
-        Filter total = from.or(to);
-
-        return extractRules(total, v);
+        return findRules(nodeType, v,
+                rule -> (nodeType.equals(rule.getFrom()) && rule.isContainmentInDirection())
+                        || (nodeType.equals(rule.getTo()) && rule.isContainmentAgainstDirection()));
     }
 
     /**
@@ -532,13 +478,9 @@ public class EdgeIngestor {
      *         rules for a pair of node types but the from/to value in the json is flipped for some of them.
      */
     public Multimap<String, EdgeRule> getParentRules(String nodeType, SchemaVersion v) {
-        Filter from = assembleFilterSegments(where(EdgeField.FROM.toString()).is(nodeType),
-                getOppositeDirectionContainmentCriteria());
-        Filter to = assembleFilterSegments(where(EdgeField.TO.toString()).is(nodeType),
-                getSameDirectionContainmentCriteria());
-        Filter total = from.or(to);
-
-        return extractRules(total, v);
+        return findRules(nodeType, v,
+                rule -> (nodeType.equals(rule.getFrom()) && rule.isContainmentAgainstDirection())
+                        || (nodeType.equals(rule.getTo()) && rule.isContainmentInDirection()));
     }
 
     /**
@@ -564,31 +506,46 @@ public class EdgeIngestor {
     }
 
     /**
-     * Applies the given filter to the DocumentContext(s) for the given version to extract
-     * edge rules, and converts this extracted information into the Multimap form
+     * Collects the rules of the given node type in the given version that satisfy the given condition.
      *
-     * @param filter - JsonPath filter to read the DocumentContexts with. May be null
-     *        to denote no filter, ie get all.
+     * @param nodeType - node type on either side of the rules
      * @param v - The schema version to extract from
+     * @param condition - condition on the indexed rule
      * @return Multimap<String, EdgeRule> of node names keys to the EdgeRules where the key takes the form of
      *         {alphabetically first nodetype}|{alphabetically second nodetype}. Map will be empty if
      *         no rules are found.
-     *         ex: buildAlphabetizedKey("l-interface", "logical-link") -> "l-interface|logical-link"
-     *         buildAlphabetizedKey("logical-link", "l-interface") -> "l-interface|logical-link"
-     *
-     *         This is alphabetical order to normalize the keys, as sometimes there will be multiple
-     *         rules for a pair of node types but the from/to value in the json is flipped for some of them.
      */
-    private Multimap<String, EdgeRule> extractRules(Filter filter, SchemaVersion v) {
-        SchemaFilter schemaFilter = new SchemaFilter(filter, v);
-        try {
-            return cacheFilterStore.get(schemaFilter);
-        } catch (ExecutionException e) {
-            LOGGER.info("Encountered exception during the retrieval of the rules");
-            return ArrayListMultimap.create();
+    private Multimap<String, EdgeRule> findRules(String nodeType, SchemaVersion v,
+            Predicate<IndexedEdgeRule> condition) {
+        Multimap<String, EdgeRule> found = ArrayListMultimap.create();
+        for (IndexedEdgeRule indexed : getRuleIndex(v).getRules(nodeType)) {
+            if (condition.test(indexed)) {
+                found.put(indexed.getKey(), indexed.getRule());
+            }
         }
+        return found;
+    }
+
+    private EdgeRuleIndex getRuleIndex(EdgeRuleQuery q) {
+        Optional<SchemaVersion> versionOpt = q.getVersion();
+        return getRuleIndex(versionOpt.isPresent() ? versionOpt.get() : schemaVersions.getDefaultVersion());
     }
 
+    private EdgeRuleIndex getRuleIndex(SchemaVersion v) {
+        EdgeRuleIndex index = versionRuleIndexMap.get(v);
+        return index == null ? EdgeRuleIndex.EMPTY : index;
+    }
+
+    /**
+     * Applies the given filter to the DocumentContext(s) for the given version to extract
+     * edge rules, and converts this extracted information into the Multimap form
+     *
+     * @param schemaFilter - JsonPath filter and schema version to read the DocumentContexts with.
+     *        The filter may be null to denote no filter, ie get all.
+     * @return Multimap<String, EdgeRule> of node names keys to the EdgeRules where the key takes the form of
+     *         {alphabetically first nodetype}|{alphabetically second nodetype}. Map will be empty if
+     *         no rules are found.
+     */
     public Multimap<String, EdgeRule> extractRules(SchemaFilter schemaFilter) {
         List<Map<String, String>> foundRules = new ArrayList<>();
         List<DocumentContext> docs = versionJsonFilesMap.get(schemaFilter.getSchemaVersion());
@@ -605,77 +562,6 @@ public class EdgeIngestor {
         return convertToEdgeRules(foundRules);
     }
 
-    // -----filter building helpers-----//
-    /**
-     * ANDs together the given start criteria with each criteria in the pieces list, and
-     * then ORs together these segments into one filter.
-     *
-     * JsonPath doesn't have an OR method on Criteria, only on Filters, so assembling
-     * a complete filter requires this sort of roundabout construction.
-     *
-     * @param start - Criteria of the form where(from/to).is(nodeType)
-     *        (ie the start of any A&AI edge rule query)
-     * @param pieces - Other Criteria to be applied
-     * @return Filter constructed from the given Criteria
-     */
-    private Filter assembleFilterSegments(Criteria start, List<Criteria> pieces) {
-        List<Filter> segments = new ArrayList<>();
-        for (Criteria c : pieces) {
-            segments.add(filter(start).and(c));
-        }
-        Filter assembled = segments.remove(0);
-        for (Filter f : segments) {
-            assembled = assembled.or(f);
-        }
-        return assembled;
-    }
-
-    /**
-     * Builds the sub-Criteria for a containment edge rule query where the direction
-     * and containment fields must match.
-     *
-     * Used for getChildRules() where the container node type is in the "from" position and
-     * for getParentRules() where the containee type is in the "to" position.
-     *
-     * @return List<Criteria> covering property permutations defined with either notation or explicit direction
-     */
-    private List<Criteria> getSameDirectionContainmentCriteria() {
-        List<Criteria> crits = new ArrayList<>();
-
-        crits.add(where(EdgeField.CONTAINS.toString()).is(DirectionNotation.DIRECTION.toString()));
-
-        crits.add(where(EdgeField.DIRECTION.toString()).is(Direction.OUT.toString()).and(EdgeField.CONTAINS.toString())
-                .is(Direction.OUT.toString()));
-
-        crits.add(where(EdgeField.DIRECTION.toString()).is(Direction.IN.toString()).and(EdgeField.CONTAINS.toString())
-                .is(Direction.IN.toString()));
-
-        return crits;
-    }
-
-    /**
-     * Builds the sub-Criteria for a containment edge rule query where the direction
-     * and containment fields must not match.
-     *
-     * Used for getChildRules() where the container node type is in the "to" position and
-     * for getParentRules() where the containee type is in the "from" position.
-     *
-     * @return List<Criteria> covering property permutations defined with either notation or explicit direction
-     */
-    private List<Criteria> getOppositeDirectionContainmentCriteria() {
-        List<Criteria> crits = new ArrayList<>();
-
-        crits.add(where(EdgeField.CONTAINS.toString()).is(DirectionNotation.OPPOSITE.toString()));
-
-        crits.add(where(EdgeField.DIRECTION.toString()).is(Direction.OUT.toString()).and(EdgeField.CONTAINS.toString())
-                .is(Direction.IN.toString()));
-
-        crits.add(where(EdgeField.DIRECTION.toString()).is(Direction.IN.toString()).and(EdgeField.CONTAINS.toString())
-                .is(Direction.OUT.toString()));
-
-        return crits;
-    }
-
     // -----rule packaging helpers-----//
     /**
      * Converts the raw output from reading the json file to the Multimap<String key, EdgeRule> format
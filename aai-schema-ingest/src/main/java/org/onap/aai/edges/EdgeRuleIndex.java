@@ -0,0 +1,87 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-18 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.edges;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.jayway.jsonpath.DocumentContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable index of the edge rules of one schema version, built once at ingest time.
+ * Rules are listed under both of their node types, in the order of the schema files.
+ */
+final class EdgeRuleIndex {
+    private static final String READ_ALL_START = "$.rules.*";
+
+    static final EdgeRuleIndex EMPTY = new EdgeRuleIndex(Collections.emptyList());
+
+    private final Map<String, List<IndexedEdgeRule>> rulesByNodeType;
+    private final ImmutableListMultimap<String, IndexedEdgeRule> allRules;
+
+    EdgeRuleIndex(List<DocumentContext> docs) {
+        TypeAlphabetizer alpher = new TypeAlphabetizer();
+        Map<String, List<IndexedEdgeRule>> byNodeType = new LinkedHashMap<>();
+        ImmutableListMultimap.Builder<String, IndexedEdgeRule> all = ImmutableListMultimap.builder();
+
+        for (DocumentContext doc : docs) {
+            List<Map<String, String>> rawRules = doc.read(READ_ALL_START);
+            for (Map<String, String> raw : rawRules) {
+                IndexedEdgeRule indexed = new IndexedEdgeRule(raw, alpher);
+                all.put(indexed.getKey(), indexed);
+                byNodeType.computeIfAbsent(indexed.getFrom(), k -> new ArrayList<>()).add(indexed);
+                if (!indexed.getFrom().equals(indexed.getTo())) {
+                    byNodeType.computeIfAbsent(indexed.getTo(), k -> new ArrayList<>()).add(indexed);
+                }
+            }
+        }
+
+        ImmutableMap.Builder<String, List<IndexedEdgeRule>> immutableByNodeType = ImmutableMap.builder();
+        byNodeType.forEach((nodeType, rules) -> immutableByNodeType.put(nodeType, ImmutableList.copyOf(rules)));
+        this.rulesByNodeType = immutableByNodeType.build();
+        this.allRules = all.build();
+    }
+
+    /**
+     * @param nodeType - the node type to look up
+     * @return the rules with the given node type on either side, empty if there are none
+     */
+    List<IndexedEdgeRule> getRules(String nodeType) {
+        List<IndexedEdgeRule> rules = rulesByNodeType.get(nodeType);
+        return rules == null ? Collections.emptyList() : rules;
+    }
+
+    /**
+     * @return copies of all rules of the version keyed by
+     *         {alphabetically first nodetype}|{alphabetically second nodetype}
+     */
+    ImmutableListMultimap<String, EdgeRule> getAllRules() {
+        ImmutableListMultimap.Builder<String, EdgeRule> copies = ImmutableListMultimap.builder();
+        allRules.forEach((key, indexed) -> copies.put(key, indexed.getRule()));
+        return copies.build();
+    }
+}
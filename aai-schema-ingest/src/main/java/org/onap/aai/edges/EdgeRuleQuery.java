@@ -162,31 +162,33 @@ public class EdgeRuleQuery {
         this.type = builder.getEdgeType();
         this.direction = builder.getDirection();
         this.isPrivate = builder.isPrivate();
+    }
 
+    private Filter buildFilter() {
         // will cover from A to B case
         List<Predicate> criteriaFromTo = new ArrayList<>();
         // Special logic to allow for A to B case only
-        if ((FROM_ONLY).equals(builder.getSecondNodeType())) {
-            criteriaFromTo.add(buildToFromPart(builder.getFirstNodeType(), null));
+        if ((FROM_ONLY).equals(nodeB)) {
+            criteriaFromTo.add(buildToFromPart(nodeA, null));
         } else {
-            criteriaFromTo.add(buildToFromPart(builder.getFirstNodeType(), builder.getSecondNodeType()));
+            criteriaFromTo.add(buildToFromPart(nodeA, nodeB));
         }
         // will cover from B to A case - must be separate bc jsonpath won't let me OR predicates >:C
         List<Predicate> criteriaToFrom = new ArrayList<>();
         // Special logic to allow for B to A case only
-        if ((TO_ONLY).equals(builder.getFirstNodeType())) {
-            criteriaToFrom.add(buildToFromPart(null, builder.getSecondNodeType()));
+        if ((TO_ONLY).equals(nodeA)) {
+            criteriaToFrom.add(buildToFromPart(null, nodeB));
         } else {
-            criteriaToFrom.add(buildToFromPart(builder.getSecondNodeType(), builder.getFirstNodeType()));
+            criteriaToFrom.add(buildToFromPart(nodeB, nodeA));
         }
-        if (builder.getLabel() != null) {
-            Predicate labelPred = addLabel(builder.getLabel());
+        if (label != null) {
+            Predicate labelPred = addLabel(label);
             criteriaFromTo.add(labelPred);
             criteriaToFrom.add(labelPred);
         }
 
-        if (builder.getEdgeType() != null && builder.getEdgeType() != EdgeType.ALL) {
-            Predicate typePred = addType(builder.getEdgeType());
+        if (type != null && type != EdgeType.ALL) {
+            Predicate typePred = addType(type);
             criteriaFromTo.add(typePred);
             criteriaToFrom.add(typePred);
         }
@@ -197,17 +199,17 @@ public class EdgeRuleQuery {
             criteriaToFrom.add(privatePredicate);
         }
 
-        if (builder.getDirection() != null) {
-            Predicate directionPred = addDirection(builder.getDirection());
+        if (direction != null) {
+            Predicate directionPred = addDirection(direction);
             criteriaFromTo.add(directionPred);
             criteriaToFrom.add(directionPred);
         }
-        if ((TO_ONLY).equals(builder.getFirstNodeType())) {
-            this.filter = Filter.filter(criteriaToFrom);
-        } else if ((FROM_ONLY).equals(builder.getSecondNodeType())) {
-            this.filter = Filter.filter(criteriaFromTo);
+        if ((TO_ONLY).equals(nodeA)) {
+            return Filter.filter(criteriaToFrom);
+        } else if ((FROM_ONLY).equals(nodeB)) {
+            return Filter.filter(criteriaFromTo);
         } else {
-            this.filter = Filter.filter(criteriaFromTo).or(Filter.filter(criteriaToFrom));
+            return Filter.filter(criteriaFromTo).or(Filter.filter(criteriaToFrom));
         }
     }
 
@@ -262,9 +264,75 @@ public class EdgeRuleQuery {
      * @return Filter
      */
     public Filter getFilter() {
+        if (this.filter == null) {
+            this.filter = buildFilter();
+        }
         return this.filter;
     }
 
+    /**
+     * Gets the node type every rule matching this query has on one of its sides,
+     * for looking up the candidate rules in the {@link EdgeRuleIndex}.
+     *
+     * @return String node type
+     */
+    String getIndexedNodeType() {
+        return (TO_ONLY).equals(nodeA) ? nodeB : nodeA;
+    }
+
+    /**
+     * Checks the given rule against the criteria of this query, the same way as the JsonPath filter.
+     *
+     * @param rule - the indexed rule
+     * @return boolean
+     */
+    boolean matches(IndexedEdgeRule rule) {
+        boolean nodesMatch;
+        if ((TO_ONLY).equals(nodeA)) {
+            nodesMatch = matchesToFromPart(null, nodeB, rule);
+        } else if ((FROM_ONLY).equals(nodeB)) {
+            nodesMatch = matchesToFromPart(nodeA, null, rule);
+        } else {
+            nodesMatch = matchesToFromPart(nodeA, nodeB, rule) || matchesToFromPart(nodeB, nodeA, rule);
+        }
+        if (!nodesMatch) {
+            return false;
+        }
+        if (label != null && !label.equals(rule.getLabel())) {
+            return false;
+        }
+        if (type == EdgeType.COUSIN && !AAIDirection.NONE.toString().equals(rule.getContains())) {
+            return false;
+        }
+        if (type == EdgeType.TREE && AAIDirection.NONE.toString().equals(rule.getContains())) {
+            return false;
+        }
+        if (isPrivate && !rule.isPrivate()) {
+            return false;
+        }
+        return direction == null || matchesDirection(rule.getDirection());
+    }
+
+    private boolean matchesToFromPart(String from, String to, IndexedEdgeRule rule) {
+        if (from == null && to == null) { // shouldn't ever happen though
+            throw new IllegalStateException("must have at least one node defined");
+        }
+        return (from == null || from.equals(rule.getFrom())) && (to == null || to.equals(rule.getTo()));
+    }
+
+    private boolean matchesDirection(String ruleDirection) {
+        if (direction == AAIDirection.OUT) {
+            return AAIDirection.OUT.toString().equals(ruleDirection)
+                    || AAIDirection.BOTH.toString().equals(ruleDirection);
+        } else if (direction == AAIDirection.IN) {
+            return AAIDirection.IN.toString().equals(ruleDirection)
+                    || AAIDirection.BOTH.toString().equals(ruleDirection);
+        } else if (direction == AAIDirection.BOTH) {
+            return AAIDirection.BOTH.toString().equals(ruleDirection);
+        }
+        return AAIDirection.NONE.toString().equals(ruleDirection);
+    }
+
     /**
      * Gets the first node type given for the query.
      *
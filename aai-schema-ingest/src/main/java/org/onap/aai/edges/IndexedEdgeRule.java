@@ -0,0 +1,140 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-18 AT&T Intellectual Property. All rights reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.aai.edges;
+
+import java.util.Map;
+
+import org.onap.aai.edges.enums.AAIDirection;
+import org.onap.aai.edges.enums.DirectionNotation;
+import org.onap.aai.edges.enums.EdgeField;
+
+/**
+ * An edge rule as held by the {@link EdgeRuleIndex}: the raw field values from the json,
+ * which queries are matched against, along with the converted EdgeRule in both orientations.
+ * EdgeRule can be changed by its callers, so only copies of the held rules are handed out.
+ */
+final class IndexedEdgeRule {
+    private final String from;
+    private final String to;
+    private final String label;
+    private final String direction;
+    private final String contains;
+    private final String isPrivate;
+    private final String key;
+    private final EdgeRule rule;
+    private final EdgeRule flippedRule;
+
+    IndexedEdgeRule(Map<String, String> raw, TypeAlphabetizer alpher) {
+        this.from = raw.get(EdgeField.FROM.toString());
+        this.to = raw.get(EdgeField.TO.toString());
+        this.label = raw.get(EdgeField.LABEL.toString());
+        this.direction = raw.get(EdgeField.DIRECTION.toString());
+        this.contains = raw.get(EdgeField.CONTAINS.toString());
+        this.isPrivate = raw.get(EdgeField.PRIVATE.toString());
+        this.key = alpher.buildAlphabetizedKey(from, to);
+
+        EdgeRule converted = new EdgeRule(raw);
+        if (converted.getFrom().equals(converted.getTo())) {
+            /*
+             * same-node-type parent child edges are flipped as all
+             * of the calling code passes the parent as the left argument
+             */
+            converted.flipDirection();
+        }
+        this.rule = converted;
+        this.flippedRule = new EdgeRule(converted);
+        this.flippedRule.flipDirection();
+    }
+
+    String getFrom() {
+        return from;
+    }
+
+    String getTo() {
+        return to;
+    }
+
+    String getLabel() {
+        return label;
+    }
+
+    String getDirection() {
+        return direction;
+    }
+
+    String getContains() {
+        return contains;
+    }
+
+    boolean isPrivate() {
+        return "true".equals(isPrivate);
+    }
+
+    /**
+     * @return the {alphabetically first nodetype}|{alphabetically second nodetype} key of the rule
+     */
+    String getKey() {
+        return key;
+    }
+
+    boolean isDefault() {
+        return rule.isDefault();
+    }
+
+    /**
+     * @return a copy of the rule as defined in the schema
+     */
+    EdgeRule getRule() {
+        return new EdgeRule(rule);
+    }
+
+    /**
+     * Returns the rule with its direction matching the given first node type, to maintain
+     * backwards compatibility with the old EdgeRules API.
+     * ie, If the rule is from=A,to=B,direction=OUT,
+     * if the user asked (A,B) the direction would be OUT,
+     * if they asked (B,A), it would be IN to match.
+     *
+     * @param fromType - first node type of the query
+     * @return a copy of the EdgeRule oriented for the query
+     */
+    EdgeRule getRule(String fromType) {
+        return new EdgeRule(fromType.equals(rule.getFrom()) ? rule : flippedRule);
+    }
+
+    /**
+     * @return true if this is a containment rule where the direction and containment fields match
+     */
+    boolean isContainmentInDirection() {
+        return DirectionNotation.DIRECTION.toString().equals(contains)
+                || (AAIDirection.OUT.toString().equals(direction) && AAIDirection.OUT.toString().equals(contains))
+                || (AAIDirection.IN.toString().equals(direction) && AAIDirection.IN.toString().equals(contains));
+    }
+
+    /**
+     * @return true if this is a containment rule where the direction and containment fields do not match
+     */
+    boolean isContainmentAgainstDirection() {
+        return DirectionNotation.OPPOSITE.toString().equals(contains)
+                || (AAIDirection.OUT.toString().equals(direction) && AAIDirection.IN.toString().equals(contains))
+                || (AAIDirection.IN.toString().equals(direction) && AAIDirection.OUT.toString().equals(contains));
+    }
+}
@@ -236,6 +236,40 @@ public class EdgeIngestorTest {
         assertTrue("org.onap.relationships.inventory.Source".equals(res.getLabel()));
     }
 
+    @Test
+    public void getRuleIsPreorientedTest() throws EdgeRuleNotFoundException, AmbiguousRuleChoiceException {
+        EdgeRuleQuery q = new EdgeRuleQuery.Builder("l-interface", "logical-link")
+                .label("org.onap.relationships.inventory.Source").version(new SchemaVersion("v11")).build();
+        EdgeRuleQuery flipped = new EdgeRuleQuery.Builder("logical-link", "l-interface")
+                .label("org.onap.relationships.inventory.Source").version(new SchemaVersion("v11")).build();
+        EdgeRule res = edgeIngestor.getRule(q);
+        EdgeRule flippedRes = edgeIngestor.getRule(flipped);
+
+        assertEquals(res.getLabel(), flippedRes.getLabel());
+        assertEquals(res.getDirection().opposite(), flippedRes.getDirection());
+    }
+
+    @Test
+    public void changesToAReturnedRuleAreNotSeenByLaterCalls()
+            throws EdgeRuleNotFoundException, AmbiguousRuleChoiceException {
+        EdgeRuleQuery q = new EdgeRuleQuery.Builder("l-interface", "logical-link")
+                .label("org.onap.relationships.inventory.Source").version(new SchemaVersion("v11")).build();
+        EdgeRule res = edgeIngestor.getRule(q);
+        Direction direction = res.getDirection();
+        boolean isPrivate = res.isPrivateEdge();
+
+        res.flipDirection();
+        res.setPrivateEdge(!isPrivate);
+        edgeIngestor.getRules(q).values().forEach(EdgeRule::flipDirection);
+        edgeIngestor.getAllRules(new SchemaVersion("v11")).values().forEach(EdgeRule::flipDirection);
+
+        EdgeRule again = edgeIngestor.getRule(q);
+        assertNotSame(res, again);
+        assertEquals(direction, again.getDirection());
+        assertEquals(isPrivate, again.isPrivateEdge());
+        assertEquals(direction, edgeIngestor.getRules(q).values().iterator().next().getDirection());
+    }
+
     @Test
     public void getRuleNoneFoundTest() throws EdgeRuleNotFoundException, AmbiguousRuleChoiceException {
         thrown.expect(EdgeRuleNotFoundException.class);